@@ -19,12 +19,10 @@ package org.jclouds.cloudstack.compute.extensions;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Iterables.find;
-import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_IMAGE_AVAILABLE;
 import static org.jclouds.location.predicates.LocationPredicates.idEquals;
 
 import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Resource;
@@ -32,7 +30,6 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
-import org.jclouds.Constants;
 import org.jclouds.cloudstack.CloudStackApi;
 import org.jclouds.cloudstack.domain.AsyncCreateResponse;
 import org.jclouds.cloudstack.domain.Template;
@@ -50,6 +47,7 @@ import org.jclouds.compute.domain.ImageTemplate;
 import org.jclouds.compute.domain.ImageTemplateBuilder;
 import org.jclouds.compute.domain.OperatingSystem;
 import org.jclouds.compute.extensions.ImageExtension;
+import org.jclouds.compute.functions.PollImageAvailable;
 import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.domain.Location;
 import org.jclouds.logging.Logger;
@@ -59,8 +57,6 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.Atomics;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.UncheckedTimeoutException;
 
 /**
  * CloudStack implementation of {@link ImageExtension}
@@ -73,23 +69,20 @@ public class CloudStackImageExtension implements ImageExtension {
    protected Logger logger = Logger.NULL;
 
    private final CloudStackApi client;
-   private final ListeningExecutorService userExecutor;
    private final Supplier<Set<? extends Location>> locations;
-   private final Predicate<AtomicReference<Image>> imageAvailablePredicate;
+   private final PollImageAvailable pollImageAvailable;
    private final BlockUntilJobCompletesAndReturnResult blockUntilJobCompletesAndReturnResult;
    private final Predicate<String> jobComplete;
 
    @Inject
    public CloudStackImageExtension(CloudStackApi client,
-                                   @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor,
                                    @Memoized Supplier<Set<? extends Location>> locations,
-                                   @Named(TIMEOUT_IMAGE_AVAILABLE) Predicate<AtomicReference<Image>> imageAvailablePredicate,
+                                   PollImageAvailable pollImageAvailable,
                                    BlockUntilJobCompletesAndReturnResult blockUntilJobCompletesAndReturnResult,
                                    Predicate<String> jobComplete) {
       this.client = checkNotNull(client, "client");
-      this.userExecutor = checkNotNull(userExecutor, "userExecutor");
       this.locations = checkNotNull(locations, "locations");
-      this.imageAvailablePredicate = checkNotNull(imageAvailablePredicate, "imageAvailablePredicate");
+      this.pollImageAvailable = checkNotNull(pollImageAvailable, "pollImageAvailable");
       this.blockUntilJobCompletesAndReturnResult = checkNotNull(blockUntilJobCompletesAndReturnResult,
                                                                 "blockUntilJobCompletesAndReturnResult");
       this.jobComplete = checkNotNull(jobComplete, "jobComplete");
@@ -135,15 +128,7 @@ public class CloudStackImageExtension implements ImageExtension {
                                                                 .operatingSystem(OperatingSystem.builder().description(cloneTemplate.getName()).build())
                                                                 .status(Image.Status.PENDING).build());
 
-      return userExecutor.submit(new Callable<Image>() {
-         @Override
-         public Image call() throws Exception {
-            if (imageAvailablePredicate.apply(image))
-               return image.get();
-            // TODO: get rid of the expectation that the image will be available, as it is very brittle
-            throw new UncheckedTimeoutException("Image was not created within the time limit: " + image.get());
-         }
-      });
+      return pollImageAvailable.apply(image);
    }
 
    @Override
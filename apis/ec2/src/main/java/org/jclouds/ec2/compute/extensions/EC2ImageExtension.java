@@ -20,19 +20,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Iterables.find;
 import static com.google.common.collect.Iterables.getOnlyElement;
-import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_IMAGE_AVAILABLE;
 import static org.jclouds.location.predicates.LocationPredicates.idEquals;
 
 import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.jclouds.Constants;
 import org.jclouds.aws.util.AWSUtils;
 import org.jclouds.collect.Memoized;
 import org.jclouds.compute.domain.CloneImageTemplate;
@@ -42,6 +39,7 @@ import org.jclouds.compute.domain.ImageTemplate;
 import org.jclouds.compute.domain.ImageTemplateBuilder;
 import org.jclouds.compute.domain.OperatingSystem;
 import org.jclouds.compute.extensions.ImageExtension;
+import org.jclouds.compute.functions.PollImageAvailable;
 import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.domain.Location;
 import org.jclouds.ec2.EC2Api;
@@ -50,12 +48,9 @@ import org.jclouds.ec2.domain.RunningInstance;
 import org.jclouds.ec2.options.CreateImageOptions;
 import org.jclouds.logging.Logger;
 
-import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
 import com.google.common.util.concurrent.Atomics;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.UncheckedTimeoutException;
 
 /**
  * EC2 implementation of {@link ImageExtension} please note that {@link #createImage(ImageTemplate)}
@@ -67,18 +62,15 @@ public class EC2ImageExtension implements ImageExtension {
    @Named(ComputeServiceConstants.COMPUTE_LOGGER)
    protected Logger logger = Logger.NULL;
    private final EC2Api ec2Api;
-   private final ListeningExecutorService userExecutor;
    private final Supplier<Set<? extends Location>> locations;
-   private final Predicate<AtomicReference<Image>> imageAvailablePredicate;
+   private final PollImageAvailable pollImageAvailable;
    
    @Inject
-   public EC2ImageExtension(EC2Api ec2Api, @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor,
-         @Memoized Supplier<Set<? extends Location>> locations,
-         @Named(TIMEOUT_IMAGE_AVAILABLE) Predicate<AtomicReference<Image>> imageAvailablePredicate) {
+   public EC2ImageExtension(EC2Api ec2Api, @Memoized Supplier<Set<? extends Location>> locations,
+         PollImageAvailable pollImageAvailable) {
       this.ec2Api = checkNotNull(ec2Api, "ec2Api");
-      this.userExecutor = checkNotNull(userExecutor, "userExecutor");
       this.locations = checkNotNull(locations, "locations");
-      this.imageAvailablePredicate = checkNotNull(imageAvailablePredicate, "imageAvailablePredicate");
+      this.pollImageAvailable = checkNotNull(pollImageAvailable, "pollImageAvailable");
    }
 
    @Override
@@ -113,15 +105,7 @@ public class EC2ImageExtension implements ImageExtension {
             .operatingSystem(OperatingSystem.builder().description(cloneTemplate.getName()).build())
             .status(Image.Status.PENDING).build());
       
-      return userExecutor.submit(new Callable<Image>() {
-         @Override
-         public Image call() throws Exception {
-            if (imageAvailablePredicate.apply(image))
-               return image.get();
-            // TODO: get rid of the expectation that the image will be available, as it is very brittle
-            throw new UncheckedTimeoutException("Image was not created within the time limit: " + image.get());
-         }
-      });
+      return pollImageAvailable.apply(image);
    }
 
    @Override
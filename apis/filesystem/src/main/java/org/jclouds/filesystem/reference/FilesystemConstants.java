@@ -27,6 +27,14 @@ public final class FilesystemConstants {
     /** Specify if the Content-Type of a file should be autodetected if it is not set */
     public static final String PROPERTY_AUTO_DETECT_CONTENT_TYPE = "jclouds.filesystem.auto-detect-content-type";
 
+    /**
+     * Specify if blob metadata should be kept in a per-container index next to the container directory, so that HEAD
+     * and LIST do not read extended attributes or hash files. Entries are checked against the size and modification
+     * time of their file, so blobs removed or rewritten behind the provider's back are noticed, but extended
+     * attributes changed in place are not: only enable it when nothing but this provider writes to the base directory.
+     */
+    public static final String PROPERTY_METADATA_INDEX = "jclouds.filesystem.metadata-index";
+
     private FilesystemConstants() {
         throw new AssertionError("intentionally unimplemented");
     }
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.filesystem.strategy.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+
+/**
+ * A {@link ByteSource} over a region of a file that moves bytes with {@link FileChannel}s instead of going through
+ * heap arrays where it can: copies to another file or to a {@link FileOutputStream} use
+ * {@link FileChannel#transferTo}, and slices and hashing use positional reads.
+ */
+final class FileByteSource extends ByteSource {
+
+   private static final int BUFFER_SIZE = 64 * 1024;
+
+   private final File file;
+   private final long offset;
+   /** Length of the region, or -1 for everything after {@code offset}. */
+   private final long length;
+
+   FileByteSource(File file) {
+      this(file, 0, -1);
+   }
+
+   private FileByteSource(File file, long offset, long length) {
+      this.file = checkNotNull(file, "file");
+      this.offset = offset;
+      this.length = length;
+   }
+
+   @Override
+   public InputStream openStream() throws IOException {
+      FileInputStream in = new FileInputStream(file);
+      if (offset == 0 && length < 0) {
+         // callers check for FileInputStream to avoid buffering whole files
+         return in;
+      }
+      try {
+         in.getChannel().position(offset);
+      } catch (IOException e) {
+         in.close();
+         throw e;
+      }
+      return length < 0 ? in : ByteStreams.limit(in, length);
+   }
+
+   @Override
+   public long size() throws IOException {
+      if (!file.isFile()) {
+         throw new FileNotFoundException(file.toString());
+      }
+      long available = Math.max(0, file.length() - offset);
+      return length < 0 ? available : Math.min(length, available);
+   }
+
+   @Override
+   public ByteSource slice(long sliceOffset, long sliceLength) {
+      checkArgument(sliceOffset >= 0, "offset (%s) may not be negative", sliceOffset);
+      checkArgument(sliceLength >= 0, "length (%s) may not be negative", sliceLength);
+      long newLength = length < 0 ? sliceLength : Math.max(0, Math.min(sliceLength, length - sliceOffset));
+      return new FileByteSource(file, offset + sliceOffset, newLength);
+   }
+
+   @Override
+   public long copyTo(OutputStream output) throws IOException {
+      if (!(output instanceof FileOutputStream)) {
+         return super.copyTo(output);
+      }
+      try (FileChannel in = openChannel()) {
+         return transferTo(in, ((FileOutputStream) output).getChannel());
+      }
+   }
+
+   /**
+    * Writes this region to {@code target}, replacing its content, without copying it through the Java heap.
+    *
+    * @return the number of bytes written
+    */
+   long copyTo(Path target) throws IOException {
+      try (FileChannel in = openChannel();
+            FileChannel out = FileChannel.open(target, CREATE, WRITE, TRUNCATE_EXISTING)) {
+         return transferTo(in, out);
+      }
+   }
+
+   @Override
+   public HashCode hash(HashFunction hashFunction) throws IOException {
+      Hasher hasher = hashFunction.newHasher();
+      try (FileChannel in = openChannel()) {
+         ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+         long position = offset;
+         long end = end(in);
+         while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(BUFFER_SIZE, end - position));
+            int read = in.read(buffer, position);
+            if (read < 0) {
+               break;
+            }
+            hasher.putBytes(buffer.array(), 0, read);
+            position += read;
+         }
+      }
+      return hasher.hash();
+   }
+
+   private long transferTo(FileChannel in, WritableByteChannel out) throws IOException {
+      long position = offset;
+      long end = end(in);
+      while (position < end) {
+         long transferred = in.transferTo(position, end - position, out);
+         if (transferred <= 0) {
+            break;
+         }
+         position += transferred;
+      }
+      return position - offset;
+   }
+
+   /** Opens the file for reading, failing with {@link FileNotFoundException} like {@link #openStream} does. */
+   private FileChannel openChannel() throws FileNotFoundException {
+      return new FileInputStream(file).getChannel();
+   }
+
+   private long end(FileChannel in) throws IOException {
+      long size = in.size();
+      return length < 0 ? size : Math.min(size, offset + length);
+   }
+
+   @Override
+   public String toString() {
+      return "FileByteSource(" + file + ", " + offset + ", " + length + ")";
+   }
+}
@@ -0,0 +1,425 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.filesystem.strategy.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.jclouds.util.Closeables2.closeQuietly;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+import org.jclouds.blobstore.domain.Tier;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.logging.Logger;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Persistent per-container index of blob metadata, so that {@link FilesystemStorageStrategyImpl} can answer HEAD and
+ * LIST requests without reading extended attributes or hashing file content.
+ * <p>
+ * Each container is backed by two files kept next to the container directory: a sorted table holding a compacted
+ * snapshot and an append-only log of the changes made since. Both use the same checksummed record format; a torn
+ * record at the end of the log, left behind by a crash, is discarded when the container is loaded. The log is folded
+ * into a new table, which replaces the old one with an atomic rename, once it grows larger than the table.
+ * <p>
+ * The index is a cache of what is stored in the tree: a missing entry only means the caller has to fall back to the
+ * file and its extended attributes, and an index can always be dropped and repopulated from the tree. Callers check
+ * an entry against the size and modification time of its file before trusting it.
+ */
+final class FilesystemMetadataIndex {
+
+   private static final byte PUT = 1;
+   private static final byte REMOVE = 2;
+   private static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+   private static final int MIN_COMPACTION_RECORDS = 1024;
+
+   /** Blob metadata as recorded in the index. */
+   static final class Entry {
+      final long size;
+      final long lastModified;
+      /** Raw value of the content-md5 attribute, either an MD5 digest or a quoted multipart ETag. */
+      @Nullable final byte[] eTag;
+      @Nullable final String cacheControl;
+      @Nullable final String contentDisposition;
+      @Nullable final String contentEncoding;
+      @Nullable final String contentLanguage;
+      @Nullable final String contentType;
+      @Nullable final Date expires;
+      final Tier tier;
+      final Map<String, String> userMetadata;
+
+      Entry(long size, long lastModified, @Nullable byte[] eTag, @Nullable String cacheControl,
+            @Nullable String contentDisposition, @Nullable String contentEncoding, @Nullable String contentLanguage,
+            @Nullable String contentType, @Nullable Date expires, Tier tier, Map<String, String> userMetadata) {
+         this.size = size;
+         this.lastModified = lastModified;
+         this.eTag = eTag;
+         this.cacheControl = cacheControl;
+         this.contentDisposition = contentDisposition;
+         this.contentEncoding = contentEncoding;
+         this.contentLanguage = contentLanguage;
+         this.contentType = contentType;
+         this.expires = expires;
+         this.tier = checkNotNull(tier, "tier");
+         this.userMetadata = ImmutableMap.copyOf(checkNotNull(userMetadata, "userMetadata"));
+      }
+
+      private void writeTo(DataOutput out) throws IOException {
+         out.writeLong(size);
+         out.writeLong(lastModified);
+         writeBytes(out, eTag);
+         writeString(out, cacheControl);
+         writeString(out, contentDisposition);
+         writeString(out, contentEncoding);
+         writeString(out, contentLanguage);
+         writeString(out, contentType);
+         out.writeLong(expires == null ? Long.MIN_VALUE : expires.getTime());
+         writeString(out, tier.name());
+         out.writeInt(userMetadata.size());
+         for (Map.Entry<String, String> entry : userMetadata.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+         }
+      }
+
+      private static Entry readFrom(DataInput in) throws IOException {
+         long size = in.readLong();
+         long lastModified = in.readLong();
+         byte[] eTag = readBytes(in);
+         String cacheControl = readString(in);
+         String contentDisposition = readString(in);
+         String contentEncoding = readString(in);
+         String contentLanguage = readString(in);
+         String contentType = readString(in);
+         long expires = in.readLong();
+         Tier tier = Tier.valueOf(readString(in));
+         int userMetadataSize = in.readInt();
+         ImmutableMap.Builder<String, String> userMetadata = ImmutableMap.builder();
+         for (int i = 0; i < userMetadataSize; i++) {
+            userMetadata.put(readString(in), readString(in));
+         }
+         return new Entry(size, lastModified, eTag, cacheControl, contentDisposition, contentEncoding,
+               contentLanguage, contentType, expires == Long.MIN_VALUE ? null : new Date(expires), tier,
+               userMetadata.build());
+      }
+   }
+
+   private final File directory;
+   private final Logger logger;
+   private final ConcurrentMap<String, ContainerIndex> containers = Maps.newConcurrentMap();
+
+   /**
+    * @param directory
+    *           the directory holding the container directories; index files are named after their container and
+    *           start with a dot so they are never mistaken for containers
+    */
+   FilesystemMetadataIndex(File directory, Logger logger) {
+      this.directory = checkNotNull(directory, "directory");
+      this.logger = checkNotNull(logger, "logger");
+   }
+
+   @Nullable
+   Entry get(String container, String key) {
+      return load(container).entries.get(key);
+   }
+
+   void put(String container, String key, Entry entry) {
+      ContainerIndex index = load(container);
+      synchronized (index) {
+         index.entries.put(key, entry);
+         append(container, index, key, entry);
+      }
+   }
+
+   /**
+    * Records {@code entry} unless {@code key} already has one, so that repopulating an entry from the tree never
+    * replaces the one recorded by a concurrent write.
+    */
+   void putIfAbsent(String container, String key, Entry entry) {
+      ContainerIndex index = load(container);
+      synchronized (index) {
+         if (index.entries.putIfAbsent(key, entry) == null) {
+            append(container, index, key, entry);
+         }
+      }
+   }
+
+   void remove(String container, String key) {
+      ContainerIndex index = load(container);
+      synchronized (index) {
+         if (index.entries.remove(key) != null) {
+            append(container, index, key, null);
+         }
+      }
+   }
+
+   /**
+    * Forgets every entry whose key starts with {@code prefix}, or the whole container when {@code prefix} is empty.
+    */
+   void removeByPrefix(String container, String prefix) {
+      if (prefix.isEmpty()) {
+         delete(container);
+         return;
+      }
+      ContainerIndex index = load(container);
+      synchronized (index) {
+         for (String key : index.entries.subMap(prefix, prefix + Character.MAX_VALUE).keySet()) {
+            index.entries.remove(key);
+            append(container, index, key, null);
+            if (containers.get(container) != index) {
+               // appending failed and the index was dropped altogether
+               return;
+            }
+         }
+      }
+   }
+
+   /**
+    * Drops the in-memory and on-disk index of {@code container}. It is repopulated as blobs are read or written.
+    */
+   void delete(String container) {
+      ContainerIndex index = containers.remove(container);
+      if (index != null) {
+         synchronized (index) {
+            index.closeLog();
+         }
+      }
+      deleteQuietly(tableFile(container));
+      deleteQuietly(logFile(container));
+   }
+
+   private ContainerIndex load(String container) {
+      ContainerIndex index = containers.get(container);
+      if (index != null) {
+         return index;
+      }
+      synchronized (containers) {
+         index = containers.get(container);
+         if (index == null) {
+            index = new ContainerIndex();
+            try {
+               readRecords(tableFile(container), index);
+               index.logRecords = 0;
+               long validLength = readRecords(logFile(container), index);
+               truncate(logFile(container), validLength);
+            } catch (IOException e) {
+               logger.warn(e, "Discarding unreadable metadata index of container %s", container);
+               index = new ContainerIndex();
+               deleteQuietly(tableFile(container));
+               deleteQuietly(logFile(container));
+            }
+            containers.put(container, index);
+         }
+         return index;
+      }
+   }
+
+   /** Applies every intact record of {@code file} to {@code index} and returns the length of the intact part. */
+   private static long readRecords(File file, ContainerIndex index) throws IOException {
+      DataInputStream in;
+      try {
+         in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      } catch (FileNotFoundException e) {
+         return 0;
+      }
+      long validLength = 0;
+      try {
+         while (true) {
+            int length;
+            try {
+               length = in.readInt();
+            } catch (EOFException e) {
+               break;
+            }
+            if (length <= 0 || length > MAX_RECORD_LENGTH) {
+               break;
+            }
+            byte[] record = new byte[length];
+            try {
+               long checksum = in.readLong();
+               in.readFully(record);
+               if (checksum != checksum(record)) {
+                  break;
+               }
+            } catch (EOFException e) {
+               break;
+            }
+            DataInput recordIn = ByteStreams.newDataInput(record);
+            byte op = recordIn.readByte();
+            String key = readString(recordIn);
+            if (op == PUT) {
+               index.entries.put(key, Entry.readFrom(recordIn));
+            } else {
+               index.entries.remove(key);
+            }
+            index.logRecords++;
+            validLength += 4 + 8 + length;
+         }
+      } finally {
+         closeQuietly(in);
+      }
+      return validLength;
+   }
+
+   private void append(String container, ContainerIndex index, String key, @Nullable Entry entry) {
+      try {
+         if (index.log == null) {
+            index.log = new BufferedOutputStream(new FileOutputStream(logFile(container), true));
+         }
+         writeRecord(index.log, key, entry);
+         index.log.flush();
+         if (++index.logRecords > Math.max(MIN_COMPACTION_RECORDS, index.entries.size())) {
+            compact(container, index);
+         }
+      } catch (IOException e) {
+         // the in-memory state is now ahead of the files; drop both rather than serve stale metadata later
+         logger.warn(e, "Could not update metadata index of container %s", container);
+         delete(container);
+      }
+   }
+
+   private void compact(String container, ContainerIndex index) throws IOException {
+      File table = tableFile(container);
+      File tmp = new File(directory, table.getName() + ".tmp");
+      OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp));
+      try {
+         for (Map.Entry<String, Entry> entry : index.entries.entrySet()) {
+            writeRecord(out, entry.getKey(), entry.getValue());
+         }
+      } finally {
+         out.close();
+      }
+      Files.move(tmp.toPath(), table.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+      // replaying the old log over the new table is harmless, so a crash before this point loses nothing
+      index.closeLog();
+      truncate(logFile(container), 0);
+      index.logRecords = 0;
+   }
+
+   private static void writeRecord(OutputStream out, String key, @Nullable Entry entry) throws IOException {
+      ByteArrayDataOutput recordOut = ByteStreams.newDataOutput();
+      recordOut.writeByte(entry == null ? REMOVE : PUT);
+      writeString(recordOut, key);
+      if (entry != null) {
+         entry.writeTo(recordOut);
+      }
+      byte[] record = recordOut.toByteArray();
+      DataOutputStream dataOut = new DataOutputStream(out);
+      dataOut.writeInt(record.length);
+      dataOut.writeLong(checksum(record));
+      dataOut.write(record);
+   }
+
+   private static long checksum(byte[] record) {
+      CRC32 crc = new CRC32();
+      crc.update(record, 0, record.length);
+      return crc.getValue();
+   }
+
+   private static void truncate(File file, long length) throws IOException {
+      if (!file.exists() || file.length() == length) {
+         return;
+      }
+      RandomAccessFile raf = new RandomAccessFile(file, "rw");
+      try {
+         raf.setLength(length);
+      } finally {
+         raf.close();
+      }
+   }
+
+   private void deleteQuietly(File file) {
+      if (file.exists() && !file.delete()) {
+         logger.debug("Could not delete %s", file);
+      }
+   }
+
+   private File tableFile(String container) {
+      return new File(directory, "." + container + ".metadata-index");
+   }
+
+   private File logFile(String container) {
+      return new File(directory, "." + container + ".metadata-log");
+   }
+
+   private static void writeBytes(DataOutput out, @Nullable byte[] bytes) throws IOException {
+      if (bytes == null) {
+         out.writeInt(-1);
+      } else {
+         out.writeInt(bytes.length);
+         out.write(bytes);
+      }
+   }
+
+   @Nullable
+   private static byte[] readBytes(DataInput in) throws IOException {
+      int length = in.readInt();
+      if (length < 0) {
+         return null;
+      }
+      byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      return bytes;
+   }
+
+   private static void writeString(DataOutput out, @Nullable String value) throws IOException {
+      writeBytes(out, value == null ? null : value.getBytes(UTF_8));
+   }
+
+   @Nullable
+   private static String readString(DataInput in) throws IOException {
+      byte[] bytes = readBytes(in);
+      return bytes == null ? null : new String(bytes, UTF_8);
+   }
+
+   private static final class ContainerIndex {
+      final ConcurrentNavigableMap<String, Entry> entries = new ConcurrentSkipListMap<String, Entry>();
+      OutputStream log;
+      int logRecords;
+
+      void closeLog() {
+         closeQuietly(log);
+         log = null;
+      }
+   }
+}
@@ -48,9 +48,14 @@ import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
 import java.util.regex.Pattern;
@@ -83,6 +88,8 @@ import org.jclouds.filesystem.reference.FilesystemConstants;
 import org.jclouds.filesystem.util.Utils;
 import org.jclouds.io.ContentMetadata;
 import org.jclouds.io.Payload;
+import org.jclouds.io.payloads.FilePayload;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.logging.Logger;
 import org.jclouds.rest.AuthorizationException;
 import org.jclouds.rest.annotations.ParamValidators;
@@ -95,6 +102,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
+import com.google.common.collect.UnmodifiableIterator;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.Hashing;
 import com.google.common.hash.HashingInputStream;
@@ -133,11 +141,24 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
    protected final FilesystemContainerNameValidator filesystemContainerNameValidator;
    protected final FilesystemBlobKeyValidator filesystemBlobKeyValidator;
    private final Supplier<Location> defaultLocation;
+   private final boolean useMetadataIndex;
+   private volatile FilesystemMetadataIndex metadataIndex;
+
+   protected FilesystemStorageStrategyImpl(Provider<BlobBuilder> blobBuilders,
+         String baseDir,
+         boolean autoDetectContentType,
+         FilesystemContainerNameValidator filesystemContainerNameValidator,
+         FilesystemBlobKeyValidator filesystemBlobKeyValidator,
+         Supplier<Location> defaultLocation) {
+      this(blobBuilders, baseDir, autoDetectContentType, false, filesystemContainerNameValidator,
+            filesystemBlobKeyValidator, defaultLocation);
+   }
 
    @Inject
    protected FilesystemStorageStrategyImpl(Provider<BlobBuilder> blobBuilders,
          @Named(FilesystemConstants.PROPERTY_BASEDIR) String baseDir,
          @Named(FilesystemConstants.PROPERTY_AUTO_DETECT_CONTENT_TYPE) boolean autoDetectContentType,
+         @Named(FilesystemConstants.PROPERTY_METADATA_INDEX) boolean useMetadataIndex,
          FilesystemContainerNameValidator filesystemContainerNameValidator,
          FilesystemBlobKeyValidator filesystemBlobKeyValidator,
          Supplier<Location> defaultLocation) {
@@ -148,6 +169,7 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
             "filesystem container name validator");
       this.filesystemBlobKeyValidator = checkNotNull(filesystemBlobKeyValidator, "filesystem blob key validator");
       this.defaultLocation = defaultLocation;
+      this.useMetadataIndex = useMetadataIndex;
    }
 
    @Override
@@ -246,6 +268,10 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
          return;
       }
       deleteDirectory(container, null);
+      FilesystemMetadataIndex index = metadataIndex();
+      if (index != null) {
+         index.delete(container);
+      }
    }
 
    @Override
@@ -261,6 +287,11 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       String normalizedOptsPath = normalize(optsPrefix);
       String basePath = buildPathStartingFromBaseDir(container, normalizedOptsPath);
       filesystemBlobKeyValidator.validate(basePath);
+      FilesystemMetadataIndex index = metadataIndex();
+      if (index != null) {
+         // forgetting more than was deleted is harmless, entries are repopulated from the tree on the next read
+         index.removeByPrefix(container, optsPrefix);
+      }
       try {
          File object = new File(basePath);
          if (object.isFile()) {
@@ -325,6 +356,14 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
    public boolean blobExists(String container, String key) {
       filesystemContainerNameValidator.validate(container);
       filesystemBlobKeyValidator.validate(key);
+      FilesystemMetadataIndex index = metadataIndex();
+      if (index != null) {
+         FilesystemMetadataIndex.Entry entry = index.get(container, key);
+         boolean isDirectory = getDirectoryBlobSuffix(key) != null;
+         if (entry != null && isCurrent(entry, getFileForBlobKey(container, key), isDirectory)) {
+            return true;
+         }
+      }
       try {
          return buildPathAndChecksIfBlobExists(container, key);
       } catch (IOException e) {
@@ -362,11 +401,33 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       return blobNames;
    }
 
+   @Override
+   public KeyIterator getBlobKeysInsideContainer(String container, String prefix, String marker) throws IOException {
+      filesystemContainerNameValidator.validate(container);
+      // a missing container has no children to list
+      File containerFile = new File(buildPathStartingFromBaseDir(container));
+      return new SortedBlobKeyIterator(containerFile, prefix, marker);
+   }
+
    @Override
    public Blob getBlob(final String container, final String key) {
       BlobBuilder builder = blobBuilders.get();
       builder.name(key);
       File file = getFileForBlobKey(container, key);
+      FilesystemMetadataIndex index = metadataIndex();
+      if (index != null) {
+         FilesystemMetadataIndex.Entry entry = index.get(container, key);
+         if (entry != null) {
+            boolean isDirectory = getDirectoryBlobSuffix(key) != null;
+            if (isCurrent(entry, file, isDirectory)) {
+               return getBlobFromIndex(builder, container, file, isDirectory, entry);
+            }
+            index.remove(container, key);
+         }
+      }
+      // taken before reading the attributes, so that a blob replaced or removed meanwhile is not indexed
+      long lastModified = file.lastModified();
+      long length = file.length();
       ByteSource byteSource;
 
       if (getDirectoryBlobSuffix(key) != null) {
@@ -380,8 +441,9 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
          logger.debug("%s - %s is a directory", container, key);
          byteSource = ByteSource.empty();
       } else {
-         byteSource = Files.asByteSource(file);
+         byteSource = new FileByteSource(file);
       }
+      byte[] etagBytes = null;
       try {
          String cacheControl = null;
          String contentDisposition = null;
@@ -410,7 +472,7 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
                if (attributes.contains(XATTR_CONTENT_MD5)) {
                   ByteBuffer buf = ByteBuffer.allocate(view.size(XATTR_CONTENT_MD5));
                   view.read(XATTR_CONTENT_MD5, buf);
-                  byte [] etagBytes = buf.array();
+                  etagBytes = buf.array();
                   if (etagBytes.length == 16) {
                      // regular object
                      hashCode = HashCode.fromBytes(buf.array());
@@ -454,9 +516,10 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
                .tier(tier)
                .userMetadata(userMetadata.build());
          } else {
+            etagBytes = byteSource.hash(Hashing.md5()).asBytes();
             builder.payload(byteSource)
                .contentLength(byteSource.size())
-               .contentMD5(byteSource.hash(Hashing.md5()).asBytes());
+               .contentMD5(etagBytes);
          }
       } catch (FileNotFoundException fnfe) {
          return null;
@@ -469,9 +532,117 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       blob.getMetadata().setSize(file.length());
       if (blob.getPayload().getContentMetadata().getContentMD5() != null)
          blob.getMetadata().setETag(base16().lowerCase().encode(blob.getPayload().getContentMetadata().getContentMD5()));
+      if (index != null && lastModified != 0 && lastModified == file.lastModified() && length == file.length()) {
+         // an entry recorded meanwhile by putBlob describes a newer file than the one read here
+         index.putIfAbsent(container, key, newIndexEntry(blob, etagBytes, length, lastModified));
+      }
       return blob;
    }
 
+   /**
+    * Returns whether {@code entry} still describes {@code file}. The index is only a cache: the file may have been
+    * removed or rewritten by something other than this provider, or removed while a read was repopulating the entry.
+    */
+   private static boolean isCurrent(FilesystemMetadataIndex.Entry entry, File file, boolean isDirectory) {
+      if (isDirectory) {
+         // adding children changes the modification time of a directory but not its blob metadata
+         return file.isDirectory();
+      }
+      long lastModified = file.lastModified();
+      return lastModified != 0 && lastModified == entry.lastModified && file.length() == entry.size;
+   }
+
+   private Blob getBlobFromIndex(BlobBuilder builder, String container, File file, boolean isDirectory,
+         FilesystemMetadataIndex.Entry entry) {
+      HashCode hashCode = null;
+      String eTag = null;
+      if (entry.eTag != null) {
+         if (entry.eTag.length == 16) {
+            hashCode = HashCode.fromBytes(entry.eTag);
+            eTag = "\"" + hashCode + "\"";
+         } else {
+            eTag = new String(entry.eTag, US_ASCII);
+         }
+      }
+      String contentType = entry.contentType;
+      if (contentType == null && autoDetectContentType && !isDirectory) {
+         try {
+            contentType = probeContentType(file.toPath());
+         } catch (IOException e) {
+            logger.debug("Could not probe content type of %s: %s", file, e);
+         }
+      }
+      builder.payload(isDirectory ? ByteSource.empty() : new FileByteSource(file))
+         .cacheControl(entry.cacheControl)
+         .contentDisposition(entry.contentDisposition)
+         .contentEncoding(entry.contentEncoding)
+         .contentLanguage(entry.contentLanguage)
+         .contentLength(entry.size)
+         .contentMD5(hashCode)
+         .eTag(eTag)
+         .contentType(contentType)
+         .expires(entry.expires)
+         .tier(entry.tier)
+         .userMetadata(entry.userMetadata);
+      Blob blob = builder.build();
+      blob.getMetadata().setContainer(container);
+      blob.getMetadata().setLastModified(new Date(entry.lastModified));
+      blob.getMetadata().setSize(entry.size);
+      if (hashCode != null)
+         blob.getMetadata().setETag(base16().lowerCase().encode(hashCode.asBytes()));
+      return blob;
+   }
+
+   private static FilesystemMetadataIndex.Entry newIndexEntry(Blob blob, @Nullable byte[] eTag, long size,
+         long lastModified) {
+      ContentMetadata metadata = blob.getMetadata().getContentMetadata();
+      Tier tier = blob.getMetadata().getTier();
+      return new FilesystemMetadataIndex.Entry(size, lastModified, eTag, metadata.getCacheControl(),
+            metadata.getContentDisposition(), metadata.getContentEncoding(), metadata.getContentLanguage(),
+            metadata.getContentType(), metadata.getExpires(), tier == null ? Tier.STANDARD : tier,
+            blob.getMetadata().getUserMetadata());
+   }
+
+   /**
+    * Returns the metadata index, or {@code null} when it is disabled. It is created on first use, once the logger has
+    * been injected.
+    */
+   @Nullable
+   private FilesystemMetadataIndex metadataIndex() {
+      if (!useMetadataIndex) {
+         return null;
+      }
+      FilesystemMetadataIndex index = metadataIndex;
+      if (index == null) {
+         synchronized (this) {
+            index = metadataIndex;
+            if (index == null) {
+               metadataIndex = index = new FilesystemMetadataIndex(new File(buildPathStartingFromBaseDir()), logger);
+            }
+         }
+      }
+      return index;
+   }
+
+   /**
+    * Discards the metadata index of a container and repopulates it from the blobs and extended attributes stored in
+    * the tree. Only needed when the base directory was modified by something other than this provider.
+    */
+   public void rebuildMetadataIndex(String container) throws IOException {
+      filesystemContainerNameValidator.validate(container);
+      FilesystemMetadataIndex index = metadataIndex();
+      if (index == null) {
+         return;
+      }
+      index.delete(container);
+      for (Iterator<String> keys = getBlobKeysInsideContainer(container, null, null); keys.hasNext();) {
+         String key = keys.next();
+         if (blobExists(container, key)) {
+            getBlob(container, key);
+         }
+      }
+   }
+
    private void writeCommonMetadataAttr(UserDefinedFileAttributeView view, Blob blob) throws IOException {
       ContentMetadata metadata = blob.getMetadata().getContentMetadata();
       writeStringAttributeIfPresent(view, XATTR_CACHE_CONTROL, metadata.getCacheControl());
@@ -516,6 +687,10 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       } else {
          logger.warn("xattr not supported on %s", blobKey);
       }
+      FilesystemMetadataIndex index = metadataIndex();
+      if (index != null) {
+         index.put(containerName, blobKey, newIndexEntry(blob, DIRECTORY_MD5, 0, outputFile.lastModified()));
+      }
 
       return base16().lowerCase().encode(DIRECTORY_MD5);
    }
@@ -541,13 +716,26 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       byte[] eTag = null;
       try {
          Files.createParentDirs(tmpFile);
-         if (isMpu) {
+         FileByteSource fileSource = getFileByteSource(payload);
+         long actualSize;
+         HashCode actualHashCode = null;
+         if (fileSource != null) {
+            // file to file copies stay in the kernel; hashing reads the copy back with positional reads
+            actualSize = fileSource.copyTo(tmpPath);
+            if (!isMpu) {
+               actualHashCode = new FileByteSource(tmpFile).hash(Hashing.md5());
+            }
+         } else if (isMpu) {
             inputStream = payload.openStream();
-            eTag = blob.getMetadata().getETag().getBytes();
+            actualSize = Files.asByteSink(tmpFile).writeFrom(inputStream);
          } else {
             inputStream = new HashingInputStream(Hashing.md5(), payload.openStream());
+            actualSize = Files.asByteSink(tmpFile).writeFrom(inputStream);
+            actualHashCode = ((HashingInputStream) inputStream).hash();
+         }
+         if (isMpu) {
+            eTag = blob.getMetadata().getETag().getBytes();
          }
-         long actualSize = Files.asByteSink(tmpFile).writeFrom(inputStream);
          Long expectedSize = blob.getMetadata().getContentMetadata().getContentLength();
          if (expectedSize != null && actualSize != expectedSize) {
             throw new IOException("Content-Length mismatch, actual: " + actualSize +
@@ -555,7 +743,6 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
          }
 
          if (!isMpu) {
-            HashCode actualHashCode = ((HashingInputStream) inputStream).hash();
             HashCode expectedHashCode = payload.getContentMetadata().getContentMD5AsHashCode();
             if (expectedHashCode != null && !actualHashCode.equals(expectedHashCode)) {
                throw new IOException("MD5 hash code mismatch, actual: " + actualHashCode +
@@ -581,10 +768,19 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
 
          setBlobAccess(containerName, tmpBlobName, BlobAccess.PRIVATE);
 
+         // forget the previous entry first, so that a crash before the new one is recorded leaves a miss rather
+         // than stale metadata
+         FilesystemMetadataIndex index = metadataIndex();
+         if (index != null) {
+            index.remove(containerName, blobKey);
+         }
          if (!tmpFile.renameTo(outputFile)) {
             throw new IOException("Could not rename file " + tmpFile + " to " + outputFile);
          }
          tmpFile = null;
+         if (index != null) {
+            index.put(containerName, blobKey, newIndexEntry(blob, eTag, actualSize, outputFile.lastModified()));
+         }
 
          return base16().lowerCase().encode(eTag);
       } finally {
@@ -602,6 +798,21 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       }
    }
 
+   /**
+    * Returns the file region behind a {@link FilePayload} or a payload read from this blobstore, or {@code null} if the
+    * payload is not backed by a file.
+    */
+   @Nullable
+   private static FileByteSource getFileByteSource(Payload payload) {
+      Object content = payload.getRawContent();
+      if (payload instanceof FilePayload) {
+         return new FileByteSource((File) content);
+      } else if (content instanceof FileByteSource) {
+         return (FileByteSource) content;
+      }
+      return null;
+   }
+
    @Override
    public void removeBlob(final String container, final String blobKey) {
       filesystemContainerNameValidator.validate(container);
@@ -609,6 +820,10 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       String fileName = buildPathStartingFromBaseDir(container, blobKey);
       logger.debug("Deleting blob %s", fileName);
       File fileToBeDeleted = new File(fileName);
+      FilesystemMetadataIndex index = metadataIndex();
+      if (index != null) {
+         index.remove(container, blobKey);
+      }
 
       if (fileToBeDeleted.isDirectory()) {
          try {
@@ -989,6 +1204,149 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       }
    }
 
+   /**
+    * Walks a container depth-first, visiting the children of each directory in the order of the keys they produce, so
+    * that keys come out in lexicographic order. Only the directories on the way to the next key are listed: subtrees
+    * that cannot contain a key after the marker or matching the prefix are skipped without being read. Directories are
+    * listed when their first child is needed, and seeking moves the marker and leaves the directories that end before
+    * it, so that skipping a directory right after its key is returned does not list it at all.
+    */
+   private static final class SortedBlobKeyIterator extends UnmodifiableIterator<String> implements KeyIterator {
+      private final String prefix;
+      private String marker;
+      private final Deque<Level> stack = new ArrayDeque<Level>();
+      private String next;
+
+      SortedBlobKeyIterator(File containerFile, @Nullable String prefix, @Nullable String marker) {
+         this.prefix = prefix;
+         this.marker = marker;
+         stack.push(new Level(containerFile, ""));
+      }
+
+      @Override
+      public boolean hasNext() {
+         if (next == null) {
+            next = computeNext();
+         }
+         return next != null;
+      }
+
+      @Override
+      public String next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         String result = next;
+         next = null;
+         return result;
+      }
+
+      @Override
+      public void seek(String marker) {
+         if (this.marker == null || marker.compareTo(this.marker) > 0) {
+            this.marker = marker;
+         }
+         if (next != null && !matches(next)) {
+            next = null;
+         }
+         while (!stack.isEmpty() && isBeforeMarker(stack.peek().key)) {
+            stack.pop();
+         }
+      }
+
+      private String computeNext() {
+         while (!stack.isEmpty()) {
+            Iterator<Entry> children = stack.peek().children();
+            if (!children.hasNext()) {
+               stack.pop();
+               continue;
+            }
+            Entry child = children.next();
+            if (!child.isDirectory) {
+               if (matches(child.key)) {
+                  return child.key;
+               }
+               continue;
+            }
+            // every key below this directory starts with child.key
+            if (prefix != null && !child.key.startsWith(prefix) && !prefix.startsWith(child.key)) {
+               continue;
+            }
+            if (isBeforeMarker(child.key)) {
+               continue;
+            }
+            stack.push(new Level(child.file, child.key));
+            if (matches(child.key)) {
+               return child.key;
+            }
+         }
+         return null;
+      }
+
+      private boolean matches(String key) {
+         return (prefix == null || key.startsWith(prefix)) && (marker == null || key.compareTo(marker) > 0);
+      }
+
+      /**
+       * @return true if every key below the directory with this key sorts before the marker, taking the keys of a
+       *         directory to sort before its key followed by {@code (char) 65535}, as in LocalBlobStore
+       */
+      private boolean isBeforeMarker(String directoryKey) {
+         return marker != null && (directoryKey + (char) 65535).compareTo(marker) <= 0;
+      }
+   }
+
+   private static final class Level {
+      private final File directory;
+      // the prefix shared by all keys below the directory
+      private final String key;
+      private Iterator<Entry> children;
+
+      Level(File directory, String key) {
+         this.directory = directory;
+         this.key = key;
+      }
+
+      Iterator<Entry> children() {
+         if (children == null) {
+            children = list(directory, key);
+         }
+         return children;
+      }
+
+      private static Iterator<Entry> list(File directory, String keyPrefix) {
+         File[] children = directory.listFiles();
+         if (children == null) {
+            return ImmutableSet.<Entry> of().iterator();
+         }
+         Entry[] entries = new Entry[children.length];
+         for (int i = 0; i < children.length; i++) {
+            entries[i] = new Entry(children[i], keyPrefix);
+         }
+         Arrays.sort(entries);
+         return Arrays.asList(entries).iterator();
+      }
+   }
+
+   private static final class Entry implements Comparable<Entry> {
+      private final File file;
+      private final boolean isDirectory;
+      // the key of a file, or the prefix shared by all keys below a directory
+      private final String key;
+
+      Entry(File file, String keyPrefix) {
+         this.file = file;
+         this.isDirectory = file.isDirectory();
+         // keys use / whatever the platform separator, as in getBlobKeysInsideContainer
+         this.key = denormalize(keyPrefix + file.getName()) + (isDirectory ? "/" : "");
+      }
+
+      @Override
+      public int compareTo(Entry that) {
+         return key.compareTo(that.key);
+      }
+   }
+
    /**
     * Creates a directory and returns the result
     *
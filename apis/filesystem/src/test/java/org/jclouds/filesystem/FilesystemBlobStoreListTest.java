@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.filesystem;
+
+import java.io.File;
+import java.util.Properties;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.config.LocalBlobStoreListTest;
+import org.jclouds.filesystem.reference.FilesystemConstants;
+import org.jclouds.filesystem.util.Utils;
+import org.jclouds.filesystem.utils.TestUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", singleThreaded = true, testName = "FilesystemBlobStoreListTest")
+public class FilesystemBlobStoreListTest extends LocalBlobStoreListTest {
+
+   @Override
+   protected BlobStoreContext createContext() {
+      Properties overrides = new Properties();
+      overrides.setProperty(FilesystemConstants.PROPERTY_BASEDIR, TestUtils.TARGET_BASE_DIR);
+      return ContextBuilder.newBuilder("filesystem").overrides(overrides).build(BlobStoreContext.class);
+   }
+
+   @Override
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() throws Exception {
+      try {
+         super.tearDown();
+      } finally {
+         Utils.deleteRecursively(new File(TestUtils.TARGET_BASE_DIR));
+      }
+   }
+}
@@ -39,6 +39,7 @@ import java.util.concurrent.TimeUnit;
 import javax.inject.Provider;
 
 import org.assertj.core.api.Fail;
+import org.jclouds.blobstore.LocalStorageStrategy.KeyIterator;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobBuilder;
 import org.jclouds.blobstore.domain.ContainerAccess;
@@ -60,6 +61,7 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
 import com.google.common.io.ByteSource;
 import com.google.common.io.Files;
 import com.google.common.util.concurrent.Uninterruptibles;
@@ -475,6 +477,28 @@ public class FilesystemStorageStrategyImplTest {
             "Files are not equal");
    }
 
+   public void testCopyBlobPayloadAndReadSlices() throws IOException {
+      String blobKey = TestUtils.createRandomBlobKey("writePayload-", ".img");
+      File sourceFile = TestUtils.getImageForBlobPayload();
+      Blob blob = storageStrategy.newBlob(blobKey);
+      blob.setPayload(new FilePayload(sourceFile));
+      String eTag = storageStrategy.putBlob(CONTAINER_NAME, blob);
+
+      // a payload read from the blobstore is copied file to file as well
+      Blob copy = storageStrategy.getBlob(CONTAINER_NAME, blobKey);
+      copy.getMetadata().setName(blobKey + "-copy");
+      assertEquals(storageStrategy.putBlob(CONTAINER_NAME, copy), eTag);
+
+      ByteSource expected = Files.asByteSource(sourceFile);
+      ByteSource actual = (ByteSource) storageStrategy.getBlob(CONTAINER_NAME, blobKey + "-copy").getPayload()
+            .getRawContent();
+      assertTrue(expected.contentEquals(actual), "Files are not equal");
+      assertTrue(expected.slice(10, 100).contentEquals(actual.slice(10, 100)));
+      assertTrue(expected.slice(10, 100).slice(5, 1000).contentEquals(actual.slice(10, 100).slice(5, 1000)));
+      assertEquals(actual.slice(10, 100).size(), 100);
+      assertEquals(actual.slice(10, 100).hash(Hashing.md5()), expected.slice(10, 100).hash(Hashing.md5()));
+   }
+
    public void testWritePayloadOnFileInputStream() throws IOException {
       String blobKey = TestUtils.createRandomBlobKey("writePayload-", ".img");
       File sourceFile = TestUtils.getImageForBlobPayload();
@@ -624,6 +648,40 @@ public class FilesystemStorageStrategyImplTest {
       }
    }
 
+   public void testGetBlobKeysInsideContainerSortedAfterMarker() throws IOException {
+      storageStrategy.createContainer(CONTAINER_NAME);
+      TestUtils.createBlobsInContainer(CONTAINER_NAME, new String[] { "0", "a.txt", "a/x", "a/b/y", "a-b/z", "b/q" });
+
+      assertEquals(Lists.newArrayList(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME, null, null)),
+            Lists.newArrayList("0", "a-b/", "a-b/z", "a.txt", "a/", "a/b/", "a/b/y", "a/x", "b/", "b/q"));
+      assertEquals(Lists.newArrayList(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME, "a/", null)),
+            Lists.newArrayList("a/", "a/b/", "a/b/y", "a/x"));
+      assertEquals(Lists.newArrayList(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME, null, "a/b/y")),
+            Lists.newArrayList("a/x", "b/", "b/q"));
+      assertEquals(Lists.newArrayList(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME, "a", "a.txt")),
+            Lists.newArrayList("a/", "a/b/", "a/b/y", "a/x"));
+   }
+
+   public void testSeekBlobKeysInsideContainer() throws IOException {
+      storageStrategy.createContainer(CONTAINER_NAME);
+      TestUtils.createBlobsInContainer(CONTAINER_NAME, new String[] { "0", "a.txt", "a/x", "a/b/y", "a-b/z", "b/q" });
+
+      KeyIterator keys = storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME, null, null);
+      assertEquals(keys.next(), "0");
+      assertEquals(keys.next(), "a-b/");
+      keys.seek("a-b/" + (char) 65535);
+      assertEquals(keys.next(), "a.txt");
+      assertEquals(keys.next(), "a/");
+      assertEquals(keys.next(), "a/b/");
+      keys.seek("a/" + (char) 65535);
+      assertEquals(Lists.newArrayList(keys), Lists.newArrayList("b/", "b/q"));
+
+      keys = storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME, "a/", null);
+      assertEquals(keys.next(), "a/");
+      keys.seek("a/b/y");
+      assertEquals(Lists.newArrayList(keys), Lists.newArrayList("a/x"));
+   }
+
    public void testCountsBlob() {
       storageStrategy.countBlobs(CONTAINER_NAME, ListContainerOptions.NONE);
    }
@@ -672,6 +730,73 @@ public class FilesystemStorageStrategyImplTest {
       assertFalse(blob.getMetadata().getUserMetadata().containsKey("key1"));
    }
 
+   @Test
+   public void testMetadataIndexSurvivesRestart() throws Exception {
+      String blobKey = TestUtils.createRandomBlobKey("indexed-", ".img");
+      Blob blob = new BlobBuilderImpl()
+            .name(blobKey)
+            .payload(randomByteSource().slice(0, 1024))
+            .contentType("application/x-indexed")
+            .userMetadata(ImmutableMap.of("key1", "value1"))
+            .build();
+      String eTag = newIndexedStorageStrategy().putBlob(CONTAINER_NAME, blob);
+      assertTrue(new File(TestUtils.TARGET_BASE_DIR, "." + CONTAINER_NAME + ".metadata-log").exists());
+
+      FilesystemStorageStrategyImpl reloaded = newIndexedStorageStrategy();
+      assertTrue(reloaded.blobExists(CONTAINER_NAME, blobKey));
+      blob = reloaded.getBlob(CONTAINER_NAME, blobKey);
+      assertEquals(blob.getMetadata().getETag(), eTag);
+      assertEquals(blob.getMetadata().getSize(), Long.valueOf(1024));
+      assertEquals(blob.getMetadata().getContentMetadata().getContentType(), "application/x-indexed");
+      assertEquals(blob.getMetadata().getUserMetadata(), ImmutableMap.of("key1", "value1"));
+
+      reloaded.removeBlob(CONTAINER_NAME, blobKey);
+      reloaded = newIndexedStorageStrategy();
+      assertFalse(reloaded.blobExists(CONTAINER_NAME, blobKey));
+      assertEquals(reloaded.getBlob(CONTAINER_NAME, blobKey), null);
+   }
+
+   @Test
+   public void testMetadataIndexIgnoresBlobRemovedOutsideProvider() throws Exception {
+      String blobKey = TestUtils.createRandomBlobKey("indexed-", ".img");
+      FilesystemStorageStrategyImpl indexed = newIndexedStorageStrategy();
+      indexed.putBlob(CONTAINER_NAME, new BlobBuilderImpl()
+            .name(blobKey)
+            .payload(randomByteSource().slice(0, 1024))
+            .build());
+      assertTrue(indexed.blobExists(CONTAINER_NAME, blobKey));
+
+      assertTrue(new File(TARGET_CONTAINER_NAME, blobKey).delete());
+      assertFalse(indexed.blobExists(CONTAINER_NAME, blobKey));
+      assertEquals(indexed.getBlob(CONTAINER_NAME, blobKey), null);
+   }
+
+   @Test
+   public void testMetadataIndexIgnoresBlobRewrittenOutsideProvider() throws Exception {
+      String blobKey = TestUtils.createRandomBlobKey("indexed-", ".img");
+      FilesystemStorageStrategyImpl indexed = newIndexedStorageStrategy();
+      indexed.putBlob(CONTAINER_NAME, new BlobBuilderImpl()
+            .name(blobKey)
+            .payload(randomByteSource().slice(0, 1024))
+            .build());
+      assertEquals(indexed.getBlob(CONTAINER_NAME, blobKey).getMetadata().getSize(), Long.valueOf(1024));
+
+      randomByteSource().slice(0, 2048).copyTo(Files.asByteSink(new File(TARGET_CONTAINER_NAME, blobKey)));
+      Blob blob = indexed.getBlob(CONTAINER_NAME, blobKey);
+      assertEquals(blob.getMetadata().getSize(), Long.valueOf(2048));
+      assertEquals(blob.getMetadata().getContentMetadata().getContentLength(), Long.valueOf(2048));
+   }
+
+   private FilesystemStorageStrategyImpl newIndexedStorageStrategy() {
+      return new FilesystemStorageStrategyImpl(new Provider<BlobBuilder>() {
+         @Override
+         public BlobBuilder get() {
+            return new BlobBuilderImpl();
+         }
+      }, TestUtils.TARGET_BASE_DIR, false, true, new FilesystemContainerNameValidatorImpl(),
+            new FilesystemBlobKeyValidatorImpl(), defaultLocation);
+   }
+
    @Test
    public void testPutIncorrectContentLength() throws Exception {
       Blob blob = new BlobBuilderImpl()
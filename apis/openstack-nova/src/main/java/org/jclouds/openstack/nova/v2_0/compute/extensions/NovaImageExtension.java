@@ -19,12 +19,10 @@ package org.jclouds.openstack.nova.v2_0.compute.extensions;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Iterables.find;
-import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_IMAGE_AVAILABLE;
 import static org.jclouds.location.predicates.LocationPredicates.idEquals;
 
 import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Resource;
@@ -32,7 +30,6 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
-import org.jclouds.Constants;
 import org.jclouds.collect.Memoized;
 import org.jclouds.compute.domain.CloneImageTemplate;
 import org.jclouds.compute.domain.Image;
@@ -41,6 +38,7 @@ import org.jclouds.compute.domain.ImageTemplate;
 import org.jclouds.compute.domain.ImageTemplateBuilder;
 import org.jclouds.compute.domain.OperatingSystem;
 import org.jclouds.compute.extensions.ImageExtension;
+import org.jclouds.compute.functions.PollImageAvailable;
 import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.domain.Location;
 import org.jclouds.logging.Logger;
@@ -48,12 +46,9 @@ import org.jclouds.openstack.nova.v2_0.NovaApi;
 import org.jclouds.openstack.nova.v2_0.domain.Server;
 import org.jclouds.openstack.nova.v2_0.domain.regionscoped.RegionAndId;
 
-import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
 import com.google.common.util.concurrent.Atomics;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.UncheckedTimeoutException;
 
 /**
  * Nova implementation of {@link ImageExtension}
@@ -66,18 +61,15 @@ public class NovaImageExtension implements ImageExtension {
    protected Logger logger = Logger.NULL;
 
    private final NovaApi novaApi;
-   private final ListeningExecutorService userExecutor;
    private final Supplier<Set<? extends Location>> locations;
-   private final Predicate<AtomicReference<Image>> imageAvailablePredicate;
+   private final PollImageAvailable pollImageAvailable;
 
    @Inject
-   public NovaImageExtension(NovaApi novaApi, @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor,
-         @Memoized Supplier<Set<? extends Location>> locations,
-         @Named(TIMEOUT_IMAGE_AVAILABLE) Predicate<AtomicReference<Image>> imageAvailablePredicate) {
+   public NovaImageExtension(NovaApi novaApi, @Memoized Supplier<Set<? extends Location>> locations,
+         PollImageAvailable pollImageAvailable) {
       this.novaApi = checkNotNull(novaApi, "novaApi");
-      this.userExecutor = checkNotNull(userExecutor, "userExecutor");
       this.locations = checkNotNull(locations, "locations");
-      this.imageAvailablePredicate = checkNotNull(imageAvailablePredicate, "imageAvailablePredicate");
+      this.pollImageAvailable = checkNotNull(pollImageAvailable, "pollImageAvailable");
    }
 
    @Override
@@ -112,15 +104,7 @@ public class NovaImageExtension implements ImageExtension {
             .operatingSystem(OperatingSystem.builder().description(cloneTemplate.getName()).build())
             .status(Image.Status.PENDING).build());
 
-      return userExecutor.submit(new Callable<Image>() {
-         @Override
-         public Image call() throws Exception {
-            if (imageAvailablePredicate.apply(image))
-               return image.get();
-            // TODO: get rid of the expectation that the image will be available, as it is very brittle
-            throw new UncheckedTimeoutException("Image was not created within the time limit: " + image.get());
-         }
-      });
+      return pollImageAvailable.apply(image);
    }
 
    @Override
@@ -220,6 +220,7 @@ public class RegionScopedSwiftBlobStore implements BlobStore {
       api.getContainerApi(regionId).update(name, options);
    }
 
+   private static final int BULK_DELETE_SIZE = 1000;
    private static final org.jclouds.openstack.swift.v1.options.CreateContainerOptions BASIC_CONTAINER = new org.jclouds.openstack.swift.v1.options.CreateContainerOptions();
    private static final org.jclouds.openstack.swift.v1.options.CreateContainerOptions ANYBODY_READ = new org.jclouds.openstack.swift.v1.options.CreateContainerOptions()
          .anybodyRead();
@@ -408,7 +409,7 @@ public class RegionScopedSwiftBlobStore implements BlobStore {
    @Override
    public void removeBlobs(String container, Iterable<String> names) {
       BulkApi bulkApi = api.getBulkApi(regionId);
-      for (List<String> partition : Iterables.partition(names, 1000)) {
+      for (List<String> partition : Iterables.partition(names, BULK_DELETE_SIZE)) {
          ImmutableList.Builder<String> builder = ImmutableList.builder();
          for (String name : partition) {
             builder.add(container + "/" + name);
@@ -571,6 +572,11 @@ public class RegionScopedSwiftBlobStore implements BlobStore {
       return Integer.MAX_VALUE;
    }
 
+   @Override
+   public int getMaximumBatchDeleteSize() {
+      return BULK_DELETE_SIZE;
+   }
+
    @Override
    public void clearContainer(String containerName) {
       clearContainer(containerName, recursive());
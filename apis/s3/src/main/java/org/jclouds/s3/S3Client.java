@@ -27,6 +27,7 @@ import javax.inject.Named;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.HEAD;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
@@ -96,6 +97,7 @@ import org.jclouds.s3.options.ListBucketOptions;
 import org.jclouds.s3.options.PutBucketOptions;
 import org.jclouds.s3.options.PutObjectOptions;
 import org.jclouds.s3.predicates.validators.BucketNameValidator;
+import org.jclouds.s3.reference.S3Headers;
 import org.jclouds.s3.xml.AccessControlListHandler;
 import org.jclouds.s3.xml.BucketLoggingHandler;
 import org.jclouds.s3.xml.CopyObjectHandler;
@@ -742,6 +744,24 @@ public interface S3Client extends Closeable {
          @PathParam("sourceBucket") String sourceBucket, @PathParam("sourceObject") String sourceObject,
          @PathParam("startOffset") long startOffset, @PathParam("endOffset") long endOffset);
 
+   /**
+    * Like {@link #uploadPartCopy(String, String, int, String, String, String, long, long)}, but fails with 412
+    * (precondition failed) unless the source still has the given ETag, so that every part of a multipart copy comes
+    * from the same version of the source.
+    */
+   @Named("UploadPartCopy")
+   @PUT
+   @Path("/{key}")
+   @Headers(keys = {"x-amz-copy-source", "x-amz-copy-source-range"}, values = {"/{sourceBucket}/{sourceObject}", "bytes={startOffset}-{endOffset}"}, urlEncode = {true, false})
+   @ResponseParser(ETagFromHttpResponseViaRegex.class)
+   String uploadPartCopy(@Bucket @EndpointParam(parser = AssignCorrectHostnameForBucket.class) @BinderParam(
+         BindAsHostPrefixIfConfigured.class) @ParamValidators(BucketNameValidator.class) String bucketName,
+         @PathParam("key") String key, @QueryParam("partNumber") int partNumber,
+         @QueryParam("uploadId") String uploadId,
+         @PathParam("sourceBucket") String sourceBucket, @PathParam("sourceObject") String sourceObject,
+         @PathParam("startOffset") long startOffset, @PathParam("endOffset") long endOffset,
+         @HeaderParam(S3Headers.COPY_SOURCE_IF_MATCH) String sourceETag);
+
    /**
     *
     This operation completes a multipart upload by assembling previously uploaded parts.
@@ -20,10 +20,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static org.jclouds.util.Predicates2.retry;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -31,14 +33,17 @@ import javax.inject.Singleton;
 
 import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.ContainerNotFoundException;
+import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
 import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.ContainerAccess;
 import org.jclouds.blobstore.domain.MultipartPart;
 import org.jclouds.blobstore.domain.MultipartUpload;
+import org.jclouds.blobstore.domain.MutableBlobMetadata;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.domain.internal.MutableBlobMetadataImpl;
 import org.jclouds.blobstore.functions.BlobToHttpGetOptions;
 import org.jclouds.blobstore.internal.BaseBlobStore;
 import org.jclouds.blobstore.options.CopyOptions;
@@ -46,13 +51,16 @@ import org.jclouds.blobstore.options.CreateContainerOptions;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.blobstore.options.PutOptions;
 import org.jclouds.blobstore.strategy.internal.FetchBlobMetadata;
+import org.jclouds.blobstore.strategy.internal.MultipartUploadSlicingAlgorithm;
 import org.jclouds.blobstore.util.BlobUtils;
 import org.jclouds.collect.Memoized;
 import org.jclouds.domain.Location;
 import org.jclouds.http.options.GetOptions;
 import org.jclouds.io.ContentMetadata;
+import org.jclouds.io.MutableContentMetadata;
 import org.jclouds.io.Payload;
 import org.jclouds.io.PayloadSlicer;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.s3.S3Client;
 import org.jclouds.s3.blobstore.functions.BlobToObject;
 import org.jclouds.s3.blobstore.functions.BlobToObjectMetadata;
@@ -79,9 +87,15 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.hash.HashCode;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
 @Singleton
 public class S3BlobStore extends BaseBlobStore {
+   /** Maximum number of keys in a single multi-object delete request. */
+   private static final int MULTI_DELETE_SIZE = 1000;
+
    private final S3Client sync;
    private final Function<Set<BucketMetadata>, PageSet<? extends StorageMetadata>> convertBucketsToStorageMetadata;
    private final ContainerToBucketListOptions container2BucketListOptions;
@@ -271,9 +285,23 @@ public class S3BlobStore extends BaseBlobStore {
       return sync.putObject(container, blob2Object.apply(blob), options);
    }
 
+   /**
+    * This implementation invokes {@link S3Client#copyObject}, or copies the source in concurrent
+    * {@link S3Client#uploadPartCopy} calls when it is larger than a single copy allows.
+    */
    @Override
    public String copyBlob(String fromContainer, String fromName, String toContainer, String toName,
          CopyOptions options) {
+      BlobMetadata source = blobMetadata(fromContainer, fromName);
+      if (source == null) {
+         throw new KeyNotFoundException(fromContainer, fromName, "while copying");
+      }
+      Long contentLength = source.getContentMetadata().getContentLength();
+      if (contentLength != null && contentLength > getMaximumMultipartPartSize()) {
+         checkCopyPreconditions(source, options);
+         return copyBlobInParts(source, contentLength, fromContainer, fromName, toContainer, toName, options);
+      }
+
       CopyObjectOptions s3Options = new CopyObjectOptions();
       if (options.ifMatch() != null) {
          s3Options.ifSourceETagMatches(options.ifMatch());
@@ -324,6 +352,86 @@ public class S3BlobStore extends BaseBlobStore {
       return sync.copyObject(fromContainer, fromName, toContainer, toName, s3Options).getETag();
    }
 
+   /**
+    * Copies the source as a multipart upload whose parts are server-side range copies, so no data passes through the
+    * client. Like copyObject, metadata comes from the source unless {@code options} override it. At most
+    * {@code partsInFlight} parts are copied at once.
+    */
+   private String copyBlobInParts(BlobMetadata source, long contentLength, String fromContainer, String fromName,
+         String toContainer, String toName, CopyOptions options) {
+      MutableBlobMetadata metadata = new MutableBlobMetadataImpl(source);
+      metadata.setContainer(toContainer);
+      metadata.setName(toName);
+      metadata.setETag(null);
+      MutableContentMetadata contentMetadata = metadata.getContentMetadata();
+      contentMetadata.setContentMD5((HashCode) null);
+      ContentMetadata overrides = options.contentMetadata();
+      if (overrides != null) {
+         contentMetadata.setCacheControl(overrides.getCacheControl());
+         contentMetadata.setContentDisposition(overrides.getContentDisposition());
+         contentMetadata.setContentEncoding(overrides.getContentEncoding());
+         contentMetadata.setContentLanguage(overrides.getContentLanguage());
+         contentMetadata.setContentType(overrides.getContentType());
+      }
+      if (options.userMetadata() != null) {
+         metadata.setUserMetadata(options.userMetadata());
+      }
+
+      MultipartUpload mpu = initiateMultipartUpload(toContainer, metadata, PutOptions.NONE);
+      List<ListenableFuture<MultipartPart>> parts = new ArrayList<ListenableFuture<MultipartPart>>();
+      try {
+         MultipartUploadSlicingAlgorithm algorithm = new MultipartUploadSlicingAlgorithm(
+               getMinimumMultipartPartSize(), getMaximumMultipartPartSize(), getMaximumNumberOfParts());
+         long partSize = algorithm.calculateChunkSize(contentLength);
+         int inFlight = Math.max(1, partsInFlight);
+         long offset = 0;
+         int partNumber = 1;
+         for (; partNumber <= algorithm.getParts(); partNumber++) {
+            awaitPart(parts, inFlight);
+            parts.add(copyPart(mpu, partNumber, source.getETag(), fromContainer, fromName, offset, partSize));
+            offset += partSize;
+         }
+         if (algorithm.getRemaining() != 0) {
+            awaitPart(parts, inFlight);
+            parts.add(copyPart(mpu, partNumber, source.getETag(), fromContainer, fromName, offset,
+                  algorithm.getRemaining()));
+         }
+         return completeMultipartUpload(mpu, Futures.getUnchecked(Futures.allAsList(parts)));
+      } catch (RuntimeException re) {
+         for (ListenableFuture<MultipartPart> part : parts) {
+            part.cancel(true);
+         }
+         abortMultipartUpload(mpu);
+         throw re;
+      }
+   }
+
+   /** Waits for the oldest part still copying once {@code inFlight} parts have been submitted. */
+   private static void awaitPart(List<ListenableFuture<MultipartPart>> parts, int inFlight) {
+      if (parts.size() >= inFlight) {
+         Futures.getUnchecked(parts.get(parts.size() - inFlight));
+      }
+   }
+
+   /** Copies one part, pinned to {@code sourceETag} when known so that a source replaced mid-copy fails the part. */
+   private ListenableFuture<MultipartPart> copyPart(final MultipartUpload mpu, final int partNumber,
+         @Nullable final String sourceETag, final String fromContainer, final String fromName, final long offset,
+         final long length) {
+      return userExecutor.submit(new Callable<MultipartPart>() {
+         @Override
+         public MultipartPart call() {
+            long endOffset = offset + length - 1;
+            String eTag = sourceETag == null
+                  ? sync.uploadPartCopy(mpu.containerName(), mpu.blobName(), partNumber, mpu.id(), fromContainer,
+                        fromName, offset, endOffset)
+                  : sync.uploadPartCopy(mpu.containerName(), mpu.blobName(), partNumber, mpu.id(), fromContainer,
+                        fromName, offset, endOffset, sourceETag);
+            Date lastModified = null;  // S3 does not return Last-Modified
+            return MultipartPart.create(partNumber, length, eTag, lastModified);
+         }
+      });
+   }
+
    /**
     * This implementation invokes {@link S3Client#deleteObject}
     *
@@ -339,7 +447,7 @@ public class S3BlobStore extends BaseBlobStore {
 
    @Override
    public void removeBlobs(String container, Iterable<String> keys) {
-      for (List<String> partition : Iterables.partition(keys, 1000)) {
+      for (List<String> partition : Iterables.partition(keys, MULTI_DELETE_SIZE)) {
          sync.deleteObjects(container, partition);
       }
    }
@@ -440,6 +548,11 @@ public class S3BlobStore extends BaseBlobStore {
       return 10 * 1000;
    }
 
+   @Override
+   public int getMaximumBatchDeleteSize() {
+      return MULTI_DELETE_SIZE;
+   }
+
    /**
     * This implementation invokes {@link S3Utils#deleteAndVerifyContainerGone}
     */
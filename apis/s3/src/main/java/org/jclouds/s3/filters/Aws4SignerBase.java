@@ -31,17 +31,22 @@ import java.net.URI;
 import java.security.InvalidKeyException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Supplier;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Maps;
@@ -115,7 +120,10 @@ public abstract class Aws4SignerBase {
    protected final Supplier<Credentials> creds;
    protected final Supplier<Date> timestampProvider;
    protected final Crypto crypto;
-
+   private final Cache<List<String>, byte[]> signatureKeys = CacheBuilder.newBuilder()
+         .maximumSize(64)
+         .expireAfterWrite(2, TimeUnit.DAYS)
+         .<List<String>, byte[]>build();
 
    protected Aws4SignerBase(SignatureWire signatureWire, String headerTag,
          Supplier<Credentials> creds, Supplier<Date> timestampProvider,
@@ -207,9 +215,20 @@ public abstract class Aws4SignerBase {
     * @param datestamp date yyyyMMdd
     * @param region   AWS region
     * @param service   AWS service
-    * @return SigningKey
+    * @return SigningKey, cached until the datestamp changes
     */
    protected byte[] signatureKey(String secretKey, String datestamp, String region, String service) {
+      // the key only changes with the date, so derive it once per day, region and service
+      List<String> cacheKey = Arrays.asList(secretKey, datestamp, region, service);
+      byte[] kSigning = signatureKeys.getIfPresent(cacheKey);
+      if (kSigning == null) {
+         kSigning = deriveSignatureKey(secretKey, datestamp, region, service);
+         signatureKeys.put(cacheKey, kSigning);
+      }
+      return kSigning;
+   }
+
+   private byte[] deriveSignatureKey(String secretKey, String datestamp, String region, String service) {
       byte[] kSecret = ("AWS4" + secretKey).getBytes(UTF_8);
       byte[] kDate = hmacSHA256(datestamp, kSecret);
       byte[] kRegion = hmacSHA256(region, kDate);
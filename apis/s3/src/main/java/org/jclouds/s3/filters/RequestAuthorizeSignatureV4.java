@@ -25,6 +25,9 @@ import org.jclouds.rest.internal.GeneratedHttpRequest;
 import org.jclouds.s3.S3Client;
 
 import javax.inject.Inject;
+import javax.inject.Named;
+
+import static org.jclouds.s3.reference.S3Constants.PROPERTY_JCLOUDS_S3_CHUNKED_THRESHOLD;
 
 @Singleton
 public class RequestAuthorizeSignatureV4 implements RequestAuthorizeSignature {
@@ -37,6 +40,10 @@ public class RequestAuthorizeSignatureV4 implements RequestAuthorizeSignature {
    private final Aws4SignerForChunkedUpload signerForChunkedUpload;
    private final Aws4SignerForQueryString signerForQueryString;
 
+   @com.google.inject.Inject(optional = true)
+   @Named(PROPERTY_JCLOUDS_S3_CHUNKED_THRESHOLD)
+   private long chunkedUploadThreshold = Long.MAX_VALUE;
+
    @Inject
    public RequestAuthorizeSignatureV4(Aws4SignerForAuthorizationHeader signerForAuthorizationHeader,
          Aws4SignerForChunkedUpload signerForChunkedUpload,
@@ -59,7 +66,8 @@ public class RequestAuthorizeSignatureV4 implements RequestAuthorizeSignature {
     * returns true, if use AWS S3 chunked upload.
     */
    protected boolean useChunkedUpload(HttpRequest request) {
-      // only S3Client putObject method, payload not null, content-length > 0 and cannot repeatable
+      // only S3Client putObject method, payload not null, content-length > 0 and either cannot repeatable or large
+      // enough that hashing it up front would read it twice
       if (!GeneratedHttpRequest.class.isAssignableFrom(request.getClass())) {
          return false;
       }
@@ -84,7 +92,7 @@ public class RequestAuthorizeSignatureV4 implements RequestAuthorizeSignature {
          return false;
       }
 
-      return contentLength > 0L && !payload.isRepeatable();
+      return contentLength > 0L && (!payload.isRepeatable() || contentLength >= chunkedUploadThreshold);
    }
 
    protected HttpRequest signForAuthorizationHeader(HttpRequest request) {
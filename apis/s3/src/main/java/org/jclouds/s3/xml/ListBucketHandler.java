@@ -27,6 +27,7 @@ import javax.inject.Inject;
 
 import org.jclouds.date.DateService;
 import org.jclouds.http.functions.ParseSax;
+import org.jclouds.http.functions.ParseSax.ElementCallback;
 import org.jclouds.s3.domain.CanonicalUser;
 import org.jclouds.s3.domain.ListBucketResponse;
 import org.jclouds.s3.domain.ObjectMetadata;
@@ -52,6 +53,7 @@ public class ListBucketHandler extends ParseSax.HandlerWithResult<ListBucketResp
    private ObjectMetadataBuilder builder = new ObjectMetadataBuilder();
 
    private final DateService dateParser;
+   private ElementCallback<? super ObjectMetadata> contentsCallback;
 
    private String bucketName;
    private String prefix;
@@ -68,6 +70,15 @@ public class ListBucketHandler extends ParseSax.HandlerWithResult<ListBucketResp
       this.dateParser = dateParser;
    }
 
+   /**
+    * Streams the listing: each {@code Contents} entry is handed to {@code callback} as soon as it is
+    * parsed instead of being collected, so the result only carries the markers and common prefixes.
+    */
+   public ListBucketHandler forEachContents(ElementCallback<? super ObjectMetadata> callback) {
+      this.contentsCallback = callback;
+      return this;
+   }
+
    public ListBucketResponse getResult() {
       return new ListBucketResponseImpl(bucketName, contents.build(), prefix, marker,
                (isTruncated && nextMarker == null) ? currentKey : nextMarker, maxResults, delimiter, isTruncated,
@@ -116,7 +127,10 @@ public class ListBucketHandler extends ParseSax.HandlerWithResult<ListBucketResp
       } else if (qName.equals("StorageClass")) {
          builder.storageClass(ObjectMetadata.StorageClass.valueOf(currentOrNull(currentText)));
       } else if (qName.equals("Contents")) {
-         contents.add(builder.build());
+         if (contentsCallback != null)
+            contentsCallback.onElement(builder.build());
+         else
+            contents.add(builder.build());
          builder = new ObjectMetadataBuilder().bucket(bucketName);
       } else if (qName.equals("Name")) {
          this.bucketName = currentOrNull(currentText);
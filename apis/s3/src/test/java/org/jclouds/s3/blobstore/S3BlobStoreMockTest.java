@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.s3.blobstore;
+
+import static com.google.common.net.HttpHeaders.CONTENT_LENGTH;
+import static com.google.common.net.HttpHeaders.ETAG;
+import static com.google.common.net.HttpHeaders.LAST_MODIFIED;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jclouds.Constants.PROPERTY_MAX_RETRIES;
+import static org.jclouds.blobstore.reference.BlobStoreConstants.PROPERTY_MULTIPART_PARTS_IN_FLIGHT;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.options.CopyOptions;
+import org.jclouds.concurrent.config.ExecutorServiceModule;
+import org.jclouds.http.okhttp.config.OkHttpCommandExecutorServiceModule;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+/**
+ * Tests how {@link S3BlobStore#copyBlob} copies objects larger than a single copy allows in server-side part copies.
+ */
+@Test(singleThreaded = true)
+public class S3BlobStoreMockTest {
+
+   private static final String SOURCE_ETAG = "\"3858f62230ac3c915f300c664312c11f-81\"";
+   private static final Pattern PART_COPY =
+         Pattern.compile("PUT /bucket/target\\?partNumber=(\\d+)&uploadId=upload .*");
+   private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+   /** Larger than the 5 GB a single copyObject allows. */
+   private static final long LARGE = 5L * 1024 * 1024 * 1024 + 1;
+
+   static BlobStoreContext getBlobStoreContext(URL server, ExecutorService userExecutor, int partsInFlight) {
+      Properties overrides = new Properties();
+      overrides.setProperty(PROPERTY_MAX_RETRIES, "1");
+      overrides.setProperty(PROPERTY_MULTIPART_PARTS_IN_FLIGHT, String.valueOf(partsInFlight));
+      return ContextBuilder.newBuilder("s3")
+                           .credentials("accessKey", "secretKey")
+                           .endpoint(server.toString())
+                           .modules(ImmutableSet.of(new OkHttpCommandExecutorServiceModule(),
+                                 new ExecutorServiceModule(userExecutor)))
+                           .overrides(overrides)
+                           .buildView(BlobStoreContext.class);
+   }
+
+   /** Answers a copy of a source of {@code length} bytes, failing the copy of part {@code failPart} with a 412. */
+   private static class CopyDispatcher extends Dispatcher {
+      private final long length;
+      private final int failPart;
+
+      CopyDispatcher(long length, int failPart) {
+         this.length = length;
+         this.failPart = failPart;
+      }
+
+      @Override
+      public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+         String requestLine = request.getRequestLine();
+         if (requestLine.startsWith("HEAD /bucket/source ")) {
+            return new MockResponse().setHeader(CONTENT_LENGTH, String.valueOf(length)).addHeader(ETAG, SOURCE_ETAG)
+                  .addHeader(LAST_MODIFIED, "Thu, 01 Jan 2015 00:00:00 GMT");
+         } else if (requestLine.startsWith("POST /bucket/target?uploads ")) {
+            return new MockResponse().setBody(
+                  "<InitiateMultipartUploadResult><UploadId>upload</UploadId></InitiateMultipartUploadResult>");
+         } else if (requestLine.startsWith("POST /bucket/target?uploadId=upload ")) {
+            return new MockResponse().setBody(
+                  "<CompleteMultipartUploadResult><ETag>\"complete\"</ETag></CompleteMultipartUploadResult>");
+         } else if (requestLine.startsWith("DELETE /bucket/target?uploadId=upload ")) {
+            return new MockResponse().setResponseCode(204);
+         } else if (requestLine.startsWith("PUT /bucket/target ")) {
+            return new MockResponse().setBody(
+                  "<CopyObjectResult><LastModified>2015-01-01T00:00:00.000Z</LastModified>"
+                        + "<ETag>\"copied\"</ETag></CopyObjectResult>");
+         }
+         Matcher partCopy = PART_COPY.matcher(requestLine);
+         if (partCopy.matches()) {
+            int partNumber = Integer.parseInt(partCopy.group(1));
+            if (partNumber == failPart) {
+               return new MockResponse().setResponseCode(412).setBody(
+                     "<Error><Code>PreconditionFailed</Code><Message>At least one of the pre-conditions you "
+                           + "specified did not hold</Message></Error>");
+            }
+            return new MockResponse().setBody(
+                  "<CopyPartResult><LastModified>2015-01-01T00:00:00.000Z</LastModified>"
+                        + "<ETag>\"part" + partNumber + "\"</ETag></CopyPartResult>");
+         }
+         return new MockResponse().setResponseCode(404);
+      }
+   }
+
+   private static List<RecordedRequest> takeRequests(MockWebServer server) throws InterruptedException {
+      List<RecordedRequest> requests = Lists.newArrayList();
+      for (int i = server.getRequestCount(); i > 0; i--) {
+         requests.add(server.takeRequest());
+      }
+      return requests;
+   }
+
+   private static List<RecordedRequest> partCopies(List<RecordedRequest> requests) {
+      List<RecordedRequest> partCopies = Lists.newArrayList();
+      for (RecordedRequest request : requests) {
+         if (PART_COPY.matcher(request.getRequestLine()).matches()) {
+            partCopies.add(request);
+         }
+      }
+      return partCopies;
+   }
+
+   private static int partNumber(RecordedRequest partCopy) {
+      Matcher matcher = PART_COPY.matcher(partCopy.getRequestLine());
+      assertThat(matcher.matches()).isTrue();
+      return Integer.parseInt(matcher.group(1));
+   }
+
+   public void testSmallObjectUsesCopyObject() throws IOException, InterruptedException {
+      MockWebServer server = new MockWebServer();
+      server.setDispatcher(new CopyDispatcher(1024, 0));
+      server.play();
+      BlobStoreContext context = getBlobStoreContext(server.getUrl("/"), newDirectExecutorService(), 4);
+      try {
+         assertEquals(context.getBlobStore().copyBlob("bucket", "source", "bucket", "target", CopyOptions.NONE),
+               "\"copied\"");
+
+         List<RecordedRequest> requests = takeRequests(server);
+         assertEquals(requests.size(), 2);
+         assertEquals(requests.get(0).getRequestLine(), "HEAD /bucket/source HTTP/1.1");
+         assertEquals(requests.get(1).getRequestLine(), "PUT /bucket/target HTTP/1.1");
+         assertEquals(requests.get(1).getHeaders("x-amz-copy-source"), ImmutableList.of("/bucket/source"));
+         assertNull(requests.get(1).getHeader("x-amz-copy-source-range"));
+      } finally {
+         context.close();
+         server.shutdown();
+      }
+   }
+
+   public void testLargeObjectCopiesPinnedRangesInOrder() throws IOException, InterruptedException {
+      MockWebServer server = new MockWebServer();
+      server.setDispatcher(new CopyDispatcher(LARGE, 0));
+      server.play();
+      BlobStoreContext context = getBlobStoreContext(server.getUrl("/"), newDirectExecutorService(), 4);
+      try {
+         assertEquals(context.getBlobStore().copyBlob("bucket", "source", "bucket", "target", CopyOptions.NONE),
+               "\"complete\"");
+
+         List<RecordedRequest> requests = takeRequests(server);
+         assertEquals(requests.get(0).getRequestLine(), "HEAD /bucket/source HTTP/1.1");
+         assertEquals(requests.get(1).getRequestLine(), "POST /bucket/target?uploads HTTP/1.1");
+         List<RecordedRequest> partCopies = partCopies(requests);
+         assertThat(partCopies.size()).isGreaterThan(1);
+         long expectedStart = 0;
+         for (int i = 0; i < partCopies.size(); i++) {
+            RecordedRequest partCopy = partCopies.get(i);
+            assertEquals(partNumber(partCopy), i + 1);
+            assertEquals(partCopy.getHeaders("x-amz-copy-source"), ImmutableList.of("/bucket/source"));
+            assertEquals(partCopy.getHeaders("x-amz-copy-source-if-match"), ImmutableList.of(SOURCE_ETAG));
+            Matcher range = RANGE.matcher(partCopy.getHeader("x-amz-copy-source-range"));
+            assertThat(range.matches()).isTrue();
+            assertEquals(Long.parseLong(range.group(1)), expectedStart);
+            expectedStart = Long.parseLong(range.group(2)) + 1;
+         }
+         assertEquals(expectedStart, LARGE);
+
+         RecordedRequest complete = requests.get(requests.size() - 1);
+         assertEquals(complete.getRequestLine(), "POST /bucket/target?uploadId=upload HTTP/1.1");
+         String body = new String(complete.getBody(), Charsets.UTF_8);
+         for (int i = 1; i <= partCopies.size(); i++) {
+            assertThat(body).contains("<PartNumber>" + i + "</PartNumber><ETag>\"part" + i + "\"</ETag>");
+         }
+         assertEquals(requests.size(), partCopies.size() + 3);
+      } finally {
+         context.close();
+         server.shutdown();
+      }
+   }
+
+   public void testFailedPartCopyAbortsUpload() throws IOException, InterruptedException {
+      MockWebServer server = new MockWebServer();
+      server.setDispatcher(new CopyDispatcher(LARGE, 3));
+      server.play();
+      BlobStoreContext context = getBlobStoreContext(server.getUrl("/"), newDirectExecutorService(), 4);
+      try {
+         try {
+            context.getBlobStore().copyBlob("bucket", "source", "bucket", "target", CopyOptions.NONE);
+            fail("expected the copy of part 3 to fail");
+         } catch (RuntimeException expected) {
+         }
+
+         List<RecordedRequest> requests = takeRequests(server);
+         RecordedRequest abort = requests.get(requests.size() - 1);
+         assertEquals(abort.getRequestLine(), "DELETE /bucket/target?uploadId=upload HTTP/1.1");
+         for (RecordedRequest request : requests) {
+            assertThat(request.getRequestLine()).doesNotStartWith("POST /bucket/target?uploadId=upload ");
+         }
+         // no part is submitted after the failed one is waited for, partsInFlight parts later
+         assertThat(partCopies(requests).size()).isLessThan(3 + 4);
+      } finally {
+         context.close();
+         server.shutdown();
+      }
+   }
+
+   public void testPartCopiesInFlightAreBounded() throws IOException, InterruptedException {
+      final AtomicInteger inFlight = new AtomicInteger();
+      final AtomicInteger maxInFlight = new AtomicInteger();
+      MockWebServer server = new MockWebServer();
+      server.setDispatcher(new CopyDispatcher(LARGE, 0) {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            if (!PART_COPY.matcher(request.getRequestLine()).matches()) {
+               return super.dispatch(request);
+            }
+            int current = inFlight.incrementAndGet();
+            try {
+               for (int max = maxInFlight.get(); current > max && !maxInFlight.compareAndSet(max, current);) {
+                  max = maxInFlight.get();
+               }
+               Thread.sleep(10);
+               return super.dispatch(request);
+            } finally {
+               inFlight.decrementAndGet();
+            }
+         }
+      });
+      server.play();
+      ExecutorService userExecutor = Executors.newFixedThreadPool(8);
+      BlobStoreContext context = getBlobStoreContext(server.getUrl("/"), userExecutor, 2);
+      try {
+         assertEquals(context.getBlobStore().copyBlob("bucket", "source", "bucket", "target", CopyOptions.NONE),
+               "\"complete\"");
+         assertThat(maxInFlight.get()).isBetween(1, 2);
+      } finally {
+         context.close();
+         userExecutor.shutdownNow();
+         server.shutdown();
+      }
+   }
+}
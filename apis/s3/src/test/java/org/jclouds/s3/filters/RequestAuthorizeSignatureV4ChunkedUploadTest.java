@@ -42,6 +42,7 @@ import org.jclouds.s3.S3Client;
 import org.jclouds.s3.config.S3HttpApiModule;
 import org.jclouds.s3.domain.S3Object;
 import org.jclouds.s3.options.PutObjectOptions;
+import org.jclouds.s3.reference.S3Constants;
 import org.jclouds.util.Closeables2;
 import org.testng.annotations.Test;
 
@@ -51,6 +52,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Date;
+import java.util.Properties;
 
 import static com.google.common.io.BaseEncoding.base16;
 import static org.jclouds.reflect.Reflection2.method;
@@ -106,8 +108,13 @@ public class RequestAuthorizeSignatureV4ChunkedUploadTest {
    }
 
    public static Injector injector(Credentials creds) {
+      return injector(creds, new Properties());
+   }
+
+   public static Injector injector(Credentials creds, Properties overrides) {
       return ContextBuilder.newBuilder(new S3ApiMetadata())
             .credentialsSupplier(Suppliers.<Credentials>ofInstance(creds))
+            .overrides(overrides)
             .modules(ImmutableList.<Module>of(new BaseRestApiTest.MockModule(), new NullLoggingModule(),
                   new TestS3HttpApiModule()))
             .buildInjector();
@@ -154,6 +161,34 @@ public class RequestAuthorizeSignatureV4ChunkedUploadTest {
       }
    }
 
+   @Test
+   void testPutLargeRepeatableObjectWithChunkedUpload() {
+      Invocation invocation = Invocation.create(
+            method(S3Client.class, "putObject", String.class, S3Object.class, PutObjectOptions[].class),
+            ImmutableList.<Object>of(BUCKET_NAME));
+      byte[] content = make65KPayload().getBytes(Charset.forName("UTF-8"));
+      HttpRequest putObject = GeneratedHttpRequest.builder().invocation(invocation)
+            .method("PUT")
+            .endpoint("https://" + BUCKET_NAME + ".s3.cn-north-1.amazonaws.com.cn/" + OBJECT_NAME)
+            .addHeader(HttpHeaders.HOST, BUCKET_NAME + ".s3.cn-north-1.amazonaws.com.cn")
+            .addHeader("x-amz-storage-class", "REDUCED_REDUNDANCY")
+            .build();
+      Payload payload = Payloads.newByteArrayPayload(content);
+      payload.getContentMetadata().setContentType("text/plain");
+      putObject.setPayload(payload);
+
+      Properties overrides = new Properties();
+      overrides.setProperty(S3Constants.PROPERTY_JCLOUDS_S3_CHUNKED_THRESHOLD, String.valueOf(content.length));
+      HttpRequest filtered = injector(temporaryCredentials, overrides).getInstance(RequestAuthorizeSignatureV4.class)
+            .filter(putObject);
+      assertEquals(filtered.getFirstHeaderOrNull("Authorization"), PUT_OBJECT_AUTHORIZATION);
+      assertEquals(filtered.getPayload().getClass(), ChunkedUploadPayload.class);
+
+      // below the threshold the payload is hashed up front and sent as is
+      filtered = filter(temporaryCredentials).filter(putObject);
+      assertEquals(filtered.getPayload(), payload);
+   }
+
    /**
     * Want sample to upload 3 chunks for our selected chunk size of 64K; one
     * full size chunk, one partial chunk and then the 0-byte terminator chunk.
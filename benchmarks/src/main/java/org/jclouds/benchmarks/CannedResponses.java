@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.benchmarks;
+
+/**
+ * Generates large, realistic response bodies so the parsing benchmarks do not depend on test resources or a network.
+ */
+public final class CannedResponses {
+
+   private CannedResponses() {
+   }
+
+   /**
+    * an S3 {@code ListBucketResult} holding {@code keys} objects.
+    */
+   public static String listBucketResult(int keys) {
+      StringBuilder xml = new StringBuilder(keys * 400);
+      xml.append("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">")
+            .append("<Name>benchmark</Name><Prefix></Prefix><Marker></Marker>")
+            .append("<MaxKeys>").append(keys).append("</MaxKeys><IsTruncated>false</IsTruncated>");
+      for (int i = 0; i < keys; i++) {
+         xml.append("<Contents><Key>objects/").append(String.format("%08d", i)).append("</Key>")
+               .append("<LastModified>2009-05-07T18:27:08.000Z</LastModified>")
+               .append("<ETag>&quot;c82e6a0025c31c5de5947fda62ac51ab&quot;</ETag>")
+               .append("<Size>").append(i).append("</Size>")
+               .append("<Owner><ID>e1a5f66a480ca99a4fdfe8e318c3020446c9989d7004e7778029fbcc5d990fa0</ID>")
+               .append("<DisplayName>ferncam</DisplayName></Owner>")
+               .append("<StorageClass>STANDARD</StorageClass></Contents>");
+      }
+      return xml.append("</ListBucketResult>").toString();
+   }
+
+   /**
+    * an EC2 {@code DescribeInstancesResponse} holding {@code instances} instances, one per reservation.
+    */
+   public static String describeInstancesResponse(int instances) {
+      StringBuilder xml = new StringBuilder(instances * 1200);
+      xml.append("<DescribeInstancesResponse xmlns=\"http://ec2.amazonaws.com/doc/2010-06-15/\">")
+            .append("<requestId>ae75a8cc-b707-4a20-b130-61ad6f20de61</requestId><reservationSet>");
+      for (int i = 0; i < instances; i++) {
+         String id = String.format("%08x", i);
+         xml.append("<item><reservationId>r-").append(id).append("</reservationId>")
+               .append("<ownerId>993194456877</ownerId>")
+               .append("<groupSet><item><groupId>jclouds#benchmark</groupId></item></groupSet>")
+               .append("<instancesSet><item>")
+               .append("<instanceId>i-").append(id).append("</instanceId>")
+               .append("<imageId>ami-82e4b5c7</imageId>")
+               .append("<instanceState><code>16</code><name>running</name></instanceState>")
+               .append("<privateDnsName>ip-10-243-42-70.ec2.internal</privateDnsName>")
+               .append("<dnsName>ec2-174-129-81-68.compute-1.amazonaws.com</dnsName>")
+               .append("<reason/><keyName>jclouds#benchmark</keyName><amiLaunchIndex>0</amiLaunchIndex>")
+               .append("<productCodes/><instanceType>m1.small</instanceType>")
+               .append("<launchTime>2009-11-09T03:00:34.000Z</launchTime>")
+               .append("<placement><availabilityZone>us-east-1c</availabilityZone></placement>")
+               .append("<kernelId>aki-a71cf9ce</kernelId><ramdiskId>ari-a51cf9cc</ramdiskId>")
+               .append("<monitoring><state>disabled</state></monitoring>")
+               .append("<privateIpAddress>10.243.42.70</privateIpAddress>")
+               .append("<ipAddress>174.129.81.68</ipAddress>")
+               .append("<rootDeviceType>ebs</rootDeviceType><rootDeviceName>/dev/sda1</rootDeviceName>")
+               .append("<blockDeviceMapping><item><deviceName>/dev/sda1</deviceName><ebs>")
+               .append("<volumeId>vol-").append(id).append("</volumeId><status>attached</status>")
+               .append("<attachTime>2009-11-09T03:00:34.000Z</attachTime>")
+               .append("<deleteOnTermination>true</deleteOnTermination></ebs></item></blockDeviceMapping>")
+               .append("<virtualizationType>hvm</virtualizationType>")
+               .append("<tagSet><item><key>Name</key><value>benchmark-").append(i).append("</value></item></tagSet>")
+               .append("<hypervisor>xen</hypervisor>")
+               .append("</item></instancesSet></item>");
+      }
+      return xml.append("</reservationSet></DescribeInstancesResponse>").toString();
+   }
+
+   /**
+    * an OpenStack Nova {@code /servers/detail} response holding {@code servers} servers.
+    */
+   public static String novaServersDetail(int servers) {
+      StringBuilder json = new StringBuilder(servers * 1800);
+      json.append("{\"servers\":[");
+      for (int i = 0; i < servers; i++) {
+         if (i > 0)
+            json.append(',');
+         String id = String.valueOf(70000 + i);
+         json.append("{\"id\":\"").append(id).append("\",\"tenant_id\":\"1234\",\"user_id\":\"5678\",")
+               .append("\"name\":\"benchmark-").append(i).append("\",")
+               .append("\"updated\":\"2010-10-10T12:00:00Z\",\"created\":\"2010-08-10T12:00:00Z\",")
+               .append("\"hostId\":\"e4d909c290d0fb1ca068ffaddf22cbd0\",")
+               .append("\"accessIPv4\":\"67.23.10.132\",\"accessIPv6\":\"::babe:67.23.10.132\",")
+               .append("\"status\":\"ACTIVE\",\"progress\":100,\"OS-DCF:diskConfig\":\"AUTO\",")
+               .append("\"OS-EXT-AZ:availability_zone\":\"nova\",")
+               .append("\"image\":{\"id\":\"52415800-8b69-11e0-9b19-734f6f006e54\",\"links\":[")
+               .append("{\"rel\":\"self\",\"href\":\"http://servers.api.openstack.org/v2/1234/images/")
+               .append("52415800-8b69-11e0-9b19-734f6f006e54\"}]},")
+               .append("\"flavor\":{\"id\":\"52415800-8b69-11e0-9b19-734f216543fd\",\"links\":[")
+               .append("{\"rel\":\"self\",\"href\":\"http://servers.api.openstack.org/v2/1234/flavors/")
+               .append("52415800-8b69-11e0-9b19-734f216543fd\"}]},")
+               .append("\"addresses\":{\"public\":[{\"version\":4,\"addr\":\"67.23.10.132\"},")
+               .append("{\"version\":6,\"addr\":\"::babe:67.23.10.132\"}],")
+               .append("\"private\":[{\"version\":4,\"addr\":\"10.176.42.16\"}]},")
+               .append("\"metadata\":{\"Server Label\":\"Web Head ").append(i).append("\"},")
+               .append("\"links\":[{\"rel\":\"self\",\"href\":\"http://servers.api.openstack.org/v2/1234/servers/")
+               .append(id).append("\"},{\"rel\":\"bookmark\",\"href\":")
+               .append("\"http://servers.api.openstack.org/1234/servers/").append(id).append("\"}]}");
+      }
+      return json.append("]}").toString();
+   }
+
+   /**
+    * a Google Compute Engine {@code instances.list} response holding {@code instances} instances.
+    */
+   public static String gceInstanceList(int instances) {
+      String base = "https://www.googleapis.com/compute/v1/projects/party";
+      StringBuilder json = new StringBuilder(instances * 2000);
+      json.append("{\"kind\":\"compute#instanceList\",\"items\":[");
+      for (int i = 0; i < instances; i++) {
+         if (i > 0)
+            json.append(',');
+         json.append("{\"kind\":\"compute#instance\",\"id\":\"").append(1305119067890757042L - i).append("\",")
+               .append("\"creationTimestamp\":\"2012-11-25T23:48:20.758\",")
+               .append("\"selfLink\":\"").append(base).append("/zones/us-central1-a/instances/benchmark-")
+               .append(i).append("\",\"name\":\"benchmark-").append(i).append("\",")
+               .append("\"machineType\":\"").append(base).append("/zones/us-central1-a/machineTypes/n1-standard-1\",")
+               .append("\"status\":\"RUNNING\",\"canIpForward\":false,")
+               .append("\"zone\":\"").append(base).append("/zones/us-central1-a\",")
+               .append("\"networkInterfaces\":[{\"kind\":\"compute#instanceNetworkInterface\",\"name\":\"nic0\",")
+               .append("\"networkIP\":\"10.240.121.115\",\"network\":\"").append(base)
+               .append("/global/networks/default\"}],")
+               .append("\"disks\":[{\"kind\":\"compute#instanceDisk\",\"type\":\"PERSISTENT\",\"mode\":\"READ_WRITE\",")
+               .append("\"deviceName\":\"boot\",\"source\":\"").append(base)
+               .append("/zones/us-central1-a/disks/benchmark-").append(i).append("\",\"index\":0,\"boot\":true}],")
+               .append("\"serviceAccounts\":[{\"kind\":\"compute#serviceAccount\",\"email\":\"default\",")
+               .append("\"scopes\":[\"myscope\"]}],")
+               .append("\"metadata\":{\"items\":[{\"key\":\"aKey\",\"value\":\"aValue\"}],\"fingerprint\":\"efgh\"},")
+               .append("\"tags\":{\"items\":[\"aTag\"],\"fingerprint\":\"abcd\"},")
+               .append("\"scheduling\":{\"onHostMaintenance\":\"MIGRATE\",\"automaticRestart\":true,")
+               .append("\"preemptible\":false}}");
+      }
+      return json.append("]}").toString();
+   }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.logging.config.NullLoggingModule;
+import org.jclouds.s3.S3ApiMetadata;
+import org.jclouds.s3.S3Client;
+import org.jclouds.s3.domain.ObjectMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.net.HttpHeaders;
+import com.google.inject.Module;
+
+/**
+ * Measures a full api call through {@code InvokeHttpMethod.invoke}: request construction, filters (including request
+ * signing), the executor and response parsing, against an executor that answers immediately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokeHttpMethodBenchmark {
+
+   private S3Client client;
+
+   @Setup
+   public void setup() {
+      HttpResponse response = HttpResponse.builder().statusCode(200).message("OK")
+            .addHeader(HttpHeaders.LAST_MODIFIED, "Thu, 07 May 2009 18:27:08 GMT")
+            .addHeader(HttpHeaders.ETAG, "\"c82e6a0025c31c5de5947fda62ac51ab\"")
+            .build();
+      client = ContextBuilder.newBuilder(new S3ApiMetadata())
+            .credentials("identity", "credential")
+            .modules(ImmutableSet.<Module> of(new NullLoggingModule(),
+                  new StubHttpCommandExecutorServiceModule(Suppliers.ofInstance(response))))
+            .buildApi(S3Client.class);
+   }
+
+   @Benchmark
+   public boolean bucketExists() {
+      return client.bucketExists("benchmark");
+   }
+
+   @Benchmark
+   public ObjectMetadata headObject() {
+      return client.headObject("benchmark", "objects/00000001");
+   }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.googlecloud.domain.ListPage;
+import org.jclouds.googlecomputeengine.config.GoogleComputeEngineParserModule;
+import org.jclouds.googlecomputeengine.domain.Instance;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.functions.ParseJson;
+import org.jclouds.json.Json;
+import org.jclouds.json.config.GsonModule;
+import org.jclouds.openstack.nova.v2_0.config.NovaParserModule;
+import org.jclouds.openstack.nova.v2_0.domain.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.inject.Guice;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Measures {@link ParseJson} and the underlying {@code GsonWrapper} on large Nova {@code /servers/detail} and Google
+ * Compute Engine {@code instances.list} payloads, each with its provider's own type adapters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseJsonBenchmark {
+
+   @Param({ "1000" })
+   public int size;
+
+   private ParseJson<Map<String, List<Server>>> novaServers;
+   private ParseJson<ListPage<Instance>> gceInstances;
+   private HttpResponse novaResponse;
+   private HttpResponse gceResponse;
+
+   @Setup
+   public void setup() {
+      Json novaJson = Guice.createInjector(new GsonModule(), new NovaParserModule()).getInstance(Json.class);
+      novaServers = new ParseJson<Map<String, List<Server>>>(novaJson,
+            new TypeLiteral<Map<String, List<Server>>>() {
+            });
+      Json gceJson = Guice.createInjector(new GsonModule(), new GoogleComputeEngineParserModule())
+            .getInstance(Json.class);
+      gceInstances = new ParseJson<ListPage<Instance>>(gceJson, new TypeLiteral<ListPage<Instance>>() {
+      });
+      novaResponse = HttpResponse.builder().statusCode(200).message("OK")
+            .payload(CannedResponses.novaServersDetail(size).getBytes()).build();
+      gceResponse = HttpResponse.builder().statusCode(200).message("OK")
+            .payload(CannedResponses.gceInstanceList(size).getBytes()).build();
+   }
+
+   @Benchmark
+   public Map<String, List<Server>> novaServersDetail() {
+      return novaServers.apply(novaResponse);
+   }
+
+   @Benchmark
+   public ListPage<Instance> gceInstanceList() {
+      return gceInstances.apply(gceResponse);
+   }
+}
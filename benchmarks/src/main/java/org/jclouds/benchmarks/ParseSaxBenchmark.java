@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.ec2.domain.Reservation;
+import org.jclouds.ec2.domain.RunningInstance;
+import org.jclouds.ec2.xml.DescribeInstancesResponseHandler;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.functions.ParseSax;
+import org.jclouds.http.functions.config.SaxParserModule;
+import org.jclouds.location.Region;
+import org.jclouds.s3.domain.ListBucketResponse;
+import org.jclouds.s3.xml.ListBucketHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Measures {@link ParseSax} on large S3 bucket listings and EC2 instance descriptions. Handlers are stateful, so a new
+ * one is obtained for every parse, as {@code TransformerForRequest} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseSaxBenchmark {
+
+   @Param({ "1000" })
+   public int size;
+
+   private ParseSax.Factory factory;
+   private Provider<ListBucketHandler> listBucketHandler;
+   private Provider<DescribeInstancesResponseHandler> describeInstancesHandler;
+   private HttpRequest listBucketRequest;
+   private HttpResponse listBucketResponse;
+   private HttpResponse describeInstancesResponse;
+
+   @Setup
+   public void setup() {
+      Injector injector = Guice.createInjector(new SaxParserModule(), new AbstractModule() {
+         @Override
+         protected void configure() {
+            bind(new TypeLiteral<Supplier<String>>() {
+            }).annotatedWith(Region.class).toInstance(Suppliers.ofInstance("us-east-1"));
+         }
+      });
+      factory = injector.getInstance(ParseSax.Factory.class);
+      listBucketHandler = injector.getProvider(ListBucketHandler.class);
+      describeInstancesHandler = injector.getProvider(DescribeInstancesResponseHandler.class);
+      listBucketRequest = HttpRequest.builder().method("GET").endpoint("https://benchmark.s3.amazonaws.com/").build();
+      listBucketResponse = HttpResponse.builder().statusCode(200).message("OK")
+            .payload(CannedResponses.listBucketResult(size).getBytes()).build();
+      describeInstancesResponse = HttpResponse.builder().statusCode(200).message("OK")
+            .payload(CannedResponses.describeInstancesResponse(size).getBytes()).build();
+   }
+
+   @Benchmark
+   public ListBucketResponse listBucket() {
+      return factory.create(listBucketHandler.get()).setContext(listBucketRequest).apply(listBucketResponse);
+   }
+
+   @Benchmark
+   public Set<Reservation<? extends RunningInstance>> describeInstances() {
+      return factory.create(describeInstancesHandler.get()).apply(describeInstancesResponse);
+   }
+}
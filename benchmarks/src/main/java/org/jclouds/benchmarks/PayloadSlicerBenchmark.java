@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.io.Payload;
+import org.jclouds.io.PayloadSlicer;
+import org.jclouds.io.Payloads;
+import org.jclouds.io.internal.BasePayloadSlicer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Measures {@link BasePayloadSlicer} splitting a payload into multipart-upload sized parts and reading every part, for
+ * both repeatable (byte array) and non-repeatable (input stream) payloads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadSlicerBenchmark {
+
+   @Param({ "67108864" })
+   public int payloadSize;
+
+   @Param({ "8388608" })
+   public int partSize;
+
+   private final PayloadSlicer slicer = new BasePayloadSlicer();
+   private byte[] content;
+
+   @Setup
+   public void setup() {
+      content = new byte[payloadSize];
+   }
+
+   @Benchmark
+   public long sliceByteArray() throws IOException {
+      return readAll(Payloads.newByteArrayPayload(content));
+   }
+
+   @Benchmark
+   public long sliceInputStream() throws IOException {
+      return readAll(Payloads.newInputStreamPayload(new ByteArrayInputStream(content)));
+   }
+
+   private long readAll(Payload payload) throws IOException {
+      payload.getContentMetadata().setContentLength((long) payloadSize);
+      long read = 0;
+      for (Payload part : slicer.slice(payload, partSize)) {
+         InputStream is = part.openStream();
+         try {
+            read += ByteStreams.copy(is, ByteStreams.nullOutputStream());
+         } finally {
+            is.close();
+         }
+      }
+      return read;
+   }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.benchmarks;
+
+import static org.jclouds.reflect.Reflection2.method;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.options.GetOptions;
+import org.jclouds.logging.config.NullLoggingModule;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.s3.S3ApiMetadata;
+import org.jclouds.s3.S3Client;
+import org.jclouds.s3.options.ListBucketOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Function;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Measures {@code RestAnnotationProcessor.apply}, which turns every api method call into an {@link HttpRequest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestAnnotationProcessorBenchmark {
+
+   private Function<Invocation, HttpRequest> processor;
+   private Invocation headObject;
+   private Invocation getObject;
+   private Invocation listBucket;
+
+   @Setup
+   public void setup() {
+      Injector injector = ContextBuilder.newBuilder(new S3ApiMetadata())
+            .credentials("identity", "credential")
+            .modules(ImmutableSet.<Module> of(new NullLoggingModule(), new StubHttpCommandExecutorServiceModule(
+                  Suppliers.ofInstance(HttpResponse.builder().statusCode(200).message("OK").build()))))
+            .buildInjector();
+      processor = injector.getInstance(Key.get(new TypeLiteral<Function<Invocation, HttpRequest>>() {
+      }));
+      headObject = Invocation.create(method(S3Client.class, "headObject", String.class, String.class),
+            ImmutableList.<Object> of("benchmark", "objects/00000001"));
+      getObject = Invocation.create(method(S3Client.class, "getObject", String.class, String.class,
+            GetOptions[].class), ImmutableList.<Object> of("benchmark", "objects/00000001",
+            new GetOptions[] { GetOptions.Builder.range(0, 1023) }));
+      listBucket = Invocation.create(method(S3Client.class, "listBucket", String.class, ListBucketOptions[].class),
+            ImmutableList.<Object> of("benchmark", new ListBucketOptions[] {
+                  ListBucketOptions.Builder.withPrefix("objects/").maxResults(1000) }));
+   }
+
+   @Benchmark
+   public HttpRequest headObject() {
+      return processor.apply(headObject);
+   }
+
+   @Benchmark
+   public HttpRequest getObjectWithRange() {
+      return processor.apply(getObject);
+   }
+
+   @Benchmark
+   public HttpRequest listBucketWithOptions() {
+      return processor.apply(listBucket);
+   }
+}
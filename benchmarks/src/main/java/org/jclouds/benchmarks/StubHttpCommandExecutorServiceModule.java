@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.benchmarks;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
+
+import com.google.common.base.Supplier;
+import com.google.inject.AbstractModule;
+
+/**
+ * Replaces the http driver with one that answers every command with a canned response, so that benchmarks measure
+ * jclouds itself rather than the network.
+ */
+@ConfiguresHttpCommandExecutorService
+public class StubHttpCommandExecutorServiceModule extends AbstractModule {
+
+   private final Supplier<HttpResponse> response;
+
+   public StubHttpCommandExecutorServiceModule(Supplier<HttpResponse> response) {
+      this.response = checkNotNull(response, "response");
+   }
+
+   @Override
+   protected void configure() {
+      bind(HttpCommandExecutorService.class).toInstance(new StubHttpCommandExecutorService(response));
+   }
+
+   public static class StubHttpCommandExecutorService implements HttpCommandExecutorService {
+      private final Supplier<HttpResponse> response;
+
+      public StubHttpCommandExecutorService(Supplier<HttpResponse> response) {
+         this.response = checkNotNull(response, "response");
+      }
+
+      @Override
+      public HttpResponse invoke(HttpCommand command) {
+         // apply the request filters, as the real drivers do, so signing is part of the measurement
+         HttpRequest request = command.getCurrentRequest();
+         for (HttpRequestFilter filter : request.getFilters()) {
+            request = filter.filter(request);
+         }
+         command.setCurrentRequest(request);
+         return response.get();
+      }
+   }
+}
@@ -369,6 +369,13 @@ public interface BlobStore {
    @Beta
    int getMaximumNumberOfParts();
 
+   /**
+    * @return how many names {@link #removeBlobs} deletes with a single request, or 1 if the provider deletes blobs
+    *         one at a time
+    */
+   @Beta
+   int getMaximumBatchDeleteSize();
+
    @Beta
    void downloadBlob(String container, String name, File destination);
 
@@ -18,6 +18,7 @@ package org.jclouds.blobstore;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Iterator;
 
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
@@ -26,12 +27,25 @@ import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.options.CreateContainerOptions;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.domain.Location;
+import org.jclouds.javax.annotation.Nullable;
 
 /**
  * Strategy for local operations related to container and blob
  */
 public interface LocalStorageStrategy {
 
+    /**
+     * Iterates over the keys of a container in lexicographic order, and can skip ahead without visiting the keys in
+     * between.
+     */
+    interface KeyIterator extends Iterator<String> {
+        /**
+         * Skips the keys that sort before or equal to {@code marker}, which must sort after the last key returned.
+         * @param marker the next key returned sorts after this
+         */
+        void seek(String marker);
+    }
+
     /**
      * Checks if a container exists
      * @param container
@@ -100,6 +114,19 @@ public interface LocalStorageStrategy {
      */
     Iterable<String> getBlobKeysInsideContainer(String container, String prefix) throws IOException;
 
+    /**
+     * Returns, in lexicographic order, the keys inside a container that start with {@code prefix} and sort after
+     * {@code marker}. Keys are produced lazily, so that callers only pay for the keys they consume, and can be skipped
+     * with {@link KeyIterator#seek}.
+     * @param container
+     * @param prefix only return keys starting with this, or null for all keys
+     * @param marker only return keys sorting after this, or null to start from the first key
+     * @return
+     * @throws IOException
+     */
+    KeyIterator getBlobKeysInsideContainer(String container, @Nullable String prefix, @Nullable String marker)
+          throws IOException;
+
     /**
      * Load the blob with the given key belonging to the container with the given
      * name. There must exist a resource on the file system whose complete name
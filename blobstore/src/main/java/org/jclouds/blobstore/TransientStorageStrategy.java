@@ -22,7 +22,9 @@ import static com.google.common.io.BaseEncoding.base16;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
@@ -47,11 +49,13 @@ import org.jclouds.io.ContentMetadataCodec;
 import org.jclouds.io.MutableContentMetadata;
 import org.jclouds.io.Payload;
 import org.jclouds.io.Payloads;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.util.Closeables2;
 
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimaps;
+import com.google.common.collect.UnmodifiableIterator;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.Hashing;
 import com.google.common.hash.HashingInputStream;
@@ -158,6 +162,59 @@ public class TransientStorageStrategy implements LocalStorageStrategy {
       return blobs.subMap(prefix, /*fromInclusive=*/ true, lastPrefix, /*toInclusive=*/ false).keySet();
    }
 
+   @Override
+   public KeyIterator getBlobKeysInsideContainer(final String containerName, String prefix, String marker) {
+      return new NavigableKeyIterator(containerToBlobs.get(containerName).navigableKeySet(), prefix, marker);
+   }
+
+   /**
+    * Seeks by taking a new view of the keys, which costs a lookup rather than a visit of each key skipped.
+    */
+   private static final class NavigableKeyIterator extends UnmodifiableIterator<String> implements KeyIterator {
+      private final NavigableSet<String> keys;
+      private final String prefix;
+      private Iterator<String> current;
+
+      NavigableKeyIterator(NavigableSet<String> keys, @Nullable String prefix, @Nullable String marker) {
+         this.keys = keys;
+         this.prefix = prefix;
+         this.current = keysAfter(keys, prefix, marker).iterator();
+      }
+
+      @Override
+      public boolean hasNext() {
+         return current.hasNext();
+      }
+
+      @Override
+      public String next() {
+         return current.next();
+      }
+
+      @Override
+      public void seek(String marker) {
+         current = keysAfter(keys, prefix, marker).iterator();
+      }
+   }
+
+   private static Iterable<String> keysAfter(NavigableSet<String> keys, @Nullable String prefix,
+         @Nullable String marker) {
+      String from = prefix;
+      boolean fromInclusive = true;
+      if (marker != null && (from == null || marker.compareTo(from) >= 0)) {
+         from = marker;
+         fromInclusive = false;
+      }
+      if (prefix == null) {
+         return from == null ? keys : keys.tailSet(from, fromInclusive);
+      }
+      String lastPrefix = prefix + (char) 65535;
+      if (from.compareTo(lastPrefix) >= 0) {
+         return ImmutableList.of();
+      }
+      return keys.subSet(from, fromInclusive, lastPrefix, /*toInclusive=*/ false);
+   }
+
    @Override
    public Blob getBlob(final String containerName, final String blobName) {
       Map<String, Blob> map = containerToBlobs.get(containerName);
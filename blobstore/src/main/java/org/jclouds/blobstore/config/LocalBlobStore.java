@@ -21,10 +21,8 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Throwables.getCausalChain;
 import static com.google.common.base.Throwables.propagate;
 import static com.google.common.collect.Iterables.size;
-import static com.google.common.collect.Iterables.transform;
-import static com.google.common.collect.Iterables.tryFind;
-import static com.google.common.collect.Sets.filter;
 import static com.google.common.collect.Sets.newTreeSet;
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
 import static org.jclouds.blobstore.options.ListContainerOptions.Builder.recursive;
 
 import java.io.File;
@@ -44,6 +42,7 @@ import java.util.concurrent.ExecutorService;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 import com.google.common.hash.Hasher;
@@ -53,6 +52,7 @@ import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.LocalStorageStrategy;
+import org.jclouds.blobstore.LocalStorageStrategy.KeyIterator;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
 import org.jclouds.blobstore.domain.BlobBuilder;
@@ -74,6 +74,9 @@ import org.jclouds.blobstore.options.CreateContainerOptions;
 import org.jclouds.blobstore.options.GetOptions;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.blobstore.options.PutOptions;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+import org.jclouds.blobstore.strategy.internal.MultipartUploadSlicingAlgorithm;
+import org.jclouds.blobstore.strategy.internal.ParallelBlobDownloader;
 import org.jclouds.blobstore.util.BlobStoreUtils;
 import org.jclouds.blobstore.util.BlobUtils;
 import org.jclouds.collect.Memoized;
@@ -92,8 +95,6 @@ import org.jclouds.logging.Logger;
 import org.jclouds.util.Closeables2;
 
 import com.google.common.base.Function;
-import com.google.common.base.Optional;
-import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.base.Strings;
 import com.google.common.base.Supplier;
@@ -104,6 +105,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteSource;
 import com.google.common.net.HttpHeaders;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
 @Singleton
 public final class LocalBlobStore implements BlobStore {
@@ -119,6 +121,14 @@ public final class LocalBlobStore implements BlobStore {
    private final Blob.Factory blobFactory;
    private final LocalStorageStrategy storageStrategy;
 
+   @com.google.inject.Inject
+   @Named(PROPERTY_USER_THREADS)
+   ListeningExecutorService userExecutor;
+
+   @com.google.inject.Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_MULTIPART_PARTS_IN_FLIGHT)
+   int partsInFlight = 4;
+
    @Inject
    LocalBlobStore(BlobStoreContext context,
          BlobUtils blobUtils,
@@ -220,6 +230,9 @@ public final class LocalBlobStore implements BlobStore {
 
    /**
     * default maxResults is 1000
+    * <p/>
+    * Keys are visited in order, starting after the marker, and blobs are only loaded for the entries of the page that
+    * is returned, so that listing a page costs the size of the page rather than the size of the container.
     */
    @Override
    public PageSet<? extends StorageMetadata> list(final String containerName, ListContainerOptions options) {
@@ -235,147 +248,104 @@ public final class LocalBlobStore implements BlobStore {
       if (!storageStrategy.containerExists(containerName))
          throw cnfe(containerName);
 
-      // Loading blobs from container
-      Iterable<String> blobBelongingToContainer = null;
-      try {
-         blobBelongingToContainer = storageStrategy.getBlobKeysInsideContainer(containerName, options.getPrefix());
-      } catch (IOException e) {
-         logger.error(e, "An error occurred loading blobs contained into container %s", containerName);
-         propagate(e);
+      String prefix = null;
+      String delimiter = null;
+      boolean excludePrefix = false;
+      if (options.getDir() != null && !options.getDir().isEmpty()) {
+         String dir = options.getDir();
+         prefix = dir.endsWith("/") ? dir : dir + "/";
+         excludePrefix = true;
+         if (!options.isRecursive()) {
+            delimiter = storageStrategy.getSeparator();
+         }
+      } else if (!Strings.isNullOrEmpty(options.getPrefix())) {
+         prefix = options.getPrefix();
+         if (options.getDelimiter() != null || !options.isRecursive()) {
+            delimiter = options.getDelimiter() == null ? storageStrategy.getSeparator() : options.getDelimiter();
+         }
+      } else if (!options.isRecursive() || (options.getDelimiter() != null)) {
+         delimiter = options.getDelimiter() == null ? storageStrategy.getSeparator() : options.getDelimiter();
       }
-
-      blobBelongingToContainer = Iterables.filter(blobBelongingToContainer,
-            new Predicate<String>() {
-               @Override
-               public boolean apply(String key) {
-                  // ignore folders
-                  return storageStrategy.blobExists(containerName, key);
-               }
-            });
-      SortedSet<StorageMetadata> contents = newTreeSet(FluentIterable.from(blobBelongingToContainer)
-            .transform(new Function<String, StorageMetadata>() {
-               @Override
-               public StorageMetadata apply(String key) {
-                  Blob oldBlob = loadBlob(containerName, key);
-                  if (oldBlob == null) {
-                     return null;
-                  }
-                  checkState(oldBlob.getMetadata() != null, "blob " + containerName + "/" + key + " has no metadata");
-                  MutableBlobMetadata md = BlobStoreUtils.copy(oldBlob.getMetadata());
-                  md.setSize(oldBlob.getMetadata().getSize());
-                  return md;
-               }
-            })
-            .filter(Predicates.<StorageMetadata>notNull()));
-
-      String marker = null;
-      if (options != null) {
-         if (options.getDir() != null && !options.getDir().isEmpty()) {
-            contents = filterDirectory(contents, options);
-         } else if (!Strings.isNullOrEmpty(options.getPrefix())) {
-            contents = filterPrefix(contents, options);
-         } else if (!options.isRecursive() || (options.getDelimiter() != null)) {
-            String delimiter = options.getDelimiter() == null ? storageStrategy.getSeparator() : options.getDelimiter();
-            contents = extractCommonPrefixes(contents, delimiter, null);
+      if (Strings.isNullOrEmpty(delimiter)) {
+         delimiter = null;
+      }
+
+      int maxResults = options.getMaxResults() != null ? options.getMaxResults() : 1000;
+      String marker = options.getMarker();
+      SortedSet<StorageMetadata> contents = newTreeSet();
+      String nextMarker = null;
+      KeyIterator keys = blobKeys(containerName, prefix, marker);
+      String lastCommonPrefix = null;
+      while (maxResults > 0 && keys.hasNext()) {
+         String key = keys.next();
+         if (prefix != null && (!key.startsWith(prefix) || (excludePrefix && key.equals(prefix)))) {
+            continue;
          }
-
-         if (options.getMarker() != null) {
-            final String finalMarker = options.getMarker();
-            String delimiter = storageStrategy.getSeparator();
-            Optional<StorageMetadata> lastMarkerMetadata = tryFind(contents, new Predicate<StorageMetadata>() {
-               public boolean apply(StorageMetadata metadata) {
-                  return metadata.getName().compareTo(finalMarker) > 0;
+         if (lastCommonPrefix != null && key.startsWith(lastCommonPrefix)) {
+            continue;
+         }
+         String commonPrefix = delimiter != null ? commonPrefix(key, prefix, delimiter) : null;
+         if (commonPrefix != null) {
+            lastCommonPrefix = commonPrefix;
+            if (marker == null || commonPrefix.compareTo(marker) > 0) {
+               if (contents.size() == maxResults) {
+                  nextMarker = contents.last().getName();
+                  break;
                }
-            });
-            if (lastMarkerMetadata.isPresent()) {
-               contents = contents.tailSet(lastMarkerMetadata.get());
-            } else {
-               // marker is after last key or container is empty
-               contents.clear();
+               MutableStorageMetadata md = new MutableStorageMetadataImpl();
+               md.setType(StorageType.RELATIVE_PATH);
+               md.setName(commonPrefix);
+               contents.add(md);
             }
+            // skip over the rest of the keys rolled up into this common prefix
+            keys.seek(commonPrefix + (char) 65535);
+            continue;
          }
-
-         int maxResults = options.getMaxResults() != null ? options.getMaxResults() : 1000;
-         if (!contents.isEmpty()) {
-            StorageMetadata lastElement = contents.last();
-            contents = newTreeSet(Iterables.limit(contents, maxResults));
-            if (maxResults != 0 && !contents.contains(lastElement)) {
-               // Partial listing
-               lastElement = contents.last();
-               marker = lastElement.getName();
-            }
+         // ignore folders
+         if (!storageStrategy.blobExists(containerName, key)) {
+            continue;
          }
-
+         if (contents.size() == maxResults) {
+            nextMarker = contents.last().getName();
+            break;
+         }
+         Blob oldBlob = loadBlob(containerName, key);
+         if (oldBlob == null) {
+            continue;
+         }
+         checkState(oldBlob.getMetadata() != null, "blob " + containerName + "/" + key + " has no metadata");
+         MutableBlobMetadata md = BlobStoreUtils.copy(oldBlob.getMetadata());
+         md.setSize(oldBlob.getMetadata().getSize());
          // trim metadata, if the response isn't supposed to be detailed.
          if (!options.isDetailed()) {
-            for (StorageMetadata md : contents) {
-               md.getUserMetadata().clear();
-            }
+            md.getUserMetadata().clear();
          }
+         contents.add(md);
       }
 
-      return new PageSetImpl<StorageMetadata>(contents, marker);
-   }
-
-   private SortedSet<StorageMetadata> filterDirectory(SortedSet<StorageMetadata> contents, ListContainerOptions
-           options) {
-      String prefix = options.getDir();
-      final String dirPrefix = prefix.endsWith("/") ?
-              prefix :
-              prefix + "/";
-      contents = newTreeSet(filter(contents, new Predicate<StorageMetadata>() {
-         public boolean apply(StorageMetadata o) {
-            return o != null
-                    && o.getName().replace(File.separatorChar, '/').startsWith(dirPrefix)
-                    && !o.getName().replace(File.separatorChar, '/').equals(dirPrefix);
-         }
-      }));
-
-      if (!options.isRecursive()) {
-         return extractCommonPrefixes(contents, storageStrategy.getSeparator(), dirPrefix);
-      }
-
-      return contents;
+      return new PageSetImpl<StorageMetadata>(contents, nextMarker);
    }
 
-   private SortedSet<StorageMetadata> filterPrefix(SortedSet<StorageMetadata> contents, final ListContainerOptions
-                                                   options) {
-      contents = newTreeSet(filter(contents, new Predicate<StorageMetadata>() {
-         public boolean apply(StorageMetadata o) {
-            return o != null && o.getName().replace(File.separatorChar, '/').startsWith(options.getPrefix());
-         }
-      }));
-
-      if (options.getDelimiter() != null || !options.isRecursive()) {
-          String delimiter = options.getDelimiter() == null ? storageStrategy.getSeparator() : options.getDelimiter();
-          return extractCommonPrefixes(contents, delimiter, options.getPrefix());
+   private KeyIterator blobKeys(String containerName, String prefix, String marker) {
+      try {
+         return storageStrategy.getBlobKeysInsideContainer(containerName, prefix, marker);
+      } catch (IOException e) {
+         logger.error(e, "An error occurred loading blobs contained into container %s", containerName);
+         throw propagate(e);
       }
-
-      return contents;
    }
 
-   private SortedSet<StorageMetadata> extractCommonPrefixes(SortedSet<StorageMetadata> contents, String delimiter,
-                                                            String prefix) {
-      if (Strings.isNullOrEmpty(delimiter)) {
-         return contents;
-      }
-      SortedSet<String> commonPrefixes = newTreeSet(
-              transform(contents, new CommonPrefixes(prefix, delimiter)));
-      commonPrefixes.remove(CommonPrefixes.NO_PREFIX);
-
-      contents = newTreeSet(filter(contents, new DelimiterFilter(prefix, delimiter)));
-
-      for (String o : commonPrefixes) {
-         MutableStorageMetadata md = new MutableStorageMetadataImpl();
-         md.setType(StorageType.RELATIVE_PATH);
-
-         if (prefix != null) {
-            o = prefix + o;
-         }
-         md.setName(o + delimiter);
-         contents.add(md);
+   /**
+    * Returns the name of the common prefix {@code key} rolls up into, including the delimiter, or null if the key has
+    * no delimiter after {@code prefix}.
+    */
+   private static String commonPrefix(String key, String prefix, String delimiter) {
+      int start = prefix != null ? prefix.length() : 0;
+      int index = key.indexOf(delimiter, start);
+      if (index < 0) {
+         return null;
       }
-      return contents;
+      return key.substring(0, index + delimiter.length());
    }
 
    private ContainerNotFoundException cnfe(final String name) {
@@ -468,60 +438,6 @@ public final class LocalBlobStore implements BlobStore {
       return storageStrategy.getBlob(container, key);
    }
 
-   private static class DelimiterFilter implements Predicate<StorageMetadata> {
-      private final String prefix;
-      private final String delimiter;
-
-      public DelimiterFilter(String prefix, String delimiter) {
-         this.prefix = prefix;
-         this.delimiter = delimiter;
-      }
-
-      public boolean apply(StorageMetadata metadata) {
-         String name = metadata.getName();
-         if (prefix == null || prefix.isEmpty()) {
-            return name.indexOf(delimiter) == -1;
-         }
-         if (name.startsWith(prefix)) {
-            String unprefixedName = name.substring(prefix.length());
-            if (unprefixedName.equals("")) {
-               // a blob that matches the prefix should also be returned
-               return true;
-            }
-            return unprefixedName.indexOf(delimiter) == -1;
-         }
-         return false;
-      }
-   }
-
-   private static class CommonPrefixes implements Function<StorageMetadata, String> {
-      private final String prefix;
-      private final String delimiter;
-      public static final String NO_PREFIX = "NO_PREFIX";
-
-      public CommonPrefixes(String prefix, String delimiter) {
-         this.prefix = prefix;
-         this.delimiter = delimiter;
-      }
-
-      public String apply(StorageMetadata metadata) {
-         String working = metadata.getName();
-         if (prefix != null) {
-            if (working.startsWith(prefix)) {
-               working = working.substring(prefix.length());
-            } else {
-               return NO_PREFIX;
-            }
-         }
-         if (working.indexOf(delimiter) >= 0) {
-            // include the delimiter in the result
-            return working.substring(0, working.indexOf(delimiter));
-         } else {
-            return NO_PREFIX;
-         }
-      }
-   }
-
    private static HttpResponseException returnResponseException(int code) {
       HttpResponse response = HttpResponse.builder().statusCode(code).build();
       return new HttpResponseException(new HttpCommand(HttpRequest.builder().method("GET").endpoint("http://stub")
@@ -564,10 +480,16 @@ public final class LocalBlobStore implements BlobStore {
 
       InputStream is = null;
       try {
-         is = blob.getPayload().openStream();
          ContentMetadata metadata = blob.getMetadata().getContentMetadata();
-         BlobBuilder.PayloadBlobBuilder builder = blobBuilder(toName)
-               .payload(is);
+         BlobBuilder.PayloadBlobBuilder builder;
+         Object rawContent = blob.getPayload().getRawContent();
+         if (rawContent instanceof ByteSource) {
+            // lets the storage strategy recognize its own content, e.g. to copy files without reading them
+            builder = blobBuilder(toName).payload((ByteSource) rawContent);
+         } else {
+            is = blob.getPayload().openStream();
+            builder = blobBuilder(toName).payload(is);
+         }
          Long contentLength = metadata.getContentLength();
          if (contentLength != null) {
             builder.contentLength(contentLength);
@@ -972,24 +894,34 @@ public final class LocalBlobStore implements BlobStore {
       return Integer.MAX_VALUE;
    }
 
+   @Override
+   public int getMaximumBatchDeleteSize() {
+      return 1;
+   }
+
    @Override
    public void downloadBlob(String container, String name, File destination) {
-      throw new UnsupportedOperationException();
+      downloadBlob(container, name, destination, userExecutor);
    }
 
    @Override
    public void downloadBlob(String container, String name, File destination, ExecutorService executor) {
-      throw new UnsupportedOperationException();
+      newBlobDownloader().download(container, name, destination, executor);
    }
 
    @Override
    public InputStream streamBlob(String container, String name) {
-      throw new UnsupportedOperationException();
+      return streamBlob(container, name, userExecutor);
    }
 
    @Override
    public InputStream streamBlob(String container, String name, ExecutorService executor) {
-      throw new UnsupportedOperationException();
+      return newBlobDownloader().stream(container, name, executor);
+   }
+
+   private ParallelBlobDownloader newBlobDownloader() {
+      return new ParallelBlobDownloader(this, MultipartUploadSlicingAlgorithm.DEFAULT_PART_SIZE,
+            Math.max(1, partsInFlight));
    }
 
    private static String maybeQuoteETag(String eTag) {
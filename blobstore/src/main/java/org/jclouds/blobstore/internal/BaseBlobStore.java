@@ -28,10 +28,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Named;
 
@@ -41,6 +45,7 @@ import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobBuilder;
+import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.MultipartPart;
 import org.jclouds.blobstore.domain.MultipartUpload;
 import org.jclouds.blobstore.domain.PageSet;
@@ -48,7 +53,9 @@ import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.options.CopyOptions;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.blobstore.options.PutOptions;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
 import org.jclouds.blobstore.strategy.internal.MultipartUploadSlicingAlgorithm;
+import org.jclouds.blobstore.strategy.internal.ParallelBlobDownloader;
 import org.jclouds.blobstore.util.BlobUtils;
 import org.jclouds.collect.Memoized;
 import org.jclouds.domain.Location;
@@ -60,6 +67,7 @@ import org.jclouds.io.ContentMetadata;
 import org.jclouds.io.Payload;
 import org.jclouds.io.Payloads;
 import org.jclouds.io.PayloadSlicer;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.util.Closeables2;
 
 import com.google.common.annotations.Beta;
@@ -67,9 +75,13 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
 import com.google.common.base.Throwables;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 
 public abstract class BaseBlobStore implements BlobStore {
 
@@ -146,6 +158,15 @@ public abstract class BaseBlobStore implements BlobStore {
       }
    }
 
+   /**
+    * This implementation returns 1, since {@link #removeBlobs} deletes one blob at a time. Providers overriding
+    * {@link #removeBlobs} with a bulk delete should return the size of their batches.
+    */
+   @Override
+   public int getMaximumBatchDeleteSize() {
+      return 1;
+   }
+
    /**
     * This implementation invokes {@link #countBlobs} with the
     * {@link ListContainerOptions#recursive} option.
@@ -271,26 +292,7 @@ public abstract class BaseBlobStore implements BlobStore {
          throw new KeyNotFoundException(fromContainer, fromName, "while copying");
       }
 
-      String eTag = blob.getMetadata().getETag();
-      if (eTag != null) {
-         eTag = maybeQuoteETag(eTag);
-         if (options.ifMatch() != null && !maybeQuoteETag(options.ifMatch()).equals(eTag)) {
-            throw returnResponseException(412);
-         }
-         if (options.ifNoneMatch() != null && maybeQuoteETag(options.ifNoneMatch()).equals(eTag)) {
-            throw returnResponseException(412);
-         }
-      }
-
-      Date lastModified = blob.getMetadata().getLastModified();
-      if (lastModified != null) {
-         if (options.ifModifiedSince() != null && lastModified.compareTo(options.ifModifiedSince()) <= 0) {
-            throw returnResponseException(412);
-         }
-         if (options.ifUnmodifiedSince() != null && lastModified.compareTo(options.ifUnmodifiedSince()) >= 0) {
-            throw returnResponseException(412);
-         }
-      }
+      checkCopyPreconditions(blob.getMetadata(), options);
 
       InputStream is = null;
       try {
@@ -328,10 +330,45 @@ public abstract class BaseBlobStore implements BlobStore {
       }
    }
 
+   /**
+    * Evaluates the conditions of {@code options} against the source of a copy, failing like the server would with a
+    * 412 response.
+    */
+   protected static void checkCopyPreconditions(BlobMetadata source, CopyOptions options) {
+      String eTag = source.getETag();
+      if (eTag != null) {
+         eTag = maybeQuoteETag(eTag);
+         if (options.ifMatch() != null && !maybeQuoteETag(options.ifMatch()).equals(eTag)) {
+            throw returnResponseException(412);
+         }
+         if (options.ifNoneMatch() != null && maybeQuoteETag(options.ifNoneMatch()).equals(eTag)) {
+            throw returnResponseException(412);
+         }
+      }
+
+      Date lastModified = source.getLastModified();
+      if (lastModified != null) {
+         if (options.ifModifiedSince() != null && lastModified.compareTo(options.ifModifiedSince()) <= 0) {
+            throw returnResponseException(412);
+         }
+         if (options.ifUnmodifiedSince() != null && lastModified.compareTo(options.ifUnmodifiedSince()) >= 0) {
+            throw returnResponseException(412);
+         }
+      }
+   }
+
    @com.google.inject.Inject
    @Named(PROPERTY_USER_THREADS)
    @VisibleForTesting
-   ListeningExecutorService userExecutor;
+   protected ListeningExecutorService userExecutor;
+
+   /** Largest part that {@link #putMultipartBlob} buffers in memory when the payload is not repeatable. */
+   private static final long MAX_PART_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
+   @com.google.inject.Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_MULTIPART_PARTS_IN_FLIGHT)
+   @VisibleForTesting
+   protected int partsInFlight = 4;
 
    /**
     * Upload using a user-provided executor, or the jclouds userExecutor
@@ -352,53 +389,140 @@ public abstract class BaseBlobStore implements BlobStore {
 
    @Beta
    protected String putMultipartBlob(String container, Blob blob, PutOptions overrides, ListeningExecutorService executor) {
-      ArrayList<ListenableFuture<MultipartPart>> parts = new ArrayList<ListenableFuture<MultipartPart>>();
       MultipartUpload mpu = initiateMultipartUpload(container, blob.getMetadata(), overrides);
-      // Cannot slice InputStream Payload since slice and close mutate the
-      // underlying stream.  Also issue synchronous uploads to avoid buffering
-      // arbitrary amounts of data in-memory.
-      Payload payload = blob.getPayload();
-      boolean repeatable = blob.getPayload().isRepeatable();
-      if (!repeatable) {
-         payload = Payloads.newInputStreamPayload(new FilterInputStream((InputStream) payload.getRawContent()) {
-            @Override
-            public long skip(long offset) throws IOException {
-               // intentionally not implemented
-               return offset;
-            }
-
-            @Override
-            public void close() throws IOException {
-               // intentionally not implemented
-            }
-         });
-      }
-
+      List<ListenableFuture<MultipartPart>> parts = new ArrayList<ListenableFuture<MultipartPart>>();
       try {
          long contentLength = blob.getMetadata().getContentMetadata().getContentLength();
          // TODO: inject MultipartUploadSlicingAlgorithm to override default part size
          MultipartUploadSlicingAlgorithm algorithm = new MultipartUploadSlicingAlgorithm(
                getMinimumMultipartPartSize(), getMaximumMultipartPartSize(), getMaximumNumberOfParts());
          long partSize = algorithm.calculateChunkSize(contentLength);
-         int partNumber = 1;
-         while (partNumber <= algorithm.getParts()) {
-            Payload slice = slicer.slice(payload, algorithm.getCopied(), partSize);
-            BlobUploader b = new BlobUploader(mpu, partNumber++, slice);
-            parts.add(repeatable ? executor.submit(b) : Futures.immediateFuture(b.call()));
-            algorithm.addCopied(partSize);
-         }
-         if (algorithm.getRemaining() != 0) {
-            Payload slice = slicer.slice(payload, algorithm.getCopied(), algorithm.getRemaining());
-            BlobUploader b = new BlobUploader(mpu, partNumber, slice);
-            parts.add(repeatable ? executor.submit(b) : Futures.immediateFuture(b.call()));
+         if (blob.getPayload().isRepeatable()) {
+            parts = uploadSlices(mpu, blob.getPayload(), algorithm, partSize, executor);
+         } else if (partSize <= MAX_PART_BUFFER_SIZE) {
+            parts = uploadBufferedParts(mpu, (InputStream) blob.getPayload().getRawContent(), algorithm,
+                  (int) partSize, executor);
+         } else {
+            parts = uploadSlicesSequentially(mpu, blob.getPayload(), algorithm, partSize);
          }
          return completeMultipartUpload(mpu, Futures.getUnchecked(Futures.allAsList(parts)));
       } catch (RuntimeException re) {
+         cancel(parts);
          abortMultipartUpload(mpu);
          throw re;
       }
    }
 
+   private static void cancel(List<ListenableFuture<MultipartPart>> parts) {
+      for (ListenableFuture<MultipartPart> part : parts) {
+         part.cancel(true);
+      }
+   }
+
+   /**
+    * Uploads slices of {@code payload} on {@code executor}, or one at a time on the calling thread, stopping at the
+    * first failure, when {@code executor} is {@code null}.
+    */
+   private List<ListenableFuture<MultipartPart>> uploadSlices(MultipartUpload mpu, Payload payload,
+         MultipartUploadSlicingAlgorithm algorithm, long partSize, @Nullable ListeningExecutorService executor) {
+      List<ListenableFuture<MultipartPart>> parts = new ArrayList<ListenableFuture<MultipartPart>>();
+      int partNumber = 1;
+      while (partNumber <= algorithm.getParts()) {
+         Payload slice = slicer.slice(payload, algorithm.getCopied(), partSize);
+         BlobUploader b = new BlobUploader(mpu, partNumber++, slice);
+         parts.add(executor != null ? executor.submit(b) : Futures.immediateFuture(b.call()));
+         algorithm.addCopied(partSize);
+      }
+      if (algorithm.getRemaining() != 0) {
+         Payload slice = slicer.slice(payload, algorithm.getCopied(), algorithm.getRemaining());
+         BlobUploader b = new BlobUploader(mpu, partNumber, slice);
+         parts.add(executor != null ? executor.submit(b) : Futures.immediateFuture(b.call()));
+      }
+      return parts;
+   }
+
+   /**
+    * Reads a non-repeatable payload into a bounded pool of part buffers, uploading up to
+    * {@link BlobStoreConstants#PROPERTY_MULTIPART_PARTS_IN_FLIGHT} parts concurrently while the next ones are read.
+    * Reading blocks until a buffer is released by a finished upload, so at most {@code partsInFlight * partSize}
+    * bytes are held in memory. If reading fails, the parts already submitted are cancelled before the exception
+    * propagates.
+    */
+   private List<ListenableFuture<MultipartPart>> uploadBufferedParts(MultipartUpload mpu, InputStream input,
+         MultipartUploadSlicingAlgorithm algorithm, int partSize, ListeningExecutorService executor) {
+      List<ListenableFuture<MultipartPart>> parts = new ArrayList<ListenableFuture<MultipartPart>>();
+      final BlockingQueue<byte[]> buffers = new LinkedBlockingQueue<byte[]>();
+      int buffersAllocated = 0;
+      final AtomicBoolean failed = new AtomicBoolean();
+      int partNumber = 1;
+      long remaining = algorithm.getRemaining();
+      int partCount = algorithm.getParts() + (remaining != 0 ? 1 : 0);
+      try {
+         for (; partNumber <= partCount && !failed.get(); partNumber++) {
+            int size = partNumber <= algorithm.getParts() ? partSize : (int) remaining;
+            byte[] buffer = buffers.poll();
+            if (buffer == null) {
+               if (buffersAllocated < Math.max(1, partsInFlight)) {
+                  buffer = new byte[partSize];
+                  buffersAllocated++;
+               } else {
+                  buffer = buffers.take();
+               }
+            }
+            ByteStreams.readFully(input, buffer, 0, size);
+            Payload slice = Payloads.newByteSourcePayload(ByteSource.wrap(buffer).slice(0, size));
+            slice.getContentMetadata().setContentLength((long) size);
+            ListenableFuture<MultipartPart> part = executor.submit(new BlobUploader(mpu, partNumber, slice));
+            final byte[] partBuffer = buffer;
+            Futures.addCallback(part, new FutureCallback<MultipartPart>() {
+               @Override
+               public void onSuccess(MultipartPart result) {
+                  buffers.add(partBuffer);
+               }
+
+               @Override
+               public void onFailure(Throwable t) {
+                  failed.set(true);
+                  buffers.add(partBuffer);
+               }
+            }, MoreExecutors.directExecutor());
+            parts.add(part);
+         }
+      } catch (IOException ioe) {
+         cancel(parts);
+         throw Throwables.propagate(ioe);
+      } catch (InterruptedException ie) {
+         cancel(parts);
+         Thread.currentThread().interrupt();
+         throw Throwables.propagate(ie);
+      } catch (RuntimeException re) {
+         cancel(parts);
+         throw re;
+      }
+      return parts;
+   }
+
+   /**
+    * Uploads a non-repeatable payload one part at a time, for parts too large to buffer in memory. Slicing and
+    * closing would mutate the underlying stream, so slices share it through a wrapper that ignores both.
+    */
+   private List<ListenableFuture<MultipartPart>> uploadSlicesSequentially(MultipartUpload mpu, Payload payload,
+         MultipartUploadSlicingAlgorithm algorithm, long partSize) {
+      payload = Payloads.newInputStreamPayload(new FilterInputStream((InputStream) payload.getRawContent()) {
+         @Override
+         public long skip(long offset) throws IOException {
+            // intentionally not implemented
+            return offset;
+         }
+
+         @Override
+         public void close() throws IOException {
+            // intentionally not implemented
+         }
+      });
+      return uploadSlices(mpu, payload, algorithm, partSize, null);
+   }
+
    private final class BlobUploader implements Callable<MultipartPart> {
       private final MultipartUpload mpu;
       private final int partNumber;
@@ -430,23 +554,39 @@ public abstract class BaseBlobStore implements BlobStore {
       return eTag;
    }
 
+   /**
+    * Downloads the blob as concurrent ranged GETs on the jclouds userExecutor.
+    */
+   @Beta
    @Override
    public void downloadBlob(String container, String name, File destination) {
-      throw new UnsupportedOperationException("Operation not supported yet");
+      downloadBlob(container, name, destination, userExecutor);
    }
 
+   @Beta
    @Override
    public void downloadBlob(String container, String name, File destination, ExecutorService executor) {
-      throw new UnsupportedOperationException("Operation not supported yet");
+      newBlobDownloader().download(container, name, destination, executor);
    }
 
+   /**
+    * Streams the blob from concurrent ranged GETs on the jclouds userExecutor, buffering at most
+    * {@link BlobStoreConstants#PROPERTY_MULTIPART_PARTS_IN_FLIGHT} parts ahead of the reader.
+    */
+   @Beta
    @Override
    public InputStream streamBlob(String container, String name) {
-      throw new UnsupportedOperationException("Operation not supported yet");
+      return streamBlob(container, name, userExecutor);
    }
 
+   @Beta
    @Override
    public InputStream streamBlob(String container, String name, ExecutorService executor) {
-      throw new UnsupportedOperationException("Operation not supported yet");
+      return newBlobDownloader().stream(container, name, executor);
+   }
+
+   private ParallelBlobDownloader newBlobDownloader() {
+      return new ParallelBlobDownloader(this, MultipartUploadSlicingAlgorithm.DEFAULT_PART_SIZE,
+            Math.max(1, partsInFlight));
    }
 }
@@ -53,6 +53,14 @@ public final class BlobStoreConstants {
     */
    public static final String PROPERTY_USER_METADATA_PREFIX = "jclouds.blobstore.metaprefix";
 
+   /**
+    * Number of parts a multipart upload of a non-repeatable payload, such as an InputStream, reads ahead and uploads
+    * concurrently, and the number of ranges streamBlob downloads ahead of its reader. Each part in flight is buffered
+    * in memory, so this bounds memory use to this many part sizes. Providers that copy large blobs in server-side part
+    * copies also run at most this many at once. Defaults to 4.
+    */
+   public static final String PROPERTY_MULTIPART_PARTS_IN_FLIGHT = "jclouds.blobstore.multipart.parts-in-flight";
+
    public static final String BLOBSTORE_LOGGER = "jclouds.blobstore";
    public static final String DIRECTORY_BLOB_SUFFIX = "/";
 
@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.jclouds.blobstore.options.GetOptions.Builder.range;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.KeyNotFoundException;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.options.GetOptions;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.util.Closeables2;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Throwables;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Downloads a blob as concurrent ranged GETs, for any {@link BlobStore} that honors
+ * {@link org.jclouds.blobstore.options.GetOptions#range}.
+ * <p>
+ * Every range is requested with {@code If-Match} on the ETag the blob had when the download started, so a blob
+ * replaced mid-download fails with a 412 {@link HttpResponseException} instead of mixing bytes of two versions.
+ * <p>
+ * {@link #download} writes every range straight to its position in the destination file, so the number of
+ * concurrent requests is bounded only by the executor. {@link #stream} keeps at most {@code partsInFlight} ranges
+ * downloading ahead of the reader and hands them out in order.
+ */
+@Beta
+public final class ParallelBlobDownloader {
+
+   private static final int COPY_BUFFER_SIZE = 64 * 1024;
+   private static final int ATTEMPTS = 3;
+
+   private final BlobStore blobStore;
+   private final long partSize;
+   private final int partsInFlight;
+
+   public ParallelBlobDownloader(BlobStore blobStore, long partSize, int partsInFlight) {
+      this.blobStore = checkNotNull(blobStore, "blobStore");
+      checkArgument(partSize > 0 && partSize <= Integer.MAX_VALUE - 8, "partSize must be positive and fit an array");
+      this.partSize = partSize;
+      checkArgument(partsInFlight > 0, "partsInFlight must be positive");
+      this.partsInFlight = partsInFlight;
+   }
+
+   /**
+    * Downloads the blob into a temporary file next to {@code destination}, which replaces {@code destination} once
+    * every range has been written.
+    */
+   public void download(String container, String name, File destination, ExecutorService executor) {
+      BlobMetadata metadata = metadata(container, name);
+      long contentLength = contentLength(metadata);
+      ListeningExecutorService listeningExecutor = MoreExecutors.listeningDecorator(executor);
+      File tempFile = new File(destination + "." + UUID.randomUUID());
+      try {
+         try (FileChannel channel = FileChannel.open(tempFile.toPath(), CREATE_NEW, WRITE)) {
+            List<ListenableFuture<Void>> results = new ArrayList<ListenableFuture<Void>>();
+            for (long from = 0; from < contentLength; from += partSize) {
+               long to = Math.min(from + partSize, contentLength) - 1;
+               results.add(listeningExecutor.submit(new RangeWriter(container, name, metadata.getETag(), from, to,
+                     channel)));
+            }
+            try {
+               Futures.getUnchecked(Futures.allAsList(results));
+            } catch (RuntimeException e) {
+               cancel(results);
+               throw e;
+            }
+         }
+         Files.move(tempFile.toPath(), destination.toPath(), REPLACE_EXISTING);
+         tempFile = null;
+      } catch (IOException e) {
+         throw Throwables.propagate(e);
+      } finally {
+         if (tempFile != null) {
+            tempFile.delete();
+         }
+      }
+   }
+
+   /**
+    * Returns a stream over the blob content. Ranges are fetched on {@code executor} and buffered in memory, at most
+    * {@code partsInFlight} of them ahead of the one being read; closing the stream cancels the outstanding ones.
+    */
+   public InputStream stream(String container, String name, ExecutorService executor) {
+      BlobMetadata metadata = metadata(container, name);
+      return new RangeInputStream(container, name, metadata.getETag(), contentLength(metadata),
+            MoreExecutors.listeningDecorator(executor));
+   }
+
+   private BlobMetadata metadata(String container, String name) {
+      BlobMetadata metadata = blobStore.blobMetadata(container, name);
+      if (metadata == null) {
+         throw new KeyNotFoundException(container, name, "while downloading");
+      }
+      return metadata;
+   }
+
+   private static long contentLength(BlobMetadata metadata) {
+      Long contentLength = metadata.getContentMetadata().getContentLength();
+      if (contentLength == null) {
+         contentLength = metadata.getSize();
+      }
+      checkState(contentLength != null, "unknown length of %s/%s", metadata.getContainer(), metadata.getName());
+      return contentLength;
+   }
+
+   /**
+    * Opens one range of the blob. A 412 from {@code If-Match} is not an {@link IOException}, so a blob that changed
+    * since the download started fails the download instead of being retried.
+    */
+   private InputStream openRange(String container, String name, @Nullable String eTag, long from, long to)
+         throws IOException {
+      GetOptions options = range(from, to);
+      if (eTag != null) {
+         options.ifETagMatches(eTag);
+      }
+      Blob blob = blobStore.getBlob(container, name, options);
+      if (blob == null) {
+         throw new KeyNotFoundException(container, name, "while downloading range " + from + "-" + to);
+      }
+      return blob.getPayload().openStream();
+   }
+
+   private static void cancel(Iterable<? extends Future<?>> futures) {
+      for (Future<?> future : futures) {
+         future.cancel(true);
+      }
+   }
+
+   /** Writes one range to its position in the destination file, retrying interrupted transfers. */
+   private final class RangeWriter implements Callable<Void> {
+      private final String container;
+      private final String name;
+      private final String eTag;
+      private final long from;
+      private final long to;
+      private final FileChannel channel;
+
+      RangeWriter(String container, String name, @Nullable String eTag, long from, long to, FileChannel channel) {
+         this.container = container;
+         this.name = name;
+         this.eTag = eTag;
+         this.from = from;
+         this.to = to;
+         this.channel = channel;
+      }
+
+      @Override
+      public Void call() throws IOException {
+         IOException lastException = null;
+         for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            InputStream is = null;
+            try {
+               is = openRange(container, name, eTag, from, to);
+               byte[] buffer = new byte[COPY_BUFFER_SIZE];
+               long position = from;
+               while (position <= to) {
+                  int read = is.read(buffer, 0, (int) Math.min(buffer.length, to - position + 1));
+                  if (read == -1) {
+                     throw new EOFException("range " + from + "-" + to + " of " + container + "/" + name
+                           + " ended at " + position);
+                  }
+                  ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                  while (bytes.hasRemaining()) {
+                     position += channel.write(bytes, position);
+                  }
+               }
+               return null;
+            } catch (InterruptedIOException e) {
+               throw e;
+            } catch (IOException e) {
+               lastException = e;
+            } finally {
+               Closeables2.closeQuietly(is);
+            }
+         }
+         throw lastException;
+      }
+   }
+
+   /** Reads one range into memory, retrying interrupted transfers. */
+   private final class RangeReader implements Callable<byte[]> {
+      private final String container;
+      private final String name;
+      private final String eTag;
+      private final long from;
+      private final long to;
+
+      RangeReader(String container, String name, @Nullable String eTag, long from, long to) {
+         this.container = container;
+         this.name = name;
+         this.eTag = eTag;
+         this.from = from;
+         this.to = to;
+      }
+
+      @Override
+      public byte[] call() throws IOException {
+         IOException lastException = null;
+         for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            InputStream is = null;
+            try {
+               is = openRange(container, name, eTag, from, to);
+               byte[] bytes = new byte[(int) (to - from + 1)];
+               ByteStreams.readFully(is, bytes);
+               return bytes;
+            } catch (InterruptedIOException e) {
+               throw e;
+            } catch (IOException e) {
+               lastException = e;
+            } finally {
+               Closeables2.closeQuietly(is);
+            }
+         }
+         throw lastException;
+      }
+   }
+
+   /** Hands out ranges in order while the following ones download; a bounded reorder buffer. */
+   private final class RangeInputStream extends InputStream {
+      private final String container;
+      private final String name;
+      private final String eTag;
+      private final long contentLength;
+      private final ListeningExecutorService executor;
+      private final Deque<ListenableFuture<byte[]>> pending = new ArrayDeque<ListenableFuture<byte[]>>();
+      private long nextRange;
+      private byte[] current = new byte[0];
+      private int position;
+      private boolean closed;
+
+      RangeInputStream(String container, String name, @Nullable String eTag, long contentLength,
+            ListeningExecutorService executor) {
+         this.container = container;
+         this.name = name;
+         this.eTag = eTag;
+         this.contentLength = contentLength;
+         this.executor = executor;
+         fill();
+      }
+
+      private void fill() {
+         while (pending.size() < partsInFlight && nextRange < contentLength) {
+            long to = Math.min(nextRange + partSize, contentLength) - 1;
+            pending.add(executor.submit(new RangeReader(container, name, eTag, nextRange, to)));
+            nextRange = to + 1;
+         }
+      }
+
+      /** Makes sure there are unread bytes in {@link #current}, returning {@code false} at the end of the blob. */
+      private boolean advance() throws IOException {
+         if (closed) {
+            throw new IOException("Stream closed");
+         }
+         while (position == current.length) {
+            ListenableFuture<byte[]> next = pending.poll();
+            if (next == null) {
+               return false;
+            }
+            try {
+               current = next.get();
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               close();
+               throw new InterruptedIOException("interrupted while downloading " + container + "/" + name);
+            } catch (ExecutionException e) {
+               close();
+               Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+               throw new IOException(e.getCause());
+            }
+            position = 0;
+            fill();
+         }
+         return true;
+      }
+
+      @Override
+      public int read() throws IOException {
+         if (!advance()) {
+            return -1;
+         }
+         return current[position++] & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         if (len == 0) {
+            return 0;
+         }
+         if (!advance()) {
+            return -1;
+         }
+         int read = Math.min(len, current.length - position);
+         System.arraycopy(current, position, b, off, read);
+         position += read;
+         return read;
+      }
+
+      @Override
+      public int available() {
+         return closed ? 0 : current.length - position;
+      }
+
+      @Override
+      public void close() {
+         if (!closed) {
+            closed = true;
+            cancel(pending);
+            pending.clear();
+            current = new byte[0];
+            position = 0;
+         }
+      }
+   }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.config;
+
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.maxResults;
+import static org.testng.Assert.assertEquals;
+
+import java.util.List;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Pages through the listing of a {@link LocalBlobStore} with markers, max results and delimiters. Subclasses run the
+ * same tests against other storage strategies.
+ */
+@Test(groups = "unit", singleThreaded = true, testName = "LocalBlobStoreListTest")
+public class LocalBlobStoreListTest {
+
+   private static final String CONTAINER = "paging";
+   private static final List<String> KEYS = ImmutableList.of("a", "b/1", "b/2", "b/c/3", "c/1", "d", "e/1");
+
+   private BlobStoreContext context;
+   private BlobStore blobStore;
+
+   protected BlobStoreContext createContext() {
+      return ContextBuilder.newBuilder("transient").build(BlobStoreContext.class);
+   }
+
+   @BeforeMethod
+   public void setUp() throws Exception {
+      context = createContext();
+      blobStore = context.getBlobStore();
+      blobStore.createContainerInLocation(null, CONTAINER);
+      for (String key : KEYS) {
+         blobStore.putBlob(CONTAINER, blobStore.blobBuilder(key).payload(key).build());
+      }
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() throws Exception {
+      if (context != null) {
+         blobStore.deleteContainer(CONTAINER);
+         context.close();
+      }
+   }
+
+   /**
+    * Lists all the pages, each starting at the marker returned with the previous one.
+    */
+   private List<List<String>> pages(String prefix, boolean recursive, String marker, int pageSize) {
+      List<List<String>> pages = Lists.newArrayList();
+      do {
+         ListContainerOptions options = maxResults(pageSize);
+         if (prefix != null) {
+            options.prefix(prefix);
+         }
+         if (recursive) {
+            options.recursive();
+         }
+         if (marker != null) {
+            options.afterMarker(marker);
+         }
+         PageSet<? extends StorageMetadata> page = blobStore.list(CONTAINER, options);
+         List<String> names = Lists.newArrayList();
+         for (StorageMetadata metadata : page) {
+            names.add(metadata.getName());
+         }
+         pages.add(names);
+         marker = page.getNextMarker();
+      } while (marker != null);
+      return pages;
+   }
+
+   public void testRecursivePages() {
+      assertEquals(pages(null, true, null, 3), ImmutableList.of(
+            ImmutableList.of("a", "b/1", "b/2"), ImmutableList.of("b/c/3", "c/1", "d"), ImmutableList.of("e/1")));
+   }
+
+   public void testRecursivePageHoldingEveryKey() {
+      assertEquals(pages(null, true, null, KEYS.size()), ImmutableList.of(KEYS));
+   }
+
+   public void testDelimiterPagesRollUpCommonPrefixes() {
+      assertEquals(pages(null, false, null, 2), ImmutableList.of(
+            ImmutableList.of("a", "b/"), ImmutableList.of("c/", "d"), ImmutableList.of("e/")));
+   }
+
+   public void testDelimiterPagesWithPrefix() {
+      assertEquals(pages("b/", false, null, 1), ImmutableList.of(
+            ImmutableList.of("b/1"), ImmutableList.of("b/2"), ImmutableList.of("b/c/")));
+   }
+
+   public void testDelimiterSkipsCommonPrefixOfMarker() {
+      assertEquals(pages(null, false, "b/1", 10), ImmutableList.of(ImmutableList.of("c/", "d", "e/")));
+   }
+
+   public void testRecursiveMarkerInsideDirectory() {
+      assertEquals(pages(null, true, "b/2", 2), ImmutableList.of(
+            ImmutableList.of("b/c/3", "c/1"), ImmutableList.of("d", "e/1")));
+   }
+}
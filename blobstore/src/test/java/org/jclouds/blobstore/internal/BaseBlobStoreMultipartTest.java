@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.internal;
+
+import static org.easymock.EasyMock.createMock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.BlobAccess;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.domain.ContainerAccess;
+import org.jclouds.blobstore.domain.MultipartPart;
+import org.jclouds.blobstore.domain.MultipartUpload;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.domain.internal.BlobBuilderImpl;
+import org.jclouds.blobstore.options.CreateContainerOptions;
+import org.jclouds.blobstore.options.GetOptions;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.options.PutOptions;
+import org.jclouds.blobstore.util.BlobUtils;
+import org.jclouds.domain.Location;
+import org.jclouds.io.Payload;
+import org.jclouds.io.internal.BasePayloadSlicer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Tests the pipelined multipart upload of non-repeatable payloads in {@link BaseBlobStore#putMultipartBlob}.
+ */
+@Test(groups = "unit", testName = "BaseBlobStoreMultipartTest", singleThreaded = true)
+public class BaseBlobStoreMultipartTest {
+
+   /** 50 bytes in parts of 5 bytes: the largest part {@link MultipartBlobStore} allows. */
+   private static final byte[] CONTENT = new byte[50];
+
+   static {
+      for (int i = 0; i < CONTENT.length; i++) {
+         CONTENT[i] = (byte) i;
+      }
+   }
+
+   private ListeningExecutorService executor;
+
+   @BeforeMethod
+   public void setUp() {
+      executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(8));
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      executor.shutdownNow();
+   }
+
+   public void testPartsInFlightAreBounded() {
+      MultipartBlobStore blobStore = new MultipartBlobStore();
+      blobStore.partsInFlight = 2;
+
+      assertEquals(blobStore.putMultipartBlob("container", blob(new ByteArrayInputStream(CONTENT)),
+            PutOptions.NONE, executor), "complete");
+
+      assertTrue(blobStore.maxInFlight.get() >= 1 && blobStore.maxInFlight.get() <= 2,
+            "parts in flight: " + blobStore.maxInFlight.get());
+   }
+
+   public void testPartsAreNumberedInOrder() {
+      MultipartBlobStore blobStore = new MultipartBlobStore();
+
+      blobStore.putMultipartBlob("container", blob(new ByteArrayInputStream(CONTENT)), PutOptions.NONE, executor);
+
+      assertEquals(blobStore.completed.size(), 10);
+      for (int i = 0; i < blobStore.completed.size(); i++) {
+         MultipartPart part = blobStore.completed.get(i);
+         assertEquals(part.partNumber(), i + 1);
+         byte[] expected = new byte[5];
+         System.arraycopy(CONTENT, i * 5, expected, 0, 5);
+         assertEquals(blobStore.uploaded.get(part.partNumber()), expected);
+      }
+      assertFalse(blobStore.aborted);
+   }
+
+   public void testUploadFailureAborts() {
+      MultipartBlobStore blobStore = new MultipartBlobStore();
+      blobStore.failPart = 3;
+
+      try {
+         blobStore.putMultipartBlob("container", blob(new ByteArrayInputStream(CONTENT)), PutOptions.NONE, executor);
+         fail("expected the upload of part 3 to fail");
+      } catch (RuntimeException expected) {
+      }
+
+      assertTrue(blobStore.aborted);
+      assertTrue(blobStore.completed.isEmpty());
+   }
+
+   public void testReadFailureCancelsSubmittedPartsAndAborts() throws InterruptedException {
+      MultipartBlobStore blobStore = new MultipartBlobStore();
+      blobStore.blockUploads = new CountDownLatch(1);
+      InputStream endsAfterTwoParts = new ByteArrayInputStream(CONTENT, 0, 10);
+
+      try {
+         blobStore.putMultipartBlob("container", blob(endsAfterTwoParts), PutOptions.NONE, executor);
+         fail("expected reading part 3 to fail");
+      } catch (RuntimeException expected) {
+      }
+
+      assertTrue(blobStore.aborted);
+      // the blocked uploads of parts 1 and 2 only finish if they were cancelled
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+      assertTrue(blobStore.completed.isEmpty());
+   }
+
+   private static Blob blob(InputStream input) {
+      return new BlobBuilderImpl().name("blob").payload(input).contentLength(CONTENT.length).build();
+   }
+
+   /** Records the multipart calls; every other operation is unsupported. */
+   private static final class MultipartBlobStore extends BaseBlobStore {
+      final Map<Integer, byte[]> uploaded = new ConcurrentHashMap<Integer, byte[]>();
+      final List<MultipartPart> completed = new ArrayList<MultipartPart>();
+      final AtomicInteger inFlight = new AtomicInteger();
+      final AtomicInteger maxInFlight = new AtomicInteger();
+      volatile int failPart;
+      volatile CountDownLatch blockUploads;
+      volatile boolean aborted;
+
+      MultipartBlobStore() {
+         super(createMock(BlobStoreContext.class), createMock(BlobUtils.class), Suppliers.<Location> ofInstance(null),
+               Suppliers.<Set<? extends Location>> ofInstance(ImmutableSet.<Location> of()), new BasePayloadSlicer());
+      }
+
+      @Override
+      public MultipartUpload initiateMultipartUpload(String container, BlobMetadata blob, PutOptions options) {
+         return MultipartUpload.create(container, blob.getName(), "upload", blob, options);
+      }
+
+      @Override
+      public MultipartPart uploadMultipartPart(MultipartUpload mpu, int partNumber, Payload payload) {
+         int current = inFlight.incrementAndGet();
+         try {
+            for (int max = maxInFlight.get(); current > max && !maxInFlight.compareAndSet(max, current);) {
+               max = maxInFlight.get();
+            }
+            if (blockUploads != null) {
+               blockUploads.await();
+            }
+            Thread.sleep(10);
+            if (partNumber == failPart) {
+               throw new IllegalStateException("failed to upload part " + partNumber);
+            }
+            byte[] bytes = ByteStreams.toByteArray(payload.openStream());
+            uploaded.put(partNumber, bytes);
+            return MultipartPart.create(partNumber, bytes.length, "part" + partNumber, null);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+         } catch (IOException e) {
+            throw new IllegalStateException(e);
+         } finally {
+            inFlight.decrementAndGet();
+         }
+      }
+
+      @Override
+      public String completeMultipartUpload(MultipartUpload mpu, List<MultipartPart> parts) {
+         completed.addAll(parts);
+         return "complete";
+      }
+
+      @Override
+      public void abortMultipartUpload(MultipartUpload mpu) {
+         aborted = true;
+      }
+
+      @Override
+      public long getMinimumMultipartPartSize() {
+         return 1;
+      }
+
+      @Override
+      public long getMaximumMultipartPartSize() {
+         return 5;
+      }
+
+      @Override
+      public int getMaximumNumberOfParts() {
+         return 100;
+      }
+
+      @Override
+      public List<MultipartPart> listMultipartUpload(MultipartUpload mpu) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public List<MultipartUpload> listMultipartUploads(String container) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      protected boolean deleteAndVerifyContainerGone(String container) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Set<? extends Location> listAssignableLocations() {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public PageSet<? extends StorageMetadata> list() {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean containerExists(String container) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean createContainerInLocation(Location location, String container) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean createContainerInLocation(Location location, String container, CreateContainerOptions options) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public ContainerAccess getContainerAccess(String container) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void setContainerAccess(String container, ContainerAccess access) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public PageSet<? extends StorageMetadata> list(String container, ListContainerOptions options) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean blobExists(String container, String name) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public String putBlob(String container, Blob blob) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public String putBlob(String container, Blob blob, PutOptions options) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public BlobMetadata blobMetadata(String container, String name) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Blob getBlob(String container, String name, GetOptions options) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void removeBlob(String container, String name) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public BlobAccess getBlobAccess(String container, String name) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void setBlobAccess(String container, String name, BlobAccess access) {
+         throw new UnsupportedOperationException();
+      }
+   }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static org.jclouds.utils.TestUtils.randomByteSource;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.KeyNotFoundException;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.util.ForwardingBlobStore;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.util.Closeables2;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+@Test(groups = "unit", singleThreaded = true, testName = "ParallelBlobDownloaderTest")
+public class ParallelBlobDownloaderTest {
+
+   private static final String CONTAINER = "container";
+
+   private BlobStoreContext context;
+   private BlobStore blobStore;
+   private ExecutorService executor;
+   private ByteSource content;
+
+   @BeforeClass
+   public void setUp() throws Exception {
+      context = ContextBuilder.newBuilder("transient").build(BlobStoreContext.class);
+      blobStore = context.getBlobStore();
+      blobStore.createContainerInLocation(null, CONTAINER);
+      content = randomByteSource().slice(0, 10 * 1000 + 7);
+      blobStore.putBlob(CONTAINER, blobStore.blobBuilder("blob").payload(content).build());
+      blobStore.putBlob(CONTAINER, blobStore.blobBuilder("empty").payload(ByteSource.empty()).build());
+      executor = Executors.newFixedThreadPool(4);
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void tearDown() {
+      executor.shutdownNow();
+      Closeables2.closeQuietly(context);
+   }
+
+   public void testDownloadWritesEveryRange() throws Exception {
+      File destination = File.createTempFile("download", ".bin");
+      try {
+         new ParallelBlobDownloader(blobStore, 1000, 3).download(CONTAINER, "blob", destination, executor);
+         assertTrue(content.contentEquals(Files.asByteSource(destination)));
+      } finally {
+         destination.delete();
+      }
+   }
+
+   public void testDownloadEmptyBlob() throws Exception {
+      File destination = File.createTempFile("download", ".bin");
+      try {
+         new ParallelBlobDownloader(blobStore, 1000, 3).download(CONTAINER, "empty", destination, executor);
+         assertEquals(destination.length(), 0);
+      } finally {
+         destination.delete();
+      }
+   }
+
+   public void testStreamReturnsRangesInOrder() throws Exception {
+      InputStream is = new ParallelBlobDownloader(blobStore, 999, 2).stream(CONTAINER, "blob", executor);
+      try {
+         assertTrue(content.contentEquals(ByteSource.wrap(ByteStreams.toByteArray(is))));
+         assertEquals(is.read(), -1);
+      } finally {
+         is.close();
+      }
+   }
+
+   public void testDownloadFailsWhenBlobChanges() throws Exception {
+      blobStore.putBlob(CONTAINER, blobStore.blobBuilder("changing").payload(content).build());
+      File destination = File.createTempFile("download", ".bin");
+      try {
+         new ParallelBlobDownloader(replacedAfterMetadata("changing"), 1000, 3)
+               .download(CONTAINER, "changing", destination, executor);
+         fail("expected the ranges of the replaced blob to fail");
+      } catch (UncheckedExecutionException e) {
+         assertPreconditionFailed(e.getCause());
+      } finally {
+         destination.delete();
+      }
+   }
+
+   public void testStreamFailsWhenBlobChanges() throws Exception {
+      blobStore.putBlob(CONTAINER, blobStore.blobBuilder("changing").payload(content).build());
+      InputStream is = new ParallelBlobDownloader(replacedAfterMetadata("changing"), 999, 2)
+            .stream(CONTAINER, "changing", executor);
+      try {
+         ByteStreams.toByteArray(is);
+         fail("expected the ranges of the replaced blob to fail");
+      } catch (IOException e) {
+         assertPreconditionFailed(e.getCause());
+      } finally {
+         is.close();
+      }
+   }
+
+   /** Replaces {@code name} with different content right after its metadata is read. */
+   private BlobStore replacedAfterMetadata(final String name) {
+      return new ForwardingBlobStore(blobStore) {
+         @Override
+         public BlobMetadata blobMetadata(String container, String blobName) {
+            BlobMetadata metadata = super.blobMetadata(container, blobName);
+            putBlob(container, blobBuilder(name).payload(content.slice(1, content.size())).build());
+            return metadata;
+         }
+      };
+   }
+
+   private static void assertPreconditionFailed(Throwable t) {
+      assertTrue(t instanceof HttpResponseException, String.valueOf(t));
+      assertEquals(((HttpResponseException) t).getResponse().getStatusCode(), 412);
+   }
+
+   @Test(expectedExceptions = KeyNotFoundException.class)
+   public void testStreamMissingBlob() {
+      new ParallelBlobDownloader(blobStore, 1000, 2).stream(CONTAINER, "missing", executor);
+   }
+}
@@ -61,6 +61,7 @@ import org.jclouds.json.Json;
 import org.jclouds.location.Provider;
 import org.jclouds.rest.AuthorizationException;
 import org.jclouds.rest.suppliers.MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier;
+import org.jclouds.rest.suppliers.RefreshAhead;
 import org.jclouds.scriptbuilder.domain.Statement;
 import org.jclouds.scriptbuilder.statements.login.AdminAccess;
 import org.jclouds.ssh.SshClient;
@@ -244,10 +245,11 @@ public abstract class BaseComputeServiceContextModule extends AbstractModule {
    @Memoized
    protected final Supplier<Set<? extends Image>> supplyImageCache(
          AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
-         final Supplier<Set<? extends Image>> imageSupplier, com.google.inject.Provider<GetImageStrategy> imageLoader, Injector injector) {
+         RefreshAhead refreshAhead, final Supplier<Set<? extends Image>> imageSupplier,
+         com.google.inject.Provider<GetImageStrategy> imageLoader, Injector injector) {
       Supplier<Set<? extends Image>> parsingImageSupplier = shouldEagerlyParseImages(injector) ? imageSupplier
             : supplyNonParsingImages(imageSupplier, injector);
-      return new ImageCacheSupplier(parsingImageSupplier, seconds, authException, imageLoader);
+      return new ImageCacheSupplier(parsingImageSupplier, seconds, authException, imageLoader, refreshAhead);
    }
 
    protected boolean shouldEagerlyParseImages(Injector injector) {
@@ -285,9 +287,9 @@ public abstract class BaseComputeServiceContextModule extends AbstractModule {
    @Singleton
    @Memoized
    protected final Supplier<Set<? extends Hardware>> supplySizeCache(AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
-         final Supplier<Set<? extends Hardware>> hardwareSupplier) {
+         RefreshAhead refreshAhead, final Supplier<Set<? extends Hardware>> hardwareSupplier) {
       return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, hardwareSupplier,
-               seconds, TimeUnit.SECONDS);
+               seconds, TimeUnit.SECONDS, refreshAhead);
    }
 
    @Provides
@@ -44,6 +44,17 @@ public final class ComputeServiceProperties {
     */
    public static final String POLL_MAX_PERIOD = "jclouds.compute.poll-status.max-period";
 
+   /**
+    * When true, the status of all the nodes the ComputeService is waiting for to be running,
+    * suspended or terminated is polled together, with one request per period, instead of one
+    * request per node. Defaults to false. Polling runs on the context scheduler, so it only
+    * takes effect if {@link org.jclouds.concurrent.config.ScheduledExecutorServiceModule} is
+    * installed.
+    *
+    * @see org.jclouds.compute.internal.NodeStateWatcher
+    */
+   public static final String POLL_IN_BATCHES = "jclouds.compute.poll-status.batch";
+
    /**
     * time in milliseconds to wait for an image to finish creating.
     * 
@@ -118,6 +129,22 @@ public final class ComputeServiceProperties {
     */
    public static final String SOCKET_FINDER_ALLOWED_INTERFACES = "jclouds.compute.socket-finder-allowed-interfaces";
 
+   /**
+    * time in milliseconds an ssh connection to a node is kept open once it is disconnected, so that
+    * the next ssh client to the same node and user reuses it. Defaults to 0, which closes
+    * connections when they are disconnected.
+    *
+    * @see org.jclouds.ssh.SshClientPool
+    */
+   public static final String SSH_POOL_IDLE_TIMEOUT = "jclouds.compute.ssh-pool.idle-timeout";
+
+   /**
+    * most idle ssh connections kept open to each node and user. Defaults to 2.
+    *
+    * @see org.jclouds.ssh.SshClientPool
+    */
+   public static final String SSH_POOL_MAX_IDLE = "jclouds.compute.ssh-pool.max-idle";
+
    private ComputeServiceProperties() {
       throw new AssertionError("intentionally unimplemented");
    }
@@ -27,11 +27,14 @@ import static org.jclouds.util.Predicates2.retry;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.jclouds.compute.domain.Image;
 import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.NodeMetadata.Status;
 import org.jclouds.compute.functions.PollNodeRunning;
+import org.jclouds.compute.internal.NodeStateWatcher;
 import org.jclouds.compute.predicates.AtomicImageAvailable;
 import org.jclouds.compute.predicates.AtomicImageDeleted;
 import org.jclouds.compute.predicates.AtomicNodeRunning;
@@ -44,6 +47,7 @@ import org.jclouds.compute.reference.ComputeServiceConstants.Timeouts;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.TypeLiteral;
@@ -55,7 +59,10 @@ public class ComputeServiceTimeoutsModule extends AbstractModule {
    @Singleton
    @Named(TIMEOUT_NODE_RUNNING)
    protected final Predicate<AtomicReference<NodeMetadata>> provideNodeRunning(AtomicNodeRunning statusRunning, Timeouts timeouts,
-           PollPeriod period) {
+           PollPeriod period, Provider<NodeStateWatcher> watcher) {
+      if (pollInBatches(timeouts.nodeRunning, period, watcher))
+         return watcher.get().statusPredicate(Status.RUNNING, ImmutableSet.of(Status.ERROR, Status.TERMINATED),
+               timeouts.nodeRunning);
       return nodeRunning(statusRunning, timeouts, period);
    }
 
@@ -69,7 +76,9 @@ public class ComputeServiceTimeoutsModule extends AbstractModule {
    @Singleton
    @Named(TIMEOUT_NODE_TERMINATED)
    protected final Predicate<AtomicReference<NodeMetadata>> provideServerTerminated(AtomicNodeTerminated statusTerminated,
-           Timeouts timeouts, PollPeriod period) {
+           Timeouts timeouts, PollPeriod period, Provider<NodeStateWatcher> watcher) {
+      if (pollInBatches(timeouts.nodeTerminated, period, watcher))
+         return watcher.get().terminatedPredicate(timeouts.nodeTerminated);
       return serverTerminated(statusTerminated, timeouts, period);
    }
 
@@ -83,7 +92,10 @@ public class ComputeServiceTimeoutsModule extends AbstractModule {
    @Singleton
    @Named(TIMEOUT_NODE_SUSPENDED)
    protected final Predicate<AtomicReference<NodeMetadata>> provideserverSuspended(AtomicNodeSuspended statusSuspended,
-           Timeouts timeouts, PollPeriod period) {
+           Timeouts timeouts, PollPeriod period, Provider<NodeStateWatcher> watcher) {
+      if (pollInBatches(timeouts.nodeSuspended, period, watcher))
+         return watcher.get().statusPredicate(Status.SUSPENDED, ImmutableSet.of(Status.ERROR, Status.TERMINATED),
+               timeouts.nodeSuspended);
       return serverSuspended(statusSuspended, timeouts, period);
    }
 
@@ -93,6 +105,14 @@ public class ComputeServiceTimeoutsModule extends AbstractModule {
             timeouts.nodeSuspended, period.pollInitialPeriod, period.pollMaxPeriod);
    }
 
+   /**
+    * Nodes are only polled in batches if the context has a scheduler to poll with; otherwise each
+    * wait blocks on its own retry loop, as when batches are disabled.
+    */
+   private static boolean pollInBatches(long timeout, PollPeriod period, Provider<NodeStateWatcher> watcher) {
+      return period.pollInBatches && timeout != 0 && watcher.get().canPoll();
+   }
+
    @Provides
    @Singleton
    @Named(TIMEOUT_SCRIPT_COMPLETE)
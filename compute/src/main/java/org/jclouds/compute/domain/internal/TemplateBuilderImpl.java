@@ -43,7 +43,9 @@ import org.jclouds.compute.options.TemplateOptions;
 import org.jclouds.compute.predicates.ImagePredicates;
 import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.compute.suppliers.ImageCacheSupplier;
+import org.jclouds.compute.suppliers.ImageIndex;
 import org.jclouds.domain.Location;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.logging.Logger;
 
 import javax.annotation.Resource;
@@ -703,7 +705,7 @@ public class TemplateBuilderImpl implements TemplateBuilder {
 
    private Iterable<? extends Image> findSupportedImages(Set<? extends Image> images) {
       Predicate<Image> imagePredicate = buildImagePredicate();
-      Iterable<? extends Image> supportedImages = filter(images, imagePredicate);
+      Iterable<? extends Image> supportedImages = filter(candidateImages(images), imagePredicate);
       if (size(supportedImages) == 0) {
          throw throwNoSuchElementExceptionAfterLoggingImageIds(
                format("no image matched predicate: %s", imagePredicate), images);
@@ -711,8 +713,25 @@ public class TemplateBuilderImpl implements TemplateBuilder {
       return supportedImages;
    }
 
-   private Image loadImageWithId(Iterable<? extends Image> images) {
-      Optional<? extends Image> image = tryFind(images, ImagePredicates.idEquals(imageId));
+   /**
+    * Narrows {@code images} down to those that can match the location, operating system family and
+    * 64-bit flag, when they are indexed by the image cache.
+    */
+   private Iterable<? extends Image> candidateImages(Set<? extends Image> images) {
+      ImageIndex index = indexOf(images);
+      return index != null ? index.find(location, osFamily, os64Bit) : images;
+   }
+
+   @Nullable
+   private ImageIndex indexOf(Set<? extends Image> images) {
+      ImageIndex index = this.images.lastIndex();
+      return index != null && index.getImages() == images ? index : null;
+   }
+
+   private Image loadImageWithId(Set<? extends Image> images) {
+      ImageIndex index = indexOf(images);
+      Optional<? extends Image> image = index != null ? index.getImage(imageId)
+            : tryFind(images, ImagePredicates.idEquals(imageId));
       if (!image.isPresent()) {
          image = this.images.get(imageId); // Load the image from the cache, and refresh if missing
          if (!image.isPresent()) {
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.functions;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.Constants.PROPERTY_SCHEDULER_THREADS;
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
+import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_IMAGE_AVAILABLE;
+import static org.jclouds.util.Predicates2.retryAsync;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.predicates.AtomicImageAvailable;
+import org.jclouds.compute.reference.ComputeServiceConstants.PollPeriod;
+import org.jclouds.compute.reference.ComputeServiceConstants.Timeouts;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.common.util.concurrent.UncheckedTimeoutException;
+import com.google.inject.Inject;
+
+/**
+ * Polls on the scheduler until the image is available, without holding a thread while it waits.
+ * The returned future fails with {@link UncheckedTimeoutException} if this cannot be achieved within
+ * the {@link Timeouts#imageAvailable timeout}.
+ * <p/>
+ * Contexts without a {@link org.jclouds.concurrent.config.ScheduledExecutorServiceModule scheduler}
+ * wait on a user thread instead, with the blocking image available predicate.
+ */
+@Singleton
+public class PollImageAvailable implements Function<AtomicReference<Image>, ListenableFuture<Image>> {
+
+   @Inject(optional = true)
+   @Named(PROPERTY_SCHEDULER_THREADS)
+   private ListeningScheduledExecutorService scheduler;
+
+   private final AtomicImageAvailable imageAvailable;
+   private final Timeouts timeouts;
+   private final PollPeriod period;
+   private final ListeningExecutorService userExecutor;
+   private final Predicate<AtomicReference<Image>> imageAvailablePredicate;
+
+   @Inject
+   public PollImageAvailable(AtomicImageAvailable imageAvailable, Timeouts timeouts, PollPeriod period,
+         @Named(PROPERTY_USER_THREADS) ListeningExecutorService userExecutor,
+         @Named(TIMEOUT_IMAGE_AVAILABLE) Predicate<AtomicReference<Image>> imageAvailablePredicate) {
+      this.imageAvailable = checkNotNull(imageAvailable, "imageAvailable");
+      this.timeouts = checkNotNull(timeouts, "timeouts");
+      this.period = checkNotNull(period, "period");
+      this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+      this.imageAvailablePredicate = checkNotNull(imageAvailablePredicate, "imageAvailablePredicate");
+   }
+
+   @VisibleForTesting
+   PollImageAvailable(AtomicImageAvailable imageAvailable, Timeouts timeouts, PollPeriod period,
+         ListeningExecutorService userExecutor, Predicate<AtomicReference<Image>> imageAvailablePredicate,
+         ListeningScheduledExecutorService scheduler) {
+      this(imageAvailable, timeouts, period, userExecutor, imageAvailablePredicate);
+      this.scheduler = scheduler;
+   }
+
+   /**
+    * @param image
+    *           will be updated with the image each time it is polled
+    */
+   @Override
+   public ListenableFuture<Image> apply(final AtomicReference<Image> image) {
+      if (scheduler == null) {
+         return userExecutor.submit(new Callable<Image>() {
+            @Override
+            public Image call() {
+               return availableOrTimeout(imageAvailablePredicate.apply(image), image);
+            }
+         });
+      }
+      ListenableFuture<Boolean> available = retryAsync(imageAvailable, image, timeouts.imageAvailable,
+            period.pollInitialPeriod, period.pollMaxPeriod, scheduler);
+      return Futures.transform(available, new Function<Boolean, Image>() {
+         @Override
+         public Image apply(Boolean available) {
+            return availableOrTimeout(available, image);
+         }
+      });
+   }
+
+   private static Image availableOrTimeout(boolean available, AtomicReference<Image> image) {
+      if (available)
+         return image.get();
+      // TODO: get rid of the expectation that the image will be available, as it is very brittle
+      throw new UncheckedTimeoutException("Image was not created within the time limit: " + image.get());
+   }
+}
@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jclouds.Constants.PROPERTY_SCHEDULER_THREADS;
+import static org.jclouds.compute.util.ComputeServiceUtils.formatStatus;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.NodeMetadata.Status;
+import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.compute.reference.ComputeServiceConstants.PollPeriod;
+import org.jclouds.compute.strategy.ListNodesStrategy;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.inject.Inject;
+
+/**
+ * Waits for nodes to reach a status by polling all of them together: each period, the nodes that
+ * are waited for are refreshed with a single {@link ListNodesStrategy#listNodesByIds} call, rather
+ * than with one {@link org.jclouds.compute.strategy.GetNodeMetadataStrategy#getNode} call per node.
+ * <p/>
+ * Polls are run on the scheduler, one at a time. The period starts at
+ * {@link PollPeriod#pollInitialPeriod} whenever a node is added, and increases by half each poll up
+ * to {@link PollPeriod#pollMaxPeriod}. A failed poll is logged and retried the next period. Nodes
+ * can only be watched if the context has a scheduler; see {@link #canPoll()}.
+ *
+ * @see org.jclouds.compute.config.ComputeServiceProperties#POLL_IN_BATCHES
+ */
+@Beta
+@Singleton
+public class NodeStateWatcher {
+
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_SCHEDULER_THREADS)
+   private ScheduledExecutorService scheduler;
+
+   private final ListNodesStrategy listNodes;
+   private final PollPeriod period;
+   private final Set<Watch> watches = Sets.newConcurrentHashSet();
+   private final Runnable poll = new Runnable() {
+      @Override
+      public void run() {
+         poll();
+      }
+   };
+
+   // guarded by this
+   private boolean scheduled;
+   private int polls;
+
+   @Inject
+   NodeStateWatcher(ListNodesStrategy listNodes, PollPeriod period) {
+      this.listNodes = checkNotNull(listNodes, "listNodes");
+      this.period = checkNotNull(period, "period");
+   }
+
+   @VisibleForTesting
+   NodeStateWatcher(ListNodesStrategy listNodes, ScheduledExecutorService scheduler, PollPeriod period) {
+      this(listNodes, period);
+      this.scheduler = checkNotNull(scheduler, "scheduler");
+   }
+
+   /**
+    * @return false if the context has no
+    *         {@link org.jclouds.concurrent.config.ScheduledExecutorServiceModule scheduler} to poll
+    *         with, in which case nodes cannot be watched
+    */
+   public boolean canPoll() {
+      return scheduler != null;
+   }
+
+   /**
+    * @param node
+    *           the node to wait for, updated with its state each time it is polled
+    * @return a future that completes with the node once it has the {@code intended} status, or
+    *         fails with {@link IllegalStateException} if it gets one of the {@code invalids}
+    *         instead. Cancel it to stop waiting.
+    */
+   public ListenableFuture<NodeMetadata> awaitStatus(AtomicReference<NodeMetadata> node, Status intended,
+         Set<Status> invalids) {
+      if (node.get() == null || node.get().getId() == null)
+         return Futures.immediateFailedFuture(new IllegalStateException("no node to wait for"));
+      return watch(new Watch(node, intended, invalids, false));
+   }
+
+   /**
+    * @param node
+    *           the node to wait for, updated with its state each time it is polled
+    * @return a future that completes once the node is terminated or no longer listed, in which case
+    *         its value is null. Cancel it to stop waiting.
+    */
+   public ListenableFuture<NodeMetadata> awaitTerminated(AtomicReference<NodeMetadata> node) {
+      if (node.get() == null || node.get().getId() == null)
+         return Futures.immediateFuture(node.get());
+      return watch(new Watch(node, Status.TERMINATED, ImmutableSet.<Status> of(), true));
+   }
+
+   /**
+    * @return a predicate like {@link #awaitStatus}, which returns false if the node is not in the
+    *         {@code intended} status within {@code timeoutMillis}, or gets one of the
+    *         {@code invalids}
+    */
+   public Predicate<AtomicReference<NodeMetadata>> statusPredicate(Status intended, Set<Status> invalids,
+         long timeoutMillis) {
+      return new AwaitingPredicate(checkNotNull(intended, "intended"), ImmutableSet.copyOf(invalids), timeoutMillis);
+   }
+
+   /**
+    * @return a predicate like {@link #awaitTerminated}, which returns false if the node is not
+    *         terminated within {@code timeoutMillis}
+    */
+   public Predicate<AtomicReference<NodeMetadata>> terminatedPredicate(long timeoutMillis) {
+      return new AwaitingPredicate(null, ImmutableSet.<Status> of(), timeoutMillis);
+   }
+
+   private ListenableFuture<NodeMetadata> watch(final Watch watch) {
+      if (watch.update(watch.node.get()))
+         return watch.future;
+      checkState(canPoll(), "no scheduler to poll the status of node %s with", watch.id);
+      watches.add(watch);
+      watch.future.addListener(new Runnable() {
+         @Override
+         public void run() {
+            watches.remove(watch);
+         }
+      }, directExecutor());
+      schedule(true);
+      return watch.future;
+   }
+
+   private synchronized void schedule(boolean reset) {
+      if (reset)
+         polls = 0;
+      if (scheduled || watches.isEmpty())
+         return;
+      long delay = Math.min(period.pollMaxPeriod, (long) (period.pollInitialPeriod * Math.pow(1.5, polls)));
+      if (delay < period.pollMaxPeriod)
+         polls++;
+      scheduler.schedule(poll, delay, MILLISECONDS);
+      scheduled = true;
+   }
+
+   private void poll() {
+      try {
+         Set<Watch> polled = ImmutableSet.copyOf(watches);
+         Set<String> ids = Sets.newLinkedHashSet();
+         for (Watch watch : polled)
+            ids.add(watch.id);
+         if (ids.isEmpty())
+            return;
+         Map<String, NodeMetadata> latest = Maps.newHashMap();
+         try {
+            for (NodeMetadata node : listNodes.listNodesByIds(ids))
+               latest.put(node.getId(), node);
+         } catch (RuntimeException e) {
+            logger.warn(e, "could not poll the status of nodes %s", ids);
+            return;
+         }
+         logger.trace("polled the status of %d nodes", ids.size());
+         for (Watch watch : polled)
+            watch.update(latest.get(watch.id));
+      } finally {
+         synchronized (this) {
+            scheduled = false;
+         }
+         try {
+            schedule(false);
+         } catch (RuntimeException e) {
+            logger.warn(e, "could not schedule the next poll of node status");
+         }
+      }
+   }
+
+   private final class Watch {
+      private final String id;
+      private final AtomicReference<NodeMetadata> node;
+      private final Status intended;
+      private final Set<Status> invalids;
+      private final boolean doneIfMissing;
+      private final SettableFuture<NodeMetadata> future = SettableFuture.create();
+
+      Watch(AtomicReference<NodeMetadata> node, Status intended, Set<Status> invalids, boolean doneIfMissing) {
+         this.id = node.get().getId();
+         this.node = node;
+         this.intended = checkNotNull(intended, "intended");
+         this.invalids = ImmutableSet.copyOf(checkNotNull(invalids, "invalids"));
+         this.doneIfMissing = doneIfMissing;
+      }
+
+      /**
+       * @return true if the wait is over
+       */
+      boolean update(@Nullable NodeMetadata latest) {
+         if (latest == null) {
+            // the node may not be listed yet just after it is created
+            if (!doneIfMissing)
+               return false;
+            node.set(null);
+            future.set(null);
+            return true;
+         }
+         node.set(latest);
+         logger.trace("%s: looking for node status %s: currently: %s", id, intended, formatStatus(latest));
+         if (invalids.contains(latest.getStatus())) {
+            future.setException(new IllegalStateException("node " + id + " in location " + latest.getLocation()
+                  + " is in invalid status " + formatStatus(latest)));
+            return true;
+         }
+         if (latest.getStatus() != intended)
+            return false;
+         future.set(latest);
+         return true;
+      }
+   }
+
+   private final class AwaitingPredicate implements Predicate<AtomicReference<NodeMetadata>> {
+      // null to wait for the node to be terminated
+      @Nullable
+      private final Status intended;
+      private final Set<Status> invalids;
+      private final long timeoutMillis;
+
+      AwaitingPredicate(@Nullable Status intended, Set<Status> invalids, long timeoutMillis) {
+         this.intended = intended;
+         this.invalids = invalids;
+         this.timeoutMillis = timeoutMillis;
+      }
+
+      @Override
+      public boolean apply(AtomicReference<NodeMetadata> node) {
+         ListenableFuture<NodeMetadata> future = intended == null ? awaitTerminated(node) : awaitStatus(node,
+               intended, invalids);
+         try {
+            future.get(timeoutMillis, MILLISECONDS);
+            return true;
+         } catch (TimeoutException e) {
+            return false;
+         } catch (ExecutionException e) {
+            // like Predicates2.retry, report an invalid status as not reaching the intended one
+            logger.warn(e.getCause(), "%s on %s failed [%s], returning false", this, node.get(),
+                  e.getCause().getMessage());
+            return false;
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+         } finally {
+            future.cancel(false);
+         }
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper("NodeStateWatcher").add("intended", intended != null ? intended
+               : Status.TERMINATED).add("invalids", invalids).add("timeoutMillis", timeoutMillis).toString();
+      }
+   }
+}
@@ -19,6 +19,7 @@ import static org.jclouds.compute.config.ComputeServiceProperties.INIT_STATUS_IN
 import static org.jclouds.compute.config.ComputeServiceProperties.INIT_STATUS_MAX_PERIOD;
 import static org.jclouds.compute.config.ComputeServiceProperties.OS_VERSION_MAP_JSON;
 import static org.jclouds.compute.config.ComputeServiceProperties.POLL_INITIAL_PERIOD;
+import static org.jclouds.compute.config.ComputeServiceProperties.POLL_IN_BATCHES;
 import static org.jclouds.compute.config.ComputeServiceProperties.POLL_MAX_PERIOD;
 import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_CLEANUP_INCIDENTAL_RESOURCES;
 import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_IMAGE_AVAILABLE;
@@ -79,6 +80,10 @@ public final class ComputeServiceConstants {
       @Inject(optional = true)
       @Named(POLL_MAX_PERIOD)
       public long pollMaxPeriod = Predicates2.DEFAULT_MAX_PERIOD;
+
+      @Inject(optional = true)
+      @Named(POLL_IN_BATCHES)
+      public boolean pollInBatches = false;
    }
 
    @Singleton
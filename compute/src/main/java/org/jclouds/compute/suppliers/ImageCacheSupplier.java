@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Resource;
@@ -28,9 +29,11 @@ import javax.inject.Named;
 import org.jclouds.compute.domain.Image;
 import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.compute.strategy.GetImageStrategy;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.logging.Logger;
 import org.jclouds.rest.AuthorizationException;
 import org.jclouds.rest.suppliers.MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier;
+import org.jclouds.rest.suppliers.RefreshAhead;
 import org.jclouds.rest.suppliers.ValueLoadedCallback;
 
 import com.google.common.annotations.Beta;
@@ -40,7 +43,8 @@ import com.google.common.base.Supplier;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableSet;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.Maps;
 import com.google.inject.Provider;
 
@@ -54,6 +58,9 @@ import com.google.inject.Provider;
  * {@link org.jclouds.compute.extensions.ImageExtension}, or discovered by other
  * means (see https://issues.apache.org/jira/browse/JCLOUDS-570) this supplier
  * will allow the image to be appended to the cached list.
+ * <p>
+ * The images are returned as an {@link ImageIndex}, which is rebuilt only
+ * when images have been loaded, registered or removed since it was built.
  */
 @Beta
 public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, ValueLoadedCallback<Set<? extends Image>> {
@@ -74,6 +81,14 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
     * and allows to add and remove images at runtime.
     */
    private final LoadingCache<String, Image> imageCache;
+
+   /**
+    * Counts the changes to the {@link #imageCache}, to tell whether the
+    * {@link #index} is up to date.
+    */
+   private final AtomicLong changes = new AtomicLong();
+
+   private volatile ImageIndex index;
    
    @Resource
    @Named(ComputeServiceConstants.COMPUTE_LOGGER)
@@ -81,10 +96,26 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
 
    public ImageCacheSupplier(Supplier<Set<? extends Image>> imageSupplier, long sessionIntervalSeconds,
          AtomicReference<AuthorizationException> authException, final Provider<GetImageStrategy> imageLoader) {
+      this(imageSupplier, sessionIntervalSeconds, authException, imageLoader, RefreshAhead.DISABLED);
+   }
+
+   /**
+    * Creates a supplier whose images are reloaded in the background before
+    * they expire, as configured by the given {@link RefreshAhead}.
+    */
+   public ImageCacheSupplier(Supplier<Set<? extends Image>> imageSupplier, long sessionIntervalSeconds,
+         AtomicReference<AuthorizationException> authException, final Provider<GetImageStrategy> imageLoader,
+         RefreshAhead refreshAhead) {
       liveImageSupplier = imageSupplier;
       memoizedImageSupplier = MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException,
-            imageSupplier, sessionIntervalSeconds, TimeUnit.SECONDS, this);
+            imageSupplier, sessionIntervalSeconds, TimeUnit.SECONDS, this, refreshAhead);
       imageCache = CacheBuilder.newBuilder().expireAfterWrite(sessionIntervalSeconds, TimeUnit.SECONDS)
+            .removalListener(new RemovalListener<String, Image>() {
+               @Override
+               public void onRemoval(RemovalNotification<String, Image> notification) {
+                  changes.incrementAndGet();
+               }
+            })
             .build(new CacheLoader<String, Image>() {
                @Override
                public Image load(String key) throws Exception {
@@ -95,6 +126,14 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
    
    @Override
    public Set<? extends Image> get() {
+      return index().getImages();
+   }
+
+   /**
+    * Returns the index of the images, rebuilding it if the cache has changed
+    * since it was built.
+    */
+   public ImageIndex index() {
       // Call the memoized supplier. The "imageCache" is subscribed to the
       // reloads of the supplier once it expires. For this reason we ignore the
       // value returned by the supplier: every time it is reloaded, the cache
@@ -104,7 +143,23 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
       // individual image additions and deletions (introduced, for example, by
       // the usage of the ImageExtension).
       memoizedImageSupplier.get();
-      return ImmutableSet.copyOf(imageCache.asMap().values());
+      ImageIndex current = index;
+      // read before the images, so that a change made while they are copied
+      // leaves the index out of date rather than missing it
+      long version = changes.get();
+      if (current == null || current.getVersion() != version) {
+         current = ImageIndex.create(version, imageCache.asMap().values());
+         index = current;
+      }
+      return current;
+   }
+
+   /**
+    * Returns the last index built, without loading the images.
+    */
+   @Nullable
+   public ImageIndex lastIndex() {
+      return index;
    }
 
    /**
@@ -137,6 +192,7 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
             return input.getId();
          }
       }));
+      changes.incrementAndGet();
    }
    
    /**
@@ -157,7 +213,12 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
     */
    public Optional<? extends Image> get(String id) {
       try {
-         return Optional.fromNullable(imageCache.getUnchecked(id));
+         Image image = imageCache.getIfPresent(id);
+         if (image == null) {
+            image = imageCache.getUnchecked(id);
+            changes.incrementAndGet();
+         }
+         return Optional.fromNullable(image);
       } catch (Exception ex) {
          logger.error(ex, "Unexpected error loading image %s", id);
          return Optional.absent();
@@ -180,6 +241,7 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>>, Value
    public void registerImage(Image image) {
       checkNotNull(image, "image");
       imageCache.put(image.getId(), image);
+      changes.incrementAndGet();
    }
 
    /**
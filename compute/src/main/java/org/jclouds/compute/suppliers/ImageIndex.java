@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.suppliers;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.OperatingSystem;
+import org.jclouds.compute.domain.OsFamily;
+import org.jclouds.domain.Location;
+import org.jclouds.javax.annotation.Nullable;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
+
+/**
+ * An immutable index of the images of the {@link ImageCacheSupplier}, by id, location, operating
+ * system family and 64-bit flag, so that the template builder only has to match its predicates
+ * against the images that can satisfy them.
+ * <p/>
+ * Lookups return images in the order of {@link #getImages()}, as the image chosen among those that
+ * compare equal depends on that order. Each index has the {@link #getVersion() version} of the
+ * cache it was built from, and is only rebuilt when the cache changes.
+ */
+@Beta
+public final class ImageIndex {
+
+   private static final int[] NONE = new int[0];
+
+   private final long version;
+   private final ImmutableList<Image> images;
+   private final ImmutableSet<Image> imageSet;
+   private final ImmutableMap<String, Image> byId;
+   private final Map<Location, int[]> byLocation;
+   private final int[] withoutLocation;
+   private final Map<OsFamily, int[]> byOsFamily;
+   private final int[] is64Bit;
+   private final int[] not64Bit;
+
+   static ImageIndex create(long version, Iterable<? extends Image> images) {
+      return new ImageIndex(version, ImmutableSet.<Image> copyOf(images));
+   }
+
+   private ImageIndex(long version, ImmutableSet<Image> imageSet) {
+      this.version = version;
+      this.imageSet = imageSet;
+      this.images = imageSet.asList();
+
+      Map<String, Image> byId = Maps.newHashMap();
+      Map<Location, List<Integer>> byLocation = Maps.newHashMap();
+      List<Integer> withoutLocation = Lists.newArrayList();
+      Map<OsFamily, List<Integer>> byOsFamily = Maps.newEnumMap(OsFamily.class);
+      List<Integer> is64Bit = Lists.newArrayList();
+      List<Integer> not64Bit = Lists.newArrayList();
+      for (int i = 0; i < images.size(); i++) {
+         Image image = images.get(i);
+         if (!byId.containsKey(image.getId()))
+            byId.put(image.getId(), image);
+         if (image.getLocation() == null)
+            withoutLocation.add(i);
+         else
+            postings(byLocation, image.getLocation()).add(i);
+         OperatingSystem os = image.getOperatingSystem();
+         if (os == null)
+            continue;
+         if (os.getFamily() != null)
+            postings(byOsFamily, os.getFamily()).add(i);
+         (os.is64Bit() ? is64Bit : not64Bit).add(i);
+      }
+      this.byId = ImmutableMap.copyOf(byId);
+      this.byLocation = toArrays(byLocation);
+      this.withoutLocation = Ints.toArray(withoutLocation);
+      this.byOsFamily = toArrays(byOsFamily);
+      this.is64Bit = Ints.toArray(is64Bit);
+      this.not64Bit = Ints.toArray(not64Bit);
+   }
+
+   /**
+    * @return the number of changes the image cache had gone through when this index was built
+    */
+   public long getVersion() {
+      return version;
+   }
+
+   public Set<? extends Image> getImages() {
+      return imageSet;
+   }
+
+   public Optional<Image> getImage(String id) {
+      return Optional.fromNullable(byId.get(id));
+   }
+
+   /**
+    * Finds the images that may match the given criteria, ignoring those that are null.
+    *
+    * @param location
+    *           matches images without a location, or at the location, its parent or its grandparent, as
+    *           {@link org.jclouds.compute.domain.internal.NullEqualToIsParentOrIsGrandparentOfCurrentLocation}
+    * @param family
+    *           matches images whose operating system is of the family
+    * @param is64Bit
+    *           matches images whose operating system is, or is not, 64-bit
+    */
+   public List<Image> find(@Nullable Location location, @Nullable OsFamily family, @Nullable Boolean is64Bit) {
+      int[] matches = null;
+      if (location != null)
+         matches = atLocation(location);
+      if (family != null)
+         matches = intersect(matches, orNone(byOsFamily.get(family)));
+      if (is64Bit != null)
+         matches = intersect(matches, is64Bit ? this.is64Bit : not64Bit);
+      return matches == null ? images : new Postings(matches);
+   }
+
+   private int[] atLocation(Location location) {
+      int[] current = orNone(byLocation.get(location));
+      Location parent = location.getParent();
+      int[] atParent = parent != null ? orNone(byLocation.get(parent)) : NONE;
+      Location grandparent = parent != null ? parent.getParent() : null;
+      int[] atGrandparent = grandparent != null ? orNone(byLocation.get(grandparent)) : NONE;
+      // an image has one location, so these don't overlap
+      int[] union = Ints.concat(withoutLocation, current, atParent, atGrandparent);
+      Arrays.sort(union);
+      return union;
+   }
+
+   private static int[] intersect(@Nullable int[] left, int[] right) {
+      if (left == null)
+         return right;
+      int[] intersection = new int[Math.min(left.length, right.length)];
+      int size = 0;
+      for (int i = 0, j = 0; i < left.length && j < right.length;) {
+         if (left[i] < right[j]) {
+            i++;
+         } else if (left[i] > right[j]) {
+            j++;
+         } else {
+            intersection[size++] = left[i];
+            i++;
+            j++;
+         }
+      }
+      return Arrays.copyOf(intersection, size);
+   }
+
+   private static int[] orNone(@Nullable int[] postings) {
+      return postings != null ? postings : NONE;
+   }
+
+   private static <K> List<Integer> postings(Map<K, List<Integer>> index, K key) {
+      List<Integer> postings = index.get(key);
+      if (postings == null) {
+         postings = Lists.newArrayList();
+         index.put(key, postings);
+      }
+      return postings;
+   }
+
+   private static <K> Map<K, int[]> toArrays(Map<K, List<Integer>> index) {
+      ImmutableMap.Builder<K, int[]> arrays = ImmutableMap.builder();
+      for (Map.Entry<K, List<Integer>> entry : index.entrySet())
+         arrays.put(entry.getKey(), Ints.toArray(entry.getValue()));
+      return arrays.build();
+   }
+
+   private final class Postings extends AbstractList<Image> implements RandomAccess {
+      private final int[] positions;
+
+      Postings(int[] positions) {
+         this.positions = positions;
+      }
+
+      @Override
+      public Image get(int index) {
+         return images.get(positions[index]);
+      }
+
+      @Override
+      public int size() {
+         return positions.length;
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "ImageIndex(version=" + version + ", images=" + images.size() + ")";
+   }
+}
@@ -0,0 +1,410 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ssh;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jclouds.Constants.PROPERTY_SCHEDULER_THREADS;
+import static org.jclouds.compute.config.ComputeServiceProperties.SSH_POOL_IDLE_TIMEOUT;
+import static org.jclouds.compute.config.ComputeServiceProperties.SSH_POOL_MAX_IDLE;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.compute.domain.ExecChannel;
+import org.jclouds.compute.domain.ExecResponse;
+import org.jclouds.domain.LoginCredentials;
+import org.jclouds.io.Payload;
+import org.jclouds.lifecycle.Closer;
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.net.HostAndPort;
+import com.google.inject.Inject;
+
+/**
+ * An {@link SshClient.Factory} that keeps the connections of the clients it creates open once they
+ * are disconnected, so that the next client to the same node, with the same credentials, reuses the
+ * authenticated connection instead of going through the TCP, key exchange and authentication
+ * handshakes again. This is what makes polling the status of init scripts cheap, as each poll
+ * connects and disconnects.
+ * <p/>
+ * A pooled connection is used by one client at a time, as the clients of the drivers are not safe
+ * to share between threads; each command still opens its own channel on it. An idle connection is
+ * checked to be connected before it is reused, and is closed once it has been idle for
+ * {@link org.jclouds.compute.config.ComputeServiceProperties#SSH_POOL_IDLE_TIMEOUT}, or when more
+ * than {@link org.jclouds.compute.config.ComputeServiceProperties#SSH_POOL_MAX_IDLE} connections to
+ * the node are idle. Pooling is disabled unless the idle timeout is set, in which case clients are
+ * created by the driver as they were.
+ * <p/>
+ * Drivers bind their own factory {@link Named named} {@link #UNPOOLED}.
+ */
+@Beta
+@Singleton
+public class SshClientPool implements SshClient.Factory, Closeable {
+
+   public static final String UNPOOLED = "jclouds.ssh.unpooled";
+
+   @Resource
+   @Named("jclouds.ssh")
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(SSH_POOL_IDLE_TIMEOUT)
+   private long idleTimeoutMillis = 0;
+
+   @Inject(optional = true)
+   @Named(SSH_POOL_MAX_IDLE)
+   private int maxIdle = 2;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_SCHEDULER_THREADS)
+   private ScheduledExecutorService scheduler;
+
+   private final SshClient.Factory delegate;
+   private final Ticker ticker;
+   // guarded by this
+   private final Map<Key, Deque<Idle>> idle = Maps.newHashMap();
+   private boolean sweepScheduled;
+   private boolean closed;
+
+   @Inject
+   SshClientPool(@Named(UNPOOLED) SshClient.Factory delegate) {
+      this(delegate, Ticker.systemTicker());
+   }
+
+   @VisibleForTesting
+   SshClientPool(SshClient.Factory delegate, Ticker ticker) {
+      this.delegate = checkNotNull(delegate, "delegate");
+      this.ticker = checkNotNull(ticker, "ticker");
+   }
+
+   @VisibleForTesting
+   SshClientPool(SshClient.Factory delegate, Ticker ticker, long idleTimeoutMillis, int maxIdle) {
+      this(delegate, ticker);
+      this.idleTimeoutMillis = idleTimeoutMillis;
+      this.maxIdle = maxIdle;
+   }
+
+   @Inject(optional = true)
+   void closeWith(Closer closer) {
+      closer.addToClose(this);
+   }
+
+   @Override
+   public SshClient create(HostAndPort socket, LoginCredentials credentials) {
+      if (idleTimeoutMillis <= 0)
+         return delegate.create(socket, credentials);
+      return new PooledSshClient(new Key(socket, credentials));
+   }
+
+   @Override
+   public boolean isAgentAvailable() {
+      return delegate.isAgentAvailable();
+   }
+
+   /**
+    * Closes the idle connections. Clients that are connected keep their connection, and close it
+    * when they are disconnected.
+    */
+   @Override
+   public void close() {
+      List<SshClient> toClose = Lists.newArrayList();
+      synchronized (this) {
+         closed = true;
+         for (Deque<Idle> connections : idle.values())
+            for (Idle connection : connections)
+               toClose.add(connection.client);
+         idle.clear();
+      }
+      closeAll(toClose);
+   }
+
+   /**
+    * @return connections that are open and not used by a client
+    */
+   @VisibleForTesting
+   synchronized int idleCount() {
+      int count = 0;
+      for (Deque<Idle> connections : idle.values())
+         count += connections.size();
+      return count;
+   }
+
+   private SshClient lease(Key key) {
+      while (true) {
+         Idle candidate;
+         synchronized (this) {
+            Deque<Idle> connections = idle.get(key);
+            // the most recently used connection is the least likely to have been dropped
+            candidate = connections != null ? connections.pollLast() : null;
+            if (connections != null && connections.isEmpty())
+               idle.remove(key);
+         }
+         if (candidate == null)
+            break;
+         if (!expired(candidate, ticker.read()) && isConnected(candidate.client)) {
+            logger.trace("<< reusing ssh connection to %s", key);
+            return candidate.client;
+         }
+         closeAll(Lists.newArrayList(candidate.client));
+      }
+      logger.trace(">> opening ssh connection to %s", key);
+      SshClient client = delegate.create(key.socket, key.credentials);
+      client.connect();
+      return client;
+   }
+
+   private void release(Key key, SshClient client) {
+      List<SshClient> toClose = Lists.newArrayList();
+      if (!isConnected(client)) {
+         toClose.add(client);
+      } else {
+         synchronized (this) {
+            if (closed) {
+               toClose.add(client);
+            } else {
+               Deque<Idle> connections = idle.get(key);
+               if (connections == null) {
+                  connections = new ArrayDeque<Idle>();
+                  idle.put(key, connections);
+               }
+               connections.addLast(new Idle(client, ticker.read()));
+               while (connections.size() > Math.max(0, maxIdle))
+                  toClose.add(connections.pollFirst().client);
+               if (connections.isEmpty())
+                  idle.remove(key);
+            }
+         }
+      }
+      closeAll(toClose);
+      evictExpired();
+      scheduleEviction();
+   }
+
+   @VisibleForTesting
+   void evictExpired() {
+      List<SshClient> toClose = Lists.newArrayList();
+      long now = ticker.read();
+      synchronized (this) {
+         for (Iterator<Deque<Idle>> connections = idle.values().iterator(); connections.hasNext();) {
+            Deque<Idle> forKey = connections.next();
+            // connections are added last, so the oldest are first
+            while (!forKey.isEmpty() && expired(forKey.peekFirst(), now))
+               toClose.add(forKey.pollFirst().client);
+            if (forKey.isEmpty())
+               connections.remove();
+         }
+      }
+      closeAll(toClose);
+   }
+
+   /**
+    * Without a scheduler, expired connections are only closed when another connection is released
+    * or leased.
+    */
+   private void scheduleEviction() {
+      if (scheduler == null)
+         return;
+      synchronized (this) {
+         if (sweepScheduled || closed || idle.isEmpty())
+            return;
+         sweepScheduled = true;
+      }
+      try {
+         scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+               synchronized (SshClientPool.this) {
+                  sweepScheduled = false;
+               }
+               evictExpired();
+               scheduleEviction();
+            }
+         }, idleTimeoutMillis, MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+         synchronized (this) {
+            sweepScheduled = false;
+         }
+      }
+   }
+
+   private boolean expired(Idle connection, long now) {
+      return now - connection.since >= MILLISECONDS.toNanos(idleTimeoutMillis);
+   }
+
+   private boolean isConnected(SshClient client) {
+      try {
+         return client.isConnected();
+      } catch (RuntimeException e) {
+         return false;
+      }
+   }
+
+   private void closeAll(List<SshClient> clients) {
+      for (SshClient client : clients) {
+         try {
+            client.disconnect();
+         } catch (RuntimeException e) {
+            logger.debug("error closing ssh connection to %s: %s", client.getHostAddress(), e.getMessage());
+         }
+      }
+   }
+
+   private static final class Idle {
+      private final SshClient client;
+      private final long since;
+
+      Idle(SshClient client, long since) {
+         this.client = client;
+         this.since = since;
+      }
+   }
+
+   private static final class Key {
+      private final HostAndPort socket;
+      private final LoginCredentials credentials;
+
+      Key(HostAndPort socket, LoginCredentials credentials) {
+         this.socket = checkNotNull(socket, "socket");
+         this.credentials = checkNotNull(credentials, "credentials");
+      }
+
+      private Optional<String> password() {
+         return credentials.getOptionalPassword();
+      }
+
+      private Optional<String> privateKey() {
+         return credentials.getOptionalPrivateKey();
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+         if (this == obj)
+            return true;
+         if (!(obj instanceof Key))
+            return false;
+         Key other = (Key) obj;
+         return socket.equals(other.socket) && Objects.equal(credentials.getUser(), other.credentials.getUser())
+               && Objects.equal(password(), other.password()) && Objects.equal(privateKey(), other.privateKey());
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hashCode(socket, credentials.getUser(), password(), privateKey());
+      }
+
+      @Override
+      public String toString() {
+         return credentials.getUser() + "@" + socket;
+      }
+   }
+
+   /**
+    * Holds a pooled connection from {@link #connect} to {@link #disconnect}. Like the clients of the
+    * drivers, connects on demand.
+    */
+   private final class PooledSshClient implements SshClient {
+      private final Key key;
+      private SshClient leased;
+
+      PooledSshClient(Key key) {
+         this.key = key;
+      }
+
+      private SshClient leased() {
+         connect();
+         return leased;
+      }
+
+      @Override
+      public String getUsername() {
+         return key.credentials.getUser();
+      }
+
+      @Override
+      public String getHostAddress() {
+         return key.socket.getHostText();
+      }
+
+      @Override
+      public void put(String path, Payload contents) {
+         leased().put(path, contents);
+      }
+
+      @Override
+      public Payload get(String path) {
+         return leased().get(path);
+      }
+
+      @Override
+      public ExecResponse exec(String command) {
+         return leased().exec(command);
+      }
+
+      @Override
+      public ExecChannel execChannel(String command) {
+         return leased().execChannel(command);
+      }
+
+      @Override
+      public void connect() {
+         if (leased == null)
+            leased = lease(key);
+      }
+
+      @Override
+      public void disconnect() {
+         if (leased == null)
+            return;
+         SshClient client = leased;
+         leased = null;
+         release(key, client);
+      }
+
+      @Override
+      public boolean isConnected() {
+         return leased != null && SshClientPool.this.isConnected(leased);
+      }
+
+      @Override
+      public void put(String path, String contents) {
+         leased().put(path, contents);
+      }
+
+      @Override
+      public String toString() {
+         return "pooled(" + key + ")";
+      }
+   }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.config;
+
+import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_NODE_RUNNING;
+import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_NODE_TERMINATED;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.internal.NodeStateWatcher;
+import org.jclouds.concurrent.config.ScheduledExecutorServiceModule;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+
+@Test(groups = "unit", testName = "ComputeServiceTimeoutsModuleTest")
+public class ComputeServiceTimeoutsModuleTest {
+
+   private static final Key<Predicate<AtomicReference<NodeMetadata>>> NODE_RUNNING = Key.get(
+         new TypeLiteral<Predicate<AtomicReference<NodeMetadata>>>() {
+         }, Names.named(TIMEOUT_NODE_RUNNING));
+
+   private static final Key<Predicate<AtomicReference<NodeMetadata>>> NODE_TERMINATED = Key.get(
+         new TypeLiteral<Predicate<AtomicReference<NodeMetadata>>>() {
+         }, Names.named(TIMEOUT_NODE_TERMINATED));
+
+   private static Injector stubInjector(boolean pollInBatches, Module... modules) {
+      Properties overrides = new Properties();
+      overrides.setProperty(ComputeServiceProperties.POLL_IN_BATCHES, String.valueOf(pollInBatches));
+      return ContextBuilder.newBuilder("stub").overrides(overrides).modules(ImmutableSet.copyOf(modules))
+            .buildInjector();
+   }
+
+   private static boolean watchedInBatches(Predicate<?> predicate) {
+      return predicate.toString().startsWith(NodeStateWatcher.class.getSimpleName());
+   }
+
+   public void testNoSchedulerWaitsForEachNode() {
+      Injector injector = stubInjector(true);
+      assertFalse(injector.getInstance(NodeStateWatcher.class).canPoll());
+      assertFalse(watchedInBatches(injector.getInstance(NODE_RUNNING)));
+      assertFalse(watchedInBatches(injector.getInstance(NODE_TERMINATED)));
+   }
+
+   public void testSchedulerWatchesNodesInBatches() {
+      Injector injector = stubInjector(true, new ScheduledExecutorServiceModule());
+      assertTrue(injector.getInstance(NodeStateWatcher.class).canPoll());
+      assertTrue(watchedInBatches(injector.getInstance(NODE_RUNNING)));
+      assertTrue(watchedInBatches(injector.getInstance(NODE_TERMINATED)));
+   }
+
+   public void testBatchesAreOffByDefault() {
+      Injector injector = stubInjector(false, new ScheduledExecutorServiceModule());
+      assertFalse(watchedInBatches(injector.getInstance(NODE_RUNNING)));
+   }
+}
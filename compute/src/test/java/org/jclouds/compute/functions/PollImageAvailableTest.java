@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.functions;
+
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.ImageBuilder;
+import org.jclouds.compute.domain.OperatingSystem;
+import org.jclouds.compute.predicates.AtomicImageAvailable;
+import org.jclouds.compute.reference.ComputeServiceConstants.PollPeriod;
+import org.jclouds.compute.reference.ComputeServiceConstants.Timeouts;
+import org.jclouds.compute.strategy.GetImageStrategy;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.UncheckedTimeoutException;
+
+@Test(groups = "unit", testName = "PollImageAvailableTest")
+public class PollImageAvailableTest {
+
+   private static Image image(Image.Status status) {
+      return new ImageBuilder().id("imageId").providerId("imageId").name("imageName")
+            .operatingSystem(OperatingSystem.builder().description("os").build()).status(status).build();
+   }
+
+   private static final GetImageStrategy AVAILABLE = new GetImageStrategy() {
+      @Override
+      public Image getImage(String id) {
+         return image(Image.Status.AVAILABLE);
+      }
+   };
+
+   private static final GetImageStrategy UNUSED = new GetImageStrategy() {
+      @Override
+      public Image getImage(String id) {
+         throw new AssertionError("the image should not be polled without a scheduler");
+      }
+   };
+
+   private static PollPeriod period() {
+      PollPeriod period = new PollPeriod();
+      period.pollInitialPeriod = 10;
+      period.pollMaxPeriod = 20;
+      return period;
+   }
+
+   public void testPollsOnTheScheduler() throws Exception {
+      ListeningScheduledExecutorService scheduler = MoreExecutors.listeningDecorator(Executors
+            .newSingleThreadScheduledExecutor());
+      try {
+         PollImageAvailable poll = new PollImageAvailable(new AtomicImageAvailable(AVAILABLE), new Timeouts(),
+               period(), newDirectExecutorService(), Predicates.<AtomicReference<Image>> alwaysFalse(), scheduler);
+         AtomicReference<Image> image = new AtomicReference<Image>(image(Image.Status.PENDING));
+
+         assertEquals(poll.apply(image).get(5, TimeUnit.SECONDS).getStatus(), Image.Status.AVAILABLE);
+      } finally {
+         scheduler.shutdownNow();
+      }
+   }
+
+   public void testWaitsOnAUserThreadWithoutAScheduler() throws Exception {
+      final AtomicReference<Image> image = new AtomicReference<Image>(image(Image.Status.PENDING));
+      Predicate<AtomicReference<Image>> available = new Predicate<AtomicReference<Image>>() {
+         @Override
+         public boolean apply(AtomicReference<Image> input) {
+            input.set(image(Image.Status.AVAILABLE));
+            return true;
+         }
+      };
+      PollImageAvailable poll = new PollImageAvailable(new AtomicImageAvailable(UNUSED), new Timeouts(), period(),
+            newDirectExecutorService(), available, null);
+
+      assertEquals(poll.apply(image).get().getStatus(), Image.Status.AVAILABLE);
+   }
+
+   public void testTimesOutWithoutAScheduler() throws Exception {
+      PollImageAvailable poll = new PollImageAvailable(new AtomicImageAvailable(UNUSED), new Timeouts(), period(),
+            newDirectExecutorService(), Predicates.<AtomicReference<Image>> alwaysFalse(), null);
+
+      try {
+         poll.apply(new AtomicReference<Image>(image(Image.Status.PENDING))).get();
+         fail("expected the image not to be available");
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof UncheckedTimeoutException, e.getCause().toString());
+      }
+   }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jclouds.compute.domain.ComputeMetadata;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.NodeMetadata.Status;
+import org.jclouds.compute.domain.NodeMetadataBuilder;
+import org.jclouds.compute.reference.ComputeServiceConstants.PollPeriod;
+import org.jclouds.compute.strategy.ListNodesStrategy;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+
+@Test(groups = "unit", singleThreaded = true, testName = "NodeStateWatcherTest")
+public class NodeStateWatcherTest {
+
+   /**
+    * Lists the nodes in {@link #nodes}, and records the ids of each call.
+    */
+   private static class FakeListNodesStrategy implements ListNodesStrategy {
+      volatile Map<String, NodeMetadata> nodes = ImmutableMap.of();
+      final List<List<String>> calls = Lists.newCopyOnWriteArrayList();
+
+      @Override
+      public Iterable<? extends NodeMetadata> listNodesByIds(Iterable<String> ids) {
+         calls.add(ImmutableList.copyOf(ids));
+         Map<String, NodeMetadata> listed = nodes;
+         ImmutableList.Builder<NodeMetadata> result = ImmutableList.builder();
+         for (String id : ids)
+            if (listed.containsKey(id))
+               result.add(listed.get(id));
+         return result.build();
+      }
+
+      @Override
+      public Iterable<? extends ComputeMetadata> listNodes() {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Iterable<? extends NodeMetadata> listDetailsOnNodesMatching(Predicate<? super NodeMetadata> filter) {
+         throw new UnsupportedOperationException();
+      }
+
+      /**
+       * Lists the nodes with the ids, all in the status, and no others.
+       */
+      void set(Status status, String... ids) {
+         ImmutableMap.Builder<String, NodeMetadata> builder = ImmutableMap.builder();
+         for (String id : ids)
+            builder.put(id, node(id, status));
+         nodes = builder.build();
+      }
+   }
+
+   private ScheduledExecutorService scheduler;
+   private FakeListNodesStrategy listNodes;
+   private NodeStateWatcher watcher;
+
+   @BeforeMethod
+   public void setUp() {
+      scheduler = Executors.newSingleThreadScheduledExecutor();
+      listNodes = new FakeListNodesStrategy();
+      PollPeriod period = new PollPeriod();
+      period.pollInitialPeriod = 10;
+      period.pollMaxPeriod = 20;
+      watcher = new NodeStateWatcher(listNodes, scheduler, period);
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      scheduler.shutdownNow();
+   }
+
+   private static NodeMetadata node(String id, Status status) {
+      return new NodeMetadataBuilder().ids(id).status(status).build();
+   }
+
+   public void testPollsAllWaitingNodesTogether() throws Exception {
+      listNodes.set(Status.PENDING, "1", "2", "3");
+      List<ListenableFuture<NodeMetadata>> running = Lists.newArrayList();
+      for (String id : ImmutableList.of("1", "2", "3")) {
+         running.add(watcher.awaitStatus(new AtomicReference<NodeMetadata>(node(id, Status.PENDING)),
+               Status.RUNNING, ImmutableSet.of(Status.ERROR)));
+      }
+      while (listNodes.calls.isEmpty())
+         Thread.sleep(5);
+      listNodes.set(Status.RUNNING, "1", "2", "3");
+
+      for (ListenableFuture<NodeMetadata> future : running)
+         assertEquals(future.get(5, TimeUnit.SECONDS).getStatus(), Status.RUNNING);
+      // the nodes are refreshed by the same calls
+      assertEquals(listNodes.calls.get(listNodes.calls.size() - 1), ImmutableList.of("1", "2", "3"));
+   }
+
+   public void testNodeAlreadyInStatusIsNotPolled() throws Exception {
+      AtomicReference<NodeMetadata> node = new AtomicReference<NodeMetadata>(node("1", Status.RUNNING));
+
+      assertTrue(watcher.awaitStatus(node, Status.RUNNING, ImmutableSet.of(Status.ERROR)).isDone());
+      Thread.sleep(50);
+      assertTrue(listNodes.calls.isEmpty());
+   }
+
+   public void testInvalidStatusFails() throws Exception {
+      listNodes.set(Status.ERROR, "1");
+      AtomicReference<NodeMetadata> node = new AtomicReference<NodeMetadata>(node("1", Status.PENDING));
+
+      try {
+         watcher.awaitStatus(node, Status.RUNNING, ImmutableSet.of(Status.ERROR)).get(5, TimeUnit.SECONDS);
+         fail("expected the node to be in an invalid status");
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof IllegalStateException, e.getCause().toString());
+      }
+      assertEquals(node.get().getStatus(), Status.ERROR);
+   }
+
+   public void testMissingNodeIsTerminated() throws Exception {
+      AtomicReference<NodeMetadata> node = new AtomicReference<NodeMetadata>(node("1", Status.RUNNING));
+
+      assertTrue(watcher.terminatedPredicate(5000).apply(node));
+      assertNull(node.get());
+   }
+
+   public void testMissingNodeIsNotRunning() throws Exception {
+      AtomicReference<NodeMetadata> node = new AtomicReference<NodeMetadata>(node("1", Status.PENDING));
+
+      assertFalse(watcher.statusPredicate(Status.RUNNING, ImmutableSet.of(Status.ERROR), 100).apply(node));
+      assertEquals(node.get().getStatus(), Status.PENDING);
+   }
+}
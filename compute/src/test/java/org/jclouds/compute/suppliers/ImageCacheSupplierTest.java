@@ -20,6 +20,8 @@ import static com.google.common.collect.Iterables.any;
 import static org.jclouds.compute.predicates.ImagePredicates.idEquals;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 import java.util.Set;
@@ -128,6 +130,28 @@ public class ImageCacheSupplierTest {
       assertEquals(imageCache.get().size(), 2);
    }
 
+   @Test
+   public void testIndexIsRebuiltOnlyWhenTheCacheChanges() {
+      ImageCacheSupplier imageCache = new ImageCacheSupplier(Suppliers.<Set<? extends Image>> ofInstance(images), 60,
+            Atomics.<AuthorizationException> newReference(), Providers.of(getImageStrategy));
+      ImageIndex index = imageCache.index();
+      assertSame(imageCache.index(), index);
+      assertSame(imageCache.get(), index.getImages());
+      assertSame(imageCache.lastIndex(), index);
+
+      imageCache.registerImage(ImageBuilder.fromImage(image).id("newimage").build());
+      ImageIndex rebuilt = imageCache.index();
+      assertNotSame(rebuilt, index);
+      assertTrue(rebuilt.getVersion() > index.getVersion());
+      assertTrue(rebuilt.getImage("newimage").isPresent());
+
+      imageCache.get("newimage");
+      assertSame(imageCache.index(), rebuilt);
+
+      imageCache.removeImage("newimage");
+      assertFalse(imageCache.index().getImage("newimage").isPresent());
+   }
+
    @Test
    public void testSupplierExpirationReloadsTheCache() {
       ImageCacheSupplier imageCache = new ImageCacheSupplier(Suppliers.<Set<? extends Image>> ofInstance(images), 3,
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.suppliers;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.ImageBuilder;
+import org.jclouds.compute.domain.OperatingSystem;
+import org.jclouds.compute.domain.OsFamily;
+import org.jclouds.domain.Location;
+import org.jclouds.domain.LocationBuilder;
+import org.jclouds.domain.LocationScope;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+@Test(groups = "unit", testName = "ImageIndexTest")
+public class ImageIndexTest {
+
+   private final Location provider = new LocationBuilder().scope(LocationScope.PROVIDER).id("aws-ec2")
+         .description("aws-ec2").build();
+   private final Location region = new LocationBuilder().scope(LocationScope.REGION).id("us-east-1")
+         .description("us-east-1").parent(provider).build();
+   private final Location zone = new LocationBuilder().scope(LocationScope.ZONE).id("us-east-1a")
+         .description("us-east-1a").parent(region).build();
+   private final Location otherRegion = new LocationBuilder().scope(LocationScope.REGION).id("eu-west-1")
+         .description("eu-west-1").parent(provider).build();
+
+   private final Image ubuntuInRegion = image("ubuntu-region", region, OsFamily.UBUNTU, true);
+   private final Image centosInZone = image("centos-zone", zone, OsFamily.CENTOS, true);
+   private final Image ubuntuElsewhere = image("ubuntu-elsewhere", otherRegion, OsFamily.UBUNTU, true);
+   private final Image ubuntu32Everywhere = image("ubuntu-32", null, OsFamily.UBUNTU, false);
+   private final Image unrecognizedInProvider = image("unrecognized", provider, null, true);
+
+   private final List<Image> images = ImmutableList.of(ubuntuInRegion, centosInZone, ubuntuElsewhere,
+         ubuntu32Everywhere, unrecognizedInProvider);
+
+   private static Image image(String id, Location location, OsFamily family, boolean is64Bit) {
+      OperatingSystem os = OperatingSystem.builder().family(family).description(id).is64Bit(is64Bit).build();
+      return new ImageBuilder().id(id).providerId(id).name(id).operatingSystem(os).status(Image.Status.AVAILABLE)
+            .location(location).build();
+   }
+
+   public void testFindWithoutCriteriaReturnsAllImages() {
+      ImageIndex index = ImageIndex.create(0, images);
+      assertEquals(index.find(null, null, null), images);
+      assertEquals(Lists.newArrayList(index.getImages()), images);
+   }
+
+   public void testFindByLocationMatchesItsParentsAndImagesWithoutLocation() {
+      ImageIndex index = ImageIndex.create(0, images);
+      assertEquals(index.find(zone, null, null),
+            ImmutableList.of(ubuntuInRegion, centosInZone, ubuntu32Everywhere, unrecognizedInProvider));
+      assertEquals(index.find(otherRegion, null, null),
+            ImmutableList.of(ubuntuElsewhere, ubuntu32Everywhere, unrecognizedInProvider));
+   }
+
+   public void testFindIntersectsCriteriaInImageOrder() {
+      ImageIndex index = ImageIndex.create(0, images);
+      assertEquals(index.find(zone, OsFamily.UBUNTU, null), ImmutableList.of(ubuntuInRegion, ubuntu32Everywhere));
+      assertEquals(index.find(zone, OsFamily.UBUNTU, true), ImmutableList.of(ubuntuInRegion));
+      assertEquals(index.find(null, OsFamily.UBUNTU, false), ImmutableList.of(ubuntu32Everywhere));
+      assertTrue(index.find(region, OsFamily.WINDOWS, null).isEmpty());
+   }
+
+   public void testGetImage() {
+      ImageIndex index = ImageIndex.create(3, images);
+      assertEquals(index.getImage("centos-zone").get(), centosInZone);
+      assertFalse(index.getImage("missing").isPresent());
+      assertEquals(index.getVersion(), 3);
+   }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ssh;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.jclouds.compute.domain.ExecChannel;
+import org.jclouds.compute.domain.ExecResponse;
+import org.jclouds.domain.LoginCredentials;
+import org.jclouds.io.Payload;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.net.HostAndPort;
+
+@Test(groups = "unit", testName = "SshClientPoolTest")
+public class SshClientPoolTest {
+
+   private static final HostAndPort NODE = HostAndPort.fromParts("10.0.0.1", 22);
+   private static final HostAndPort OTHER_NODE = HostAndPort.fromParts("10.0.0.2", 22);
+   private static final LoginCredentials ROOT = LoginCredentials.builder().user("root").password("secret").build();
+
+   private static class FakeTicker extends Ticker {
+      private long nanos = 123456789L;
+
+      @Override
+      public long read() {
+         return nanos;
+      }
+
+      void advance(long millis) {
+         nanos += MILLISECONDS.toNanos(millis);
+      }
+   }
+
+   private static class FakeClient implements SshClient {
+      private final HostAndPort socket;
+      private boolean connected;
+      private int connects;
+      private int commands;
+
+      FakeClient(HostAndPort socket) {
+         this.socket = socket;
+      }
+
+      @Override
+      public String getUsername() {
+         return "root";
+      }
+
+      @Override
+      public String getHostAddress() {
+         return socket.getHostText();
+      }
+
+      @Override
+      public void put(String path, Payload contents) {
+      }
+
+      @Override
+      public Payload get(String path) {
+         return null;
+      }
+
+      @Override
+      public ExecResponse exec(String command) {
+         commands++;
+         return new ExecResponse(command, "", 0);
+      }
+
+      @Override
+      public ExecChannel execChannel(String command) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void connect() {
+         connected = true;
+         connects++;
+      }
+
+      @Override
+      public void disconnect() {
+         connected = false;
+      }
+
+      @Override
+      public boolean isConnected() {
+         return connected;
+      }
+
+      @Override
+      public void put(String path, String contents) {
+      }
+   }
+
+   private static class FakeFactory implements SshClient.Factory {
+      final List<FakeClient> created = Lists.newArrayList();
+
+      @Override
+      public SshClient create(HostAndPort socket, LoginCredentials credentials) {
+         FakeClient client = new FakeClient(socket);
+         created.add(client);
+         return client;
+      }
+
+      @Override
+      public boolean isAgentAvailable() {
+         return false;
+      }
+   }
+
+   public void testDisabledByDefault() {
+      FakeFactory factory = new FakeFactory();
+      SshClientPool pool = new SshClientPool(factory, new FakeTicker());
+
+      SshClient client = pool.create(NODE, ROOT);
+      assertSame(client, factory.created.get(0));
+   }
+
+   public void testReusesConnectionAfterDisconnect() {
+      FakeFactory factory = new FakeFactory();
+      SshClientPool pool = new SshClientPool(factory, new FakeTicker(), 1000, 2);
+
+      for (int i = 0; i < 3; i++) {
+         SshClient ssh = pool.create(NODE, ROOT);
+         ssh.connect();
+         try {
+            assertEquals(ssh.exec("status").getExitStatus(), 0);
+         } finally {
+            ssh.disconnect();
+         }
+      }
+      assertEquals(factory.created.size(), 1);
+      assertEquals(factory.created.get(0).connects, 1);
+      assertEquals(factory.created.get(0).commands, 3);
+      assertTrue(factory.created.get(0).isConnected());
+      assertEquals(pool.idleCount(), 1);
+   }
+
+   public void testConnectionsAreNotSharedBetweenClients() {
+      FakeFactory factory = new FakeFactory();
+      SshClientPool pool = new SshClientPool(factory, new FakeTicker(), 1000, 1);
+
+      SshClient first = pool.create(NODE, ROOT);
+      SshClient second = pool.create(NODE, ROOT);
+      SshClient other = pool.create(OTHER_NODE, ROOT);
+      SshClient otherUser = pool.create(NODE, LoginCredentials.builder().user("admin").password("secret").build());
+      first.connect();
+      second.connect();
+      other.connect();
+      otherUser.connect();
+      assertEquals(factory.created.size(), 4);
+
+      first.disconnect();
+      second.disconnect();
+      assertEquals(pool.idleCount(), 1);
+      assertFalse(factory.created.get(0).isConnected());
+      assertTrue(factory.created.get(1).isConnected());
+   }
+
+   public void testDroppedConnectionIsReplaced() {
+      FakeFactory factory = new FakeFactory();
+      SshClientPool pool = new SshClientPool(factory, new FakeTicker(), 1000, 2);
+
+      SshClient ssh = pool.create(NODE, ROOT);
+      ssh.connect();
+      ssh.disconnect();
+      factory.created.get(0).connected = false;
+
+      ssh.exec("status");
+      assertEquals(factory.created.size(), 2);
+      assertEquals(factory.created.get(1).commands, 1);
+   }
+
+   public void testIdleConnectionsExpire() {
+      FakeFactory factory = new FakeFactory();
+      FakeTicker ticker = new FakeTicker();
+      SshClientPool pool = new SshClientPool(factory, ticker, 1000, 2);
+
+      SshClient ssh = pool.create(NODE, ROOT);
+      ssh.connect();
+      ssh.disconnect();
+      ticker.advance(999);
+      pool.evictExpired();
+      assertEquals(pool.idleCount(), 1);
+
+      ticker.advance(1);
+      pool.evictExpired();
+      assertEquals(pool.idleCount(), 0);
+      assertFalse(factory.created.get(0).isConnected());
+
+      ssh.connect();
+      assertEquals(factory.created.size(), 2);
+   }
+
+   public void testCloseDisconnectsIdleConnections() {
+      FakeFactory factory = new FakeFactory();
+      SshClientPool pool = new SshClientPool(factory, new FakeTicker(), 1000, 2);
+
+      SshClient idle = pool.create(NODE, ROOT);
+      SshClient busy = pool.create(OTHER_NODE, ROOT);
+      idle.connect();
+      busy.connect();
+      idle.disconnect();
+
+      pool.close();
+      assertFalse(factory.created.get(0).isConnected());
+      assertTrue(busy.isConnected());
+
+      busy.disconnect();
+      assertFalse(factory.created.get(1).isConnected());
+      assertEquals(pool.idleCount(), 0);
+   }
+}
@@ -368,6 +368,89 @@ public final class Constants {
     */
    public static final String PROPERTY_MAX_RATE_LIMIT_WAIT = "jclouds.max-ratelimit-wait";
 
+   /**
+    * Double property. Default (0).
+    * <p/>
+    * Requests per second sent to each endpoint host before further requests are delayed on the
+    * client side, rather than waiting for the provider to throttle them. Zero disables the limit.
+    */
+   public static final String PROPERTY_RATE_LIMIT_PER_SECOND = "jclouds.rate-limit.per-second";
+
+   /**
+    * Integer property. Default (one second worth of requests).
+    * <p/>
+    * Number of requests that may be sent at once before the rate limit applies.
+    */
+   public static final String PROPERTY_RATE_LIMIT_BURST = "jclouds.rate-limit.burst";
+
+   /**
+    * Boolean property. Default (false).
+    * <p/>
+    * When true, the rate limit halves when the provider answers 429 or 503, and recovers gradually
+    * as requests succeed again.
+    */
+   public static final String PROPERTY_RATE_LIMIT_ADAPTIVE = "jclouds.rate-limit.adaptive";
+
+   /**
+    * Overrides the rate limit, in requests per second, for the command of the given name. Such a
+    * command is limited separately from the other requests to the same host.
+    * <p/>
+    * <code>
+    * jclouds.rate-limits.server:list=2
+    * </code>
+    */
+   public static final String PROPERTY_RATE_LIMITS_PREFIX = "jclouds.rate-limits.";
+
+   /**
+    * Double property. Default (0).
+    * <p/>
+    * When positive, a GET or HEAD request that has not received response headers within this
+    * percentile of the recent latencies of its endpoint host is sent a second time, and whichever
+    * attempt answers first is used. Zero disables hedging. Requires the scheduler threads.
+    * <p/>
+    * <code>
+    * jclouds.hedge.percentile=95
+    * </code>
+    */
+   public static final String PROPERTY_HEDGE_PERCENTILE = "jclouds.hedge.percentile";
+
+   /**
+    * Integer property. Default (0).
+    * <p/>
+    * Consecutive server errors or I/O failures from an endpoint host after which its circuit
+    * breaker opens, and requests to it fail without being sent. Zero disables the breaker.
+    */
+   public static final String PROPERTY_CIRCUIT_BREAKER_FAILURES = "jclouds.circuit-breaker.failures";
+
+   /**
+    * Long property. Default (30000).
+    * <p/>
+    * Milliseconds an open circuit breaker waits before letting a single request through to probe
+    * whether its endpoint host has recovered.
+    */
+   public static final String PROPERTY_CIRCUIT_BREAKER_OPEN_TIMEOUT = "jclouds.circuit-breaker.open-timeout";
+
+   /**
+    * Long property. Default (0).
+    * <p/>
+    * When positive and shorter than the {@link #PROPERTY_SESSION_INTERVAL session interval}, values
+    * memoized for the session, such as locations, images and hardware, are reloaded in the background
+    * once they are this many seconds old, on the {@link #PROPERTY_SCHEDULER_THREADS scheduler threads}
+    * when the context has them and on the {@link #PROPERTY_USER_THREADS user threads} otherwise. The
+    * old value is returned until the reload completes. Callers only wait for a reload once a value is
+    * older than the session interval. Zero disables refreshing ahead.
+    */
+   public static final String PROPERTY_SESSION_REFRESH = "jclouds.session-refresh";
+
+   /**
+    * Double property. Default (0.1).
+    * <p/>
+    * Fraction of the {@link #PROPERTY_SESSION_REFRESH session refresh} period by which the period of
+    * each memoized value is randomly shortened, so that contexts created together do not all reload
+    * at the same time.
+    */
+   public static final String PROPERTY_SESSION_REFRESH_JITTER = "jclouds.session-refresh.jitter";
+
    private Constants() {
       throw new AssertionError("intentionally unimplemented");
    }
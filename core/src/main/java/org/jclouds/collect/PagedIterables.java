@@ -132,9 +132,7 @@ public class PagedIterables {
     */
    private static <T> Iterator<IterableWithMarker<T>> advancingIterator(IterableWithMarker<T> initial,
          Function<Object, IterableWithMarker<T>> markerToNext) {
-      if (!initial.nextMarker().isPresent()) {
-         return ImmutableSet.of(initial).iterator();
-      }
+      // don't ask for the marker before the first page is read, as a streamed page only knows it then
       return new AdvancingIterator<T>(initial, markerToNext);
    }
 }
@@ -18,7 +18,6 @@ package org.jclouds.collect.internal;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.jclouds.collect.PagedIterables.advance;
-import static org.jclouds.collect.PagedIterables.onlyPage;
 
 import java.util.List;
 
@@ -48,7 +47,22 @@ public abstract class ArgsToPagedIterable<T, I extends ArgsToPagedIterable<T, I>
 
    @Override
    public PagedIterable<T> apply(IterableWithMarker<T> input) {
-      return input.nextMarker().isPresent() ? advance(input, markerToNextForArgs(getArgs(request))) : onlyPage(input);
+      // don't ask for the marker up front: a streamed page, such as one parsed by ParseJsonStream, only knows it
+      // once its elements have been read
+      return advance(input, lazyMarkerToNext(request));
+   }
+
+   private Function<Object, IterableWithMarker<T>> lazyMarkerToNext(final GeneratedHttpRequest request) {
+      return new Function<Object, IterableWithMarker<T>>() {
+         private Function<Object, IterableWithMarker<T>> markerToNext;
+
+         @Override
+         public IterableWithMarker<T> apply(Object input) {
+            if (markerToNext == null)
+               markerToNext = markerToNextForArgs(getArgs(request));
+            return markerToNext.apply(input);
+         }
+      };
    }
 
    protected List<Object> getArgs(GeneratedHttpRequest request) {
@@ -0,0 +1,473 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.date.internal;
+
+import java.util.Date;
+
+import javax.inject.Singleton;
+
+import org.jclouds.date.DateService;
+
+/**
+ * {@link DateService} that formats and parses the fixed ISO-8601, RFC-822, RFC-1123 and C layouts by hand, in GMT,
+ * without locking. Input outside the strict layouts, such as one-digit fields, other zone names or years before the
+ * Gregorian calendar, falls back to {@link SimpleDateFormatDateService} so that results and errors stay the same.
+ * <p>
+ * The current second formatted for {@code Date} headers is cached, so {@link #rfc822DateFormat()} and
+ * {@link #rfc1123DateFormat()} format once per second at most.
+ */
+@Singleton
+public class FixedLayoutDateService implements DateService {
+
+   private static final String[] DAY_NAMES = { "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat" };
+   private static final String[] MONTH_NAMES = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep",
+         "Oct", "Nov", "Dec" };
+   private static final long MILLIS_PER_SECOND = 1000;
+   private static final long MILLIS_PER_DAY = 24 * 60 * 60 * MILLIS_PER_SECOND;
+   // SimpleDateFormat switches to the Julian calendar before October 1582
+   private static final int MIN_YEAR = 1583;
+   private static final int MAX_YEAR = 9999;
+   private static final long INVALID = Long.MIN_VALUE;
+
+   private final DateService fallback = new SimpleDateFormatDateService();
+
+   private volatile FormattedSecond rfc822Now = FormattedSecond.NONE;
+   private volatile FormattedSecond rfc1123Now = FormattedSecond.NONE;
+
+   @Override
+   public final String cDateFormat(Date date) {
+      Fields f = Fields.of(date.getTime());
+      if (f == null) {
+         return fallback.cDateFormat(date);
+      }
+      StringBuilder out = new StringBuilder(30);
+      out.append(DAY_NAMES[f.dayOfWeek]).append(' ').append(MONTH_NAMES[f.month - 1]).append(' ');
+      appendTime(pad2(out, f.day).append(' '), f).append(" +0000 ").append(f.year);
+      return out.toString();
+   }
+
+   @Override
+   public final String cDateFormat() {
+      return cDateFormat(new Date());
+   }
+
+   @Override
+   public final Date cDateParse(String toParse) {
+      long millis = parseCDate(toParse);
+      return millis != INVALID ? new Date(millis) : fallback.cDateParse(toParse);
+   }
+
+   @Override
+   public final String rfc822DateFormat(Date date) {
+      FormattedSecond cached = rfc822Now;
+      if (cached.second == second(date.getTime())) {
+         return cached.text;
+      }
+      String formatted = formatRfc822(date.getTime());
+      return formatted != null ? formatted : fallback.rfc822DateFormat(date);
+   }
+
+   @Override
+   public final String rfc822DateFormat() {
+      long now = System.currentTimeMillis();
+      FormattedSecond cached = rfc822Now;
+      if (cached.second != second(now)) {
+         cached = new FormattedSecond(second(now), formatRfc822(now));
+         rfc822Now = cached;
+      }
+      return cached.text;
+   }
+
+   @Override
+   public final Date rfc822DateParse(String toParse) {
+      long millis = parseRfc822(toParse, false);
+      return millis != INVALID ? new Date(millis) : fallback.rfc822DateParse(toParse);
+   }
+
+   @Override
+   public final String iso8601SecondsDateFormat(Date date) {
+      Fields f = Fields.of(date.getTime());
+      if (f == null) {
+         return fallback.iso8601SecondsDateFormat(date);
+      }
+      StringBuilder out = new StringBuilder(20);
+      return appendTime(appendIsoDate(out, f).append('T'), f).append('Z').toString();
+   }
+
+   @Override
+   public final String iso8601SecondsDateFormat() {
+      return iso8601SecondsDateFormat(new Date());
+   }
+
+   @Override
+   public final String iso8601DateFormat(Date date) {
+      Fields f = Fields.of(date.getTime());
+      if (f == null) {
+         return fallback.iso8601DateFormat(date);
+      }
+      StringBuilder out = new StringBuilder(24);
+      appendTime(appendIsoDate(out, f).append('T'), f).append('.');
+      if (f.millis < 100) {
+         out.append('0');
+      }
+      return pad2(out, f.millis).append('Z').toString();
+   }
+
+   @Override
+   public final String iso8601DateFormat() {
+      return iso8601DateFormat(new Date());
+   }
+
+   @Override
+   public final Date iso8601DateParse(String toParse) {
+      long millis = parseIso8601(toParse, true);
+      return millis != INVALID ? new Date(millis) : fallback.iso8601DateParse(toParse);
+   }
+
+   @Override
+   public final Date iso8601SecondsDateParse(String toParse) {
+      long millis = parseIso8601(toParse, false);
+      return millis != INVALID ? new Date(millis) : fallback.iso8601SecondsDateParse(toParse);
+   }
+
+   @Override
+   public final Date iso8601DateOrSecondsDateParse(String toParse) {
+      long millis = parseIso8601(toParse, true);
+      if (millis == INVALID) {
+         millis = parseIso8601(toParse, false);
+      }
+      return millis != INVALID ? new Date(millis) : fallback.iso8601DateOrSecondsDateParse(toParse);
+   }
+
+   /**
+    * Unlike {@link SimpleDateFormatDateService}, which prints a five-digit year in the local time zone, this prints
+    * the four-digit year in GMT; both forms parse back to the same instant.
+    */
+   @Override
+   public final String rfc1123DateFormat(Date date) {
+      FormattedSecond cached = rfc1123Now;
+      if (cached.second == second(date.getTime())) {
+         return cached.text;
+      }
+      String formatted = formatRfc1123(date.getTime());
+      return formatted != null ? formatted : fallback.rfc1123DateFormat(date);
+   }
+
+   @Override
+   public final String rfc1123DateFormat() {
+      long now = System.currentTimeMillis();
+      FormattedSecond cached = rfc1123Now;
+      if (cached.second != second(now)) {
+         cached = new FormattedSecond(second(now), formatRfc1123(now));
+         rfc1123Now = cached;
+      }
+      return cached.text;
+   }
+
+   @Override
+   public final Date rfc1123DateParse(String toParse) {
+      long millis = parseRfc822(toParse, true);
+      return millis != INVALID ? new Date(millis) : fallback.rfc1123DateParse(toParse);
+   }
+
+   private static String formatRfc822(long millis) {
+      StringBuilder out = appendRfc822Prefix(millis);
+      return out == null ? null : out.append(" GMT").toString();
+   }
+
+   private static String formatRfc1123(long millis) {
+      StringBuilder out = appendRfc822Prefix(millis);
+      return out == null ? null : out.append(" +0000").toString();
+   }
+
+   /** Appends {@code EEE, dd MMM yyyy HH:mm:ss}, or returns {@code null} for years this class does not format. */
+   private static StringBuilder appendRfc822Prefix(long millis) {
+      Fields f = Fields.of(millis);
+      if (f == null) {
+         return null;
+      }
+      StringBuilder out = new StringBuilder(31);
+      out.append(DAY_NAMES[f.dayOfWeek]).append(", ");
+      pad2(out, f.day).append(' ').append(MONTH_NAMES[f.month - 1]).append(' ').append(f.year).append(' ');
+      return appendTime(out, f);
+   }
+
+   private static StringBuilder appendIsoDate(StringBuilder out, Fields f) {
+      out.append(f.year).append('-');
+      return pad2(pad2(out, f.month).append('-'), f.day);
+   }
+
+   private static StringBuilder appendTime(StringBuilder out, Fields f) {
+      return pad2(pad2(pad2(out, f.hour).append(':'), f.minute).append(':'), f.second);
+   }
+
+   private static StringBuilder pad2(StringBuilder out, int value) {
+      if (value < 10) {
+         out.append('0');
+      }
+      return out.append(value);
+   }
+
+   private static long second(long millis) {
+      long second = millis / MILLIS_PER_SECOND;
+      return millis < 0 && millis % MILLIS_PER_SECOND != 0 ? second - 1 : second;
+   }
+
+   /**
+    * Parses {@code yyyy-MM-dd'T'HH:mm:ss[.SSS...][zone]}, where the zone is {@code Z} or a numeric offset and
+    * defaults to GMT, like {@link DateUtils#findTZ}. A blank may replace the {@code T}.
+    */
+   private static long parseIso8601(String toParse, boolean withMillis) {
+      Cursor in = new Cursor(toParse);
+      int year = in.number(4);
+      int month = in.skip('-') ? in.number(2) : -1;
+      int day = in.skip('-') ? in.number(2) : -1;
+      if (!in.skip('T') && !in.skip(' ')) {
+         return INVALID;
+      }
+      int hour = in.number(2);
+      int minute = in.skip(':') ? in.number(2) : -1;
+      int second = in.skip(':') ? in.number(2) : -1;
+      int millis = 0;
+      if (withMillis) {
+         // like DateUtils#trimToMillis, digits after the milliseconds are dropped
+         millis = in.skip('.') ? in.number(3) : -1;
+         while (in.digit() >= 0) {
+            in.pos++;
+         }
+      }
+      int offsetMinutes = in.atEnd() || in.skip('Z') ? 0 : in.numericOffset(true);
+      if (offsetMinutes == Integer.MIN_VALUE || !in.atEnd()) {
+         return INVALID;
+      }
+      return toMillis(year, month, day, hour, minute, second, millis, offsetMinutes);
+   }
+
+   /** Parses {@code EEE, dd MMM yyyy HH:mm:ss GMT}, or a numeric offset instead of GMT for RFC-1123. */
+   private static long parseRfc822(String toParse, boolean numericOffset) {
+      Cursor in = new Cursor(toParse);
+      if (in.name(DAY_NAMES) < 0 || !in.skip(',') || !in.skip(' ')) {
+         return INVALID;
+      }
+      int day = in.number(2);
+      int month = in.skip(' ') ? in.name(MONTH_NAMES) + 1 : -1;
+      int year = in.skip(' ') ? in.number(4) : -1;
+      int hour = in.skip(' ') ? in.number(2) : -1;
+      int minute = in.skip(':') ? in.number(2) : -1;
+      int second = in.skip(':') ? in.number(2) : -1;
+      if (!in.skip(' ')) {
+         return INVALID;
+      }
+      int offsetMinutes = in.skip("GMT") ? 0 : numericOffset ? in.numericOffset(false) : Integer.MIN_VALUE;
+      if (offsetMinutes == Integer.MIN_VALUE || !in.atEnd()) {
+         return INVALID;
+      }
+      return toMillis(year, month, day, hour, minute, second, 0, offsetMinutes);
+   }
+
+   /** Parses {@code EEE MMM dd HH:mm:ss Z yyyy}. */
+   private static long parseCDate(String toParse) {
+      Cursor in = new Cursor(toParse);
+      if (in.name(DAY_NAMES) < 0 || !in.skip(' ')) {
+         return INVALID;
+      }
+      int month = in.name(MONTH_NAMES) + 1;
+      int day = in.skip(' ') ? in.number(2) : -1;
+      int hour = in.skip(' ') ? in.number(2) : -1;
+      int minute = in.skip(':') ? in.number(2) : -1;
+      int second = in.skip(':') ? in.number(2) : -1;
+      int offsetMinutes = in.skip(' ') ? in.numericOffset(false) : Integer.MIN_VALUE;
+      int year = in.skip(' ') ? in.number(4) : -1;
+      if (offsetMinutes == Integer.MIN_VALUE || !in.atEnd()) {
+         return INVALID;
+      }
+      return toMillis(year, month, day, hour, minute, second, 0, offsetMinutes);
+   }
+
+   private static long toMillis(int year, int month, int day, int hour, int minute, int second, int millis,
+         int offsetMinutes) {
+      if (year < MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12 || day < 1
+            || day > daysInMonth(year, month) || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0
+            || second > 59 || millis < 0) {
+         // left to the lenient SimpleDateFormat, which rolls over out-of-range fields
+         return INVALID;
+      }
+      long secondOfDay = hour * 3600L + minute * 60L + second - offsetMinutes * 60L;
+      return daysFromCivil(year, month, day) * MILLIS_PER_DAY + secondOfDay * MILLIS_PER_SECOND + millis;
+   }
+
+   private static int daysInMonth(int year, int month) {
+      if (month == 2) {
+         return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+      }
+      return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+   }
+
+   /** Days since 1970-01-01 in the proleptic Gregorian calendar, for positive years. */
+   private static long daysFromCivil(int year, int month, int day) {
+      int y = month <= 2 ? year - 1 : year;
+      int era = y / 400;
+      int yearOfEra = y - era * 400;
+      int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+      int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+      return era * 146097L + dayOfEra - 719468;
+   }
+
+   /** Calendar fields of an instant in GMT. */
+   private static final class Fields {
+      int year;
+      int month;
+      int day;
+      int dayOfWeek;
+      int hour;
+      int minute;
+      int second;
+      int millis;
+
+      /** Returns {@code null} for instants outside the years this class formats. */
+      static Fields of(long instant) {
+         long days = instant / MILLIS_PER_DAY;
+         long millisOfDay = instant % MILLIS_PER_DAY;
+         if (millisOfDay < 0) {
+            days--;
+            millisOfDay += MILLIS_PER_DAY;
+         }
+         // civil from days, see http://howardhinnant.github.io/date_algorithms.html
+         long z = days + 719468;
+         long era = (z >= 0 ? z : z - 146096) / 146097;
+         int dayOfEra = (int) (z - era * 146097);
+         int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+         int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+         int mp = (5 * dayOfYear + 2) / 153;
+         Fields f = new Fields();
+         f.day = dayOfYear - (153 * mp + 2) / 5 + 1;
+         f.month = mp < 10 ? mp + 3 : mp - 9;
+         long year = yearOfEra + era * 400 + (f.month <= 2 ? 1 : 0);
+         if (year < MIN_YEAR || year > MAX_YEAR) {
+            return null;
+         }
+         f.year = (int) year;
+         // 1970-01-01 was a Thursday
+         f.dayOfWeek = (int) ((days % 7 + 11) % 7);
+         int millisOfDayInt = (int) millisOfDay;
+         f.hour = millisOfDayInt / 3600000;
+         f.minute = millisOfDayInt / 60000 % 60;
+         f.second = millisOfDayInt / 1000 % 60;
+         f.millis = millisOfDayInt % 1000;
+         return f;
+      }
+   }
+
+   /** Position in a string being parsed; the reading methods return -1 when the input does not match. */
+   private static final class Cursor {
+      final String in;
+      int pos;
+
+      Cursor(String in) {
+         this.in = in;
+      }
+
+      boolean atEnd() {
+         return pos == in.length();
+      }
+
+      boolean skip(char c) {
+         if (pos < in.length() && in.charAt(pos) == c) {
+            pos++;
+            return true;
+         }
+         return false;
+      }
+
+      boolean skip(String s) {
+         if (in.startsWith(s, pos)) {
+            pos += s.length();
+            return true;
+         }
+         return false;
+      }
+
+      int digit() {
+         if (pos < in.length()) {
+            char c = in.charAt(pos);
+            if (c >= '0' && c <= '9') {
+               return c - '0';
+            }
+         }
+         return -1;
+      }
+
+      /** Reads exactly {@code length} digits. */
+      int number(int length) {
+         int value = 0;
+         for (int i = 0; i < length; i++) {
+            int digit = digit();
+            if (digit < 0) {
+               return -1;
+            }
+            value = value * 10 + digit;
+            pos++;
+         }
+         return value;
+      }
+
+      /** Reads one of {@code names}, returning its index. */
+      int name(String[] names) {
+         for (int i = 0; i < names.length; i++) {
+            if (skip(names[i])) {
+               return i;
+            }
+         }
+         return -1;
+      }
+
+      /**
+       * Reads {@code +hhmm} or {@code -hhmm}, and also {@code +hh} or {@code +hh:mm} when {@code iso}, returning
+       * the offset in minutes or {@link Integer#MIN_VALUE}.
+       */
+      int numericOffset(boolean iso) {
+         int sign = skip('+') ? 1 : skip('-') ? -1 : 0;
+         int hours = sign != 0 ? number(2) : -1;
+         if (hours < 0) {
+            return Integer.MIN_VALUE;
+         }
+         int minutes;
+         if (!iso) {
+            minutes = number(2);
+         } else if (atEnd()) {
+            minutes = 0;
+         } else {
+            skip(':');
+            minutes = number(2);
+         }
+         return minutes < 0 || minutes > 59 ? Integer.MIN_VALUE : sign * (hours * 60 + minutes);
+      }
+   }
+
+   /** A second since the epoch and its formatted form. */
+   private static final class FormattedSecond {
+      static final FormattedSecond NONE = new FormattedSecond(Long.MIN_VALUE, null);
+
+      final long second;
+      final String text;
+
+      FormattedSecond(long second, String text) {
+         this.second = second;
+         this.text = text;
+      }
+   }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.functions;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import javax.annotation.Resource;
+
+import org.jclouds.collect.IterableWithMarker;
+import org.jclouds.collect.IterableWithMarkers;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.json.internal.GsonWrapper;
+import org.jclouds.logging.Logger;
+import org.jclouds.util.Closeables2;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Parses a listing one element at a time, instead of materializing the whole response as
+ * {@link ParseJson} does. The response is either a top-level array, or an object holding the
+ * elements in the member named {@code arrayName}, for example {@code servers} in
+ * <code>{"servers": [...], "servers_links": [...]}</code>.
+ * <p/>
+ * The returned {@link IterableWithMarker} reads the response body as it is iterated, and can
+ * therefore only be iterated once. The other members of the object are kept, and
+ * {@link #nextMarkerFrom(JsonObject)} derives the marker from them. As that marker may follow the
+ * array, asking for it before iterating reads ahead and buffers the remaining elements;
+ * {@link org.jclouds.collect.PagedIterables#advance} only asks once a page has been consumed.
+ * <p/>
+ * The response is released once the last element has been read. Callers that stop early should
+ * close the iterable, which is {@link Closeable}.
+ */
+@Beta
+public class ParseJsonStream<T> implements Function<HttpResponse, IterableWithMarker<T>> {
+
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   protected final GsonWrapper json;
+   protected final TypeLiteral<T> type;
+   protected final String arrayName;
+
+   /**
+    * @param arrayName
+    *           the member holding the elements, or null if the response is a top-level array
+    */
+   public ParseJsonStream(GsonWrapper json, TypeLiteral<T> type, @Nullable String arrayName) {
+      this.json = checkNotNull(json, "json");
+      this.type = checkNotNull(type, "type");
+      this.arrayName = arrayName;
+   }
+
+   @Override
+   public IterableWithMarker<T> apply(HttpResponse from) {
+      if (from.getPayload() == null)
+         return IterableWithMarkers.from(ImmutableSet.<T> of());
+      try {
+         return new JsonStream(from);
+      } catch (IOException e) {
+         from.getPayload().release();
+         throw new HttpResponseException("Error parsing input: " + e.getMessage() + "\n" + from, null, from, e);
+      } catch (RuntimeException e) {
+         from.getPayload().release();
+         throw e;
+      }
+   }
+
+   /**
+    * @param members
+    *           the members of the response object other than {@code arrayName}
+    * @return the marker of the next page, or null if this is the last one
+    */
+   @Nullable
+   protected Object nextMarkerFrom(JsonObject members) {
+      return null;
+   }
+
+   private final class JsonStream extends IterableWithMarker<T> implements Closeable {
+      private final HttpResponse response;
+      private final JsonReader reader;
+      private final JsonObject members = new JsonObject();
+      private final LinkedList<T> readAhead = new LinkedList<T>();
+      private boolean iterated;
+      private boolean finished;
+
+      private JsonStream(HttpResponse response) throws IOException {
+         this.response = response;
+         this.reader = new JsonReader(new InputStreamReader(response.getPayload().openStream(), UTF_8));
+         reader.setLenient(true);
+         if (arrayName == null) {
+            reader.beginArray();
+            return;
+         }
+         reader.beginObject();
+         while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals(arrayName) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+               reader.beginArray();
+               return;
+            }
+            members.add(name, json.delegate().fromJson(reader, JsonElement.class));
+         }
+         // no elements at all
+         reader.endObject();
+         close();
+      }
+
+      @Override
+      public Iterator<T> iterator() {
+         checkState(!iterated, "a streamed response can only be iterated once");
+         iterated = true;
+         return new AbstractIterator<T>() {
+            @Override
+            protected T computeNext() {
+               if (!readAhead.isEmpty())
+                  return readAhead.removeFirst();
+               return hasNextElement() ? nextElement() : endOfData();
+            }
+         };
+      }
+
+      @Override
+      public Optional<Object> nextMarker() {
+         while (hasNextElement())
+            readAhead.add(nextElement());
+         return Optional.fromNullable(nextMarkerFrom(members));
+      }
+
+      private boolean hasNextElement() {
+         if (finished)
+            return false;
+         try {
+            if (reader.hasNext())
+               return true;
+            reader.endArray();
+            if (arrayName != null) {
+               while (reader.hasNext())
+                  members.add(reader.nextName(), json.delegate().fromJson(reader, JsonElement.class));
+               reader.endObject();
+            }
+         } catch (IOException e) {
+            throw propagate(e);
+         } catch (RuntimeException e) {
+            throw propagate(e);
+         }
+         close();
+         return false;
+      }
+
+      private T nextElement() {
+         try {
+            return json.delegate().fromJson(reader, type.getType());
+         } catch (RuntimeException e) {
+            throw propagate(e);
+         }
+      }
+
+      private HttpResponseException propagate(Exception e) {
+         close();
+         String message = "Error parsing input: " + e.getMessage();
+         logger.error(e, message);
+         return new HttpResponseException(message + "\n" + response, null, response, e);
+      }
+
+      @Override
+      public void close() {
+         if (finished)
+            return;
+         finished = true;
+         Closeables2.closeQuietly(reader);
+         response.getPayload().release();
+      }
+   }
+}
@@ -42,6 +42,7 @@ import org.xml.sax.helpers.DefaultHandler;
 
 import com.google.common.base.Function;
 import com.google.common.base.Throwables;
+import com.google.common.primitives.Bytes;
 import org.jclouds.util.Closeables2;
 
 /**
@@ -54,6 +55,7 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
    private Logger logger = Logger.NULL;
 
    private final XMLReader parser;
+   private final XMLReaderPool parsers;
    private final HandlerWithResult<T> handler;
    private HttpRequest request;
 
@@ -63,6 +65,16 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
 
    public ParseSax(XMLReader parser, HandlerWithResult<T> handler) {
       this.parser = checkNotNull(parser, "parser");
+      this.parsers = null;
+      this.handler = checkNotNull(handler, "handler");
+   }
+
+   /**
+    * Borrows a reader from {@code parsers} for each parse rather than holding on to one.
+    */
+   public ParseSax(XMLReaderPool parsers, HandlerWithResult<T> handler) {
+      this.parser = null;
+      this.parsers = checkNotNull(parsers, "parsers");
       this.handler = checkNotNull(handler, "handler");
    }
 
@@ -90,15 +102,16 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
    }
 
    private T convertStreamToStringAndParse(HttpResponse response) {
-      String from = null;
+      byte[] fromBytes = null;
       try {
-         byte[] fromBytes = closeClientButKeepContentStream(response);
-         from = new String(fromBytes);
-         validateXml(from);
+         fromBytes = closeClientButKeepContentStream(response);
+         // only decode the body when it is needed for an error message
+         if (Bytes.indexOf(fromBytes, (byte) '<') < 0)
+            validateXml(new String(fromBytes));
          // Use InputStream to skip over byte order mark.
          return doParse(new InputSource(new ByteArrayInputStream(fromBytes)));
       } catch (Exception e) {
-         return addDetailsAndPropagate(response, e, from);
+         return addDetailsAndPropagate(response, e, fromBytes != null ? new String(fromBytes) : null);
       }
    }
 
@@ -135,9 +148,13 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
    protected T doParse(InputSource from) throws IOException, SAXException {
       checkNotNull(from, "xml inputsource");
       from.setEncoding("UTF-8");
-      parser.setContentHandler(getHandler());
+      XMLReader reader = parsers != null ? parsers.borrow() : parser;
+      reader.setContentHandler(getHandler());
       // This method should accept documents with a BOM (Byte-order mark)
-      parser.parse(from);
+      reader.parse(from);
+      // a reader that threw part way through a document is dropped rather than returned
+      if (parsers != null)
+         parsers.release(reader);
       return getHandler().getResult();
    }
 
@@ -202,6 +219,14 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
       }
    }
 
+   /**
+    * Receives the elements of a listing as soon as a handler has parsed them. Handlers that accept
+    * a callback hand each element to it instead of accumulating the elements into their result.
+    */
+   public interface ElementCallback<E> {
+      void onElement(E element);
+   }
+
    public abstract static class HandlerForGeneratedRequestWithResult<T> extends HandlerWithResult<T> {
 
       @Override
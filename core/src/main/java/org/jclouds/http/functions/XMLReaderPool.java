@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.functions;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+
+/**
+ * Keeps idle {@link XMLReader}s around so that parsing a response does not go through the JAXP
+ * lookup and parser construction of {@link SAXParserFactory#newSAXParser()} every time.
+ * <p/>
+ * A reader is only ever used by one parse at a time: {@link ParseSax} borrows it for the duration
+ * of {@link XMLReader#parse} and hands it back afterwards. When the pool is empty a new reader is
+ * created, and readers returned to a full pool are simply dropped.
+ */
+@Singleton
+public class XMLReaderPool {
+
+   /**
+    * Installed on idle readers so that they do not keep the last handler, and whatever result it
+    * accumulated, reachable.
+    */
+   private static final DefaultHandler IDLE = new DefaultHandler();
+
+   private final SAXParserFactory factory;
+   private final BlockingQueue<XMLReader> idle;
+
+   @Inject
+   XMLReaderPool(SAXParserFactory factory) {
+      this(factory, 2 * Runtime.getRuntime().availableProcessors());
+   }
+
+   @VisibleForTesting
+   XMLReaderPool(SAXParserFactory factory, int capacity) {
+      checkArgument(capacity > 0, "capacity must be positive");
+      this.factory = checkNotNull(factory, "factory");
+      this.idle = new ArrayBlockingQueue<XMLReader>(capacity);
+   }
+
+   /**
+    * @return an idle reader, or a new one if none is available
+    */
+   public XMLReader borrow() {
+      XMLReader reader = idle.poll();
+      if (reader != null)
+         return reader;
+      try {
+         return factory.newSAXParser().getXMLReader();
+      } catch (Exception e) {
+         throw Throwables.propagate(e);
+      }
+   }
+
+   /**
+    * Returns a reader that completed its last parse. Readers that failed part way through a
+    * document should not be released, as their internal state is not guaranteed to be reusable.
+    */
+   public void release(XMLReader reader) {
+      reader.setContentHandler(IDLE);
+      idle.offer(reader);
+   }
+
+   @VisibleForTesting
+   int idleCount() {
+      return idle.size();
+   }
+}
@@ -86,10 +86,18 @@ public class BackoffLimitedRetryHandler implements HttpRetryHandler, IOException
    @Named(Constants.PROPERTY_RETRY_DELAY_START)
    private long delayStart = 50L;
 
+   @Inject(optional = true)
+   private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
    @Resource
    protected Logger logger = Logger.NULL;
 
    public boolean shouldRetryRequest(HttpCommand command, IOException error) {
+      if (!circuitBreaker.allowRetry(command.getCurrentRequest())) {
+         logger.debug("Not retrying, the circuit breaker for %s is open: %s",
+               command.getCurrentRequest().getEndpoint().getHost(), command);
+         return false;
+      }
       return ifReplayableBackoffAndReturnTrue(command);
    }
 
@@ -136,7 +144,7 @@ public class BackoffLimitedRetryHandler implements HttpRetryHandler, IOException
       delayMs = delayMs > maxPeriod ? maxPeriod : delayMs;
       logger.debug("Retry %d/%d: delaying for %d ms: %s", failureCount, max, delayMs, commandDescription);
       try {
-         Thread.sleep(delayMs);
+         RetryDelay.sleep(delayMs);
       } catch (InterruptedException e) {
          Throwables.propagate(e);
       }
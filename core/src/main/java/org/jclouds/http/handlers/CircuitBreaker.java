@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.handlers;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jclouds.Constants.PROPERTY_CIRCUIT_BREAKER_FAILURES;
+import static org.jclouds.Constants.PROPERTY_CIRCUIT_BREAKER_OPEN_TIMEOUT;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Ticker;
+import com.google.common.eventbus.EventBus;
+import com.google.inject.Inject;
+
+/**
+ * Stops sending requests to an endpoint host once it has failed several times in a row, so that
+ * threads fail fast instead of each going through all of its retries and back-off delays.
+ * <p/>
+ * Each host has a circuit that is {@link State#CLOSED closed} while requests succeed. After
+ * {@link org.jclouds.Constants#PROPERTY_CIRCUIT_BREAKER_FAILURES} consecutive server errors or I/O
+ * failures it becomes {@link State#OPEN open}, and requests are rejected without being sent. Once
+ * {@link org.jclouds.Constants#PROPERTY_CIRCUIT_BREAKER_OPEN_TIMEOUT} has passed, the circuit is
+ * {@link State#HALF_OPEN half open}: a single request is let through, and its outcome closes or
+ * reopens the circuit. Failed requests are not retried unless the circuit is closed.
+ * <p/>
+ * Each change is posted to the context {@link EventBus} as a {@link StateChange}.
+ */
+@Beta
+@Singleton
+public class CircuitBreaker {
+
+   public enum State {
+      CLOSED, OPEN, HALF_OPEN;
+   }
+
+   /**
+    * Posted to the context {@link EventBus} when the circuit of a host changes state.
+    */
+   public static class StateChange {
+      private final String host;
+      private final State previous;
+      private final State current;
+
+      public StateChange(String host, State previous, State current) {
+         this.host = checkNotNull(host, "host");
+         this.previous = checkNotNull(previous, "previous");
+         this.current = checkNotNull(current, "current");
+      }
+
+      public String getHost() {
+         return host;
+      }
+
+      public State getPrevious() {
+         return previous;
+      }
+
+      public State getCurrent() {
+         return current;
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper(this).add("host", host).add("previous", previous)
+               .add("current", current).toString();
+      }
+   }
+
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_CIRCUIT_BREAKER_FAILURES)
+   private int failureThreshold = 0;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_CIRCUIT_BREAKER_OPEN_TIMEOUT)
+   private long openTimeoutMillis = 30000;
+
+   @Inject(optional = true)
+   private EventBus eventBus;
+
+   private final Ticker ticker;
+   private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<String, Circuit>();
+
+   @Inject
+   public CircuitBreaker() {
+      this(Ticker.systemTicker());
+   }
+
+   @VisibleForTesting
+   CircuitBreaker(Ticker ticker) {
+      this.ticker = ticker;
+   }
+
+   @VisibleForTesting
+   CircuitBreaker(Ticker ticker, int failureThreshold, long openTimeoutMillis, EventBus eventBus) {
+      this(ticker);
+      this.failureThreshold = failureThreshold;
+      this.openTimeoutMillis = openTimeoutMillis;
+      this.eventBus = eventBus;
+   }
+
+   /**
+    * @return false if {@code request} must not be sent, as the circuit of its host is open
+    */
+   public boolean allowRequest(HttpRequest request) {
+      Circuit circuit = circuitFor(request);
+      return circuit == null || circuit.allowRequest();
+   }
+
+   /**
+    * @return true if requests to the host of {@code request} may be retried
+    */
+   public boolean allowRetry(HttpRequest request) {
+      Circuit circuit = circuitFor(request);
+      return circuit == null || circuit.state == State.CLOSED;
+   }
+
+   /**
+    * Records the response to {@code request}; server errors count as failures.
+    */
+   public void onResponse(HttpRequest request, int statusCode) {
+      Circuit circuit = circuitFor(request);
+      if (circuit == null)
+         return;
+      if (statusCode >= 500)
+         circuit.onFailure();
+      else
+         circuit.onSuccess();
+   }
+
+   /**
+    * Records that {@code request} could not be sent, or that no response was received.
+    */
+   public void onFailure(HttpRequest request) {
+      Circuit circuit = circuitFor(request);
+      if (circuit != null)
+         circuit.onFailure();
+   }
+
+   @VisibleForTesting
+   State state(String host) {
+      Circuit circuit = circuits.get(host);
+      return circuit != null ? circuit.state : State.CLOSED;
+   }
+
+   private Circuit circuitFor(HttpRequest request) {
+      if (failureThreshold <= 0)
+         return null;
+      String host = request.getEndpoint().getHost();
+      Circuit circuit = circuits.get(host);
+      if (circuit == null) {
+         Circuit created = new Circuit(host);
+         circuit = circuits.putIfAbsent(host, created);
+         if (circuit == null)
+            circuit = created;
+      }
+      return circuit;
+   }
+
+   private void changed(String host, State previous, State current) {
+      if (current == State.OPEN)
+         logger.warn("Circuit breaker for %s is open after repeated failures", host);
+      else
+         logger.debug("Circuit breaker for %s is %s", host, current);
+      if (eventBus != null)
+         eventBus.post(new StateChange(host, previous, current));
+   }
+
+   /**
+    * The state is read without locking, so that requests to a healthy host do not contend; only
+    * transitions are synchronized.
+    */
+   private final class Circuit {
+      private final String host;
+      private final AtomicInteger consecutiveFailures = new AtomicInteger();
+      private volatile State state = State.CLOSED;
+      // when the circuit opened, or when the half open probe was let through
+      private long since;
+
+      Circuit(String host) {
+         this.host = host;
+      }
+
+      boolean allowRequest() {
+         if (state == State.CLOSED)
+            return true;
+         State previous;
+         synchronized (this) {
+            long now = ticker.read();
+            if (state == State.CLOSED)
+               return true;
+            // a probe that never reported back must not keep the circuit half open forever
+            if (now - since < MILLISECONDS.toNanos(openTimeoutMillis))
+               return false;
+            previous = state;
+            state = State.HALF_OPEN;
+            since = now;
+         }
+         if (previous != State.HALF_OPEN)
+            changed(host, previous, State.HALF_OPEN);
+         return true;
+      }
+
+      void onSuccess() {
+         if (state == State.CLOSED) {
+            if (consecutiveFailures.get() != 0)
+               consecutiveFailures.set(0);
+            return;
+         }
+         State previous;
+         synchronized (this) {
+            previous = state;
+            if (previous == State.CLOSED)
+               return;
+            state = State.CLOSED;
+            consecutiveFailures.set(0);
+         }
+         changed(host, previous, State.CLOSED);
+      }
+
+      void onFailure() {
+         if (state == State.CLOSED && consecutiveFailures.incrementAndGet() < failureThreshold)
+            return;
+         State previous;
+         synchronized (this) {
+            previous = state;
+            if (previous == State.OPEN)
+               return;
+            if (previous == State.CLOSED && consecutiveFailures.get() < failureThreshold)
+               return;
+            state = State.OPEN;
+            since = ticker.read();
+         }
+         changed(host, previous, State.OPEN);
+      }
+   }
+}
@@ -50,6 +50,10 @@ public class DelegatingRetryHandler implements HttpRetryHandler {
    @ServerError
    HttpRetryHandler serverErrorRetryHandler;
 
+   @VisibleForTesting
+   @Inject(optional = true)
+   CircuitBreaker circuitBreaker = new CircuitBreaker();
+
    @Inject
    public DelegatingRetryHandler(BackoffLimitedRetryHandler backOff,
             RedirectionRetryHandler redirectionRetryHandler) {
@@ -66,7 +70,9 @@ public class DelegatingRetryHandler implements HttpRetryHandler {
       } else if (statusCode >= 400 && statusCode < 500) {
          retryRequest = clientErrorRetryHandler.shouldRetryRequest(command, response);
       } else if (statusCode >= 500) {
-         retryRequest = serverErrorRetryHandler.shouldRetryRequest(command, response);
+         // once the circuit has opened, further attempts would fail fast without reaching the server
+         retryRequest = circuitBreaker.allowRetry(command.getCurrentRequest())
+               && serverErrorRetryHandler.shouldRetryRequest(command, response);
       }
       return retryRequest;
    }
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.handlers;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Waits out the delay a retry handler imposes before a command is retried.
+ * <p/>
+ * Callers blocked on a command sleep, as before. When the asynchronous path of
+ * {@link org.jclouds.http.internal.BaseHttpCommandExecutorService} consults the retry handlers, the delay is only
+ * recorded, and the retry is scheduled once it has passed, so that no thread is held for the duration of the back-off.
+ */
+@Beta
+public final class RetryDelay {
+
+   private static final ThreadLocal<long[]> deferred = new ThreadLocal<long[]>();
+
+   private RetryDelay() {
+   }
+
+   /**
+    * Sleeps for {@code millis}, or adds them to the delay deferred on the current thread, if any.
+    */
+   public static void sleep(long millis) throws InterruptedException {
+      long[] delay = deferred.get();
+      if (delay != null) {
+         delay[0] += millis;
+      } else {
+         Thread.sleep(millis);
+      }
+   }
+
+   /**
+    * Records, rather than sleeps, delays imposed on the current thread until {@link #stopDeferring()} is called.
+    */
+   public static void startDeferring() {
+      deferred.set(new long[1]);
+   }
+
+   /**
+    * Returns the delay in milliseconds recorded since {@link #startDeferring()}, and goes back to sleeping.
+    */
+   public static long stopDeferring() {
+      long[] delay = deferred.get();
+      deferred.remove();
+      return delay != null ? delay[0] : 0L;
+   }
+}
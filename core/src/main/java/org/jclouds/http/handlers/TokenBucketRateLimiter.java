@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.handlers;
+
+import static com.google.common.collect.Maps.transformValues;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.jclouds.Constants.PROPERTY_RATE_LIMITS_PREFIX;
+import static org.jclouds.Constants.PROPERTY_RATE_LIMIT_ADAPTIVE;
+import static org.jclouds.Constants.PROPERTY_RATE_LIMIT_BURST;
+import static org.jclouds.Constants.PROPERTY_RATE_LIMIT_PER_SECOND;
+import static org.jclouds.util.Maps2.transformKeys;
+import static org.jclouds.util.Predicates2.startsWith;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.logging.Logger;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+
+/**
+ * Delays requests on the client side so that they stay within a configured rate, instead of only
+ * reacting once the provider throttles them as {@link RateLimitRetryHandler} does.
+ * <p/>
+ * There is one token bucket per endpoint host, and one per host for each command that has its own
+ * rate under {@link org.jclouds.Constants#PROPERTY_RATE_LIMITS_PREFIX}. As an instance belongs to
+ * a single context, buckets are never shared between providers. Reserving a permit is a
+ * compare-and-set on the bucket; callers are told how long to wait rather than being blocked.
+ * <p/>
+ * In adaptive mode, a 429 or 503 response halves the rate of its bucket, at most once a second
+ * and down to a 64th of the configured rate, and each successful response recovers a 16th of the
+ * difference.
+ */
+@Beta
+@Singleton
+public class TokenBucketRateLimiter {
+
+   private static final long SLOW_DOWN_INTERVAL_NANOS = SECONDS.toNanos(1);
+   private static final int MAX_SLOW_DOWN = 64;
+
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_RATE_LIMIT_PER_SECOND)
+   private double permitsPerSecond = 0;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_RATE_LIMIT_BURST)
+   private int burst = 0;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_RATE_LIMIT_ADAPTIVE)
+   private boolean adaptive = false;
+
+   private Map<String, Double> commandRates = ImmutableMap.of();
+   private final Ticker ticker;
+   private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<String, Bucket>();
+
+   @Inject
+   public TokenBucketRateLimiter() {
+      this(Ticker.systemTicker());
+   }
+
+   @VisibleForTesting
+   TokenBucketRateLimiter(Ticker ticker) {
+      this.ticker = ticker;
+   }
+
+   @VisibleForTesting
+   TokenBucketRateLimiter(Ticker ticker, double permitsPerSecond, int burst, boolean adaptive,
+         Map<String, Double> commandRates) {
+      this(ticker);
+      this.permitsPerSecond = permitsPerSecond;
+      this.burst = burst;
+      this.adaptive = adaptive;
+      this.commandRates = ImmutableMap.copyOf(commandRates);
+   }
+
+   @Inject(optional = true)
+   void readCommandRates(Function<Predicate<String>, Map<String, String>> filterStringsBoundByName) {
+      Map<String, String> rates = filterStringsBoundByName.apply(startsWith(PROPERTY_RATE_LIMITS_PREFIX));
+      this.commandRates = ImmutableMap.copyOf(transformKeys(transformValues(rates, new Function<String, Double>() {
+         public Double apply(String input) {
+            return Double.valueOf(input);
+         }
+      }), new Function<String, String>() {
+         public String apply(String input) {
+            return input.replaceFirst(Pattern.quote(PROPERTY_RATE_LIMITS_PREFIX), "");
+         }
+      }));
+   }
+
+   /**
+    * Takes a permit for sending {@code request}.
+    *
+    * @return the number of milliseconds to wait before sending it
+    */
+   public long reserve(HttpRequest request) {
+      Bucket bucket = bucketFor(request);
+      if (bucket == null)
+         return 0;
+      long waitNanos = bucket.reserve(ticker.read());
+      return (waitNanos + 999999) / 1000000;
+   }
+
+   /**
+    * Adjusts the rate of the bucket {@code request} was sent through, when in adaptive mode.
+    */
+   public void onResponse(HttpRequest request, int statusCode) {
+      if (!adaptive)
+         return;
+      Bucket bucket = bucketFor(request);
+      if (bucket == null)
+         return;
+      if (statusCode == 429 || statusCode == 503) {
+         if (bucket.slowDown(ticker.read()))
+            logger.debug("Throttled with %s by %s, lowering rate limit to %.2f per second", statusCode,
+                  request.getEndpoint().getHost(), bucket.permitsPerSecond());
+      } else if (statusCode < 300) {
+         bucket.speedUp();
+      }
+   }
+
+   private Bucket bucketFor(HttpRequest request) {
+      if (permitsPerSecond <= 0 && commandRates.isEmpty())
+         return null;
+      String host = request.getEndpoint().getHost();
+      String commandName = commandName(request);
+      Double commandRate = commandName != null ? commandRates.get(commandName) : null;
+      double rate = commandRate != null ? commandRate : permitsPerSecond;
+      if (rate <= 0)
+         return null;
+      String key = commandRate != null ? host + " " + commandName : host;
+      Bucket bucket = buckets.get(key);
+      if (bucket == null) {
+         Bucket created = new Bucket(rate, burst > 0 ? burst : (int) Math.max(1, Math.ceil(rate)), ticker.read());
+         bucket = buckets.putIfAbsent(key, created);
+         if (bucket == null)
+            bucket = created;
+      }
+      return bucket;
+   }
+
+   private static String commandName(HttpRequest request) {
+      if (!(request instanceof GeneratedHttpRequest))
+         return null;
+      Named named = ((GeneratedHttpRequest) request).getInvocation().getInvokable().getAnnotation(Named.class);
+      return named != null ? named.value() : null;
+   }
+
+   /**
+    * A token bucket kept as the theoretical arrival time of the next request: a request may go as
+    * long as that time is no more than {@code burst} intervals ahead of now.
+    */
+   @VisibleForTesting
+   static final class Bucket {
+      private final long baseIntervalNanos;
+      private final int burst;
+      private final AtomicLong intervalNanos;
+      private final AtomicLong nextArrival;
+      private final AtomicLong lastSlowDown;
+
+      Bucket(double permitsPerSecond, int burst, long now) {
+         this.baseIntervalNanos = Math.max(1, (long) (SECONDS.toNanos(1) / permitsPerSecond));
+         this.burst = burst;
+         this.intervalNanos = new AtomicLong(baseIntervalNanos);
+         this.nextArrival = new AtomicLong(now);
+         this.lastSlowDown = new AtomicLong(now - SLOW_DOWN_INTERVAL_NANOS);
+      }
+
+      /**
+       * @return nanoseconds to wait before the reserved permit may be used
+       */
+      long reserve(long now) {
+         for (;;) {
+            long arrival = nextArrival.get();
+            long interval = intervalNanos.get();
+            long next = Math.max(arrival, now) + interval;
+            if (nextArrival.compareAndSet(arrival, next))
+               return Math.max(0, next - now - burst * interval);
+         }
+      }
+
+      boolean slowDown(long now) {
+         long last = lastSlowDown.get();
+         if (now - last < SLOW_DOWN_INTERVAL_NANOS || !lastSlowDown.compareAndSet(last, now))
+            return false;
+         for (;;) {
+            long interval = intervalNanos.get();
+            long slower = Math.min(interval * 2, baseIntervalNanos * MAX_SLOW_DOWN);
+            if (slower == interval || intervalNanos.compareAndSet(interval, slower))
+               return slower != interval;
+         }
+      }
+
+      void speedUp() {
+         for (;;) {
+            long interval = intervalNanos.get();
+            if (interval <= baseIntervalNanos)
+               return;
+            long faster = interval - Math.max(1, (interval - baseIntervalNanos) / 16);
+            if (intervalNanos.compareAndSet(interval, faster))
+               return;
+         }
+      }
+
+      double permitsPerSecond() {
+         return (double) SECONDS.toNanos(1) / intervalNanos.get();
+      }
+   }
+}
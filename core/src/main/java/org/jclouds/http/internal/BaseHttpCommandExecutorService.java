@@ -18,7 +18,14 @@ package org.jclouds.http.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Throwables.propagate;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.jclouds.Constants.PROPERTY_HEDGE_PERCENTILE;
 import static org.jclouds.Constants.PROPERTY_IDEMPOTENT_METHODS;
+import static org.jclouds.Constants.PROPERTY_SCHEDULER_THREADS;
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
 import static org.jclouds.http.HttpUtils.checkRequestHasContentLengthOrChunkedEncoding;
 import static org.jclouds.http.HttpUtils.releasePayload;
 import static org.jclouds.http.HttpUtils.wirePayloadIfEnabled;
@@ -27,28 +34,42 @@ import static org.jclouds.util.Throwables2.getFirstThrowableOfType;
 import java.io.IOException;
 import java.net.ProtocolException;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
 
 import org.jclouds.Constants;
+import org.jclouds.http.AsyncHttpCommandExecutorService;
 import org.jclouds.http.HttpCommand;
-import org.jclouds.http.HttpCommandExecutorService;
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpRequestFilter;
 import org.jclouds.http.HttpResponse;
 import org.jclouds.http.HttpResponseException;
 import org.jclouds.http.HttpUtils;
 import org.jclouds.http.IOExceptionRetryHandler;
+import org.jclouds.http.handlers.CircuitBreaker;
 import org.jclouds.http.handlers.DelegatingErrorHandler;
 import org.jclouds.http.handlers.DelegatingRetryHandler;
+import org.jclouds.http.handlers.RetryDelay;
+import org.jclouds.http.handlers.TokenBucketRateLimiter;
 import org.jclouds.io.ContentMetadataCodec;
 import org.jclouds.logging.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.inject.Inject;
 
-public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandExecutorService {
+public abstract class BaseHttpCommandExecutorService<Q> implements AsyncHttpCommandExecutorService {
    protected final HttpUtils utils;
    protected final ContentMetadataCodec contentMetadataCodec;
 
@@ -66,6 +87,29 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
 
    private final Set<String> idempotentMethods;
 
+   // injected rather than passed to the constructor, so that existing drivers need not change
+   @Inject(optional = true)
+   @Named(PROPERTY_USER_THREADS)
+   private ListeningExecutorService userExecutor = newDirectExecutorService();
+
+   // the scheduler is defined in an optional module; without it, back-off delays are slept on the user executor
+   @Inject(optional = true)
+   @Named(PROPERTY_SCHEDULER_THREADS)
+   private ListeningScheduledExecutorService scheduler;
+
+   @Inject(optional = true)
+   private TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter();
+
+   @Inject(optional = true)
+   private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+   @Inject(optional = true)
+   @Named(PROPERTY_HEDGE_PERCENTILE)
+   private double hedgePercentile = 0;
+
+   @VisibleForTesting
+   final ResponseLatencyTracker latencies = new ResponseLatencyTracker();
+
    protected BaseHttpCommandExecutorService(HttpUtils utils, ContentMetadataCodec contentMetadataCodec,
          DelegatingRetryHandler retryHandler, IOExceptionRetryHandler ioRetryHandler,
          DelegatingErrorHandler errorHandler, HttpWire wire,
@@ -83,26 +127,18 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
    public HttpResponse invoke(HttpCommand command) {
       HttpResponse response = null;
       for (;;) {
-         HttpRequest request = command.getCurrentRequest();
          Q nativeRequest = null;
          try {
-            for (HttpRequestFilter filter : request.getFilters()) {
-               request = filter.filter(request);
-            }
-            checkRequestHasContentLengthOrChunkedEncoding(request,
-                  "After filtering, the request has neither chunked encoding nor content length: " + request);
-            logger.debug("Sending request %s: %s", request.hashCode(), request.getRequestLine());
-            wirePayloadIfEnabled(wire, request);
-            utils.logRequest(headerLog, request, ">>");
+            checkCircuit(command);
+            awaitRateLimit(command);
+            HttpRequest request = filterAndLog(command);
             nativeRequest = convert(request);
-            response = invoke(nativeRequest);
-
-            logger.debug("Receiving response %s: %s", request.hashCode(), response.getStatusLine());
-            utils.logResponse(headerLog, response, "<<");
-            if (response.getPayload() != null && wire.enabled())
-               wire.input(response);
+            response = invokeOrHedge(command, request, nativeRequest);
+            logResponse(request, response);
             nativeRequest = null; // response took ownership of streams
             int statusCode = response.getStatusCode();
+            rateLimiter.onResponse(command.getCurrentRequest(), statusCode);
+            circuitBreaker.onResponse(command.getCurrentRequest(), statusCode);
             if (statusCode >= 300) {
                if (shouldContinue(command, response))
                   continue;
@@ -113,6 +149,8 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
             }
          } catch (Exception e) {
             IOException ioe = getFirstThrowableOfType(e, IOException.class);
+            if (ioe != null)
+               circuitBreaker.onFailure(command.getCurrentRequest());
             if (ioe != null && shouldContinue(command, ioe)) {
                continue;
             }
@@ -129,6 +167,373 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
       return response;
    }
 
+   /**
+    * Follows the same steps as {@link #invoke(HttpCommand)}, except that requests are sent with
+    * {@link #invokeAsync(Object)}, and retries are scheduled after the delay the retry handlers impose, instead of
+    * sleeping through it.
+    */
+   @Override
+   public ListenableFuture<HttpResponse> invokeAsync(HttpCommand command) {
+      SettableFuture<HttpResponse> result = SettableFuture.create();
+      attempt(command, result);
+      return result;
+   }
+
+   private void attempt(final HttpCommand command, final SettableFuture<HttpResponse> result) {
+      if (result.isCancelled())
+         return;
+      long delay;
+      try {
+         checkCircuit(command);
+         delay = rateLimiter.reserve(command.getCurrentRequest());
+      } catch (HttpResponseException e) {
+         command.setException(e);
+         result.setException(e);
+         return;
+      } catch (RuntimeException e) {
+         result.setException(e);
+         return;
+      }
+      if (delay > 0) {
+         logger.debug("Delaying request %s by %sms to stay within the rate limit", command, delay);
+         runAfter(delay, new Runnable() {
+            @Override
+            public void run() {
+               send(command, result);
+            }
+         }, result);
+      } else {
+         send(command, result);
+      }
+   }
+
+   private void send(final HttpCommand command, final SettableFuture<HttpResponse> result) {
+      if (result.isCancelled())
+         return;
+      final HttpRequest request;
+      final Q nativeRequest;
+      ListenableFuture<HttpResponse> sent;
+      try {
+         request = filterAndLog(command);
+         nativeRequest = convert(request);
+      } catch (Exception e) {
+         retryOrFail(command, e, result);
+         return;
+      }
+      try {
+         sent = invokeAsync(nativeRequest);
+      } catch (RuntimeException e) {
+         cleanup(nativeRequest);
+         retryOrFail(command, e, result);
+         return;
+      }
+      Futures.addCallback(sent, new FutureCallback<HttpResponse>() {
+         @Override
+         public void onSuccess(HttpResponse response) {
+            long delay;
+            try {
+               logResponse(request, response);
+               rateLimiter.onResponse(command.getCurrentRequest(), response.getStatusCode());
+               circuitBreaker.onResponse(command.getCurrentRequest(), response.getStatusCode());
+               delay = response.getStatusCode() >= 300 ? retryDelay(command, response) : -1L;
+            } catch (Exception e) {
+               retryOrFail(command, e, result);
+               return;
+            }
+            if (delay >= 0)
+               retryAfter(delay, command, result);
+            else if (command.getException() != null)
+               result.setException(command.getException());
+            else
+               result.set(response);
+         }
+
+         @Override
+         public void onFailure(Throwable t) {
+            cleanup(nativeRequest);
+            retryOrFail(command, t, result);
+         }
+      }, directExecutor());
+   }
+
+   private void retryOrFail(HttpCommand command, Throwable t, SettableFuture<HttpResponse> result) {
+      IOException ioe = getFirstThrowableOfType(t, IOException.class);
+      long delay;
+      try {
+         if (ioe != null)
+            circuitBreaker.onFailure(command.getCurrentRequest());
+         delay = ioe != null ? retryDelay(command, ioe) : -1L;
+      } catch (RuntimeException e) {
+         result.setException(e);
+         return;
+      }
+      if (delay >= 0) {
+         retryAfter(delay, command, result);
+      } else {
+         command.setException(new HttpResponseException(t.getMessage() + " connecting to "
+               + command.getCurrentRequest().getRequestLine(), command, null, t));
+         result.setException(command.getException());
+      }
+   }
+
+   private void retryAfter(long delayMillis, final HttpCommand command, final SettableFuture<HttpResponse> result) {
+      runAfter(delayMillis, new Runnable() {
+         @Override
+         public void run() {
+            attempt(command, result);
+         }
+      }, result);
+   }
+
+   private void runAfter(final long delayMillis, final Runnable task, final SettableFuture<HttpResponse> result) {
+      final Runnable guarded = new Runnable() {
+         @Override
+         public void run() {
+            try {
+               task.run();
+            } catch (RuntimeException e) {
+               result.setException(e);
+            }
+         }
+      };
+      try {
+         if (delayMillis == 0) {
+            guarded.run();
+         } else if (scheduler != null) {
+            scheduler.schedule(new Runnable() {
+               @Override
+               public void run() {
+                  try {
+                     userExecutor.execute(guarded);
+                  } catch (RuntimeException e) {
+                     result.setException(e);
+                  }
+               }
+            }, delayMillis, MILLISECONDS);
+         } else {
+            userExecutor.execute(new Runnable() {
+               @Override
+               public void run() {
+                  try {
+                     Thread.sleep(delayMillis);
+                  } catch (InterruptedException e) {
+                     Thread.currentThread().interrupt();
+                     result.setException(e);
+                     return;
+                  }
+                  guarded.run();
+               }
+            });
+         }
+      } catch (RuntimeException e) {
+         result.setException(e);
+      }
+   }
+
+   /**
+    * Returns how long to wait before retrying {@code command} after {@code response}, or {@code -1} if it should not
+    * be retried. Delays imposed by the retry handlers are recorded rather than slept.
+    */
+   private long retryDelay(HttpCommand command, HttpResponse response) {
+      RetryDelay.startDeferring();
+      boolean retry;
+      long delay;
+      try {
+         retry = shouldContinue(command, response);
+      } finally {
+         delay = RetryDelay.stopDeferring();
+      }
+      return retry ? delay : -1L;
+   }
+
+   private long retryDelay(HttpCommand command, IOException error) {
+      RetryDelay.startDeferring();
+      boolean retry;
+      long delay;
+      try {
+         retry = shouldContinue(command, error);
+      } finally {
+         delay = RetryDelay.stopDeferring();
+      }
+      return retry ? delay : -1L;
+   }
+
+   /**
+    * Sends {@code nativeRequest}, and if it is a GET or HEAD that takes longer than
+    * {@link org.jclouds.Constants#PROPERTY_HEDGE_PERCENTILE} of the recent requests to the same host, sends
+    * {@code command} a second time from the user executor, filtered anew so that it is signed for when it is sent.
+    * The first attempt to answer wins, and the other one is aborted through {@link #cleanup(Object)}. The latency of
+    * the first attempt is recorded either way; when the hedge wins, as the time the first attempt had taken by then.
+    */
+   private HttpResponse invokeOrHedge(HttpCommand command, HttpRequest request, Q nativeRequest)
+         throws IOException, InterruptedException {
+      if (hedgePercentile <= 0 || scheduler == null || request.getPayload() != null
+            || !(request.getMethod().equals("GET") || request.getMethod().equals("HEAD"))
+            || !idempotentMethods.contains(request.getMethod()))
+         return invoke(nativeRequest);
+      String host = request.getEndpoint().getHost();
+      long hedgeAfter = latencies.percentileNanos(host, hedgePercentile);
+      long start = System.nanoTime();
+      if (hedgeAfter < 0) {
+         HttpResponse response = invoke(nativeRequest);
+         latencies.record(host, System.nanoTime() - start);
+         return response;
+      }
+      Hedge hedge = new Hedge(command, nativeRequest, host, start);
+      Future<?> timer = scheduler.schedule(hedge, hedgeAfter, NANOSECONDS);
+      HttpResponse response;
+      try {
+         response = invoke(nativeRequest);
+      } catch (IOException e) {
+         timer.cancel(false);
+         return hedge.responseIfPrimaryFailed(e);
+      } catch (RuntimeException e) {
+         timer.cancel(false);
+         return hedge.responseIfPrimaryFailed(e);
+      }
+      if (hedge.primaryWins()) {
+         timer.cancel(false);
+         latencies.record(host, System.nanoTime() - start);
+         return response;
+      }
+      // the hedge answered first, while this response was on its way
+      releasePayload(response);
+      return hedge.response();
+   }
+
+   private final class Hedge implements Runnable {
+      private static final int RACING = 0;
+      private static final int PRIMARY_WON = 1;
+      private static final int HEDGE_WON = 2;
+
+      private final HttpCommand command;
+      private final Q primary;
+      private final String host;
+      private final long primaryStart;
+      private final AtomicInteger state = new AtomicInteger(RACING);
+      private final SettableFuture<HttpResponse> response = SettableFuture.create();
+      private volatile boolean started;
+
+      private Hedge(HttpCommand command, Q primary, String host, long primaryStart) {
+         this.command = command;
+         this.primary = primary;
+         this.host = host;
+         this.primaryStart = primaryStart;
+      }
+
+      @Override
+      public void run() {
+         if (state.get() != RACING)
+            return;
+         started = true;
+         try {
+            userExecutor.execute(new Runnable() {
+               @Override
+               public void run() {
+                  send();
+               }
+            });
+         } catch (RuntimeException e) {
+            response.setException(e);
+         }
+      }
+
+      private void send() {
+         Q nativeRequest = null;
+         try {
+            HttpRequest request = filterAndLog(command);
+            logger.debug("Hedging request %s after no response from the first attempt", request.hashCode());
+            nativeRequest = convert(request);
+            HttpResponse hedged = invoke(nativeRequest);
+            if (state.compareAndSet(RACING, HEDGE_WON)) {
+               // the first attempt took at least this long; leaving it out would bias the percentile low
+               latencies.record(host, System.nanoTime() - primaryStart);
+               response.set(hedged);
+               cleanup(primary);
+               return;
+            }
+            releasePayload(hedged);
+            cleanup(nativeRequest);
+         } catch (Throwable t) {
+            cleanup(nativeRequest);
+            response.setException(t);
+         }
+      }
+
+      boolean primaryWins() {
+         return state.compareAndSet(RACING, PRIMARY_WON);
+      }
+
+      /**
+       * The primary attempt fails either on its own, or because the hedge aborted it after answering first. In both
+       * cases a hedge that is under way may still provide the response.
+       */
+      <E extends Exception> HttpResponse responseIfPrimaryFailed(E primaryFailure) throws E, InterruptedException {
+         if (state.get() == HEDGE_WON || (started && state.get() == RACING)) {
+            try {
+               return response();
+            } catch (IOException e) {
+               throw primaryFailure;
+            } catch (RuntimeException e) {
+               throw primaryFailure;
+            }
+         }
+         state.compareAndSet(RACING, PRIMARY_WON);
+         throw primaryFailure;
+      }
+
+      HttpResponse response() throws IOException, InterruptedException {
+         try {
+            return response.get();
+         } catch (ExecutionException e) {
+            IOException ioe = getFirstThrowableOfType(e, IOException.class);
+            if (ioe != null)
+               throw ioe;
+            throw propagate(e.getCause());
+         }
+      }
+   }
+
+   private void checkCircuit(HttpCommand command) {
+      HttpRequest request = command.getCurrentRequest();
+      if (!circuitBreaker.allowRequest(request))
+         throw new HttpResponseException("circuit breaker is open for " + request.getEndpoint().getHost()
+               + ", not sending " + request.getRequestLine(), command, null);
+   }
+
+   private void awaitRateLimit(HttpCommand command) throws InterruptedException {
+      long delay = rateLimiter.reserve(command.getCurrentRequest());
+      if (delay > 0) {
+         logger.debug("Delaying request %s by %sms to stay within the rate limit", command, delay);
+         try {
+            Thread.sleep(delay);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+         }
+      }
+   }
+
+   private HttpRequest filterAndLog(HttpCommand command) {
+      HttpRequest request = command.getCurrentRequest();
+      for (HttpRequestFilter filter : request.getFilters()) {
+         request = filter.filter(request);
+      }
+      checkRequestHasContentLengthOrChunkedEncoding(request,
+            "After filtering, the request has neither chunked encoding nor content length: " + request);
+      logger.debug("Sending request %s: %s", request.hashCode(), request.getRequestLine());
+      wirePayloadIfEnabled(wire, request);
+      utils.logRequest(headerLog, request, ">>");
+      return request;
+   }
+
+   private void logResponse(HttpRequest request, HttpResponse response) {
+      logger.debug("Receiving response %s: %s", request.hashCode(), response.getStatusLine());
+      utils.logResponse(headerLog, response, "<<");
+      if (response.getPayload() != null && wire.enabled())
+         wire.input(response);
+   }
+
    @VisibleForTesting
    boolean shouldContinue(HttpCommand command, HttpResponse response) {
       boolean shouldContinue = false;
@@ -171,6 +576,19 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
 
    protected abstract HttpResponse invoke(Q nativeRequest) throws IOException, InterruptedException;
 
+   /**
+    * Sends {@code nativeRequest} without blocking the caller. By default, the blocking {@link #invoke(Object)} runs on
+    * the user executor; drivers backed by a non-blocking client should override this.
+    */
+   protected ListenableFuture<HttpResponse> invokeAsync(final Q nativeRequest) {
+      return userExecutor.submit(new Callable<HttpResponse>() {
+         @Override
+         public HttpResponse call() throws Exception {
+            return invoke(nativeRequest);
+         }
+      });
+   }
+
    protected abstract void cleanup(Q nativeRequest);
 
 }
@@ -43,6 +43,7 @@ import javax.inject.Singleton;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
 
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpResponse;
@@ -53,6 +54,7 @@ import org.jclouds.http.handlers.DelegatingRetryHandler;
 import org.jclouds.io.ContentMetadataCodec;
 import org.jclouds.io.MutableContentMetadata;
 import org.jclouds.io.Payload;
+import org.jclouds.javax.annotation.Nullable;
 
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
@@ -70,6 +72,7 @@ public class JavaUrlHttpCommandExecutorService extends BaseHttpCommandExecutorSe
    @Inject(optional = true)
    protected Supplier<SSLContext> sslContextSupplier;
    protected final String userAgent;
+   private volatile SSLContextAndFactory socketFactory;
 
    @Inject
    public JavaUrlHttpCommandExecutorService(HttpUtils utils, ContentMetadataCodec contentMetadataCodec,
@@ -106,6 +109,7 @@ public class JavaUrlHttpCommandExecutorService extends BaseHttpCommandExecutorSe
          closeQuietly(in);
          in = null;
       }
+      in = responseStream(connection, in);
       builder.statusCode(responseCode);
       builder.message(connection.getResponseMessage());
 
@@ -126,6 +130,14 @@ public class JavaUrlHttpCommandExecutorService extends BaseHttpCommandExecutorSe
       return builder.build();
    }
 
+   /**
+    * Returns the stream the response payload is read from, or null if there is none. Drivers that
+    * track when a connection is done with can wrap {@code in} here.
+    */
+   protected InputStream responseStream(HttpURLConnection connection, @Nullable InputStream in) {
+      return in;
+   }
+
    @Override
    protected HttpURLConnection convert(HttpRequest request) throws IOException, InterruptedException {
       boolean chunked = "chunked".equals(request.getFirstHeaderOrNull("Transfer-Encoding"));
@@ -203,14 +215,38 @@ public class JavaUrlHttpCommandExecutorService extends BaseHttpCommandExecutorSe
          if (sslContextSupplier != null) {
              // used for providers which e.g. use certs for authentication (like FGCP)
              // Provider provides SSLContext impl (which inits context with key manager)
-             sslCon.setSSLSocketFactory(sslContextSupplier.get().getSocketFactory());
+             sslCon.setSSLSocketFactory(socketFactory(sslContextSupplier.get()));
          } else if (utils.trustAllCerts()) {
-             sslCon.setSSLSocketFactory(untrustedSSLContextProvider.get().getSocketFactory());
+             sslCon.setSSLSocketFactory(socketFactory(untrustedSSLContextProvider.get()));
          }
       }
       return connection;
    }
 
+   /**
+    * Returns the same factory for as long as {@code context} does not change. The JDK only reuses a
+    * kept-alive https connection, and with it the TLS session, when the new connection has an equal
+    * socket factory, and {@link SSLContext#getSocketFactory()} returns a new one on each call.
+    */
+   private SSLSocketFactory socketFactory(SSLContext context) {
+      SSLContextAndFactory cached = socketFactory;
+      if (cached == null || cached.context != context) {
+         cached = new SSLContextAndFactory(context);
+         socketFactory = cached;
+      }
+      return cached.factory;
+   }
+
+   private static final class SSLContextAndFactory {
+      private final SSLContext context;
+      private final SSLSocketFactory factory;
+
+      private SSLContextAndFactory(SSLContext context) {
+         this.context = context;
+         this.factory = context.getSocketFactory();
+      }
+   }
+
    /**
     * Configure the HTTP request headers in the connection.
     */
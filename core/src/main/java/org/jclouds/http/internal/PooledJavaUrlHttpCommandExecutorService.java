@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.internal;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.jclouds.Constants.PROPERTY_IDEMPOTENT_METHODS;
+import static org.jclouds.Constants.PROPERTY_USER_AGENT;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpUtils;
+import org.jclouds.http.IOExceptionRetryHandler;
+import org.jclouds.http.handlers.DelegatingErrorHandler;
+import org.jclouds.http.handlers.DelegatingRetryHandler;
+import org.jclouds.io.ContentMetadataCodec;
+import org.jclouds.javax.annotation.Nullable;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+
+/**
+ * A {@link JavaUrlHttpCommandExecutorService} that bounds the connections it has open, and keeps
+ * statistics about them.
+ * <p/>
+ * A request leases a connection slot for its host, and for the context, before it is sent, waiting
+ * up to the connection timeout when {@link org.jclouds.Constants#PROPERTY_MAX_CONNECTIONS_PER_HOST}
+ * or {@link org.jclouds.Constants#PROPERTY_MAX_CONNECTIONS_PER_CONTEXT} connections are already in
+ * use. The slot is returned once the response payload is closed, which is also when the JDK puts
+ * the socket back in its keep-alive cache; callers must therefore close the payloads they open.
+ * Sockets and TLS sessions are reused by the JDK, which evicts idle sockets after the keep-alive
+ * timeout of the server.
+ */
+@Beta
+@Singleton
+public class PooledJavaUrlHttpCommandExecutorService extends JavaUrlHttpCommandExecutorService {
+
+   private final int maxPerHost;
+   @Nullable
+   private final Semaphore contextSlots;
+   private final ConcurrentMap<String, HostPool> pools = new ConcurrentHashMap<String, HostPool>();
+   private final ConcurrentMap<HttpURLConnection, Lease> leases = new ConcurrentHashMap<HttpURLConnection, Lease>();
+
+   @Inject
+   public PooledJavaUrlHttpCommandExecutorService(HttpUtils utils, ContentMetadataCodec contentMetadataCodec,
+         DelegatingRetryHandler retryHandler, IOExceptionRetryHandler ioRetryHandler,
+         DelegatingErrorHandler errorHandler, HttpWire wire, @Named("untrusted") HostnameVerifier verifier,
+         @Named("untrusted") Supplier<SSLContext> untrustedSSLContextProvider, Function<URI, Proxy> proxyForURI,
+         @Named(PROPERTY_IDEMPOTENT_METHODS) String idempotentMethods,
+         @Named(PROPERTY_USER_AGENT) String userAgent) {
+      super(utils, contentMetadataCodec, retryHandler, ioRetryHandler, errorHandler, wire, verifier,
+            untrustedSSLContextProvider, proxyForURI, idempotentMethods, userAgent);
+      this.maxPerHost = utils.getMaxConnectionsPerHost();
+      this.contextSlots = utils.getMaxConnections() > 0 ? new Semaphore(utils.getMaxConnections(), true) : null;
+   }
+
+   /**
+    * Connection statistics of one host, as of when they were taken.
+    */
+   public static final class PoolStats {
+      private final int leased;
+      private final int pending;
+      private final int max;
+      private final long leases;
+      private final long timeouts;
+      private final long waitMillis;
+
+      PoolStats(int leased, int pending, int max, long leases, long timeouts, long waitMillis) {
+         this.leased = leased;
+         this.pending = pending;
+         this.max = max;
+         this.leases = leases;
+         this.timeouts = timeouts;
+         this.waitMillis = waitMillis;
+      }
+
+      /**
+       * @return connections in use, from the request being sent until its response payload is closed
+       */
+      public int getLeased() {
+         return leased;
+      }
+
+      /**
+       * @return requests waiting for a connection
+       */
+      public int getPending() {
+         return pending;
+      }
+
+      /**
+       * @return the most connections the host may have in use, or 0 if unbounded
+       */
+      public int getMax() {
+         return max;
+      }
+
+      /**
+       * @return connections leased so far
+       */
+      public long getLeases() {
+         return leases;
+      }
+
+      /**
+       * @return requests that gave up waiting for a connection
+       */
+      public long getTimeouts() {
+         return timeouts;
+      }
+
+      /**
+       * @return time spent waiting for connections so far
+       */
+      public long getWaitMillis() {
+         return waitMillis;
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper(this).add("leased", leased).add("pending", pending).add("max", max)
+               .add("leases", leases).add("timeouts", timeouts).add("waitMillis", waitMillis).toString();
+      }
+   }
+
+   /**
+    * @return the connection statistics of each host requests have been sent to, keyed by host and
+    *         port
+    */
+   public Map<String, PoolStats> getPoolStats() {
+      ImmutableMap.Builder<String, PoolStats> stats = ImmutableMap.builder();
+      for (Map.Entry<String, HostPool> entry : pools.entrySet())
+         stats.put(entry.getKey(), entry.getValue().stats());
+      return stats.build();
+   }
+
+   @Override
+   protected HttpURLConnection convert(HttpRequest request) throws IOException, InterruptedException {
+      Lease lease = lease(request);
+      boolean converted = false;
+      try {
+         HttpURLConnection connection = super.convert(request);
+         leases.put(connection, lease);
+         converted = true;
+         return connection;
+      } finally {
+         if (!converted)
+            lease.release();
+      }
+   }
+
+   @Override
+   protected InputStream responseStream(HttpURLConnection connection, @Nullable InputStream in) {
+      final Lease lease = leases.remove(connection);
+      if (lease == null)
+         return in;
+      if (in == null) {
+         lease.release();
+         return null;
+      }
+      return new FilterInputStream(in) {
+         @Override
+         public void close() throws IOException {
+            try {
+               super.close();
+            } finally {
+               lease.release();
+            }
+         }
+      };
+   }
+
+   @Override
+   protected void cleanup(HttpURLConnection connection) {
+      try {
+         super.cleanup(connection);
+      } finally {
+         Lease lease = connection != null ? leases.remove(connection) : null;
+         if (lease != null)
+            lease.release();
+      }
+   }
+
+   private Lease lease(HttpRequest request) throws IOException, InterruptedException {
+      URI endpoint = request.getEndpoint();
+      String key = endpoint.getHost() + ":" + port(endpoint);
+      HostPool pool = pools.get(key);
+      if (pool == null) {
+         HostPool created = new HostPool(maxPerHost);
+         pool = pools.putIfAbsent(key, created);
+         if (pool == null)
+            pool = created;
+      }
+      long timeoutNanos = MILLISECONDS.toNanos(Math.max(0, utils.getConnectionTimeout()));
+      long start = System.nanoTime();
+      pool.pending.incrementAndGet();
+      try {
+         if (!pool.acquire(timeoutNanos)) {
+            pool.timeouts.incrementAndGet();
+            throw new IOException("Timed out waiting for a connection to " + key);
+         }
+         if (contextSlots != null
+               && !contextSlots.tryAcquire(Math.max(0, timeoutNanos - (System.nanoTime() - start)), NANOSECONDS)) {
+            pool.release();
+            pool.timeouts.incrementAndGet();
+            throw new IOException("Timed out waiting for one of the " + utils.getMaxConnections()
+                  + " connections of the context, to send to " + key);
+         }
+      } finally {
+         pool.pending.decrementAndGet();
+         pool.waitNanos.addAndGet(System.nanoTime() - start);
+      }
+      pool.leased.incrementAndGet();
+      pool.leases.incrementAndGet();
+      return new Lease(pool);
+   }
+
+   private static int port(URI endpoint) {
+      if (endpoint.getPort() != -1)
+         return endpoint.getPort();
+      return "https".equalsIgnoreCase(endpoint.getScheme()) ? 443 : 80;
+   }
+
+   private static final class HostPool {
+      private final int max;
+      @Nullable
+      private final Semaphore slots;
+      private final AtomicInteger leased = new AtomicInteger();
+      private final AtomicInteger pending = new AtomicInteger();
+      private final AtomicLong leases = new AtomicLong();
+      private final AtomicLong timeouts = new AtomicLong();
+      private final AtomicLong waitNanos = new AtomicLong();
+
+      HostPool(int max) {
+         this.max = Math.max(0, max);
+         this.slots = max > 0 ? new Semaphore(max, true) : null;
+      }
+
+      boolean acquire(long timeoutNanos) throws InterruptedException {
+         return slots == null || slots.tryAcquire(timeoutNanos, NANOSECONDS);
+      }
+
+      void release() {
+         if (slots != null)
+            slots.release();
+      }
+
+      PoolStats stats() {
+         return new PoolStats(leased.get(), pending.get(), max, leases.get(), timeouts.get(),
+               NANOSECONDS.toMillis(waitNanos.get()));
+      }
+   }
+
+   private final class Lease {
+      private final HostPool pool;
+      private final AtomicBoolean released = new AtomicBoolean();
+
+      Lease(HostPool pool) {
+         this.pool = pool;
+      }
+
+      void release() {
+         if (!released.compareAndSet(false, true))
+            return;
+         pool.leased.decrementAndGet();
+         pool.release();
+         if (contextSlots != null)
+            contextSlots.release();
+      }
+   }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.internal;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the most recent times to response headers of each endpoint host, so that requests can be
+ * hedged once they take longer than most of their predecessors.
+ */
+final class ResponseLatencyTracker {
+
+   static final int SAMPLES = 256;
+   static final int MIN_SAMPLES = 32;
+   static final int RECOMPUTE_EVERY = 16;
+
+   private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<String, Window>();
+
+   void record(String host, long nanos) {
+      Window window = windows.get(host);
+      if (window == null) {
+         Window created = new Window();
+         window = windows.putIfAbsent(host, created);
+         if (window == null)
+            window = created;
+      }
+      window.record(nanos);
+   }
+
+   /**
+    * @return the latency in nanoseconds below which {@code percentile} percent of the recent
+    *         responses from {@code host} arrived, or -1 until enough responses have been seen
+    */
+   long percentileNanos(String host, double percentile) {
+      Window window = windows.get(host);
+      return window != null ? window.percentile(percentile) : -1;
+   }
+
+   private static final class Window {
+      private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+      private final AtomicLong count = new AtomicLong();
+      // sorting the window on every request would cost more than the hedge saves
+      private volatile long[] sorted;
+      private volatile long sortedAt;
+
+      void record(long nanos) {
+         samples.set((int) (count.getAndIncrement() % SAMPLES), nanos);
+      }
+
+      long percentile(double percentile) {
+         long recorded = count.get();
+         if (recorded < MIN_SAMPLES)
+            return -1;
+         long[] snapshot = sorted;
+         if (snapshot == null || recorded - sortedAt >= RECOMPUTE_EVERY) {
+            snapshot = new long[(int) Math.min(recorded, SAMPLES)];
+            for (int i = 0; i < snapshot.length; i++)
+               snapshot[i] = samples.get(i);
+            Arrays.sort(snapshot);
+            sortedAt = recorded;
+            sorted = snapshot;
+         }
+         int index = (int) Math.ceil(percentile / 100 * snapshot.length) - 1;
+         return snapshot[Math.max(0, Math.min(snapshot.length - 1, index))];
+      }
+   }
+}
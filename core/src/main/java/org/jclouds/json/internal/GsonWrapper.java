@@ -16,6 +16,8 @@
  */
 package org.jclouds.json.internal;
 
+import static com.google.common.base.Charsets.UTF_8;
+
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.reflect.Type;
@@ -52,12 +54,12 @@ public class GsonWrapper extends ForwardingObject implements Json  {
    @SuppressWarnings("unchecked")
    @Override
    public <T> T fromJson(InputStream json, Type type) {
-      return (T) gson.fromJson(new InputStreamReader(json), type);
+      return (T) gson.fromJson(new InputStreamReader(json, UTF_8), type);
    }
 
    @Override
    public <T> T fromJson(InputStream json, Class<T> classOfT) {
-      return gson.fromJson(new InputStreamReader(json), classOfT);
+      return gson.fromJson(new InputStreamReader(json, UTF_8), classOfT);
    }
 
    @Override
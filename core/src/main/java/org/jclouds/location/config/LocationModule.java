@@ -50,6 +50,7 @@ import org.jclouds.reflect.InvocationSuccess;
 import org.jclouds.rest.AuthorizationException;
 import org.jclouds.rest.functions.ImplicitOptionalConverter;
 import org.jclouds.rest.suppliers.MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier;
+import org.jclouds.rest.suppliers.RefreshAhead;
 
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
@@ -77,26 +78,27 @@ public class LocationModule extends AbstractModule {
    @Iso3166
    protected final Supplier<Map<String, Supplier<Set<String>>>> isoCodesSupplier(
             AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
-            LocationIdToIso3166CodesSupplier uncached) {
+            RefreshAhead refreshAhead, LocationIdToIso3166CodesSupplier uncached) {
       return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+               TimeUnit.SECONDS, refreshAhead);
    }
 
    @Provides
    @Singleton
    @Provider
    protected final Supplier<URI> provideProvider(AtomicReference<AuthorizationException> authException,
-            @Named(PROPERTY_SESSION_INTERVAL) long seconds, ProviderURISupplier uncached) {
+            @Named(PROPERTY_SESSION_INTERVAL) long seconds, RefreshAhead refreshAhead, ProviderURISupplier uncached) {
       return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+               TimeUnit.SECONDS, refreshAhead);
    }
 
    @Provides
    @Singleton
    protected final Supplier<Location> implicitLocationSupplier(AtomicReference<AuthorizationException> authException,
-            @Named(PROPERTY_SESSION_INTERVAL) long seconds, ImplicitLocationSupplier uncached) {
+            @Named(PROPERTY_SESSION_INTERVAL) long seconds, RefreshAhead refreshAhead,
+            ImplicitLocationSupplier uncached) {
       return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+               TimeUnit.SECONDS, refreshAhead);
    }
 
    @Provides
@@ -105,18 +107,19 @@ public class LocationModule extends AbstractModule {
    @Memoized
    protected final Supplier<Set<? extends Location>> memoizedLocationsSupplier(
             AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
-            LocationsSupplier uncached) {
+            RefreshAhead refreshAhead, LocationsSupplier uncached) {
       return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+               TimeUnit.SECONDS, refreshAhead);
    }
 
    @Provides
    @Singleton
    @Region
    protected final Supplier<Set<String>> regionIdsSupplier(AtomicReference<AuthorizationException> authException,
-            @Named(PROPERTY_SESSION_INTERVAL) long seconds, RegionIdFilter filter, RegionIdsSupplier uncached) {
+            @Named(PROPERTY_SESSION_INTERVAL) long seconds, RefreshAhead refreshAhead,
+            RegionIdFilter filter, RegionIdsSupplier uncached) {
       return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException,
-               Suppliers.compose(new FilterStrings(filter), uncached), seconds, TimeUnit.SECONDS);
+               Suppliers.compose(new FilterStrings(filter), uncached), seconds, TimeUnit.SECONDS, refreshAhead);
    }
    
    @Provides
@@ -124,9 +127,9 @@ public class LocationModule extends AbstractModule {
    @Zone
    protected final Supplier<Set<String>> zoneIdsSupplier(
             AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
-            ZoneIdFilter filter, ZoneIdsSupplier uncached) {
+            RefreshAhead refreshAhead, ZoneIdFilter filter, ZoneIdsSupplier uncached) {
       return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException,
-               Suppliers.compose(new FilterStrings(filter), uncached), seconds, TimeUnit.SECONDS);
+               Suppliers.compose(new FilterStrings(filter), uncached), seconds, TimeUnit.SECONDS, refreshAhead);
    }
 
    static class FilterStrings implements Function<Set<String>, Set<String>> {
@@ -154,18 +157,19 @@ public class LocationModule extends AbstractModule {
    @Region
    protected final Supplier<Map<String, Supplier<URI>>> regionIdToURISupplier(
             AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
-            RegionIdToURISupplier uncached) {
+            RefreshAhead refreshAhead, RegionIdToURISupplier uncached) {
       return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+               TimeUnit.SECONDS, refreshAhead);
    }
 
    @Provides
    @Singleton
    @Region
    protected final Supplier<String> implicitRegionIdSupplier(AtomicReference<AuthorizationException> authException,
-            @Named(PROPERTY_SESSION_INTERVAL) long seconds, ImplicitRegionIdSupplier uncached) {
+            @Named(PROPERTY_SESSION_INTERVAL) long seconds, RefreshAhead refreshAhead,
+            ImplicitRegionIdSupplier uncached) {
       return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+               TimeUnit.SECONDS, refreshAhead);
    }
 
 
@@ -174,9 +178,9 @@ public class LocationModule extends AbstractModule {
    @Zone
    protected final Supplier<Map<String, Supplier<Set<String>>>> regionIdToZoneIdsSupplier(
             AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
-            RegionIdToZoneIdsSupplier uncached) {
+            RefreshAhead refreshAhead, RegionIdToZoneIdsSupplier uncached) {
       return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+               TimeUnit.SECONDS, refreshAhead);
    }
 
    @Provides
@@ -184,8 +188,8 @@ public class LocationModule extends AbstractModule {
    @Zone
    protected final Supplier<Map<String, Supplier<URI>>> zoneIdToURISupplier(
             AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
-            ZoneIdToURISupplier uncached) {
+            RefreshAhead refreshAhead, ZoneIdToURISupplier uncached) {
       return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+               TimeUnit.SECONDS, refreshAhead);
    }
 }
@@ -208,7 +208,7 @@ public class Reflection2 {
          });
 
    private static final LoadingCache<Invokable<?, ?>, ImmutableList<Parameter>> invokableParamsCache =
-      CacheBuilder.newBuilder().maximumSize(100).build(new CacheLoader<Invokable<?, ?>, ImmutableList<Parameter>>() {
+      CacheBuilder.newBuilder().build(new CacheLoader<Invokable<?, ?>, ImmutableList<Parameter>>() {
             @Override
             public ImmutableList<Parameter> load(Invokable<?, ?> invokable) {
                return invokable.getParameters();
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.internal;
+
+import static com.google.common.collect.Iterables.get;
+import static java.util.Arrays.asList;
+import static org.jclouds.http.HttpUtils.tryFindHttpMethod;
+import static org.jclouds.reflect.Reflection2.getInvokableParameters;
+
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.Encoded;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.options.HttpRequestOptions;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.rest.Binder;
+import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.Endpoint;
+import org.jclouds.rest.annotations.EndpointParam;
+import org.jclouds.rest.annotations.FormParams;
+import org.jclouds.rest.annotations.Headers;
+import org.jclouds.rest.annotations.MapBinder;
+import org.jclouds.rest.annotations.OverrideRequestFilters;
+import org.jclouds.rest.annotations.ParamParser;
+import org.jclouds.rest.annotations.PartParam;
+import org.jclouds.rest.annotations.Payload;
+import org.jclouds.rest.annotations.PayloadParam;
+import org.jclouds.rest.annotations.PayloadParams;
+import org.jclouds.rest.annotations.QueryParams;
+import org.jclouds.rest.annotations.RequestFilters;
+import org.jclouds.rest.annotations.SkipEncoding;
+import org.jclouds.rest.annotations.VirtualHost;
+import org.jclouds.rest.annotations.WrapWith;
+import org.jclouds.rest.binders.BindMapToStringPayload;
+import org.jclouds.rest.binders.BindToJsonPayloadWrappedWith;
+
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Chars;
+import com.google.common.reflect.Invokable;
+import com.google.common.reflect.Parameter;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import com.google.inject.util.Providers;
+
+/**
+ * The parts of an http request that can be derived from the annotations on an {@link Invokable} and its owner type,
+ * without looking at the arguments of a particular invocation.
+ * <p/>
+ * Plans are immutable and built once per {@link Invokable} by {@link InvocationPlans}, so that
+ * {@link RestAnnotationProcessor} only has to substitute argument values on each call, instead of re-walking the
+ * annotations of the method, its owner type and its parameters. The binders and parsers named by those annotations
+ * are resolved against the injector when the plan is built, and only their providers are called per request.
+ */
+final class InvocationPlan {
+
+   final Invokable<?, ?> invokable;
+   final List<Parameter> parameters;
+   final Optional<String> httpMethod;
+   final List<String> paths;
+   final Optional<List<Character>> skipPathEncoding;
+   final List<Class<? extends HttpRequestFilter>> filterTypes;
+   final Optional<Endpoint> endpoint;
+   final List<Parameter> endpointParams;
+   final boolean encodedUsed;
+   final boolean virtualHost;
+   final List<Headers> headers;
+   final List<QueryParams> queryParams;
+   final List<FormParams> formParams;
+   final Optional<List<String>> contentType;
+   final Optional<PayloadParams> payloadParams;
+   final List<Parameter> pathParamParameters;
+   final List<Parameter> queryParamParameters;
+   final List<Parameter> formParamParameters;
+   final List<Parameter> headerParamParameters;
+   final List<Parameter> partParamParameters;
+   final List<Parameter> payloadParamParameters;
+   /** the binders of the parameters annotated with {@link BinderParam} or {@link WrapWith}, in that order */
+   final Map<Parameter, Provider<? extends Binder>> binders;
+   final Set<Integer> indexesOfOptions;
+   /** binds the payload params when no {@link org.jclouds.rest.MapBinder} is passed as an argument */
+   @Nullable
+   final Provider<? extends org.jclouds.rest.MapBinder> mapBinder;
+   /** parses the argument of the first of the {@link #endpointParams} */
+   @Nullable
+   final Provider<? extends Function<Object, URI>> endpointParser;
+
+   private final Provider<?>[] paramParsers;
+   private final boolean[] nullable;
+   private final boolean[] encoded;
+
+   InvocationPlan(Invokable<?, ?> invokable, Injector injector) {
+      this.invokable = invokable;
+      Class<?> owner = invokable.getOwnerType().getRawType();
+      this.parameters = getInvokableParameters(invokable);
+      this.httpMethod = tryFindHttpMethod(invokable);
+
+      ImmutableList.Builder<String> paths = ImmutableList.builder();
+      if (owner.isAnnotationPresent(Path.class))
+         paths.add(owner.getAnnotation(Path.class).value());
+      if (invokable.isAnnotationPresent(Path.class))
+         paths.add(invokable.getAnnotation(Path.class).value());
+      this.paths = paths.build();
+
+      // method-level overrides type-level, as UriBuilder.skipPathEncoding replaces rather than adds
+      SkipEncoding skipEncoding = invokable.isAnnotationPresent(SkipEncoding.class) ? invokable
+            .getAnnotation(SkipEncoding.class) : owner.getAnnotation(SkipEncoding.class);
+      this.skipPathEncoding = skipEncoding != null ? Optional.<List<Character>> of(ImmutableList.copyOf(Chars
+            .asList(skipEncoding.value()))) : Optional.<List<Character>> absent();
+
+      ImmutableList.Builder<Class<? extends HttpRequestFilter>> filterTypes = ImmutableList.builder();
+      if (owner.isAnnotationPresent(RequestFilters.class)
+            && !(invokable.isAnnotationPresent(RequestFilters.class) && invokable
+                  .isAnnotationPresent(OverrideRequestFilters.class)))
+         filterTypes.addAll(asList(owner.getAnnotation(RequestFilters.class).value()));
+      if (invokable.isAnnotationPresent(RequestFilters.class))
+         filterTypes.addAll(asList(invokable.getAnnotation(RequestFilters.class).value()));
+      this.filterTypes = filterTypes.build();
+
+      this.endpoint = Optional.fromNullable(invokable.getAnnotation(Endpoint.class)).or(
+            Optional.fromNullable(owner.getAnnotation(Endpoint.class)));
+      this.endpointParams = parametersWithAnnotation(EndpointParam.class);
+      this.endpointParser = endpointParams.isEmpty() ? null : injector.getProvider(get(endpointParams, 0)
+            .getAnnotation(EndpointParam.class).parser());
+      this.encodedUsed = !parametersWithAnnotation(Encoded.class).isEmpty();
+      this.virtualHost = owner.isAnnotationPresent(VirtualHost.class) || invokable.isAnnotationPresent(VirtualHost.class);
+      this.headers = typeThenMethod(owner, Headers.class);
+      this.queryParams = typeThenMethod(owner, QueryParams.class);
+      this.formParams = typeThenMethod(owner, FormParams.class);
+
+      Produces produces = invokable.isAnnotationPresent(Produces.class) ? invokable.getAnnotation(Produces.class)
+            : owner.getAnnotation(Produces.class);
+      this.contentType = produces != null ? Optional.<List<String>> of(ImmutableList.copyOf(produces.value()))
+            : Optional.<List<String>> absent();
+      this.payloadParams = Optional.fromNullable(invokable.getAnnotation(PayloadParams.class));
+
+      this.pathParamParameters = parametersWithAnnotation(PathParam.class);
+      this.queryParamParameters = parametersWithAnnotation(QueryParam.class);
+      this.formParamParameters = parametersWithAnnotation(FormParam.class);
+      this.headerParamParameters = parametersWithAnnotation(HeaderParam.class);
+      this.partParamParameters = parametersWithAnnotation(PartParam.class);
+      this.payloadParamParameters = parametersWithAnnotation(PayloadParam.class);
+      ImmutableMap.Builder<Parameter, Provider<? extends Binder>> binders = ImmutableMap.builder();
+      for (Parameter param : ImmutableSet.<Parameter> builder().addAll(parametersWithAnnotation(BinderParam.class))
+            .addAll(parametersWithAnnotation(WrapWith.class)).build()) {
+         if (param.isAnnotationPresent(BinderParam.class))
+            binders.put(param, injector.getProvider(param.getAnnotation(BinderParam.class).value()));
+         else
+            binders.put(param, Providers.of(wrapWith(injector, param.getAnnotation(WrapWith.class))));
+      }
+      this.binders = binders.build();
+
+      ImmutableSet.Builder<Integer> indexesOfOptions = ImmutableSet.builder();
+      this.paramParsers = new Provider<?>[parameters.size()];
+      this.nullable = new boolean[parameters.size()];
+      this.encoded = new boolean[parameters.size()];
+      for (Parameter param : parameters) {
+         int position = param.hashCode(); // guava issue 1243
+         Class<?> type = param.getType().getRawType();
+         if (HttpRequestOptions.class.isAssignableFrom(type) || HttpRequestOptions[].class.isAssignableFrom(type))
+            indexesOfOptions.add(position);
+         if (param.isAnnotationPresent(ParamParser.class))
+            paramParsers[position] = injector.getProvider(param.getAnnotation(ParamParser.class).value());
+         nullable[position] = param.isAnnotationPresent(Nullable.class);
+         encoded[position] = param.isAnnotationPresent(Encoded.class);
+      }
+      this.indexesOfOptions = indexesOfOptions.build();
+
+      if (invokable.isAnnotationPresent(MapBinder.class))
+         this.mapBinder = injector.getProvider(invokable.getAnnotation(MapBinder.class).value());
+      else if (invokable.isAnnotationPresent(Payload.class))
+         this.mapBinder = injector.getProvider(BindMapToStringPayload.class);
+      else if (invokable.isAnnotationPresent(WrapWith.class))
+         this.mapBinder = Providers.of(wrapWith(injector, invokable.getAnnotation(WrapWith.class)));
+      else
+         this.mapBinder = null;
+   }
+
+   /**
+    * @return the parser named by the {@link ParamParser} annotation of the parameter at {@code index}, if any
+    */
+   @SuppressWarnings("unchecked")
+   @Nullable
+   Function<Object, String> paramParser(int index) {
+      Provider<?> parser = paramParsers[index];
+      return parser != null ? (Function<Object, String>) parser.get() : null;
+   }
+
+   boolean isNullable(int index) {
+      return nullable[index];
+   }
+
+   boolean isEncoded(int index) {
+      return encoded[index];
+   }
+
+   /** the binder is immutable, so one instance serves every request */
+   private static BindToJsonPayloadWrappedWith wrapWith(Injector injector, WrapWith wrapWith) {
+      return injector.getInstance(BindToJsonPayloadWrappedWith.Factory.class).create(wrapWith.value());
+   }
+
+   private List<Parameter> parametersWithAnnotation(Class<? extends Annotation> annotationType) {
+      ImmutableList.Builder<Parameter> result = ImmutableList.builder();
+      for (Parameter param : parameters) {
+         if (param.isAnnotationPresent(annotationType))
+            result.add(param);
+      }
+      return result.build();
+   }
+
+   private <A extends Annotation> List<A> typeThenMethod(Class<?> owner, Class<A> annotationType) {
+      ImmutableList.Builder<A> result = ImmutableList.builder();
+      if (owner.isAnnotationPresent(annotationType))
+         result.add(owner.getAnnotation(annotationType));
+      if (invokable.isAnnotationPresent(annotationType))
+         result.add(invokable.getAnnotation(annotationType));
+      return result.build();
+   }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.internal;
+
+import static com.google.common.base.Throwables.propagate;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.reflect.Invokable;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.Injector;
+
+/**
+ * Remembers the {@link InvocationPlan}s compiled for the api methods called through one injector. Plans refer back to
+ * their {@link Invokable} and its parameters, and hold providers from the injector, so they are kept per injector
+ * rather than statically: once a context is closed and its injector is gone, the plans and the api classes they refer
+ * to can be collected with it.
+ */
+@Singleton
+class InvocationPlans {
+
+   private final LoadingCache<Invokable<?, ?>, InvocationPlan> plans;
+
+   @Inject
+   InvocationPlans(final Injector injector) {
+      this.plans = CacheBuilder.newBuilder().build(new CacheLoader<Invokable<?, ?>, InvocationPlan>() {
+         @Override
+         public InvocationPlan load(Invokable<?, ?> invokable) {
+            return new InvocationPlan(invokable, injector);
+         }
+      });
+   }
+
+   /**
+    * returns the cached plan for {@code invokable}, compiling it on first use.
+    */
+   InvocationPlan get(Invokable<?, ?> invokable) {
+      try {
+         return plans.getUnchecked(invokable);
+      } catch (UncheckedExecutionException e) {
+         throw propagate(e.getCause());
+      }
+   }
+}
@@ -19,13 +19,18 @@ package org.jclouds.rest.internal;
 import static com.google.common.base.Objects.equal;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Throwables.propagate;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
+import javax.inject.Named;
 
+import org.jclouds.http.AsyncHttpCommandExecutorService;
 import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpCommandExecutorService;
 import org.jclouds.http.HttpRequest;
@@ -40,6 +45,12 @@ import com.google.common.base.Function;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
 import com.google.common.base.Optional;
+import com.google.common.reflect.Invokable;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.common.util.concurrent.TimeLimiter;
 
 public class InvokeHttpMethod implements Function<Invocation, Object> {
@@ -52,21 +63,27 @@ public class InvokeHttpMethod implements Function<Invocation, Object> {
    private final TimeLimiter timeLimiter;
    private final Function<HttpRequest, Function<HttpResponse, ?>> transformerForRequest;
    private final InvocationConfig config;
+   private final ListeningExecutorService userExecutor;
 
    @Inject
    @VisibleForTesting
    InvokeHttpMethod(Function<Invocation, HttpRequest> annotationProcessor,
          HttpCommandExecutorService http, Function<HttpRequest, Function<HttpResponse, ?>> transformerForRequest,
-         TimeLimiter timeLimiter, InvocationConfig config) {
+         TimeLimiter timeLimiter, InvocationConfig config,
+         @Named(PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
       this.annotationProcessor = annotationProcessor;
       this.http = http;
       this.timeLimiter = timeLimiter;
       this.transformerForRequest = transformerForRequest;
       this.config = config;
+      this.userExecutor = userExecutor;
    }
 
    @Override
    public Object apply(Invocation in) {
+      if (returnsFuture(in.getInvokable())) {
+         return invokeAsync(in);
+      }
       Optional<Long> timeoutNanos = config.getTimeoutNanos(in);
       if (timeoutNanos.isPresent()) {
          return invokeWithTimeout(in, timeoutNanos.get());
@@ -98,6 +115,63 @@ public class InvokeHttpMethod implements Function<Invocation, Object> {
       }
    }
 
+   /**
+    * invokes the {@linkplain HttpCommand} associated with {@code invocation} without blocking the caller, as
+    * {@link #apply(Invocation)} does for methods that return a {@link ListenableFuture}. The response is parsed, or the
+    * fallback applied, by the thread that completes the command.
+    * <p/>
+    * Timeouts configured for the method are not enforced; callers can use {@link Future#get(long, TimeUnit)} instead.
+    */
+   public ListenableFuture<Object> invokeAsync(Invocation invocation) {
+      String commandName = config.getCommandName(invocation);
+      HttpCommand command = toCommand(commandName, invocation);
+      final Function<HttpResponse, ?> transformer = getTransformer(commandName, command);
+      final org.jclouds.Fallback<?> fallback = getFallback(commandName, invocation, command);
+
+      logger.debug(">> invoking %s asynchronously", commandName);
+      final SettableFuture<Object> result = SettableFuture.create();
+      Futures.addCallback(invokeAsync(command), new FutureCallback<HttpResponse>() {
+         @Override
+         public void onSuccess(HttpResponse response) {
+            try {
+               result.set(transformer.apply(response));
+            } catch (Throwable t) {
+               onFailure(t);
+            }
+         }
+
+         @Override
+         public void onFailure(Throwable t) {
+            try {
+               result.set(fallback.createOrPropagate(t));
+            } catch (Throwable e) {
+               result.setException(e);
+            }
+         }
+      }, directExecutor());
+      return result;
+   }
+
+   private ListenableFuture<HttpResponse> invokeAsync(final HttpCommand command) {
+      if (http instanceof AsyncHttpCommandExecutorService) {
+         return AsyncHttpCommandExecutorService.class.cast(http).invokeAsync(command);
+      }
+      return userExecutor.submit(new Callable<HttpResponse>() {
+         @Override
+         public HttpResponse call() {
+            return http.invoke(command);
+         }
+      });
+   }
+
+   /**
+    * returns true if {@code invoked} is declared to return a {@link ListenableFuture} or {@link Future} of its result.
+    */
+   static boolean returnsFuture(Invokable<?, ?> invoked) {
+      Class<?> rawReturnType = invoked.getReturnType().getRawType();
+      return rawReturnType.equals(ListenableFuture.class) || rawReturnType.equals(Future.class);
+   }
+
    /**
     * calls {@link #invoke(Invocation)}, timing out after the specified time
     * limit. If the target method call finished before the limit is reached, the
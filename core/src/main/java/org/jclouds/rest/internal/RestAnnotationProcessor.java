@@ -21,28 +21,23 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Predicates.instanceOf;
-import static com.google.common.collect.Collections2.filter;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.get;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Iterables.tryFind;
-import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.newArrayListWithCapacity;
 import static com.google.common.collect.Lists.newLinkedList;
 import static com.google.common.collect.Multimaps.transformValues;
 import static com.google.common.net.HttpHeaders.ACCEPT;
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
 import static com.google.common.net.HttpHeaders.HOST;
 import static java.lang.String.format;
-import static java.util.Arrays.asList;
 import static org.jclouds.http.HttpUtils.filterOutContentHeaders;
-import static org.jclouds.http.HttpUtils.tryFindHttpMethod;
 import static org.jclouds.http.Uris.uriBuilder;
 import static org.jclouds.io.Payloads.newPayload;
-import static org.jclouds.reflect.Reflection2.getInvokableParameters;
 import static org.jclouds.util.Strings2.replaceTokens;
 import static org.jclouds.util.Strings2.urlEncode;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Array;
 import java.net.URI;
 import java.util.ArrayList;
@@ -56,12 +51,9 @@ import java.util.Set;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
-import javax.ws.rs.Encoded;
 import javax.ws.rs.FormParam;
 import javax.ws.rs.HeaderParam;
-import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
-import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 
 import org.jclouds.Constants;
@@ -88,45 +80,28 @@ import org.jclouds.reflect.Invocation;
 import org.jclouds.rest.Binder;
 import org.jclouds.rest.InputParamValidator;
 import org.jclouds.rest.annotations.ApiVersion;
-import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.BuildVersion;
 import org.jclouds.rest.annotations.Endpoint;
-import org.jclouds.rest.annotations.EndpointParam;
 import org.jclouds.rest.annotations.FormParams;
 import org.jclouds.rest.annotations.Headers;
-import org.jclouds.rest.annotations.MapBinder;
-import org.jclouds.rest.annotations.OverrideRequestFilters;
-import org.jclouds.rest.annotations.ParamParser;
 import org.jclouds.rest.annotations.PartParam;
 import org.jclouds.rest.annotations.PayloadParam;
 import org.jclouds.rest.annotations.PayloadParams;
 import org.jclouds.rest.annotations.QueryParams;
-import org.jclouds.rest.annotations.RequestFilters;
-import org.jclouds.rest.annotations.SkipEncoding;
-import org.jclouds.rest.annotations.VirtualHost;
-import org.jclouds.rest.annotations.WrapWith;
-import org.jclouds.rest.binders.BindMapToStringPayload;
-import org.jclouds.rest.binders.BindToJsonPayloadWrappedWith;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
-import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
-import com.google.common.primitives.Chars;
 import com.google.common.reflect.Invokable;
 import com.google.common.reflect.Parameter;
 import com.google.inject.Inject;
@@ -157,6 +132,8 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
    private final Invocation caller;
    private final boolean stripExpectHeader;
    private final boolean connectionCloseHeader;
+   private final SingletonRequestFilters requestFilters;
+   private final InvocationPlans plans;
 
    @Inject
    private RestAnnotationProcessor(Injector injector,
@@ -164,7 +141,8 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
          HttpUtils utils, ContentMetadataCodec contentMetadataCodec, InputParamValidator inputParamValidator,
          GetAcceptHeaders getAcceptHeaders, @Nullable @Named("caller") Invocation caller,
          @Named(Constants.PROPERTY_STRIP_EXPECT_HEADER) boolean stripExpectHeader,
-         @Named(Constants.PROPERTY_CONNECTION_CLOSE_HEADER) boolean connectionCloseHeader) {
+         @Named(Constants.PROPERTY_CONNECTION_CLOSE_HEADER) boolean connectionCloseHeader,
+         SingletonRequestFilters requestFilters, InvocationPlans plans) {
       this.injector = injector;
       this.utils = utils;
       this.contentMetadataCodec = contentMetadataCodec;
@@ -176,6 +154,8 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       this.caller = caller;
       this.stripExpectHeader = stripExpectHeader;
       this.connectionCloseHeader = connectionCloseHeader;
+      this.requestFilters = requestFilters;
+      this.plans = plans;
    }
 
    /**
@@ -190,7 +170,9 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
    @Override
    public GeneratedHttpRequest apply(Invocation invocation) {
       checkNotNull(invocation, "invocation");
-      inputParamValidator.validateMethodParametersOrThrow(invocation, getInvokableParameters(invocation.getInvokable()));
+      InvocationPlan plan = plans.get(invocation.getInvokable());
+      InvocationPlan callerPlan = caller != null ? plans.get(caller.getInvokable()) : null;
+      inputParamValidator.validateMethodParametersOrThrow(invocation, plan.parameters);
 
       Optional<URI> endpoint = Optional.absent();
       HttpRequest r = findOrNull(invocation.getArgs(), HttpRequest.class);
@@ -224,11 +206,11 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
          requestMethod = r.getMethod();
          requestBuilder.fromHttpRequest(r);
       } else {
-         requestMethod = tryFindHttpMethod(invocation.getInvokable()).get();
+         requestMethod = plan.httpMethod.get();
          requestBuilder.method(requestMethod);
       }
 
-      requestBuilder.filters(getFiltersIfAnnotated(invocation));
+      requestBuilder.filters(getFiltersIfAnnotated(plan));
       if (stripExpectHeader) {
          requestBuilder.filter(new StripExpectHeader());
       }
@@ -244,34 +226,35 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       // URI template in rfc6570 form
       UriBuilder uriBuilder = uriBuilder(endpoint.get().toString());
 
-      overridePathEncoding(uriBuilder, invocation);
+      if (plan.skipPathEncoding.isPresent())
+         uriBuilder.skipPathEncoding(plan.skipPathEncoding.get());
 
-      boolean encodeFullPath = !isEncodedUsed(invocation);
+      boolean encodeFullPath = !plan.encodedUsed;
       if (caller != null)
-         tokenValues.putAll(addPathAndGetTokens(caller, uriBuilder, encodeFullPath));
-      tokenValues.putAll(addPathAndGetTokens(invocation, uriBuilder, encodeFullPath));
+         tokenValues.putAll(addPathAndGetTokens(callerPlan, caller, uriBuilder, encodeFullPath));
+      tokenValues.putAll(addPathAndGetTokens(plan, invocation, uriBuilder, encodeFullPath));
       Multimap<String, Object> formParams;
       if (caller != null) {
-         formParams = addFormParams(tokenValues, caller);
-         formParams.putAll(addFormParams(tokenValues, invocation));
+         formParams = addFormParams(tokenValues, callerPlan, caller);
+         formParams.putAll(addFormParams(tokenValues, plan, invocation));
       } else {
-         formParams = addFormParams(tokenValues, invocation);
+         formParams = addFormParams(tokenValues, plan, invocation);
       }
 
-      Multimap<String, Object> queryParams = addQueryParams(tokenValues, invocation);
+      Multimap<String, Object> queryParams = addQueryParams(tokenValues, plan, invocation);
 
       Multimap<String, String> headers;
       if (caller != null) {
-         headers = buildHeaders(tokenValues, caller);
-         headers.putAll(buildHeaders(tokenValues, invocation));
+         headers = buildHeaders(tokenValues, callerPlan, caller);
+         headers.putAll(buildHeaders(tokenValues, plan, invocation));
       } else {
-         headers = buildHeaders(tokenValues, invocation);
+         headers = buildHeaders(tokenValues, plan, invocation);
       }
 
       if (r != null)
          headers.putAll(r.getHeaders());
 
-      if (shouldAddHostHeader(invocation)) {
+      if (plan.virtualHost) {
          StringBuilder hostHeader = new StringBuilder(endpoint.get().getHost());
          if (endpoint.get().getPort() != -1)
             hostHeader.append(":").append(endpoint.get().getPort());
@@ -279,7 +262,7 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       }
 
       Payload payload = null;
-      for (HttpRequestOptions options : findOptionsIn(invocation)) {
+      for (HttpRequestOptions options : findOptionsIn(plan, invocation)) {
          injector.injectMembers(options);  // TODO test case
          for (Entry<String, String> header : options.buildRequestHeaders().entries()) {
             headers.put(header.getKey(), replaceTokens(header.getValue(), tokenValues));
@@ -316,8 +299,8 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
                Payload.class);
       }
 
-      List<? extends Part> parts = getParts(invocation, ImmutableMultimap.<String, Object> builder()
-            .putAll(tokenValues).putAll(formParams).build());
+      List<? extends Part> parts = plan.partParamParameters.isEmpty() ? ImmutableList.<Part> of() : getParts(plan,
+            invocation, ImmutableMultimap.<String, Object> builder().putAll(tokenValues).putAll(formParams).build());
 
       if (!parts.isEmpty()) {
          if (!formParams.isEmpty()) {
@@ -336,22 +319,21 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       }
       GeneratedHttpRequest request = requestBuilder.build();
 
-      org.jclouds.rest.MapBinder mapBinder = getMapPayloadBinderOrNull(invocation);
+      org.jclouds.rest.MapBinder mapBinder = getMapPayloadBinderOrNull(plan, invocation);
       if (mapBinder != null) {
          Map<String, Object> mapParams;
          if (caller != null) {
-            mapParams = buildPayloadParams(caller);
-            mapParams.putAll(buildPayloadParams(invocation));
+            mapParams = buildPayloadParams(callerPlan, caller);
+            mapParams.putAll(buildPayloadParams(plan, invocation));
          } else {
-            mapParams = buildPayloadParams(invocation);
+            mapParams = buildPayloadParams(plan, invocation);
          }
-         if (invocation.getInvokable().isAnnotationPresent(PayloadParams.class)) {
-            PayloadParams params = invocation.getInvokable().getAnnotation(PayloadParams.class);
-            addMapPayload(mapParams, params, headers, tokenValues);
+         if (plan.payloadParams.isPresent()) {
+            addMapPayload(mapParams, plan.payloadParams.get(), headers, tokenValues);
          }
          request = mapBinder.bindToRequest(request, mapParams);
       } else {
-         request = decorateRequest(request);
+         request = decorateRequest(plan, request);
       }
 
       if (request.getPayload() != null) {
@@ -376,16 +358,6 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       return ImmutableMap.copyOf(out);
    }
 
-   private void overridePathEncoding(UriBuilder uriBuilder, Invocation invocation) {
-      if (invocation.getInvokable().getOwnerType().getRawType().isAnnotationPresent(SkipEncoding.class)) {
-         uriBuilder.skipPathEncoding(Chars.asList(invocation.getInvokable().getOwnerType().getRawType()
-               .getAnnotation(SkipEncoding.class).value()));
-      }
-      if (invocation.getInvokable().isAnnotationPresent(SkipEncoding.class)) {
-         uriBuilder.skipPathEncoding(Chars.asList(invocation.getInvokable().getAnnotation(SkipEncoding.class).value()));
-      }
-   }
-
    // different than guava as accepts null
    private static enum NullableToStringFunction implements Function<Object, String> {
       INSTANCE;
@@ -411,46 +383,34 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       return endpoint;
    }
 
-   private Multimap<String, Object> addPathAndGetTokens(Invocation invocation, UriBuilder uriBuilder,
-                                                        boolean encodeFullPath) {
-      if (invocation.getInvokable().getOwnerType().getRawType().isAnnotationPresent(Path.class))
-         uriBuilder.appendPath(invocation.getInvokable().getOwnerType().getRawType().getAnnotation(Path.class).value());
-      if (invocation.getInvokable().isAnnotationPresent(Path.class))
-         uriBuilder.appendPath(invocation.getInvokable().getAnnotation(Path.class).value());
-      return getPathParamKeyValues(invocation, encodeFullPath);
+   private Multimap<String, Object> addPathAndGetTokens(InvocationPlan plan, Invocation invocation,
+                                                        UriBuilder uriBuilder, boolean encodeFullPath) {
+      for (String path : plan.paths)
+         uriBuilder.appendPath(path);
+      return getPathParamKeyValues(plan, invocation, encodeFullPath);
    }
 
-   private Multimap<String, Object> addFormParams(Multimap<String, ?> tokenValues, Invocation invocation) {
+   private Multimap<String, Object> addFormParams(Multimap<String, ?> tokenValues, InvocationPlan plan,
+         Invocation invocation) {
       Multimap<String, Object> formMap = LinkedListMultimap.create();
-      if (invocation.getInvokable().getOwnerType().getRawType().isAnnotationPresent(FormParams.class)) {
-         FormParams form = invocation.getInvokable().getOwnerType().getRawType().getAnnotation(FormParams.class);
+      for (FormParams form : plan.formParams) {
          addForm(formMap, form, tokenValues);
       }
 
-      if (invocation.getInvokable().isAnnotationPresent(FormParams.class)) {
-         FormParams form = invocation.getInvokable().getAnnotation(FormParams.class);
-         addForm(formMap, form, tokenValues);
-      }
-
-      for (Entry<String, Object> form : getFormParamKeyValues(invocation).entries()) {
+      for (Entry<String, Object> form : getFormParamKeyValues(plan, invocation).entries()) {
          formMap.put(form.getKey(), replaceTokens(form.getValue().toString(), tokenValues));
       }
       return formMap;
    }
 
-   private Multimap<String, Object> addQueryParams(Multimap<String, ?> tokenValues, Invocation invocation) {
+   private Multimap<String, Object> addQueryParams(Multimap<String, ?> tokenValues, InvocationPlan plan,
+         Invocation invocation) {
       Multimap<String, Object> queryMap = LinkedListMultimap.create();
-      if (invocation.getInvokable().getOwnerType().getRawType().isAnnotationPresent(QueryParams.class)) {
-         QueryParams query = invocation.getInvokable().getOwnerType().getRawType().getAnnotation(QueryParams.class);
+      for (QueryParams query : plan.queryParams) {
          addQuery(queryMap, query, tokenValues);
       }
 
-      if (invocation.getInvokable().isAnnotationPresent(QueryParams.class)) {
-         QueryParams query = invocation.getInvokable().getAnnotation(QueryParams.class);
-         addQuery(queryMap, query, tokenValues);
-      }
-
-      for (Entry<String, Object> query : getQueryParamKeyValues(invocation, tokenValues).entries()) {
+      for (Entry<String, Object> query : getQueryParamKeyValues(plan, invocation, tokenValues).entries()) {
          queryMap.put(query.getKey(), query.getValue());
       }
       return queryMap;
@@ -490,39 +450,30 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       }
    }
 
-   private List<HttpRequestFilter> getFiltersIfAnnotated(Invocation invocation) {
-      List<HttpRequestFilter> filters = newArrayList();
-      if (invocation.getInvokable().getOwnerType().getRawType().isAnnotationPresent(RequestFilters.class)) {
-         for (Class<? extends HttpRequestFilter> clazz : invocation.getInvokable().getOwnerType().getRawType()
-               .getAnnotation(RequestFilters.class).value()) {
-            HttpRequestFilter instance = injector.getInstance(clazz);
-            filters.add(instance);
-            logger.trace("adding filter %s from annotation on %s", instance, invocation.getInvokable().getOwnerType()
-                  .getRawType().getName());
-         }
-      }
-      if (invocation.getInvokable().isAnnotationPresent(RequestFilters.class)) {
-         if (invocation.getInvokable().isAnnotationPresent(OverrideRequestFilters.class))
-            filters.clear();
-         for (Class<? extends HttpRequestFilter> clazz : invocation.getInvokable().getAnnotation(RequestFilters.class)
-               .value()) {
-            HttpRequestFilter instance = injector.getInstance(clazz);
-            filters.add(instance);
-            logger.trace("adding filter %s from annotation on %s", instance, invocation.getInvokable().getName());
-         }
+   private List<HttpRequestFilter> getFiltersIfAnnotated(InvocationPlan plan) {
+      List<HttpRequestFilter> filters = newArrayListWithCapacity(plan.filterTypes.size());
+      for (Class<? extends HttpRequestFilter> clazz : plan.filterTypes) {
+         HttpRequestFilter instance = requestFilters.get(injector, clazz);
+         filters.add(instance);
+         logger.trace("adding filter %s from annotation on %s", instance, plan.invokable);
       }
       return filters;
    }
 
    @VisibleForTesting
    static URI getEndpointInParametersOrNull(Invocation invocation, Injector injector) {
-      Collection<Parameter> endpointParams = parametersWithAnnotation(invocation.getInvokable(), EndpointParam.class);
+      return getEndpointInParametersOrNull(injector.getInstance(InvocationPlans.class).get(invocation.getInvokable()),
+            invocation);
+   }
+
+   private static URI getEndpointInParametersOrNull(InvocationPlan plan, Invocation invocation) {
+      Collection<Parameter> endpointParams = plan.endpointParams;
       if (endpointParams.isEmpty())
          return null;
       checkState(endpointParams.size() == 1, "invocation.getInvoked() %s has too many EndpointParam annotations",
             invocation.getInvokable());
       Parameter endpointParam = get(endpointParams, 0);
-      Function<Object, URI> parser = injector.getInstance(endpointParam.getAnnotation(EndpointParam.class).parser());
+      Function<Object, URI> parser = plan.endpointParser.get();
       int position = endpointParam.hashCode();  // guava issue 1243
       try {
          URI returnVal = parser.apply(invocation.getArgs().get(position));
@@ -535,31 +486,19 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       }
    }
 
-   private static Collection<Parameter> parametersWithAnnotation(Invokable<?, ?> invokable,
-         final Class<? extends Annotation> annotationType) {
-      return filter(getInvokableParameters(invokable), new Predicate<Parameter>() {
-         public boolean apply(Parameter in) {
-            return in.isAnnotationPresent(annotationType);
-         }
-      });
-   }
-
    private static final TypeLiteral<Supplier<URI>> uriSupplierLiteral = new TypeLiteral<Supplier<URI>>() {
    };
 
    protected Optional<URI> getEndpointFor(Invocation invocation) {
-      URI endpoint = getEndpointInParametersOrNull(invocation, injector);
+      InvocationPlan plan = plans.get(invocation.getInvokable());
+      URI endpoint = getEndpointInParametersOrNull(plan, invocation);
       if (endpoint == null) {
-         Endpoint annotation;
-         if (invocation.getInvokable().isAnnotationPresent(Endpoint.class)) {
-            annotation = invocation.getInvokable().getAnnotation(Endpoint.class);
-         } else if (invocation.getInvokable().getOwnerType().getRawType().isAnnotationPresent(Endpoint.class)) {
-            annotation = invocation.getInvokable().getOwnerType().getRawType().getAnnotation(Endpoint.class);
-         } else {
+         Optional<Endpoint> annotation = plan.endpoint;
+         if (!annotation.isPresent()) {
             logger.trace("no annotations on class or invocation.getInvoked(): %s", invocation.getInvokable());
             return Optional.absent();
          }
-         endpoint = injector.getInstance(Key.get(uriSupplierLiteral, annotation.value())).get();
+         endpoint = injector.getInstance(Key.get(uriSupplierLiteral, annotation.get().value())).get();
       }
       URI provider = injector.getInstance(Key.get(uriSupplierLiteral, org.jclouds.location.Provider.class)).get();
       return Optional.fromNullable(addHostIfMissing(endpoint, provider));
@@ -578,7 +517,7 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       return baseURI.resolve(original);
    }
 
-   private org.jclouds.rest.MapBinder getMapPayloadBinderOrNull(Invocation invocation) {
+   private org.jclouds.rest.MapBinder getMapPayloadBinderOrNull(InvocationPlan plan, Invocation invocation) {
       if (invocation.getArgs() != null) {
          for (Object arg : invocation.getArgs()) {
             if (arg instanceof Object[]) {
@@ -604,37 +543,17 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
             }
          }
       }
-      if (invocation.getInvokable().isAnnotationPresent(MapBinder.class)) {
-         return injector.getInstance(invocation.getInvokable().getAnnotation(MapBinder.class).value());
-      } else if (invocation.getInvokable().isAnnotationPresent(org.jclouds.rest.annotations.Payload.class)) {
-         return injector.getInstance(BindMapToStringPayload.class);
-      } else if (invocation.getInvokable().isAnnotationPresent(WrapWith.class)) {
-         return injector.getInstance(BindToJsonPayloadWrappedWith.Factory.class).create(
-               invocation.getInvokable().getAnnotation(WrapWith.class).value());
-      }
-      return null;
-   }
-
-   private boolean shouldAddHostHeader(Invocation invocation) {
-      return invocation.getInvokable().getOwnerType().getRawType().isAnnotationPresent(VirtualHost.class) || invocation
-            .getInvokable().isAnnotationPresent(VirtualHost.class);
+      return plan.mapBinder != null ? plan.mapBinder.get() : null;
    }
 
-   private GeneratedHttpRequest decorateRequest(GeneratedHttpRequest request) throws NegativeArraySizeException {
+   private GeneratedHttpRequest decorateRequest(InvocationPlan plan, GeneratedHttpRequest request)
+         throws NegativeArraySizeException {
       Invocation invocation = request.getInvocation();
       List<Object> args = request.getInvocation().getArgs();
-      Set<Parameter> binderOrWrapWith = ImmutableSet.copyOf(concat(
-            parametersWithAnnotation(invocation.getInvokable(), BinderParam.class),
-            parametersWithAnnotation(invocation.getInvokable(), WrapWith.class)));
-      OUTER: for (Parameter entry : binderOrWrapWith) {
+      OUTER: for (Parameter entry : plan.binders.keySet()) {
          int position = entry.hashCode();
          boolean shouldBreak = false;
-         Binder binder;
-         if (entry.isAnnotationPresent(BinderParam.class))
-            binder = injector.getInstance(entry.getAnnotation(BinderParam.class).value());
-         else
-            binder = injector.getInstance(BindToJsonPayloadWrappedWith.Factory.class).create(
-                  entry.getAnnotation(WrapWith.class).value());
+         Binder binder = plan.binders.get(entry).get();
          Object arg = args.size() >= position + 1 ? args.get(position) : null;
          if (args.size() >= position + 1 && arg != null) {
             Class<?> parameterType = entry.getType().getRawType();
@@ -642,7 +561,7 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
             if (!argType.isArray() && parameterType.isArray()) {// TODO: &&
                                                                 // invocation.getInvokable().isVarArgs())
                                                                 // {
-               int arrayLength = args.size() - getInvokableParameters(invocation.getInvokable()).size() + 1;
+               int arrayLength = args.size() - plan.parameters.size() + 1;
                if (arrayLength == 0)
                   break OUTER;
                arg = (Object[]) Array.newInstance(arg.getClass(), arrayLength);
@@ -664,12 +583,12 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
             if (shouldBreak)
                break OUTER;
          } else {
-            if (position + 1 == getInvokableParameters(invocation.getInvokable()).size() && entry.getType().isArray())// TODO:
-                                                                                                              // &&
-                                                                                                              // invocation.getInvokable().isVarArgs())
+            if (position + 1 == plan.parameters.size() && entry.getType().isArray())// TODO:
+                                                                                  // &&
+                                                                                  // invocation.getInvokable().isVarArgs())
                continue OUTER;
 
-            if (entry.isAnnotationPresent(Nullable.class)) {
+            if (plan.isNullable(position)) {
                continue OUTER;
             }
             checkNotNull(arg, invocation.getInvokable().getName() + " parameter " + (position + 1));
@@ -678,24 +597,11 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       return request;
    }
 
-   private static final LoadingCache<Invokable<?, ?>, Set<Integer>> invokableToIndexesOfOptions = CacheBuilder
-         .newBuilder().build(new CacheLoader<Invokable<?, ?>, Set<Integer>>() {
-            @Override
-            public Set<Integer> load(Invokable<?, ?> invokable) {
-               Builder<Integer> toReturn = ImmutableSet.builder();
-               for (Parameter param : getInvokableParameters(invokable)) {
-                  Class<?> type = param.getType().getRawType();
-                  if (HttpRequestOptions.class.isAssignableFrom(type)
-                        || HttpRequestOptions[].class.isAssignableFrom(type))
-                     toReturn.add(param.hashCode());
-               }
-               return toReturn.build();
-            }
-         });
-
-   private Set<HttpRequestOptions> findOptionsIn(Invocation invocation) {
+   private Set<HttpRequestOptions> findOptionsIn(InvocationPlan plan, Invocation invocation) {
+      if (plan.indexesOfOptions.isEmpty())
+         return ImmutableSet.of();
       ImmutableSet.Builder<HttpRequestOptions> result = ImmutableSet.builder();
-      for (int index : invokableToIndexesOfOptions.getUnchecked(invocation.getInvokable())) {
+      for (int index : plan.indexesOfOptions) {
          if (invocation.getArgs().size() >= index + 1) {// accommodate
                                                         // varinvocation.getArgs()
             if (invocation.getArgs().get(index) instanceof Object[]) {
@@ -716,16 +622,21 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       return result.build();
    }
 
-   private Multimap<String, String> buildHeaders(Multimap<String, ?> tokenValues, Invocation invocation) {
+   private Multimap<String, String> buildHeaders(Multimap<String, ?> tokenValues, InvocationPlan plan,
+         Invocation invocation) {
       Multimap<String, String> headers = LinkedHashMultimap.create();
-      addHeaderIfAnnotationPresentOnMethod(headers, invocation, tokenValues);
-      for (Parameter headerParam : parametersWithAnnotation(invocation.getInvokable(), HeaderParam.class)) {
-         Annotation key = headerParam.getAnnotation(HeaderParam.class);
+      for (Headers header : plan.headers) {
+         addHeader(headers, header, tokenValues);
+      }
+      for (Parameter headerParam : plan.headerParamParameters) {
+         HeaderParam key = headerParam.getAnnotation(HeaderParam.class);
          String value = invocation.getArgs().get(headerParam.hashCode()).toString();
          value = replaceTokens(value, tokenValues);
-         headers.put(((HeaderParam) key).value(), value);
+         headers.put(key.value(), value);
+      }
+      if (plan.contentType.isPresent()) {
+         headers.replaceValues(CONTENT_TYPE, plan.contentType.get());
       }
-      addProducesIfPresentOnTypeOrMethod(headers, invocation);
       addConsumesIfPresentOnTypeOrMethod(headers, invocation);
       return headers;
    }
@@ -736,29 +647,6 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
          headers.replaceValues(ACCEPT, accept);
    }
 
-   private void addProducesIfPresentOnTypeOrMethod(Multimap<String, String> headers, Invocation invocation) {
-      if (invocation.getInvokable().getOwnerType().getRawType().isAnnotationPresent(Produces.class)) {
-         Produces header = invocation.getInvokable().getOwnerType().getRawType().getAnnotation(Produces.class);
-         headers.replaceValues(CONTENT_TYPE, asList(header.value()));
-      }
-      if (invocation.getInvokable().isAnnotationPresent(Produces.class)) {
-         Produces header = invocation.getInvokable().getAnnotation(Produces.class);
-         headers.replaceValues(CONTENT_TYPE, asList(header.value()));
-      }
-   }
-
-   private void addHeaderIfAnnotationPresentOnMethod(Multimap<String, String> headers, Invocation invocation,
-         Multimap<String, ?> tokenValues) {
-      if (invocation.getInvokable().getOwnerType().getRawType().isAnnotationPresent(Headers.class)) {
-         Headers header = invocation.getInvokable().getOwnerType().getRawType().getAnnotation(Headers.class);
-         addHeader(headers, header, tokenValues);
-      }
-      if (invocation.getInvokable().isAnnotationPresent(Headers.class)) {
-         Headers header = invocation.getInvokable().getAnnotation(Headers.class);
-         addHeader(headers, header, tokenValues);
-      }
-   }
-
    private static void addHeader(Multimap<String, String> headers, Headers header, Multimap<String, ?> tokenValues) {
       for (int i = 0; i < header.keys().length; i++) {
          String value = header.values()[i];
@@ -770,9 +658,9 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       }
    }
 
-   private static List<Part> getParts(Invocation invocation, Multimap<String, ?> tokenValues) {
+   private static List<Part> getParts(InvocationPlan plan, Invocation invocation, Multimap<String, ?> tokenValues) {
       ImmutableList.Builder<Part> parts = ImmutableList.<Part> builder();
-      for (Parameter param : parametersWithAnnotation(invocation.getInvokable(), PartParam.class)) {
+      for (Parameter param : plan.partParamParameters) {
          PartParam partParam = param.getAnnotation(PartParam.class);
          PartOptions options = new PartOptions();
          if (!PartParam.NO_CONTENT_TYPE.equals(partParam.contentType()))
@@ -799,19 +687,16 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       return request;
    }
 
-   private boolean isEncodedUsed(Invocation invocation) {
-      return !parametersWithAnnotation(invocation.getInvokable(), Encoded.class).isEmpty();
-   }
-
-   private Multimap<String, Object> getPathParamKeyValues(Invocation invocation, boolean encodeFullPath) {
+   private Multimap<String, Object> getPathParamKeyValues(InvocationPlan plan, Invocation invocation,
+         boolean encodeFullPath) {
       Multimap<String, Object> pathParamValues = LinkedHashMultimap.create();
-      for (Parameter param : parametersWithAnnotation(invocation.getInvokable(), PathParam.class)) {
+      for (Parameter param : plan.pathParamParameters) {
          PathParam pathParam = param.getAnnotation(PathParam.class);
          String paramKey = pathParam.value();
-         Optional<?> paramValue = getParamValue(invocation, param.getAnnotation(ParamParser.class), param.hashCode(),
-               paramKey);
+         int position = param.hashCode();
+         Optional<?> paramValue = getParamValue(plan, invocation, position, paramKey);
          if (paramValue.isPresent()) {
-            if (!encodeFullPath && !param.isAnnotationPresent(Encoded.class)) {
+            if (!encodeFullPath && !plan.isEncoded(position)) {
                pathParamValues.put(paramKey, urlEncode(paramValue.get().toString()));
             } else {
                pathParamValues.put(paramKey, paramValue.get().toString());
@@ -821,45 +706,46 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       return pathParamValues;
    }
 
-   private Optional<?> getParamValue(Invocation invocation, @Nullable ParamParser extractor, int argIndex,
-         String paramKey) {
+   private Optional<?> getParamValue(InvocationPlan plan, Invocation invocation, int argIndex, String paramKey) {
       Object arg = invocation.getArgs().get(argIndex);
-      if (extractor != null && checkPresentOrNullable(invocation, paramKey, argIndex, arg)) {
+      Function<Object, String> extractor = plan.paramParser(argIndex);
+      if (extractor != null && checkPresentOrNullable(plan, invocation, paramKey, argIndex, arg)) {
          // ParamParsers can deal with nullable parameters
-         arg = injector.getInstance(extractor.value()).apply(arg);
+         arg = extractor.apply(arg);
       }
-      checkPresentOrNullable(invocation, paramKey, argIndex, arg);
+      checkPresentOrNullable(plan, invocation, paramKey, argIndex, arg);
       return Optional.fromNullable(arg);
    }
 
-   private boolean checkPresentOrNullable(Invocation invocation, String paramKey, int argIndex, Object arg) {
-      if (arg == null && !getInvokableParameters(invocation.getInvokable()).get(argIndex).isAnnotationPresent(Nullable.class))
+   private static boolean checkPresentOrNullable(InvocationPlan plan, Invocation invocation, String paramKey,
+         int argIndex, Object arg) {
+      if (arg == null && !plan.isNullable(argIndex))
          throw new NullPointerException(format("param{%s} for invocation %s.%s", paramKey, invocation.getInvokable()
                .getOwnerType().getRawType().getSimpleName(), invocation.getInvokable().getName()));
       return true;
    }
 
-   private Multimap<String, Object> getFormParamKeyValues(Invocation invocation) {
+   private Multimap<String, Object> getFormParamKeyValues(InvocationPlan plan, Invocation invocation) {
       Multimap<String, Object> formParamValues = LinkedHashMultimap.create();
-      for (Parameter param : parametersWithAnnotation(invocation.getInvokable(), FormParam.class)) {
+      for (Parameter param : plan.formParamParameters) {
          FormParam formParam = param.getAnnotation(FormParam.class);
          String paramKey = formParam.value();
-         Optional<?> paramValue = getParamValue(invocation, param.getAnnotation(ParamParser.class), param.hashCode(),
-               paramKey);
+         Optional<?> paramValue = getParamValue(plan, invocation, param.hashCode(), paramKey);
          if (paramValue.isPresent())
             formParamValues.put(paramKey, paramValue.get().toString());
       }
       return formParamValues;
    }
 
-   private Multimap<String, Object> getQueryParamKeyValues(Invocation invocation, Multimap<String, ?> tokenValues) {
+   private Multimap<String, Object> getQueryParamKeyValues(InvocationPlan plan, Invocation invocation,
+         Multimap<String, ?> tokenValues) {
       Multimap<String, Object> queryParamValues = LinkedHashMultimap.create();
-      for (Parameter param : parametersWithAnnotation(invocation.getInvokable(), QueryParam.class)) {
+      for (Parameter param : plan.queryParamParameters) {
          QueryParam queryParam = param.getAnnotation(QueryParam.class);
          String paramKey = urlEncode(queryParam.value(), '/', ',');
-         Optional<?> paramValue = getParamValue(invocation, param.getAnnotation(ParamParser.class), param.hashCode(),
-               paramKey);
-         boolean encoded = param.isAnnotationPresent(Encoded.class);
+         int position = param.hashCode();
+         Optional<?> paramValue = getParamValue(plan, invocation, position, paramKey);
+         boolean encoded = plan.isEncoded(position);
          if (paramValue.isPresent())
             if (paramValue.get() instanceof Iterable) {
                @SuppressWarnings("unchecked")
@@ -877,13 +763,12 @@ public class RestAnnotationProcessor implements Function<Invocation, HttpRequest
       return queryParamValues;
    }
 
-   private Map<String, Object> buildPayloadParams(Invocation invocation) {
+   private Map<String, Object> buildPayloadParams(InvocationPlan plan, Invocation invocation) {
       Map<String, Object> payloadParamValues = Maps.newLinkedHashMap();
-      for (Parameter param : parametersWithAnnotation(invocation.getInvokable(), PayloadParam.class)) {
+      for (Parameter param : plan.payloadParamParameters) {
          PayloadParam payloadParam = param.getAnnotation(PayloadParam.class);
          String paramKey = payloadParam.value();
-         Optional<?> paramValue = getParamValue(invocation, param.getAnnotation(ParamParser.class), param.hashCode(),
-               paramKey);
+         Optional<?> paramValue = getParamValue(plan, invocation, param.hashCode(), paramKey);
          if (paramValue.isPresent())
             payloadParamValues.put(paramKey, paramValue.get());
       }
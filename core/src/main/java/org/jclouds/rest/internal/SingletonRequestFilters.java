@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.internal;
+
+import java.util.concurrent.ConcurrentMap;
+
+import javax.inject.Singleton;
+
+import org.jclouds.http.HttpRequestFilter;
+
+import com.google.common.collect.Maps;
+import com.google.inject.Injector;
+import com.google.inject.Scopes;
+
+/**
+ * Remembers the {@link HttpRequestFilter}s named in {@code RequestFilters} annotations whose bindings are singletons,
+ * so that {@link RestAnnotationProcessor} does not go back to the injector for them on every request. Filters bound in
+ * any other scope are looked up each time, as before.
+ */
+@Singleton
+class SingletonRequestFilters {
+
+   private final ConcurrentMap<Class<? extends HttpRequestFilter>, HttpRequestFilter> filters = Maps
+         .newConcurrentMap();
+
+   HttpRequestFilter get(Injector injector, Class<? extends HttpRequestFilter> type) {
+      HttpRequestFilter filter = filters.get(type);
+      if (filter != null)
+         return filter;
+      filter = injector.getInstance(type);
+      if (Scopes.isSingleton(injector.getBinding(type))) {
+         HttpRequestFilter existing = filters.putIfAbsent(type, filter);
+         if (existing != null)
+            return existing;
+      }
+      return filter;
+   }
+}
@@ -25,6 +25,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import javax.inject.Inject;
 import javax.lang.model.type.NullType;
@@ -110,7 +111,7 @@ public class TransformerForRequest implements Function<HttpRequest, Function<Htt
       Invokable<?, ?> invoked = invocation.getInvokable();
       Set<String> acceptHeaders = getAcceptHeaders.apply(invocation);
       ResponseParser annotation = invoked.getAnnotation(ResponseParser.class);
-      Class<?> rawReturnType = invoked.getReturnType().getRawType();
+      Class<?> rawReturnType = getResultType(invoked).getRawType();
       if (annotation == null) {
          if (rawReturnType.equals(void.class)) {
             return Key.get(ReleasePayloadAndReturn.class);
@@ -144,7 +145,7 @@ public class TransformerForRequest implements Function<HttpRequest, Function<Htt
                ? Optional.<Type>absent()
                : Optional.<Type>of(configuredClass);
       }
-      Type returnVal = configuredReturnVal.or(getReturnTypeFor(invoked.getReturnType()));
+      Type returnVal = configuredReturnVal.or(getReturnTypeFor(getResultType(invoked)));
       Type parserType = newParameterizedType(ParseXMLWithJAXB.class, returnVal);
       return (Key<? extends Function<HttpResponse, ?>>) Key.get(parserType);
    }
@@ -153,18 +154,29 @@ public class TransformerForRequest implements Function<HttpRequest, Function<Htt
    private static Key<? extends Function<HttpResponse, ?>> getJsonParserKeyForMethod(Invokable<?, ?> invoked) {
       ParameterizedType parserType;
       if (invoked.isAnnotationPresent(Unwrap.class)) {
-         parserType = newParameterizedType(UnwrapOnlyJsonValue.class, getReturnTypeFor(invoked.getReturnType()));
+         parserType = newParameterizedType(UnwrapOnlyJsonValue.class, getReturnTypeFor(getResultType(invoked)));
       } else if (invoked.isAnnotationPresent(Transform.class)) {
          // At this point, there's no user-configured response parser. Make a default one from Transform's input.
          TypeToken<? extends Function> fn = TypeToken.of(invoked.getAnnotation(Transform.class).value());
          Type fnInput = ((ParameterizedType) fn.getSupertype(Function.class).getType()).getActualTypeArguments()[0];
          parserType = newParameterizedType(ParseJson.class, fnInput);
       } else {
-         parserType = newParameterizedType(ParseJson.class, getReturnTypeFor(invoked.getReturnType()));
+         parserType = newParameterizedType(ParseJson.class, getReturnTypeFor(getResultType(invoked)));
       }
       return (Key<? extends Function<HttpResponse, ?>>) Key.get(parserType);
    }
 
+   /**
+    * returns the declared return type of {@code invoked}, or the type of the value of the future returned by methods
+    * that are invoked asynchronously.
+    */
+   static TypeToken<?> getResultType(Invokable<?, ?> invoked) {
+      TypeToken<?> returnType = invoked.getReturnType();
+      if (InvokeHttpMethod.returnsFuture(invoked))
+         return returnType.resolveType(Future.class.getTypeParameters()[0]);
+      return returnType;
+   }
+
    static Type getReturnTypeFor(TypeToken<?> typeToken) {
       Type returnVal = typeToken.getType();
       if (typeToken.getRawType().getTypeParameters().length == 0) {
@@ -180,7 +192,7 @@ public class TransformerForRequest implements Function<HttpRequest, Function<Htt
       Invokable<?, ?> invoked = invocation.getInvokable();
       Function<HttpResponse, ?> transformer;
       if (invoked.isAnnotationPresent(SelectJson.class)) {
-         Type returnVal = getReturnTypeFor(invoked.getReturnType());
+         Type returnVal = getReturnTypeFor(getResultType(invoked));
          if (invoked.isAnnotationPresent(OnlyElement.class))
             returnVal = newParameterizedType(Set.class, returnVal);
          transformer = new ParseFirstJsonValueNamed(injector.getInstance(GsonWrapper.class),
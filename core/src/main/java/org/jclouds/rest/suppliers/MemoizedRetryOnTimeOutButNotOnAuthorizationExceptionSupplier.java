@@ -18,6 +18,7 @@ package org.jclouds.rest.suppliers;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Throwables.propagate;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.jclouds.util.Throwables2.getFirstThrowableOfType;
 
 import java.util.concurrent.ExecutionException;
@@ -26,11 +27,13 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.jclouds.rest.AuthorizationException;
 
+import com.google.common.annotations.Beta;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
 import com.google.common.base.Supplier;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ForwardingObject;
 import com.google.common.util.concurrent.UncheckedExecutionException;
@@ -50,6 +53,10 @@ import com.google.common.util.concurrent.UncheckedExecutionException;
  * 
  * Note this implementation is folded into the same class, vs being decorated as stacktraces are exceptionally long and
  * difficult to grok otherwise. We use {@link LoadingCache} to deal with concurrency issues related to the supplier.
+ * 
+ * With a {@link RefreshAhead} that is enabled, the value is reloaded in the background once it is due for a refresh,
+ * and callers are given the old value until the reload completes. They only wait for a load once the value has
+ * expired, for example because reloads keep failing.
  */
 public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> extends ForwardingObject implements
       Supplier<T> {
@@ -112,6 +119,7 @@ public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> ext
    private final Supplier<T> delegate;
    private final long duration;
    private final TimeUnit unit;
+   private final long refreshNanos;
    private final LoadingCache<String, Optional<T>> cache;
 
    public static <T> MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> create(
@@ -126,17 +134,52 @@ public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> ext
    public static <T> MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> create(
          AtomicReference<AuthorizationException> authException, Supplier<T> delegate, long duration, TimeUnit unit,
          ValueLoadedCallback<T> valueLoadedCallback) {
+      return create(authException, delegate, duration, unit, valueLoadedCallback, RefreshAhead.DISABLED);
+   }
+
+   /**
+    * Creates a memoized supplier that reloads its value ahead of its expiry, as configured by the given
+    * {@link RefreshAhead}.
+    */
+   @Beta
+   public static <T> MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> create(
+         AtomicReference<AuthorizationException> authException, Supplier<T> delegate, long duration, TimeUnit unit,
+         RefreshAhead refreshAhead) {
+      return create(authException, delegate, duration, unit, new ValueLoadedCallback.NoOpCallback<T>(), refreshAhead);
+   }
+
+   /**
+    * Creates a memoized supplier that reloads its value ahead of its expiry, and calls the given callback each time
+    * values are loaded.
+    */
+   @Beta
+   public static <T> MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> create(
+         AtomicReference<AuthorizationException> authException, Supplier<T> delegate, long duration, TimeUnit unit,
+         ValueLoadedCallback<T> valueLoadedCallback, RefreshAhead refreshAhead) {
       return new MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T>(authException, delegate, duration,
-            unit, valueLoadedCallback);
+            unit, valueLoadedCallback, refreshAhead);
    }
    
    MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier(AtomicReference<AuthorizationException> authException,
          Supplier<T> delegate, long duration, TimeUnit unit, ValueLoadedCallback<T> valueLoadedCallback) {
+      this(authException, delegate, duration, unit, valueLoadedCallback, RefreshAhead.DISABLED);
+   }
+
+   MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier(AtomicReference<AuthorizationException> authException,
+         Supplier<T> delegate, long duration, TimeUnit unit, ValueLoadedCallback<T> valueLoadedCallback,
+         RefreshAhead refreshAhead) {
       this.delegate = delegate;
       this.duration = duration;
       this.unit = unit;
-      this.cache = CacheBuilder.newBuilder().expireAfterWrite(duration, unit)
-            .build(new SetAndThrowAuthorizationExceptionSupplierBackedLoader<T>(delegate, authException, valueLoadedCallback));
+      this.refreshNanos = checkNotNull(refreshAhead, "refreshAhead").refreshNanos(unit.toNanos(duration));
+      CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().expireAfterWrite(duration, unit).recordStats();
+      CacheLoader<String, Optional<T>> loader = new SetAndThrowAuthorizationExceptionSupplierBackedLoader<T>(delegate,
+            authException, valueLoadedCallback);
+      if (refreshNanos > 0) {
+         builder.refreshAfterWrite(refreshNanos, NANOSECONDS);
+         loader = CacheLoader.asyncReloading(loader, refreshAhead.executor());
+      }
+      this.cache = builder.build(loader);
    }
 
    @Override
@@ -155,10 +198,22 @@ public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> ext
       }
    }
 
+   /**
+    * @return statistics of the loads of the value, including how long they took, and those that failed; reloads in
+    *         the background are counted as loads
+    */
+   @Beta
+   public CacheStats stats() {
+      return cache.stats();
+   }
+
    @Override
    public String toString() {
-      return MoreObjects.toStringHelper(this).add("delegate", delegate).add("duration", duration).add("unit", unit)
-            .toString();
+      MoreObjects.ToStringHelper helper = MoreObjects.toStringHelper(this).add("delegate", delegate)
+            .add("duration", duration).add("unit", unit);
+      if (refreshNanos > 0)
+         helper.add("refreshMillis", NANOSECONDS.toMillis(refreshNanos));
+      return helper.toString();
    }
 
 }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.suppliers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.jclouds.Constants.PROPERTY_SCHEDULER_THREADS;
+import static org.jclouds.Constants.PROPERTY_SESSION_REFRESH;
+import static org.jclouds.Constants.PROPERTY_SESSION_REFRESH_JITTER;
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
+
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.inject.Inject;
+
+/**
+ * When and where {@link MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier memoized}
+ * values are reloaded before they expire, as configured by
+ * {@link org.jclouds.Constants#PROPERTY_SESSION_REFRESH} and
+ * {@link org.jclouds.Constants#PROPERTY_SESSION_REFRESH_JITTER}.
+ * <p/>
+ * Reloads run on the scheduler threads of the context, or, as contexts only have them when a
+ * {@link org.jclouds.concurrent.config.ScheduledExecutorServiceModule} is installed, on its user
+ * threads; callers are given the old value meanwhile.
+ */
+@Beta
+@Singleton
+public class RefreshAhead {
+
+   /**
+    * Values expire without being refreshed ahead.
+    */
+   public static final RefreshAhead DISABLED = new RefreshAhead(0, 0, null, null, new Random());
+
+   @Inject(optional = true)
+   @Named(PROPERTY_SESSION_REFRESH)
+   private long refreshSeconds = 0;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_SESSION_REFRESH_JITTER)
+   private double jitter = 0.1;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_SCHEDULER_THREADS)
+   private ScheduledExecutorService scheduler;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_USER_THREADS)
+   private ExecutorService userExecutor;
+
+   private final Random random;
+
+   @Inject
+   RefreshAhead() {
+      this.random = new Random();
+   }
+
+   @VisibleForTesting
+   RefreshAhead(long refreshSeconds, double jitter, ScheduledExecutorService scheduler, ExecutorService userExecutor,
+         Random random) {
+      checkArgument(jitter >= 0 && jitter <= 1, "jitter must be between 0 and 1, not %s", jitter);
+      this.refreshSeconds = refreshSeconds;
+      this.jitter = jitter;
+      this.scheduler = scheduler;
+      this.userExecutor = userExecutor;
+      this.random = random;
+   }
+
+   /**
+    * @param expireNanos
+    *           how long values are kept
+    * @return how long after it is loaded a value kept for {@code expireNanos} should be reloaded,
+    *         shortened by a random jitter, or 0 if it should not be refreshed ahead
+    */
+   public long refreshNanos(long expireNanos) {
+      long refreshNanos = SECONDS.toNanos(refreshSeconds);
+      if (refreshNanos <= 0 || refreshNanos >= expireNanos)
+         return 0;
+      double fraction = Math.min(Math.max(jitter, 0), 1) * random.nextDouble();
+      return Math.max(1, (long) (refreshNanos * (1 - fraction)));
+   }
+
+   /**
+    * @return the executor reloads run on; the calling thread only when the injector has neither
+    *         scheduler nor user threads
+    */
+   public Executor executor() {
+      if (scheduler != null)
+         return scheduler;
+      return userExecutor != null ? userExecutor : directExecutor();
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this).add("refreshSeconds", refreshSeconds).add("jitter", jitter)
+            .toString();
+   }
+}
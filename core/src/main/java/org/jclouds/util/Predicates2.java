@@ -22,6 +22,8 @@ import static org.jclouds.util.Throwables2.getFirstThrowableOfType;
 import java.util.Date;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -29,7 +31,11 @@ import javax.annotation.Resource;
 
 import org.jclouds.logging.Logger;
 
+import com.google.common.annotations.Beta;
 import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 
 public class Predicates2 {
    /** Returns a predicate that evaluates to true if the String being tested starts with a prefix. */
@@ -69,6 +75,36 @@ public class Predicates2 {
       return retry(findOrBreak, timeout, period, maxPeriod, MILLISECONDS);
    }
 
+   /**
+    * Like {@link #retry(Predicate, long, long, long, TimeUnit)}, but rather than blocking the calling
+    * thread between attempts, the attempts are scheduled on {@code scheduler}; typically the
+    * {@link org.jclouds.Constants#PROPERTY_SCHEDULER_THREADS scheduler} of the context. As the
+    * predicate is applied on the scheduler threads, it should not block for long, beyond a request
+    * to check the state of a resource.
+    *
+    * @return a future that is true once {@code input} meets the predicate, or false if it does not
+    *         within the timeout. It fails with the exception of the predicate, unless that is an
+    *         exception that {@link #retry} treats as false. Cancelling it stops the retries.
+    */
+   @Beta
+   public static <T> ListenableFuture<Boolean> retryAsync(Predicate<T> findOrBreak, T input, long timeout,
+         long period, long maxPeriod, TimeUnit unit, ScheduledExecutorService scheduler) {
+      AsyncRetry<T> retry = new AsyncRetry<T>(findOrBreak, input, unit.toMillis(timeout), unit.toMillis(period),
+            unit.toMillis(maxPeriod), scheduler);
+      retry.schedule(0);
+      return retry.result;
+   }
+
+   /**
+    * like {@link #retryAsync(Predicate, Object, long, long, long, TimeUnit, ScheduledExecutorService)} where
+    * {@code unit} is in milliseconds
+    */
+   @Beta
+   public static <T> ListenableFuture<Boolean> retryAsync(Predicate<T> findOrBreak, T input, long timeout,
+         long period, long maxPeriod, ScheduledExecutorService scheduler) {
+      return retryAsync(findOrBreak, input, timeout, period, maxPeriod, MILLISECONDS, scheduler);
+   }
+
    /**
     * @see org.jclouds.compute.config.ComputeServiceProperties#POLL_INITIAL_PERIOD
     */
@@ -165,10 +201,7 @@ public class Predicates2 {
        * since the specified timeout
        */
       protected long nextMaxInterval(long attempt, long endTime) {
-         long interval = (long) (period * Math.pow(1.5, attempt - 1));
-         interval = interval > maxPeriod ? maxPeriod : interval;
-         long max = endTime - System.currentTimeMillis();
-         return (interval > max) ? max : interval;
+         return Predicates2.nextMaxInterval(period, maxPeriod, attempt, endTime);
       }
 
       /**
@@ -186,5 +219,81 @@ public class Predicates2 {
       protected boolean atOrAfter(Date end) {
          return new Date().compareTo(end) >= 0;
       }
-   }   
+   }
+
+   private static long nextMaxInterval(long period, long maxPeriod, long attempt, long endTime) {
+      long interval = (long) (period * Math.pow(1.5, attempt - 1));
+      interval = interval > maxPeriod ? maxPeriod : interval;
+      long max = endTime - System.currentTimeMillis();
+      return (interval > max) ? max : interval;
+   }
+
+   /**
+    * Applies the predicate each time it is run, and schedules itself again until the predicate is
+    * met or the timeout passes, with the same back-off as {@link RetryablePredicate}.
+    */
+   private static class AsyncRetry<T> implements Runnable {
+      private final Predicate<T> findOrBreak;
+      private final T input;
+      private final long period;
+      private final long maxPeriod;
+      private final long end;
+      private final ScheduledExecutorService scheduler;
+      private final SettableFuture<Boolean> result = SettableFuture.create();
+      private long attempt = 1L;
+      private volatile Future<?> next;
+
+      private AsyncRetry(Predicate<T> findOrBreak, T input, long timeout, long period, long maxPeriod,
+            ScheduledExecutorService scheduler) {
+         this.findOrBreak = findOrBreak;
+         this.input = input;
+         this.period = period;
+         this.maxPeriod = maxPeriod;
+         this.end = System.currentTimeMillis() + timeout;
+         this.scheduler = scheduler;
+         result.addListener(new Runnable() {
+            @Override
+            public void run() {
+               Future<?> pending = next;
+               if (result.isCancelled() && pending != null)
+                  pending.cancel(false);
+            }
+         }, MoreExecutors.directExecutor());
+      }
+
+      @Override
+      public void run() {
+         if (result.isDone())
+            return;
+         try {
+            if (findOrBreak.apply(input)) {
+               result.set(true);
+            } else if (System.currentTimeMillis() >= end) {
+               result.set(false);
+            } else {
+               // the last attempt is made at the timeout
+               schedule(Math.max(0, nextMaxInterval(period, maxPeriod, attempt++, end)));
+            }
+         } catch (RuntimeException e) {
+            if (getFirstThrowableOfType(e, ExecutionException.class) != null
+                  || getFirstThrowableOfType(e, IllegalStateException.class) != null
+                  || getFirstThrowableOfType(e, CancellationException.class) != null
+                  || getFirstThrowableOfType(e, TimeoutException.class) != null)
+               result.set(false);
+            else
+               result.setException(e);
+         } catch (Error e) {
+            result.setException(e);
+            throw e;
+         }
+      }
+
+      private void schedule(long delay) {
+         try {
+            next = scheduler.schedule(this, delay, MILLISECONDS);
+         } catch (RuntimeException e) {
+            result.setException(e);
+         }
+      }
+   }
 }
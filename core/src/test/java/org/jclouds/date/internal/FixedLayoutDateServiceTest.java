@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.date.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.Random;
+
+import org.jclouds.date.DateService;
+import org.jclouds.date.DateServiceTest;
+import org.jclouds.date.config.FixedLayoutDateServiceModule;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+// NOTE:without testName, this will not call @Before* and fail w/NPE during surefire
+@Test(groups = "performance", singleThreaded = true, timeOut = 2 * 60 * 1000, testName = "FixedLayoutDateServiceTest")
+public class FixedLayoutDateServiceTest extends DateServiceTest {
+   @Override
+   @BeforeTest
+   protected void createDateService() {
+      Injector i = Guice.createInjector(new FixedLayoutDateServiceModule());
+      dateService = i.getInstance(DateService.class);
+      assertTrue(dateService instanceof FixedLayoutDateService);
+   }
+
+   @Test
+   public void testAgreesWithSimpleDateFormatDateService() {
+      DateService expected = new SimpleDateFormatDateService();
+      Random random = new Random(0);
+      for (int i = 0; i < 10000; i++) {
+         // between 1900 and 2100
+         Date date = new Date(-2208988800000L + (long) (random.nextDouble() * 6311433600000L));
+         String iso8601 = expected.iso8601DateFormat(date);
+         assertEquals(dateService.iso8601DateFormat(date), iso8601);
+         assertEquals(dateService.iso8601DateParse(iso8601), expected.iso8601DateParse(iso8601));
+         String iso8601Seconds = expected.iso8601SecondsDateFormat(date);
+         assertEquals(dateService.iso8601SecondsDateFormat(date), iso8601Seconds);
+         assertEquals(dateService.iso8601SecondsDateParse(iso8601Seconds),
+               expected.iso8601SecondsDateParse(iso8601Seconds));
+         String rfc822 = expected.rfc822DateFormat(date);
+         assertEquals(dateService.rfc822DateFormat(date), rfc822);
+         assertEquals(dateService.rfc822DateParse(rfc822), expected.rfc822DateParse(rfc822));
+         String cDate = expected.cDateFormat(date);
+         assertEquals(dateService.cDateFormat(date), cDate);
+         assertEquals(dateService.cDateParse(cDate), expected.cDateParse(cDate));
+         String rfc1123 = dateService.rfc1123DateFormat(date);
+         assertEquals(dateService.rfc1123DateParse(rfc1123), expected.rfc1123DateParse(rfc1123));
+      }
+   }
+
+   @Test
+   public void testRfc1123DateFormat() {
+      assertEquals(dateService.rfc1123DateFormat(testData[0].date), "Thu, 12 Mar 2009 02:00:07 +0000");
+      assertEquals(dateService.rfc1123DateParse("Thu, 12 Mar 2009 02:00:07 GMT"), testData[0].date);
+   }
+
+   @Test
+   public void testFallsBackForLenientInput() {
+      DateService expected = new SimpleDateFormatDateService();
+      String[] iso8601 = { "2009-03-12T02:00:07.5Z", "2012-11-26T17:32:31UTC+0000", "2009-03-12T02:00:07.000" };
+      for (String input : iso8601) {
+         assertEquals(dateService.iso8601DateOrSecondsDateParse(input), expected.iso8601DateOrSecondsDateParse(input));
+      }
+      assertEquals(dateService.rfc822DateParse("Thu, 1 Mar 2009 2:00:07 GMT"),
+            expected.rfc822DateParse("Thu, 1 Mar 2009 2:00:07 GMT"));
+   }
+
+   @Test
+   public void testCachesCurrentSecond() {
+      String first = dateService.rfc822DateFormat();
+      String second = dateService.rfc822DateFormat();
+      if (first.equals(second)) {
+         assertSame(second, first);
+      }
+   }
+}
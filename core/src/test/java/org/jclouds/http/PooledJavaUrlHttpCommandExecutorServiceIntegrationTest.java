@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http;
+
+import static org.jclouds.Constants.PROPERTY_MAX_CONNECTIONS_PER_CONTEXT;
+import static org.jclouds.Constants.PROPERTY_MAX_CONNECTIONS_PER_HOST;
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
+import static org.jclouds.util.Closeables2.closeQuietly;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Properties;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.http.config.PooledJavaUrlHttpCommandExecutorServiceModule;
+import org.jclouds.http.internal.PooledJavaUrlHttpCommandExecutorService;
+import org.jclouds.http.internal.PooledJavaUrlHttpCommandExecutorService.PoolStats;
+import org.jclouds.providers.AnonymousProviderMetadata;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+@Test(groups = "integration")
+public class PooledJavaUrlHttpCommandExecutorServiceIntegrationTest extends
+      BaseHttpCommandExecutorServiceIntegrationTest {
+
+   protected Module createConnectionModule() {
+      return new PooledJavaUrlHttpCommandExecutorServiceModule();
+   }
+
+   protected void addOverrideProperties(Properties props) {
+      props.setProperty(PROPERTY_MAX_CONNECTIONS_PER_CONTEXT, 50 + "");
+      props.setProperty(PROPERTY_MAX_CONNECTIONS_PER_HOST, 5 + "");
+      props.setProperty(PROPERTY_USER_THREADS, 5 + "");
+   }
+
+   @Test
+   public void testConnectionIsReturnedOnceThePayloadIsRead() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setBody("test"), new MockResponse().setBody("test"));
+      Properties props = new Properties();
+      addOverrideProperties(props);
+      Injector injector = ContextBuilder
+            .newBuilder(AnonymousProviderMetadata.forApiOnEndpoint(IntegrationTestClient.class,
+                  server.getUrl("/").toString()))
+            .modules(ImmutableSet.of(createConnectionModule())).overrides(props).buildInjector();
+      PooledJavaUrlHttpCommandExecutorService executor = (PooledJavaUrlHttpCommandExecutorService) injector
+            .getInstance(HttpCommandExecutorService.class);
+      IntegrationTestClient client = injector.getInstance(IntegrationTestClient.class);
+      try {
+         assertEquals(client.download(""), "test");
+         assertEquals(client.download(""), "test");
+
+         PoolStats stats = executor.getPoolStats().get(server.getHostName() + ":" + server.getPort());
+         assertEquals(stats.getLeases(), 2);
+         assertEquals(stats.getLeased(), 0);
+         assertEquals(stats.getPending(), 0);
+         assertEquals(stats.getMax(), 5);
+      } finally {
+         closeQuietly(client);
+         server.shutdown();
+      }
+   }
+}
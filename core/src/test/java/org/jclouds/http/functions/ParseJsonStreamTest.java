@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.functions;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import java.util.Iterator;
+
+import org.jclouds.collect.IterableWithMarker;
+import org.jclouds.collect.IterableWithMarkers;
+import org.jclouds.collect.PagedIterables;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.io.Payloads;
+import org.jclouds.json.config.GsonModule;
+import org.jclouds.json.internal.GsonWrapper;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.inject.Guice;
+import com.google.inject.TypeLiteral;
+
+@Test(groups = "unit", testName = "ParseJsonStreamTest")
+public class ParseJsonStreamTest {
+
+   GsonWrapper json = Guice.createInjector(new GsonModule()).getInstance(GsonWrapper.class);
+
+   static class Server {
+      private String name;
+
+      @Override
+      public String toString() {
+         return name;
+      }
+   }
+
+   static class ParseServers extends ParseJsonStream<Server> {
+      ParseServers(GsonWrapper json) {
+         super(json, TypeLiteral.get(Server.class), "servers");
+      }
+
+      @Override
+      protected Object nextMarkerFrom(JsonObject members) {
+         JsonElement next = members.get("next");
+         return next != null && !next.isJsonNull() ? next.getAsString() : null;
+      }
+   }
+
+   private static HttpResponse response(String body) {
+      return HttpResponse.builder().statusCode(200).payload(Payloads.newStringPayload(body)).build();
+   }
+
+   public void testStreamsElementsAndReadsMarkerAfterArray() {
+      IterableWithMarker<Server> servers = new ParseServers(json).apply(
+            response("{\"servers\": [{\"name\": \"a\"}, {\"name\": \"b\"}], \"next\": \"b\"}"));
+
+      assertEquals(servers.toList().toString(), "[a, b]");
+      assertEquals(servers.nextMarker(), Optional.<Object> of("b"));
+   }
+
+   public void testMarkerBeforeIteratingBuffersRemainingElements() {
+      IterableWithMarker<Server> servers = new ParseServers(json).apply(
+            response("{\"next\": null, \"servers\": [{\"name\": \"a\"}, {\"name\": \"b\"}]}"));
+
+      assertEquals(servers.nextMarker(), Optional.absent());
+      assertEquals(servers.toList().toString(), "[a, b]");
+   }
+
+   public void testTopLevelArrayDecodesUtf8() {
+      IterableWithMarker<Server> servers = new ParseJsonStream<Server>(json, TypeLiteral.get(Server.class), null)
+            .apply(response("[{\"name\": \"caf\u00e9\"}]"));
+
+      assertEquals(servers.toList().toString(), "[caf\u00e9]");
+      assertFalse(servers.nextMarker().isPresent());
+   }
+
+   public void testMissingArrayIsEmpty() {
+      IterableWithMarker<Server> servers = new ParseServers(json).apply(response("{\"next\": null}"));
+
+      assertEquals(servers.toList(), ImmutableList.of());
+   }
+
+   @Test(expectedExceptions = IllegalStateException.class)
+   public void testCanOnlyBeIteratedOnce() {
+      IterableWithMarker<Server> servers = new ParseServers(json).apply(response("{\"servers\": []}"));
+      servers.iterator();
+      servers.iterator();
+   }
+
+   public void testPagedIterableAsksForMarkerAfterPageIsRead() {
+      IterableWithMarker<Server> first = new ParseServers(json).apply(
+            response("{\"servers\": [{\"name\": \"a\"}, {\"name\": \"b\"}], \"next\": \"b\"}"));
+      Function<Object, IterableWithMarker<Server>> markerToNext = new Function<Object, IterableWithMarker<Server>>() {
+         @Override
+         public IterableWithMarker<Server> apply(Object marker) {
+            assertEquals(marker, "b");
+            return IterableWithMarkers.from(ImmutableSet.<Server> of());
+         }
+      };
+
+      Iterator<Server> servers = PagedIterables.advance(first, markerToNext).concat().iterator();
+      assertEquals(servers.next().toString(), "a");
+      assertEquals(servers.next().toString(), "b");
+      assertFalse(servers.hasNext());
+   }
+}
@@ -21,6 +21,8 @@ import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpResponse;
@@ -33,7 +35,7 @@ import org.xml.sax.SAXParseException;
  * Tests behavior of {@code ParseSax}
  */
 // NOTE:without testName, this will not call @Before* and fail w/NPE during surefire
-@Test(groups = "unit", testName = "ParseSaxTest")
+@Test(groups = "unit", singleThreaded = true, testName = "ParseSaxTest")
 public class ParseSaxTest extends BaseHandlerTest {
    public static class TestHandler extends ParseSax.HandlerWithResult<String> {
       @Override
@@ -131,4 +133,27 @@ public class ParseSaxTest extends BaseHandlerTest {
          assertEquals(e.getCause(), input);
       }
    }
+
+   @Test
+   public void testReturnsReaderToPoolAfterParse() {
+      XMLReaderPool parsers = injector.getInstance(XMLReaderPool.class);
+      createParser().parse("<root/>");
+      int idle = parsers.idleCount();
+      assertTrue(idle > 0);
+      createParser().parse("<root/>");
+      assertEquals(parsers.idleCount(), idle);
+   }
+
+   @Test
+   public void testDropsReaderAfterFailedParse() {
+      XMLReaderPool parsers = injector.getInstance(XMLReaderPool.class);
+      createParser().parse("<root/>");
+      int idle = parsers.idleCount();
+      try {
+         createParser().parse("<root>");
+         fail("expected a parse failure");
+      } catch (RuntimeException e) {
+         assertEquals(parsers.idleCount(), idle - 1);
+      }
+   }
 }
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.handlers;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jclouds.http.handlers.CircuitBreaker.State.CLOSED;
+import static org.jclouds.http.handlers.CircuitBreaker.State.HALF_OPEN;
+import static org.jclouds.http.handlers.CircuitBreaker.State.OPEN;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.handlers.CircuitBreaker.StateChange;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+@Test(groups = "unit", testName = "CircuitBreakerTest")
+public class CircuitBreakerTest {
+
+   private static class FakeTicker extends Ticker {
+      private long nanos = 123456789L;
+
+      @Override
+      public long read() {
+         return nanos;
+      }
+
+      void advance(long millis) {
+         nanos += MILLISECONDS.toNanos(millis);
+      }
+   }
+
+   public static class StateChanges {
+      final List<String> changes = Lists.newArrayList();
+
+      @Subscribe
+      public void onStateChange(StateChange change) {
+         changes.add(change.getHost() + " " + change.getPrevious() + "->" + change.getCurrent());
+      }
+   }
+
+   private static final HttpRequest FOO = HttpRequest.builder().method("GET").endpoint("http://foo/path").build();
+   private static final HttpRequest BAR = HttpRequest.builder().method("GET").endpoint("http://bar/path").build();
+
+   public void testDisabledByDefault() {
+      CircuitBreaker breaker = new CircuitBreaker(new FakeTicker());
+      for (int i = 0; i < 100; i++)
+         breaker.onFailure(FOO);
+      assertTrue(breaker.allowRequest(FOO));
+      assertTrue(breaker.allowRetry(FOO));
+   }
+
+   public void testOpensAfterConsecutiveFailuresOfOneHost() {
+      CircuitBreaker breaker = new CircuitBreaker(new FakeTicker(), 3, 1000, null);
+
+      breaker.onFailure(FOO);
+      breaker.onResponse(FOO, 503);
+      breaker.onResponse(FOO, 200);
+      breaker.onFailure(FOO);
+      breaker.onResponse(FOO, 500);
+      assertEquals(breaker.state("foo"), CLOSED);
+      assertTrue(breaker.allowRequest(FOO));
+
+      breaker.onFailure(FOO);
+      assertEquals(breaker.state("foo"), OPEN);
+      assertFalse(breaker.allowRequest(FOO));
+      assertFalse(breaker.allowRetry(FOO));
+      assertTrue(breaker.allowRequest(BAR));
+   }
+
+   public void testClientErrorsDoNotCountAsFailures() {
+      CircuitBreaker breaker = new CircuitBreaker(new FakeTicker(), 2, 1000, null);
+
+      breaker.onResponse(FOO, 500);
+      breaker.onResponse(FOO, 404);
+      breaker.onResponse(FOO, 500);
+      assertEquals(breaker.state("foo"), CLOSED);
+   }
+
+   public void testHalfOpenLetsOneProbeThroughAndClosesOnSuccess() {
+      FakeTicker ticker = new FakeTicker();
+      EventBus eventBus = new EventBus();
+      StateChanges events = new StateChanges();
+      eventBus.register(events);
+      CircuitBreaker breaker = new CircuitBreaker(ticker, 1, 1000, eventBus);
+
+      breaker.onFailure(FOO);
+      ticker.advance(999);
+      assertFalse(breaker.allowRequest(FOO));
+
+      ticker.advance(1);
+      assertTrue(breaker.allowRequest(FOO));
+      assertEquals(breaker.state("foo"), HALF_OPEN);
+      assertFalse(breaker.allowRequest(FOO));
+      assertFalse(breaker.allowRetry(FOO));
+
+      breaker.onResponse(FOO, 200);
+      assertTrue(breaker.allowRequest(FOO));
+      assertEquals(events.changes, Lists.newArrayList("foo CLOSED->OPEN", "foo OPEN->HALF_OPEN",
+            "foo HALF_OPEN->CLOSED"));
+   }
+
+   public void testFailedProbeReopens() {
+      FakeTicker ticker = new FakeTicker();
+      CircuitBreaker breaker = new CircuitBreaker(ticker, 2, 1000, null);
+
+      breaker.onFailure(FOO);
+      breaker.onFailure(FOO);
+      ticker.advance(1000);
+      assertTrue(breaker.allowRequest(FOO));
+
+      breaker.onResponse(FOO, 502);
+      assertEquals(breaker.state("foo"), OPEN);
+      ticker.advance(500);
+      assertFalse(breaker.allowRequest(FOO));
+      ticker.advance(500);
+      assertTrue(breaker.allowRequest(FOO));
+   }
+
+   public void testServerErrorsAreNotRetriedWhileOpen() {
+      CircuitBreaker breaker = new CircuitBreaker(new FakeTicker(), 1, 1000, null);
+      DelegatingRetryHandler retryHandler = new DelegatingRetryHandler(BackoffLimitedRetryHandler.INSTANCE,
+            new RedirectionRetryHandler(BackoffLimitedRetryHandler.INSTANCE));
+      retryHandler.circuitBreaker = breaker;
+
+      breaker.onResponse(FOO, 503);
+      assertFalse(retryHandler.shouldRetryRequest(new HttpCommand(FOO),
+            HttpResponse.builder().statusCode(503).build()));
+   }
+}
@@ -104,6 +104,21 @@ public class RateLimitRetryHandlerTest {
       assertTrue(System.currentTimeMillis() - start > 2500);
    }
 
+   @Test(timeOut = TEST_SAFE_TIMEOUT)
+   public void testDeferredDelayIsRecordedInsteadOfSlept() {
+      HttpCommand command = new HttpCommand(HttpRequest.builder().method("GET").endpoint("http://localhost").build());
+      HttpResponse response = HttpResponse.builder().statusCode(429).addHeader(RETRY_AFTER, "50").build();
+
+      long start = System.currentTimeMillis();
+      RetryDelay.startDeferring();
+      try {
+         assertTrue(rateLimitRetryHandler.shouldRetryRequest(command, response));
+      } finally {
+         assertEquals(RetryDelay.stopDeferring(), 50000L);
+      }
+      assertTrue(System.currentTimeMillis() - start < 25000);
+   }
+
    @Test(timeOut = TEST_SAFE_TIMEOUT)
    public void testDoNotRetryIfRequestIsAborted() throws Exception {
       final HttpCommand command = new HttpCommand(HttpRequest.builder().method("GET").endpoint("http://localhost")
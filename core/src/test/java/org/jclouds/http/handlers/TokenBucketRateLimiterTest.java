@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.handlers;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jclouds.reflect.Reflection2.method;
+import static org.testng.Assert.assertEquals;
+
+import javax.inject.Named;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+@Test(groups = "unit", testName = "TokenBucketRateLimiterTest")
+public class TokenBucketRateLimiterTest {
+
+   private static class FakeTicker extends Ticker {
+      private long nanos = 123456789L;
+
+      @Override
+      public long read() {
+         return nanos;
+      }
+
+      void advance(long millis) {
+         nanos += MILLISECONDS.toNanos(millis);
+      }
+   }
+
+   interface ServerApi {
+      @Named("server:list")
+      void list();
+   }
+
+   private static final HttpRequest FOO = HttpRequest.builder().method("GET").endpoint("http://foo/path").build();
+   private static final HttpRequest BAR = HttpRequest.builder().method("GET").endpoint("http://bar/path").build();
+
+   public void testDisabledByDefault() {
+      TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new FakeTicker());
+      for (int i = 0; i < 100; i++)
+         assertEquals(limiter.reserve(FOO), 0);
+   }
+
+   public void testDelaysRequestsBeyondBurst() {
+      FakeTicker ticker = new FakeTicker();
+      TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(ticker, 10, 2, false,
+            ImmutableMap.<String, Double> of());
+
+      assertEquals(limiter.reserve(FOO), 0);
+      assertEquals(limiter.reserve(FOO), 0);
+      assertEquals(limiter.reserve(FOO), 100);
+      assertEquals(limiter.reserve(FOO), 200);
+
+      ticker.advance(500);
+      assertEquals(limiter.reserve(FOO), 0);
+   }
+
+   public void testBucketPerHost() {
+      TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new FakeTicker(), 1, 1, false,
+            ImmutableMap.<String, Double> of());
+
+      assertEquals(limiter.reserve(FOO), 0);
+      assertEquals(limiter.reserve(BAR), 0);
+      assertEquals(limiter.reserve(FOO), 1000);
+   }
+
+   public void testCommandWithItsOwnRate() throws Exception {
+      GeneratedHttpRequest list = GeneratedHttpRequest.builder().method("GET").endpoint("http://foo/servers")
+            .invocation(Invocation.create(method(ServerApi.class, "list"), ImmutableList.of())).build();
+      TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new FakeTicker(), 0, 1, false,
+            ImmutableMap.of("server:list", 2.0));
+
+      assertEquals(limiter.reserve(FOO), 0);
+      assertEquals(limiter.reserve(FOO), 0);
+      assertEquals(limiter.reserve(list), 0);
+      assertEquals(limiter.reserve(list), 500);
+   }
+
+   public void testAdaptiveSlowsDownOnThrottlingAndRecovers() {
+      FakeTicker ticker = new FakeTicker();
+      TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(ticker, 10, 1, true,
+            ImmutableMap.<String, Double> of());
+
+      assertEquals(limiter.reserve(FOO), 0);
+      limiter.onResponse(FOO, 429);
+      // only one slow down a second
+      limiter.onResponse(FOO, 503);
+      assertEquals(limiter.reserve(FOO), 100);
+      assertEquals(limiter.reserve(FOO), 300);
+
+      ticker.advance(1000);
+      for (int i = 0; i < 400; i++)
+         limiter.onResponse(FOO, 200);
+      assertEquals(limiter.reserve(FOO), 0);
+      assertEquals(limiter.reserve(FOO), 100);
+   }
+}
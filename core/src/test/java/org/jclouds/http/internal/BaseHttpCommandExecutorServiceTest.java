@@ -16,12 +16,19 @@
  */
 package org.jclouds.http.internal;
 
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.getCurrentArguments;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
+import static org.jclouds.Constants.PROPERTY_HEDGE_PERCENTILE;
 import static org.jclouds.Constants.PROPERTY_IDEMPOTENT_METHODS;
+import static org.jclouds.Constants.PROPERTY_SCHEDULER_THREADS;
 import static org.jclouds.http.HttpUtils.closeClientButKeepContentStream;
 import static org.jclouds.http.HttpUtils.releasePayload;
 import static org.jclouds.io.Payloads.newInputStreamPayload;
@@ -32,6 +39,12 @@ import static org.testng.Assert.fail;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -43,6 +56,7 @@ import org.jclouds.http.HttpException;
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpRequestFilter;
 import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
 import org.jclouds.http.HttpUtils;
 import org.jclouds.http.IOExceptionRetryHandler;
 import org.jclouds.http.handlers.DelegatingErrorHandler;
@@ -51,6 +65,8 @@ import org.jclouds.io.ContentMetadataCodec;
 import org.jclouds.rest.internal.BaseHttpApiMetadata;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
@@ -202,14 +218,22 @@ public class BaseHttpCommandExecutorServiceTest {
    }
 
    public void testDoNotRetryPostOnException() throws IOException {
-      helperRetryOnlyIdempotent("POST");
+      helperRetryOnlyIdempotent("POST", false);
    }
 
    public void testRetryGetOnException() throws IOException {
-      helperRetryOnlyIdempotent("GET");
+      helperRetryOnlyIdempotent("GET", false);
    }
 
-   private void helperRetryOnlyIdempotent(String method) throws IOException {
+   public void testDoNotRetryPostOnExceptionAsync() throws IOException {
+      helperRetryOnlyIdempotent("POST", true);
+   }
+
+   public void testRetryGetOnExceptionAsync() throws IOException {
+      helperRetryOnlyIdempotent("GET", true);
+   }
+
+   private void helperRetryOnlyIdempotent(String method, boolean async) throws IOException {
       final IOException error = new IOException("test exception");
       HttpRequestFilter throwingFilter = new HttpRequestFilter() {
          @Override
@@ -228,14 +252,130 @@ public class BaseHttpCommandExecutorServiceTest {
       replay(ioRetryHandler);
 
       BaseHttpCommandExecutorService<?> service = mockHttpCommandExecutorService(ioRetryHandler);
-      try {
-         service.invoke(command);
-         fail("Expected to fail due to throwing filter");
-      } catch (Exception e) {}
+      if (async) {
+         try {
+            service.invokeAsync(command).get();
+            fail("Expected to fail due to throwing filter");
+         } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof HttpResponseException, e.getCause().toString());
+         } catch (InterruptedException e) {
+            throw new AssertionError(e);
+         }
+      } else {
+         try {
+            service.invoke(command);
+            fail("Expected to fail due to throwing filter");
+         } catch (Exception e) {}
+      }
 
       verify(ioRetryHandler);
    }
 
+   public void testHedgedGetReturnsFirstResponseAndAbortsSlowAttempt() throws Exception {
+      ListeningScheduledExecutorService scheduler = listeningDecorator(newScheduledThreadPool(1));
+      try {
+         final HedgingHttpCommandExecutorService service = hedgingHttpCommandExecutorService(scheduler);
+         for (int i = 0; i < ResponseLatencyTracker.MIN_SAMPLES; i++)
+            service.latencies.record("localhost", MILLISECONDS.toNanos(1));
+
+         HttpCommand command = new HttpCommand(HttpRequest.builder().endpoint("http://localhost").method("GET")
+               .build());
+         HttpResponse response = service.invoke(command);
+
+         assertEquals(response.getStatusCode(), 200);
+         assertEquals(response.getMessage(), "attempt 2");
+         assertTrue(service.abortedFirstAttempt);
+      } finally {
+         scheduler.shutdownNow();
+      }
+   }
+
+   public void testHedgeRecordsLatencyOfSlowAttempt() throws Exception {
+      ListeningScheduledExecutorService scheduler = listeningDecorator(newScheduledThreadPool(1));
+      try {
+         HedgingHttpCommandExecutorService service = hedgingHttpCommandExecutorService(scheduler);
+         for (int i = 0; i < ResponseLatencyTracker.MIN_SAMPLES; i++)
+            service.latencies.record("localhost", 0);
+         // make the window sort itself, so that the sample the hedge adds is the one that forces the next sort
+         service.latencies.percentileNanos("localhost", 50);
+         for (int i = 1; i < ResponseLatencyTracker.RECOMPUTE_EVERY; i++)
+            service.latencies.record("localhost", 0);
+
+         HttpCommand command = new HttpCommand(HttpRequest.builder().endpoint("http://localhost").method("GET")
+               .build());
+         assertEquals(service.invoke(command).getMessage(), "attempt 2");
+
+         assertTrue(service.latencies.percentileNanos("localhost", 100) > 0,
+               "the latency of the aborted attempt should have been recorded");
+      } finally {
+         scheduler.shutdownNow();
+      }
+   }
+
+   public void testHedgeIsFilteredAgain() throws Exception {
+      ListeningScheduledExecutorService scheduler = listeningDecorator(newScheduledThreadPool(1));
+      try {
+         HedgingHttpCommandExecutorService service = hedgingHttpCommandExecutorService(scheduler);
+         for (int i = 0; i < ResponseLatencyTracker.MIN_SAMPLES; i++)
+            service.latencies.record("localhost", MILLISECONDS.toNanos(1));
+         final AtomicInteger signatures = new AtomicInteger();
+         HttpRequestFilter signer = new HttpRequestFilter() {
+            @Override
+            public HttpRequest filter(HttpRequest request) throws HttpException {
+               return request.toBuilder().replaceHeader("Signature", String.valueOf(signatures.incrementAndGet()))
+                     .build();
+            }
+         };
+
+         HttpCommand command = new HttpCommand(HttpRequest.builder().endpoint("http://localhost").method("GET")
+               .filter(signer).build());
+         assertEquals(service.invoke(command).getMessage(), "attempt 2");
+
+         assertEquals(service.signatures, ImmutableList.of("1", "2"));
+      } finally {
+         scheduler.shutdownNow();
+      }
+   }
+
+   public void testFastFailureCancelsHedge() throws Exception {
+      ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+      executor.setRemoveOnCancelPolicy(true);
+      ListeningScheduledExecutorService scheduler = listeningDecorator(executor);
+      try {
+         HedgingHttpCommandExecutorService service = hedgingHttpCommandExecutorService(scheduler);
+         service.firstAttemptWaitsForAbort = false;
+         service.firstAttemptFailsFast = true;
+         for (int i = 0; i < ResponseLatencyTracker.MIN_SAMPLES; i++)
+            service.latencies.record("localhost", HOURS.toNanos(1));
+
+         HttpCommand command = new HttpCommand(HttpRequest.builder().endpoint("http://localhost").method("GET")
+               .build());
+         assertEquals(service.invoke(command).getMessage(), "attempt 2");
+
+         assertTrue(executor.getQueue().isEmpty(), "hedges still scheduled: " + executor.getQueue());
+      } finally {
+         scheduler.shutdownNow();
+      }
+   }
+
+   public void testDoNotHedgePost() throws Exception {
+      ListeningScheduledExecutorService scheduler = listeningDecorator(newScheduledThreadPool(1));
+      try {
+         HedgingHttpCommandExecutorService service = hedgingHttpCommandExecutorService(scheduler);
+         service.firstAttemptWaitsForAbort = false;
+         for (int i = 0; i < ResponseLatencyTracker.MIN_SAMPLES; i++)
+            service.latencies.record("localhost", 0);
+
+         HttpCommand command = new HttpCommand(HttpRequest.builder().endpoint("http://localhost").method("POST")
+               .build());
+
+         assertEquals(service.invoke(command).getMessage(), "attempt 1");
+         assertEquals(service.attempts.get(), 1);
+      } finally {
+         scheduler.shutdownNow();
+      }
+   }
+
    private HttpCommand mockHttpCommand() {
       return new HttpCommand(HttpRequest.builder().endpoint("http://localhost").method("mock").build());
    }
@@ -268,6 +408,21 @@ public class BaseHttpCommandExecutorServiceTest {
       return injector.getInstance(BaseHttpCommandExecutorService.class);
    }
 
+   private HedgingHttpCommandExecutorService hedgingHttpCommandExecutorService(
+         final ListeningScheduledExecutorService scheduler) {
+      Injector injector = Guice.createInjector(new AbstractModule() {
+         @Override
+         protected void configure() {
+            Names.bindProperties(binder(), BaseHttpApiMetadata.defaultProperties());
+            bindConstant().annotatedWith(Names.named(PROPERTY_HEDGE_PERCENTILE)).to(50.0);
+            bind(ListeningScheduledExecutorService.class).annotatedWith(Names.named(PROPERTY_SCHEDULER_THREADS))
+                  .toInstance(scheduler);
+         }
+      });
+
+      return injector.getInstance(HedgingHttpCommandExecutorService.class);
+   }
+
    private static class MockInputStream extends InputStream {
       boolean isOpen = true;
       int count;
@@ -331,4 +486,52 @@ public class BaseHttpCommandExecutorServiceTest {
 
    }
 
+   /**
+    * The first attempt hangs until it is aborted, or fails straight away, and every other attempt answers straight
+    * away.
+    */
+   private static class HedgingHttpCommandExecutorService extends BaseHttpCommandExecutorService<Integer> {
+      final AtomicInteger attempts = new AtomicInteger();
+      final CountDownLatch firstAttemptAborted = new CountDownLatch(1);
+      final List<String> signatures = new CopyOnWriteArrayList<String>();
+      volatile boolean firstAttemptWaitsForAbort = true;
+      volatile boolean firstAttemptFailsFast;
+      volatile boolean abortedFirstAttempt;
+
+      @Inject
+      HedgingHttpCommandExecutorService(HttpUtils utils, ContentMetadataCodec contentMetadataCodec,
+            DelegatingRetryHandler retryHandler, IOExceptionRetryHandler ioRetryHandler,
+            DelegatingErrorHandler errorHandler, HttpWire wire,
+            @Named(PROPERTY_IDEMPOTENT_METHODS) String idempotentMethods) {
+         super(utils, contentMetadataCodec, retryHandler, ioRetryHandler, errorHandler, wire, idempotentMethods);
+      }
+
+      @Override
+      protected Integer convert(HttpRequest request) throws IOException, InterruptedException {
+         if (request.getFirstHeaderOrNull("Signature") != null)
+            signatures.add(request.getFirstHeaderOrNull("Signature"));
+         return attempts.incrementAndGet();
+      }
+
+      @Override
+      protected HttpResponse invoke(Integer nativeRequest) throws IOException, InterruptedException {
+         if (nativeRequest == 1 && firstAttemptFailsFast)
+            throw new IOException("connection refused");
+         if (nativeRequest == 1 && firstAttemptWaitsForAbort) {
+            if (!firstAttemptAborted.await(10, SECONDS))
+               throw new AssertionError("the first attempt was not aborted");
+            throw new IOException("aborted");
+         }
+         return HttpResponse.builder().statusCode(200).message("attempt " + nativeRequest).build();
+      }
+
+      @Override
+      protected void cleanup(Integer nativeRequest) {
+         if (nativeRequest != null && nativeRequest == 1 && firstAttemptAborted.getCount() > 0) {
+            abortedFirstAttempt = true;
+            firstAttemptAborted.countDown();
+         }
+      }
+   }
+
 }
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "ResponseLatencyTrackerTest")
+public class ResponseLatencyTrackerTest {
+
+   public void testUnknownUntilEnoughSamples() {
+      ResponseLatencyTracker latencies = new ResponseLatencyTracker();
+      assertEquals(latencies.percentileNanos("foo", 95), -1);
+      for (int i = 1; i < ResponseLatencyTracker.MIN_SAMPLES; i++)
+         latencies.record("foo", i);
+      assertEquals(latencies.percentileNanos("foo", 95), -1);
+   }
+
+   public void testPercentilePerHost() {
+      ResponseLatencyTracker latencies = new ResponseLatencyTracker();
+      for (int i = 1; i <= 100; i++) {
+         latencies.record("foo", i);
+         latencies.record("bar", i * 10);
+      }
+      assertEquals(latencies.percentileNanos("foo", 95), 95);
+      assertEquals(latencies.percentileNanos("foo", 50), 50);
+      assertEquals(latencies.percentileNanos("bar", 95), 950);
+   }
+
+   public void testOnlyRecentSamplesCount() {
+      ResponseLatencyTracker latencies = new ResponseLatencyTracker();
+      for (int i = 0; i < ResponseLatencyTracker.SAMPLES; i++)
+         latencies.record("foo", 1000);
+      assertEquals(latencies.percentileNanos("foo", 50), 1000);
+      for (int i = 0; i < ResponseLatencyTracker.SAMPLES; i++)
+         latencies.record("foo", 10);
+      assertEquals(latencies.percentileNanos("foo", 50), 10);
+   }
+}
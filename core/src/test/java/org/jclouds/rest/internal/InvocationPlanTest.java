@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.internal;
+
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static org.jclouds.reflect.Reflection2.method;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Map;
+
+import javax.inject.Named;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.options.HttpRequestOptions;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.rest.Binder;
+import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.Headers;
+import org.jclouds.rest.annotations.MapBinder;
+import org.jclouds.rest.annotations.OverrideRequestFilters;
+import org.jclouds.rest.annotations.ParamParser;
+import org.jclouds.rest.annotations.RequestFilters;
+import org.jclouds.rest.annotations.SkipEncoding;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+@Test(groups = "unit", testName = "InvocationPlanTest")
+public class InvocationPlanTest {
+
+   static class Filter1 implements HttpRequestFilter {
+      public HttpRequest filter(HttpRequest request) {
+         return request;
+      }
+   }
+
+   static class Filter2 implements HttpRequestFilter {
+      public HttpRequest filter(HttpRequest request) {
+         return request;
+      }
+   }
+
+   static class StubBinder implements Binder {
+      public <R extends HttpRequest> R bindToRequest(R request, Object input) {
+         return request;
+      }
+   }
+
+   static class StubMapBinder extends StubBinder implements org.jclouds.rest.MapBinder {
+      public <R extends HttpRequest> R bindToRequest(R request, Map<String, Object> postParams) {
+         return request;
+      }
+   }
+
+   static class UpperCase implements Function<Object, String> {
+      public String apply(Object input) {
+         return input.toString().toUpperCase();
+      }
+   }
+
+   @Path("/v1")
+   @SkipEncoding('/')
+   @RequestFilters(Filter1.class)
+   @Headers(keys = "x-type", values = "type")
+   interface Api {
+      @Named("get")
+      @GET
+      @Path("/objects/{id}")
+      @Produces("application/json")
+      @Headers(keys = "x-method", values = "method")
+      String get(@PathParam("id") String id, @Nullable @QueryParam("marker") String marker,
+            @HeaderParam("x-extra") String extra, HttpRequestOptions... options);
+
+      @GET
+      @OverrideRequestFilters
+      @RequestFilters(Filter2.class)
+      String override();
+
+      @GET
+      @Path("/objects/{id}")
+      @MapBinder(StubMapBinder.class)
+      String bind(@PathParam("id") @ParamParser(UpperCase.class) String id,
+            @BinderParam(StubBinder.class) String body);
+   }
+
+   public void testPlanIsCompiledOncePerInvokable() {
+      InvocationPlans plans = new InvocationPlans(Guice.createInjector());
+      assertSame(plans.get(method(Api.class, "override")), plans.get(method(Api.class, "override")));
+   }
+
+   public void testPlansAreNotSharedAcrossHolders() {
+      assertNotSame(new InvocationPlans(Guice.createInjector()).get(method(Api.class, "override")),
+            new InvocationPlans(Guice.createInjector()).get(method(Api.class, "override")));
+   }
+
+   public void testAnnotationsAreResolvedFromTypeAndMethod() {
+      InvocationPlan plan = new InvocationPlans(Guice.createInjector()).get(method(Api.class, "get", String.class,
+            String.class, String.class, HttpRequestOptions[].class));
+      assertEquals(plan.httpMethod.get(), "GET");
+      assertEquals(plan.paths, ImmutableList.of("/v1", "/objects/{id}"));
+      assertEquals(plan.skipPathEncoding.get(), ImmutableList.of('/'));
+      assertEquals(plan.filterTypes, ImmutableList.of(Filter1.class));
+      assertEquals(plan.headers.size(), 2);
+      assertEquals(plan.contentType.get(), ImmutableList.of("application/json"));
+      assertEquals(plan.pathParamParameters.size(), 1);
+      assertEquals(plan.queryParamParameters.size(), 1);
+      assertEquals(plan.headerParamParameters.size(), 1);
+      assertEquals(plan.indexesOfOptions, ImmutableSet.of(3));
+      assertFalse(plan.isNullable(0));
+      assertTrue(plan.isNullable(1));
+      assertFalse(plan.encodedUsed);
+      assertFalse(plan.virtualHost);
+      assertNull(plan.mapBinder);
+   }
+
+   public void testBindersAndParsersAreResolvedFromTheInjector() {
+      final StubBinder binder = new StubBinder();
+      Injector injector = Guice.createInjector(new AbstractModule() {
+         @Override
+         protected void configure() {
+            bind(StubBinder.class).toInstance(binder);
+         }
+      });
+      InvocationPlan plan = new InvocationPlans(injector).get(method(Api.class, "bind", String.class, String.class));
+      assertEquals(plan.paramParser(0).apply("id"), "ID");
+      assertNull(plan.paramParser(1));
+      assertEquals(getOnlyElement(plan.binders.keySet()).hashCode(), 1);
+      assertSame(getOnlyElement(plan.binders.values()).get(), binder);
+      assertTrue(plan.mapBinder.get() instanceof StubMapBinder);
+   }
+
+   public void testOverrideRequestFiltersReplacesTypeFilters() {
+      InvocationPlan plan = new InvocationPlans(Guice.createInjector()).get(method(Api.class, "override"));
+      assertEquals(plan.filterTypes, ImmutableList.of(Filter2.class));
+   }
+}
@@ -16,12 +16,15 @@
  */
 package org.jclouds.rest.internal;
 
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.reset;
 import static org.easymock.EasyMock.verify;
 import static org.jclouds.reflect.Reflection2.method;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import java.util.concurrent.TimeUnit;
 
@@ -44,6 +47,7 @@ import com.google.common.base.Functions;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.TimeLimiter;
 
 @Test(groups = "unit", singleThreaded = true)
@@ -52,9 +56,13 @@ public class InvokeHttpMethodTest {
    public interface ThingApi {
       @Named("ns:get")
       HttpResponse get();
+
+      @Named("ns:getAsync")
+      ListenableFuture<HttpResponse> getAsync();
    }
 
    private Invocation get;
+   private Invocation getAsync;
    private HttpRequest getRequest = HttpRequest.builder().method("GET").endpoint("http://get").build();
    private HttpCommand getCommand = new HttpCommand(getRequest);
    private Function<Invocation, HttpRequest> toRequest;
@@ -62,7 +70,8 @@ public class InvokeHttpMethodTest {
    @BeforeClass
    void setupInvocations() throws SecurityException, NoSuchMethodException {
       get = Invocation.create(method(ThingApi.class, "get"), ImmutableList.of());
-      toRequest = Functions.forMap(ImmutableMap.of(get, getRequest));
+      getAsync = Invocation.create(method(ThingApi.class, "getAsync"), ImmutableList.of());
+      toRequest = Functions.forMap(ImmutableMap.of(get, getRequest, getAsync, getRequest));
    }
 
    @SuppressWarnings("unchecked")
@@ -85,7 +94,8 @@ public class InvokeHttpMethodTest {
       timeLimiter = createMock(TimeLimiter.class);
       fallback = createMock(org.jclouds.Fallback.class);
       config = createMock(InvocationConfig.class);
-      invokeHttpMethod = new InvokeHttpMethod(toRequest, http, transformerForRequest, timeLimiter, config);
+      invokeHttpMethod = new InvokeHttpMethod(toRequest, http, transformerForRequest, timeLimiter, config,
+            newDirectExecutorService());
       expect(config.getCommandName(get)).andReturn("ns:get");
       expect(config.getFallback(get)).andReturn(fallback);
    }
@@ -130,4 +140,28 @@ public class InvokeHttpMethodTest {
       replay(http, timeLimiter, fallback, config);
       assertEquals(invokeHttpMethod.apply(get), fallbackResponse);
    }
+
+   public void testFutureReturnTypeIsInvokedAsynchronously() throws Exception {
+      expectAsyncInvocation();
+      expect(http.invoke(new HttpCommand(getRequest))).andReturn(response);
+      replay(http, timeLimiter, fallback, config);
+      Object result = invokeHttpMethod.apply(getAsync);
+      assertTrue(result instanceof ListenableFuture);
+      assertEquals(ListenableFuture.class.cast(result).get(), response);
+   }
+
+   public void testAsyncCallRunsFallbackCreateOrPropagate() throws Exception {
+      IllegalStateException exception = new IllegalStateException();
+      expectAsyncInvocation();
+      expect(http.invoke(new HttpCommand(getRequest))).andThrow(exception);
+      expect(fallback.createOrPropagate(exception)).andReturn(fallbackResponse);
+      replay(http, timeLimiter, fallback, config);
+      assertEquals(ListenableFuture.class.cast(invokeHttpMethod.apply(getAsync)).get(), fallbackResponse);
+   }
+
+   private void expectAsyncInvocation() {
+      reset(config);
+      expect(config.getCommandName(getAsync)).andReturn("ns:getAsync");
+      expect(config.getFallback(getAsync)).andReturn(fallback);
+   }
 }
@@ -18,9 +18,18 @@ package org.jclouds.rest.suppliers;
 
 import static com.google.common.base.Suppliers.ofInstance;
 import static com.google.common.util.concurrent.Atomics.newReference;
+import static org.jclouds.Constants.PROPERTY_SESSION_REFRESH;
+import static org.jclouds.Constants.PROPERTY_SESSION_REFRESH_JITTER;
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -30,10 +39,14 @@ import org.jclouds.rest.suppliers.MemoizedRetryOnTimeOutButNotOnAuthorizationExc
 import org.testng.annotations.Test;
 
 import com.google.common.base.Optional;
+import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.name.Names;
 
 @Test(groups = "unit", testName = "MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplierTest")
 public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplierTest {
@@ -125,6 +138,119 @@ public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplierTest {
       assertEquals(handler.count.get(), 2);
    }
 
+   @Test
+   public void testRefreshAheadReturnsTheOldValueWhileReloading() throws InterruptedException {
+      AtomicReference<AuthorizationException> authException = newReference();
+      final AtomicInteger loads = new AtomicInteger(0);
+      final CountDownLatch reloading = new CountDownLatch(1);
+      final CountDownLatch release = new CountDownLatch(1);
+      ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+      try {
+         MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<String> supplier =
+               MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException,
+                     new Supplier<String>() {
+                        public String get() {
+                           int load = loads.incrementAndGet();
+                           if (load > 1) {
+                              reloading.countDown();
+                              Uninterruptibles.awaitUninterruptibly(release);
+                           }
+                           return "foo" + load;
+                        }
+                     }, 60, TimeUnit.SECONDS, new RefreshAhead(1, 0, scheduler, null, new Random()));
+
+         assertEquals(supplier.get(), "foo1");
+         Uninterruptibles.sleepUninterruptibly(1100, TimeUnit.MILLISECONDS);
+
+         // Once due, the value is reloaded in the background and callers keep getting the old one
+         assertEquals(supplier.get(), "foo1");
+         assertTrue(reloading.await(5, TimeUnit.SECONDS));
+         assertEquals(supplier.get(), "foo1");
+
+         release.countDown();
+         scheduler.shutdown();
+         assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+         assertEquals(supplier.get(), "foo2");
+         assertEquals(loads.get(), 2);
+         assertEquals(supplier.stats().loadSuccessCount(), 2);
+      } finally {
+         release.countDown();
+         scheduler.shutdownNow();
+      }
+   }
+
+   @Test
+   public void testRefreshAheadReloadsOnUserThreadsWithoutScheduler() throws InterruptedException {
+      AtomicReference<AuthorizationException> authException = newReference();
+      final AtomicInteger loads = new AtomicInteger(0);
+      final CountDownLatch reloading = new CountDownLatch(1);
+      final CountDownLatch release = new CountDownLatch(1);
+      final ExecutorService userExecutor = Executors.newSingleThreadExecutor();
+      try {
+         // as in a context without a ScheduledExecutorServiceModule
+         RefreshAhead refreshAhead = Guice.createInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+               bindConstant().annotatedWith(Names.named(PROPERTY_SESSION_REFRESH)).to(1L);
+               bindConstant().annotatedWith(Names.named(PROPERTY_SESSION_REFRESH_JITTER)).to(0.0);
+               bind(ExecutorService.class).annotatedWith(Names.named(PROPERTY_USER_THREADS)).toInstance(userExecutor);
+            }
+         }).getInstance(RefreshAhead.class);
+         MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<String> supplier =
+               MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException,
+                     new Supplier<String>() {
+                        public String get() {
+                           int load = loads.incrementAndGet();
+                           if (load > 1) {
+                              reloading.countDown();
+                              Uninterruptibles.awaitUninterruptibly(release, 5, TimeUnit.SECONDS);
+                           }
+                           return "foo" + load;
+                        }
+                     }, 60, TimeUnit.SECONDS, refreshAhead);
+
+         assertEquals(supplier.get(), "foo1");
+         Uninterruptibles.sleepUninterruptibly(1100, TimeUnit.MILLISECONDS);
+
+         // the caller that finds the value due is not the one reloading it
+         Stopwatch stopwatch = Stopwatch.createStarted();
+         assertEquals(supplier.get(), "foo1");
+         assertTrue(stopwatch.elapsed(TimeUnit.SECONDS) < 1, stopwatch.toString());
+         assertTrue(reloading.await(5, TimeUnit.SECONDS));
+
+         release.countDown();
+         userExecutor.shutdown();
+         assertTrue(userExecutor.awaitTermination(5, TimeUnit.SECONDS));
+         assertEquals(supplier.get(), "foo2");
+      } finally {
+         release.countDown();
+         userExecutor.shutdownNow();
+      }
+   }
+
+   @Test
+   public void testRefreshAheadIsDisabledWhenNotShorterThanTheExpiration() {
+      RefreshAhead refreshAhead = new RefreshAhead(60, 0, null, null, new Random());
+      assertEquals(refreshAhead.refreshNanos(TimeUnit.SECONDS.toNanos(60)), 0);
+      assertEquals(refreshAhead.refreshNanos(TimeUnit.SECONDS.toNanos(61)), TimeUnit.SECONDS.toNanos(60));
+      assertEquals(RefreshAhead.DISABLED.refreshNanos(TimeUnit.SECONDS.toNanos(61)), 0);
+   }
+
+   @Test
+   public void testRefreshAheadJitterShortensTheRefresh() {
+      RefreshAhead refreshAhead = new RefreshAhead(100, 0.2, null, null, new Random(42));
+      long refresh = TimeUnit.SECONDS.toNanos(100);
+      for (int i = 0; i < 100; i++) {
+         long refreshNanos = refreshAhead.refreshNanos(TimeUnit.SECONDS.toNanos(200));
+         assertTrue(refreshNanos > refresh * 0.8 && refreshNanos <= refresh, String.valueOf(refreshNanos));
+      }
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testRefreshAheadJitterMustBeAFraction() {
+      new RefreshAhead(100, 1.5, null, null, new Random());
+   }
+
    static class ValueLoadedEventHandler implements ValueLoadedCallback<String>{
       AtomicInteger count = new AtomicInteger(0);
 
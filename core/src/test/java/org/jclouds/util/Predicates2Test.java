@@ -19,6 +19,8 @@ package org.jclouds.util;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.jclouds.util.Predicates2.retry;
+import static org.jclouds.util.Predicates2.retryAsync;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
@@ -26,9 +28,12 @@ import static org.testng.Assert.fail;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeoutException;
 
 import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -36,6 +41,7 @@ import com.google.common.base.Predicate;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
 
 @Test(groups = "unit", singleThreaded = true)
 public class Predicates2Test {
@@ -46,10 +52,17 @@ public class Predicates2Test {
    public static final int EARLY_RETURN_GRACE = 10;
 
    private Stopwatch stopwatch;
+   private ScheduledExecutorService scheduler;
 
    @BeforeMethod
    public void setUp() {
       stopwatch = Stopwatch.createUnstarted();
+      scheduler = Executors.newSingleThreadScheduledExecutor();
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      scheduler.shutdownNow();
    }
    
    @Test
@@ -162,6 +175,73 @@ public class Predicates2Test {
       assertCallTimes(rawPredicate.callTimes, 0, 1000, 2000);
    }
    
+   @Test
+   void testRetryAsyncThirdTimeTrue() throws Exception {
+      // maxWait=400ms; period=100ms; maxPeriod defaults to 1000ms
+      // will call at 0, 100, 100+(100*1.5)
+      RepeatedAttemptsPredicate rawPredicate = new RepeatedAttemptsPredicate(3);
+
+      stopwatch.start();
+      ListenableFuture<Boolean> result = retryAsync(rawPredicate, "", 400, 100, 1000, scheduler);
+      assertOrdered(0, stopwatch.elapsed(MILLISECONDS), 0 + SLOW_BUILD_SERVER_GRACE);
+      assertTrue(result.get());
+      long duration = stopwatch.elapsed(MILLISECONDS);
+
+      assertOrdered(250 - EARLY_RETURN_GRACE, duration, 250 + SLOW_BUILD_SERVER_GRACE);
+      assertCallTimes(rawPredicate.callTimes, 0, 100, 100 + 150);
+   }
+
+   @Test
+   void testRetryAsyncAlwaysFalse() throws Exception {
+      // will call at 0, 100, 100+(100*1.5), 300
+      RepeatedAttemptsPredicate rawPredicate = new RepeatedAttemptsPredicate(Integer.MAX_VALUE);
+
+      stopwatch.start();
+      assertFalse(retryAsync(rawPredicate, "", 300, 100, 1000, scheduler).get());
+      long duration = stopwatch.elapsed(MILLISECONDS);
+
+      assertOrdered(300 - EARLY_RETURN_GRACE, duration, 300 + SLOW_BUILD_SERVER_GRACE);
+      assertCallTimes(rawPredicate.callTimes, 0, 100, 100 + 150, 300);
+   }
+
+   @Test
+   void testRetryAsyncReturnsFalseOnIllegalStateException() throws Exception {
+      assertFalse(retryAsync(failingPredicate(new IllegalStateException()), "", 3000, 100, 1000, scheduler).get());
+   }
+
+   @Test
+   void testRetryAsyncFailsOnException() throws Exception {
+      RuntimeException failure = new RuntimeException(new Exception("Simulating exception"));
+      try {
+         retryAsync(failingPredicate(failure), "", 3000, 100, 1000, scheduler).get();
+         fail("expected the predicate to fail");
+      } catch (ExecutionException e) {
+         assertEquals(e.getCause(), failure);
+      }
+   }
+
+   @Test
+   void testRetryAsyncStopsWhenCancelled() throws Exception {
+      RepeatedAttemptsPredicate rawPredicate = new RepeatedAttemptsPredicate(Integer.MAX_VALUE);
+      ListenableFuture<Boolean> result = retryAsync(rawPredicate, "", 3000, 100, 1000, scheduler);
+
+      Thread.sleep(150);
+      result.cancel(false);
+      Thread.sleep(300);
+      synchronized (rawPredicate) {
+         assertEquals(rawPredicate.callTimes.size(), 2, "actual=" + rawPredicate.callTimes);
+      }
+   }
+
+   private static Predicate<String> failingPredicate(final RuntimeException failure) {
+      return new Predicate<String>() {
+         @Override
+         public boolean apply(String input) {
+            throw failure;
+         }
+      };
+   }
+
    public static class RepeatedAttemptsPredicate implements Predicate<String> {
       final List<Long> callTimes = Lists.newArrayList();
       private final int succeedOnAttempt;
@@ -174,7 +254,7 @@ public class Predicates2Test {
          stopwatch.start();
       }
       @Override
-      public boolean apply(String input) {
+      public synchronized boolean apply(String input) {
          callTimes.add(stopwatch.elapsed(MILLISECONDS));
          return ++count == succeedOnAttempt;
       }
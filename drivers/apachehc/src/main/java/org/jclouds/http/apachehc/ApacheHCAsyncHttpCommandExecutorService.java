@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.apachehc;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static org.jclouds.Constants.PROPERTY_IDEMPOTENT_METHODS;
+import static org.jclouds.Constants.PROPERTY_USER_AGENT;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpUtils;
+import org.jclouds.http.IOExceptionRetryHandler;
+import org.jclouds.http.handlers.DelegatingErrorHandler;
+import org.jclouds.http.handlers.DelegatingRetryHandler;
+import org.jclouds.http.internal.HttpWire;
+import org.jclouds.io.ContentMetadataCodec;
+
+import com.google.common.annotations.Beta;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * An {@link ApacheHCHttpCommandExecutorService} that sends asynchronous requests with the non-blocking
+ * Apache HttpAsyncClient, so that they do not hold a thread while they wait for the response.
+ * Synchronous requests still use the blocking client.
+ * <p/>
+ * The asynchronous client reads the whole response body into memory before the response is
+ * returned, so asynchronous requests are not suited to large downloads.
+ */
+@Beta
+@Singleton
+public class ApacheHCAsyncHttpCommandExecutorService extends ApacheHCHttpCommandExecutorService {
+   private final HttpAsyncClient asyncClient;
+
+   @Inject
+   ApacheHCAsyncHttpCommandExecutorService(HttpUtils utils, ContentMetadataCodec contentMetadataCodec,
+         DelegatingRetryHandler retryHandler, IOExceptionRetryHandler ioRetryHandler,
+         DelegatingErrorHandler errorHandler, HttpWire wire, HttpClient client, RequestConfig requestConfig,
+         HttpAsyncClient asyncClient, @Named(PROPERTY_IDEMPOTENT_METHODS) String idempotentMethods,
+         @Named(PROPERTY_USER_AGENT) String userAgent) {
+      super(utils, contentMetadataCodec, retryHandler, ioRetryHandler, errorHandler, wire, client, requestConfig,
+            idempotentMethods, userAgent);
+      this.asyncClient = asyncClient;
+   }
+
+   @Override
+   protected ListenableFuture<HttpResponse> invokeAsync(final HttpUriRequest nativeRequest) {
+      final SettableFuture<HttpResponse> future = SettableFuture.create();
+      final Future<org.apache.http.HttpResponse> sent = asyncClient.execute(host(nativeRequest), nativeRequest,
+            new FutureCallback<org.apache.http.HttpResponse>() {
+               @Override
+               public void completed(org.apache.http.HttpResponse response) {
+                  try {
+                     future.set(toHttpResponse(nativeRequest, response));
+                  } catch (IOException e) {
+                     future.setException(e);
+                  } catch (RuntimeException e) {
+                     future.setException(e);
+                  }
+               }
+
+               @Override
+               public void failed(Exception e) {
+                  future.setException(e);
+               }
+
+               @Override
+               public void cancelled() {
+                  future.cancel(false);
+               }
+            });
+      future.addListener(new Runnable() {
+         @Override
+         public void run() {
+            if (future.isCancelled()) {
+               sent.cancel(true);
+            }
+         }
+      }, directExecutor());
+      return future;
+   }
+}
@@ -32,6 +32,8 @@ import org.apache.http.HttpHeaders;
 import org.apache.http.HttpHost;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpResponse;
@@ -53,17 +55,21 @@ import com.google.common.collect.Multimap;
  */
 public class ApacheHCHttpCommandExecutorService extends BaseHttpCommandExecutorService<HttpUriRequest> {
    private final HttpClient client;
+   private final RequestConfig requestConfig;
+   private final RequestConfig expectContinueConfig;
    private final ApacheHCUtils apacheHCUtils;
    private final String userAgent;
 
    @Inject
    ApacheHCHttpCommandExecutorService(HttpUtils utils, ContentMetadataCodec contentMetadataCodec,
          DelegatingRetryHandler retryHandler, IOExceptionRetryHandler ioRetryHandler,
-         DelegatingErrorHandler errorHandler, HttpWire wire, HttpClient client,
+         DelegatingErrorHandler errorHandler, HttpWire wire, HttpClient client, RequestConfig requestConfig,
          @Named(PROPERTY_IDEMPOTENT_METHODS) String idempotentMethods,
          @Named(PROPERTY_USER_AGENT) String userAgent) {
       super(utils, contentMetadataCodec, retryHandler, ioRetryHandler, errorHandler, wire, idempotentMethods);
       this.client = client;
+      this.requestConfig = requestConfig;
+      this.expectContinueConfig = RequestConfig.copy(requestConfig).setExpectContinueEnabled(true).build();
       this.apacheHCUtils = new ApacheHCUtils(contentMetadataCodec);
       this.userAgent = userAgent;
    }
@@ -80,13 +86,23 @@ public class ApacheHCHttpCommandExecutorService extends BaseHttpCommandExecutorS
          returnVal.addHeader(HttpHeaders.USER_AGENT, userAgent);
       }
 
+      // a request without its own config would fall back to the legacy parameters, and so lose the
+      // timeouts of the client
+      if (returnVal instanceof HttpRequestBase) {
+         ((HttpRequestBase) returnVal).setConfig("PUT".equals(request.getMethod()) ? expectContinueConfig
+               : requestConfig);
+      }
+
       return returnVal;
    }
 
    @Override
    protected HttpResponse invoke(HttpUriRequest nativeRequest) throws IOException {
-      org.apache.http.HttpResponse apacheResponse = executeRequest(nativeRequest);
+      return toHttpResponse(nativeRequest, executeRequest(nativeRequest));
+   }
 
+   HttpResponse toHttpResponse(HttpUriRequest nativeRequest, org.apache.http.HttpResponse apacheResponse)
+         throws IOException {
       Payload payload = null;
       if (apacheResponse.getEntity() != null)
          try {
@@ -114,12 +130,15 @@ public class ApacheHCHttpCommandExecutorService extends BaseHttpCommandExecutorS
 
    private org.apache.http.HttpResponse executeRequest(HttpUriRequest nativeRequest) throws IOException,
          ClientProtocolException {
-      URI endpoint = URI.create(nativeRequest.getRequestLine().getUri());
-      HttpHost host = new HttpHost(endpoint.getHost(), endpoint.getPort(), endpoint.getScheme());
-      org.apache.http.HttpResponse nativeResponse = client.execute(host, nativeRequest);
+      org.apache.http.HttpResponse nativeResponse = client.execute(host(nativeRequest), nativeRequest);
       return nativeResponse;
    }
 
+   static HttpHost host(HttpUriRequest nativeRequest) {
+      URI endpoint = URI.create(nativeRequest.getRequestLine().getUri());
+      return new HttpHost(endpoint.getHost(), endpoint.getPort(), endpoint.getScheme());
+   }
+
    @Override
    protected void cleanup(HttpUriRequest nativeResponse) {
       // No cleanup necessary
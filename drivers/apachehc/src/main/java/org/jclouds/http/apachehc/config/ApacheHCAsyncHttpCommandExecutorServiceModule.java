@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.apachehc.config;
+
+import java.net.ProxySelector;
+
+import javax.inject.Singleton;
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ssl.X509HostnameVerifier;
+import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.HttpUtils;
+import org.jclouds.http.apachehc.ApacheHCAsyncHttpCommandExecutorService;
+import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
+import org.jclouds.lifecycle.Closer;
+import org.jclouds.proxy.ProxyConfig;
+
+import com.google.common.annotations.Beta;
+import com.google.inject.Provides;
+import com.google.inject.Scopes;
+
+/**
+ * Configures {@link ApacheHCAsyncHttpCommandExecutorService}. Requires
+ * {@code org.apache.httpcomponents:httpasyncclient} on the classpath.
+ * <p/>
+ * The non-blocking client has a connection pool of its own, sized like the one of the blocking
+ * client.
+ */
+@Beta
+@ConfiguresHttpCommandExecutorService
+public class ApacheHCAsyncHttpCommandExecutorServiceModule extends ApacheHCHttpCommandExecutorServiceModule {
+
+   @Provides
+   @Singleton
+   final HttpAsyncClient newHttpAsyncClient(HttpUtils utils, ProxyConfig config, RequestConfig requestConfig,
+            X509HostnameVerifier verifier, SSLContext context, Closer closer) {
+      HttpAsyncClientBuilder builder = HttpAsyncClients.custom().setSSLContext(context).setHostnameVerifier(verifier)
+               .setDefaultRequestConfig(requestConfig);
+      if (utils.getMaxConnections() > 0)
+         builder.setMaxConnTotal(utils.getMaxConnections());
+      if (utils.getMaxConnectionsPerHost() > 0)
+         builder.setMaxConnPerRoute(utils.getMaxConnectionsPerHost());
+      else if (utils.getMaxConnections() > 0)
+         builder.setMaxConnPerRoute(utils.getMaxConnections());
+      if (config.useSystem()) {
+         builder.setRoutePlanner(new SystemDefaultRoutePlanner(ProxySelector.getDefault()));
+      }
+      CloseableHttpAsyncClient client = builder.build();
+      client.start();
+      closer.addToClose(client);
+      return client;
+   }
+
+   @Override
+   protected void bindClient() {
+      bind(HttpCommandExecutorService.class).to(ApacheHCAsyncHttpCommandExecutorService.class).in(Scopes.SINGLETON);
+   }
+}
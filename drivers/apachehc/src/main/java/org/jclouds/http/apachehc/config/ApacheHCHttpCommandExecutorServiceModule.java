@@ -21,30 +21,29 @@ import java.io.IOException;
 import java.net.ProxySelector;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.net.ssl.SSLContext;
 
-import org.apache.http.HttpVersion;
 import org.apache.http.client.HttpClient;
-import org.apache.http.conn.ClientConnectionManager;
-import org.apache.http.conn.params.ConnManagerParams;
-import org.apache.http.conn.params.ConnPerRoute;
-import org.apache.http.conn.params.ConnPerRouteBean;
-import org.apache.http.conn.scheme.PlainSocketFactory;
-import org.apache.http.conn.scheme.Scheme;
-import org.apache.http.conn.scheme.SchemeRegistry;
-import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.X509HostnameVerifier;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.apache.http.impl.conn.ProxySelectorRoutePlanner;
-import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
-import org.apache.http.params.BasicHttpParams;
-import org.apache.http.params.CoreConnectionPNames;
-import org.apache.http.params.CoreProtocolPNames;
-import org.apache.http.params.HttpParams;
-import org.apache.http.params.HttpProtocolParams;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
 import org.jclouds.http.HttpCommandExecutorService;
 import org.jclouds.http.HttpUtils;
 import org.jclouds.http.apachehc.ApacheHCHttpCommandExecutorService;
@@ -54,7 +53,9 @@ import org.jclouds.lifecycle.Closer;
 import org.jclouds.proxy.ProxyConfig;
 
 import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
 
@@ -74,37 +75,26 @@ public class ApacheHCHttpCommandExecutorServiceModule extends AbstractModule {
 
    @Singleton
    @Provides
-   final HttpParams newBasicHttpParams(HttpUtils utils) {
-      BasicHttpParams params = new BasicHttpParams();
-
-      params.setIntParameter(CoreConnectionPNames.SOCKET_BUFFER_SIZE, 8 * 1024).setBooleanParameter(
-               CoreConnectionPNames.STALE_CONNECTION_CHECK, true).setBooleanParameter(CoreConnectionPNames.TCP_NODELAY,
-               true).setParameter(CoreProtocolPNames.ORIGIN_SERVER, "jclouds/1.0");
+   final RequestConfig newRequestConfig(HttpUtils utils) {
+      // validates pooled connections before reuse, as the server may have closed them
+      RequestConfig.Builder config = RequestConfig.custom().setStaleConnectionCheckEnabled(true);
 
       if (utils.getConnectionTimeout() > 0) {
-         params.setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, utils.getConnectionTimeout());
+         config.setConnectTimeout(utils.getConnectionTimeout());
+         config.setConnectionRequestTimeout(utils.getConnectionTimeout());
       }
 
       if (utils.getSocketOpenTimeout() > 0) {
-         params.setIntParameter(CoreConnectionPNames.SO_TIMEOUT, utils.getSocketOpenTimeout());
-      }
-
-      if (utils.getMaxConnections() > 0)
-         ConnManagerParams.setMaxTotalConnections(params, utils.getMaxConnections());
-
-      if (utils.getMaxConnectionsPerHost() > 0) {
-         ConnPerRoute connectionsPerRoute = new ConnPerRouteBean(utils.getMaxConnectionsPerHost());
-         ConnManagerParams.setMaxConnectionsPerRoute(params, connectionsPerRoute);
+         config.setSocketTimeout(utils.getSocketOpenTimeout());
       }
-      HttpProtocolParams.setVersion(params, HttpVersion.HTTP_1_1);
-      return params;
+      return config.build();
    }
 
    @Singleton
    @Provides
    final X509HostnameVerifier newHostnameVerifier(HttpUtils utils) {
-      return utils.relaxHostname() ? SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER
-               : SSLSocketFactory.STRICT_HOSTNAME_VERIFIER;
+      return utils.relaxHostname() ? SSLConnectionSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER
+               : SSLConnectionSocketFactory.STRICT_HOSTNAME_VERIFIER;
    }
 
    @Singleton
@@ -121,35 +111,41 @@ public class ApacheHCHttpCommandExecutorServiceModule extends AbstractModule {
 
    @Singleton
    @Provides
-   final ClientConnectionManager newClientConnectionManager(HttpParams params, X509HostnameVerifier verifier,
-            SSLContext context, Closer closer) throws NoSuchAlgorithmException, KeyManagementException {
-
-      SchemeRegistry schemeRegistry = new SchemeRegistry();
-      schemeRegistry.register(new Scheme("http", PlainSocketFactory.getSocketFactory(), 80));
-
-      SSLSocketFactory sf = new SSLSocketFactory(context);
-      sf.setHostnameVerifier(verifier);
-      schemeRegistry.register(new Scheme("https", sf, 443));
-
-      final ClientConnectionManager cm = new ThreadSafeClientConnManager(params, schemeRegistry);
-      closer.addToClose(new Closeable() {
-         @Override
-         public void close() throws IOException {
-            cm.shutdown();
-         }
-      });
+   final PoolingHttpClientConnectionManager newConnectionManager(HttpUtils utils, X509HostnameVerifier verifier,
+            SSLContext context, IdleConnectionEvictor evictor, Closer closer) {
+      Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory> create()
+               .register("http", PlainConnectionSocketFactory.getSocketFactory())
+               .register("https", new SSLConnectionSocketFactory(context, verifier)).build();
+
+      PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager(registry);
+      if (utils.getMaxConnections() > 0)
+         cm.setMaxTotal(utils.getMaxConnections());
+      // without a limit per host, one host may use all the connections of the context
+      cm.setDefaultMaxPerRoute(utils.getMaxConnectionsPerHost() > 0 ? utils.getMaxConnectionsPerHost()
+               : cm.getMaxTotal());
+      cm.setDefaultSocketConfig(SocketConfig.custom().setTcpNoDelay(true)
+               .setSoTimeout(Math.max(0, utils.getSocketOpenTimeout())).build());
+      cm.setDefaultConnectionConfig(ConnectionConfig.custom().setBufferSize(8 * 1024).build());
+
+      evictor.start(cm);
+      closer.addToClose(evictor);
       return cm;
    }
 
    @Provides
    @Singleton
-   final HttpClient newDefaultHttpClient(ProxyConfig config, BasicHttpParams params, ClientConnectionManager cm) {
-      DefaultHttpClient client = new DefaultHttpClient(cm, params);
+   final HttpClient newDefaultHttpClient(ProxyConfig config, RequestConfig requestConfig,
+            PoolingHttpClientConnectionManager cm, Closer closer) {
+      // payloads must reach jclouds as stored, so that their length, MD5 and Content-Encoding still match, and
+      // retries are left to the retry handlers of jclouds
+      HttpClientBuilder builder = HttpClients.custom().setConnectionManager(cm).setDefaultRequestConfig(requestConfig)
+               .disableContentCompression().disableCookieManagement().disableAutomaticRetries();
       if (config.useSystem()) {
-         ProxySelectorRoutePlanner routePlanner = new ProxySelectorRoutePlanner(client.getConnectionManager()
-                  .getSchemeRegistry(), ProxySelector.getDefault());
-         client.setRoutePlanner(routePlanner);
+         builder.setRoutePlanner(new SystemDefaultRoutePlanner(ProxySelector.getDefault()));
       }
+      CloseableHttpClient client = builder.build();
+      // also shuts the connection manager down
+      closer.addToClose(client);
       return client;
    }
 
@@ -157,4 +153,38 @@ public class ApacheHCHttpCommandExecutorServiceModule extends AbstractModule {
       bind(HttpCommandExecutorService.class).to(ApacheHCHttpCommandExecutorService.class).in(Scopes.SINGLETON);
    }
 
+   /**
+    * Closes the pooled connections that have been idle for longer than
+    * {@link ApacheHCProperties#IDLE_TIMEOUT}, and those whose keep-alive has expired, so that
+    * they are not found dead when a request leases them.
+    */
+   static final class IdleConnectionEvictor implements Closeable {
+      @Inject(optional = true)
+      @Named(ApacheHCProperties.IDLE_TIMEOUT)
+      private long idleTimeoutMillis = 60000;
+
+      private ScheduledExecutorService evictor;
+
+      synchronized void start(final PoolingHttpClientConnectionManager cm) {
+         if (idleTimeoutMillis <= 0 || evictor != null)
+            return;
+         evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                  .setNameFormat("apachehc idle connection evictor %d").build());
+         long period = Math.max(1000, idleTimeoutMillis / 2);
+         evictor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+               cm.closeExpiredConnections();
+               cm.closeIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+         }, period, period, TimeUnit.MILLISECONDS);
+      }
+
+      @Override
+      public synchronized void close() throws IOException {
+         if (evictor != null)
+            evictor.shutdownNow();
+      }
+   }
+
 }
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.apachehc.config;
+
+/**
+ * Configuration properties of the Apache HttpComponents driver. Its connection pool is otherwise
+ * sized from {@link org.jclouds.Constants#PROPERTY_MAX_CONNECTIONS_PER_CONTEXT} and
+ * {@link org.jclouds.Constants#PROPERTY_MAX_CONNECTIONS_PER_HOST}.
+ */
+public final class ApacheHCProperties {
+
+   /**
+    * Milliseconds a pooled connection may stay idle before a background thread closes it, along
+    * with connections whose keep-alive has expired. Defaults to 60000; zero disables eviction.
+    */
+   public static final String IDLE_TIMEOUT = "jclouds.apachehc.idle-timeout";
+
+   private ApacheHCProperties() {
+      throw new AssertionError("intentionally unimplemented");
+   }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.apachehc.config;
+
+import static org.jclouds.Constants.PROPERTY_MAX_CONNECTIONS_PER_CONTEXT;
+import static org.jclouds.Constants.PROPERTY_MAX_CONNECTIONS_PER_HOST;
+import static org.jclouds.io.ByteStreams2.toByteArrayAndClose;
+import static org.jclouds.util.Closeables2.closeQuietly;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.jclouds.ContextBuilder;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.IntegrationTestClient;
+import org.jclouds.providers.AnonymousProviderMetadata;
+import org.jclouds.rest.HttpClient;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+@Test(groups = "unit", testName = "ApacheHCHttpCommandExecutorServiceModuleTest")
+public class ApacheHCHttpCommandExecutorServiceModuleTest {
+
+   public void testPoolIsSizedFromTheConnectionLimits() {
+      PoolingHttpClientConnectionManager cm = connectionManager(50, 5);
+      assertEquals(cm.getMaxTotal(), 50);
+      assertEquals(cm.getDefaultMaxPerRoute(), 5);
+   }
+
+   public void testHostMayUseAllConnectionsWithoutLimitPerHost() {
+      PoolingHttpClientConnectionManager cm = connectionManager(30, 0);
+      assertEquals(cm.getMaxTotal(), 30);
+      assertEquals(cm.getDefaultMaxPerRoute(), 30);
+   }
+
+   public void testGzipEncodedResponseReachesCallerUnchanged() throws Exception {
+      byte[] gzipped = gzip("stored compressed");
+      MockWebServer server = new MockWebServer();
+      server.enqueue(new MockResponse().addHeader("Content-Encoding", "gzip").setBody(gzipped));
+      server.play();
+      Properties overrides = new Properties();
+      overrides.setProperty(ApacheHCProperties.IDLE_TIMEOUT, "0");
+      HttpClient client = ContextBuilder
+            .newBuilder(AnonymousProviderMetadata.forApiOnEndpoint(HttpClient.class, server.getUrl("/").toString()))
+            .modules(ImmutableSet.<Module> of(new ApacheHCHttpCommandExecutorServiceModule()))
+            .overrides(overrides).buildApi(HttpClient.class);
+      try {
+         HttpResponse response = client.invoke(HttpRequest.builder().method("GET")
+               .endpoint(server.getUrl("/").toURI()).build());
+         assertEquals(response.getPayload().getContentMetadata().getContentEncoding(), "gzip");
+         assertEquals(response.getPayload().getContentMetadata().getContentLength(), Long.valueOf(gzipped.length));
+         assertEquals(toByteArrayAndClose(response.getPayload().openStream()), gzipped);
+         assertNull(server.takeRequest().getHeader("Accept-Encoding"));
+      } finally {
+         closeQuietly(client);
+         server.shutdown();
+      }
+   }
+
+   private static byte[] gzip(String content) throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      GZIPOutputStream out = new GZIPOutputStream(bytes);
+      out.write(content.getBytes("UTF-8"));
+      out.close();
+      return bytes.toByteArray();
+   }
+
+   private static PoolingHttpClientConnectionManager connectionManager(int maxPerContext, int maxPerHost) {
+      Properties overrides = new Properties();
+      overrides.setProperty(PROPERTY_MAX_CONNECTIONS_PER_CONTEXT, maxPerContext + "");
+      overrides.setProperty(PROPERTY_MAX_CONNECTIONS_PER_HOST, maxPerHost + "");
+      overrides.setProperty(ApacheHCProperties.IDLE_TIMEOUT, "0");
+      Injector injector = ContextBuilder
+            .newBuilder(AnonymousProviderMetadata.forApiOnEndpoint(IntegrationTestClient.class, "http://localhost"))
+            .modules(ImmutableSet.<Module> of(new ApacheHCHttpCommandExecutorServiceModule()))
+            .overrides(overrides).buildInjector();
+      return injector.getInstance(PoolingHttpClientConnectionManager.class);
+   }
+}
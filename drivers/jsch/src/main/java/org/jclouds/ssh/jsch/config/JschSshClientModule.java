@@ -25,6 +25,7 @@ import org.jclouds.domain.LoginCredentials;
 import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
 import org.jclouds.proxy.ProxyConfig;
 import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.SshClientPool;
 import org.jclouds.ssh.config.ConfiguresSshClient;
 import org.jclouds.ssh.jsch.JschSshClient;
 
@@ -34,6 +35,7 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Scopes;
+import com.google.inject.name.Names;
 import com.jcraft.jsch.agentproxy.AgentProxyException;
 import com.jcraft.jsch.agentproxy.Connector;
 import com.jcraft.jsch.agentproxy.ConnectorFactory;
@@ -42,7 +44,9 @@ import com.jcraft.jsch.agentproxy.ConnectorFactory;
 public class JschSshClientModule extends AbstractModule {
 
    protected void configure() {
-      bind(SshClient.Factory.class).to(Factory.class).in(Scopes.SINGLETON);
+      bind(SshClient.Factory.class).annotatedWith(Names.named(SshClientPool.UNPOOLED)).to(Factory.class)
+            .in(Scopes.SINGLETON);
+      bind(SshClient.Factory.class).to(SshClientPool.class);
    }
 
    private static class Factory implements SshClient.Factory {
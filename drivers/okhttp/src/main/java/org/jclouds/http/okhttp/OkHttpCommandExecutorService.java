@@ -17,6 +17,7 @@
 package org.jclouds.http.okhttp;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static com.google.common.net.HttpHeaders.ACCEPT;
 import static com.google.common.net.HttpHeaders.USER_AGENT;
 import static org.jclouds.Constants.PROPERTY_IDEMPOTENT_METHODS;
@@ -48,9 +49,15 @@ import org.jclouds.io.MutableContentMetadata;
 import org.jclouds.io.Payload;
 
 import com.google.common.base.Function;
+import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableMultimap.Builder;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.inject.Inject;
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.ConnectionPool;
 import com.squareup.okhttp.Headers;
 import com.squareup.okhttp.MediaType;
 import com.squareup.okhttp.OkHttpClient;
@@ -147,11 +154,51 @@ public final class OkHttpCommandExecutorService extends BaseHttpCommandExecutorS
 
    @Override
    protected HttpResponse invoke(Request nativeRequest) throws IOException, InterruptedException {
+      return toHttpResponse(newCall(nativeRequest).execute());
+   }
+
+   /**
+    * Enqueues the call on the OkHttp dispatcher, which bounds the calls in flight by
+    * {@link org.jclouds.Constants#PROPERTY_MAX_CONNECTIONS_PER_CONTEXT} and
+    * {@link org.jclouds.Constants#PROPERTY_MAX_CONNECTIONS_PER_HOST}.
+    */
+   @Override
+   protected ListenableFuture<HttpResponse> invokeAsync(Request nativeRequest) {
+      final SettableFuture<HttpResponse> future = SettableFuture.create();
+      final Call call = newCall(nativeRequest);
+      call.enqueue(new Callback() {
+         @Override
+         public void onFailure(Request request, IOException e) {
+            future.setException(e);
+         }
+
+         @Override
+         public void onResponse(Response response) throws IOException {
+            try {
+               future.set(toHttpResponse(response));
+            } catch (RuntimeException e) {
+               future.setException(e);
+            }
+         }
+      });
+      future.addListener(new Runnable() {
+         @Override
+         public void run() {
+            if (future.isCancelled()) {
+               call.cancel();
+            }
+         }
+      }, directExecutor());
+      return future;
+   }
+
+   private Call newCall(Request nativeRequest) {
       OkHttpClient requestScopedClient = globalClient.clone();
       requestScopedClient.setProxy(proxyForURI.apply(nativeRequest.uri()));
+      return requestScopedClient.newCall(nativeRequest);
+   }
 
-      Response response = requestScopedClient.newCall(nativeRequest).execute();
-
+   private HttpResponse toHttpResponse(Response response) {
       HttpResponse.Builder<?> builder = HttpResponse.builder();
       builder.statusCode(response.code());
       builder.message(response.message());
@@ -182,4 +229,51 @@ public final class OkHttpCommandExecutorService extends BaseHttpCommandExecutorS
 
    }
 
+   /**
+    * Connection statistics of the pool, as of when they were taken.
+    */
+   public static final class PoolStats {
+      private final int connections;
+      private final int httpConnections;
+
+      PoolStats(int connections, int httpConnections) {
+         this.connections = connections;
+         this.httpConnections = httpConnections;
+      }
+
+      /**
+       * @return connections in the pool, in use or idle
+       */
+      public int getConnections() {
+         return connections;
+      }
+
+      /**
+       * @return pooled connections that carry one request at a time
+       */
+      public int getHttpConnections() {
+         return httpConnections;
+      }
+
+      /**
+       * @return pooled HTTP/2 or SPDY connections, each of which multiplexes many requests
+       */
+      public int getMultiplexedConnections() {
+         return connections - httpConnections;
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper(this).add("connections", connections)
+               .add("httpConnections", httpConnections).add("multiplexedConnections", getMultiplexedConnections())
+               .toString();
+      }
+   }
+
+   public PoolStats getPoolStats() {
+      ConnectionPool pool = globalClient.getConnectionPool() != null ? globalClient.getConnectionPool()
+            : ConnectionPool.getDefault();
+      return new PoolStats(pool.getConnectionCount(), pool.getHttpConnectionCount());
+   }
+
 }
@@ -16,6 +16,11 @@
  */
 package org.jclouds.http.okhttp.config;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import javax.inject.Named;
@@ -29,12 +34,17 @@ import org.jclouds.http.config.SSLModule;
 import org.jclouds.http.okhttp.OkHttpClientSupplier;
 import org.jclouds.http.okhttp.OkHttpCommandExecutorService;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
 import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Scopes;
+import com.squareup.okhttp.ConnectionPool;
 import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Protocol;
 
 /**
  * Configures the {@link OkHttpCommandExecutorService}.
@@ -51,12 +61,30 @@ public class OkHttpCommandExecutorServiceModule extends AbstractModule {
       bind(OkHttpClient.class).toProvider(OkHttpClientProvider.class).in(Scopes.SINGLETON);
    }
 
+   /**
+    * Pools shared between contexts, keyed by their size and keep-alive.
+    */
+   private static final ConcurrentMap<String, ConnectionPool> SHARED_POOLS =
+         new ConcurrentHashMap<String, ConnectionPool>();
+
    private static final class OkHttpClientProvider implements Provider<OkHttpClient> {
       private final HostnameVerifier verifier;
       private final Supplier<SSLContext> untrustedSSLContextProvider;
       private final HttpUtils utils;
       private final OkHttpClientSupplier clientSupplier;
 
+      @Inject(optional = true)
+      @Named(OkHttpProperties.PROTOCOLS)
+      private String protocols;
+
+      @Inject(optional = true)
+      @Named(OkHttpProperties.KEEP_ALIVE)
+      private long keepAliveMillis = 300000;
+
+      @Inject(optional = true)
+      @Named(OkHttpProperties.SHARED_POOL)
+      private boolean sharedPool = false;
+
       @Inject
       OkHttpClientProvider(HttpUtils utils, @Named("untrusted") HostnameVerifier verifier,
             @Named("untrusted") Supplier<SSLContext> untrustedSSLContextProvider, OkHttpClientSupplier clientSupplier) {
@@ -82,9 +110,53 @@ public class OkHttpCommandExecutorServiceModule extends AbstractModule {
          if (utils.trustAllCerts()) {
             client.setSslSocketFactory(untrustedSSLContextProvider.get().getSocketFactory());
          }
+         // a client from a custom supplier may come with its own pool and protocols
+         if (client.getConnectionPool() == null) {
+            client.setConnectionPool(connectionPool());
+         }
+         if (protocols != null && client.getProtocols() == null) {
+            client.setProtocols(parseProtocols(protocols));
+         }
+         // the dispatcher only bounds asynchronous calls
+         if (utils.getMaxConnections() > 0) {
+            client.getDispatcher().setMaxRequests(utils.getMaxConnections());
+         }
+         if (utils.getMaxConnectionsPerHost() > 0) {
+            client.getDispatcher().setMaxRequestsPerHost(utils.getMaxConnectionsPerHost());
+         }
 
          return client;
       }
+
+      private ConnectionPool connectionPool() {
+         // OkHttp bounds the idle connections of the pool, not those in use
+         int maxIdle = utils.getMaxConnections() > 0 ? utils.getMaxConnections() : 5;
+         if (!sharedPool) {
+            return new ConnectionPool(maxIdle, keepAliveMillis);
+         }
+         String key = maxIdle + ":" + keepAliveMillis;
+         ConnectionPool pool = SHARED_POOLS.get(key);
+         if (pool == null) {
+            ConnectionPool created = new ConnectionPool(maxIdle, keepAliveMillis);
+            pool = SHARED_POOLS.putIfAbsent(key, created);
+            if (pool == null) {
+               pool = created;
+            }
+         }
+         return pool;
+      }
+   }
+
+   @VisibleForTesting
+   static List<Protocol> parseProtocols(String protocols) {
+      ImmutableList.Builder<Protocol> parsed = ImmutableList.builder();
+      for (String protocol : Splitter.on(',').trimResults().omitEmptyStrings().split(protocols)) {
+         parsed.add(Protocol.valueOf(protocol.toUpperCase()));
+      }
+      List<Protocol> result = parsed.build();
+      checkArgument(result.contains(Protocol.HTTP_1_1), "%s must include HTTP_1_1: %s", OkHttpProperties.PROTOCOLS,
+            protocols);
+      return result;
    }
 
 }
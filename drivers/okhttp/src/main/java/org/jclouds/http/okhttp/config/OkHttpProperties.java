@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.okhttp.config;
+
+/**
+ * Configuration properties of the OkHttp driver. The connection pool is otherwise sized from
+ * {@link org.jclouds.Constants#PROPERTY_MAX_CONNECTIONS_PER_CONTEXT}, and asynchronous requests are
+ * bounded by it and {@link org.jclouds.Constants#PROPERTY_MAX_CONNECTIONS_PER_HOST}.
+ */
+public final class OkHttpProperties {
+
+   /**
+    * Comma-separated names of the {@link com.squareup.okhttp.Protocol protocols} to negotiate, for
+    * example {@code HTTP_2,HTTP_1_1} to multiplex requests over a single connection to providers
+    * that support HTTP/2. {@code HTTP_1_1} must be included. Defaults to the protocols of OkHttp.
+    */
+   public static final String PROTOCOLS = "jclouds.okhttp.protocols";
+
+   /**
+    * Milliseconds an idle connection is kept in the pool. Defaults to 300000.
+    */
+   public static final String KEEP_ALIVE = "jclouds.okhttp.keep-alive";
+
+   /**
+    * Set to true to share the connection pool with other contexts that have the same pool
+    * settings, rather than giving each context a pool of its own. Defaults to false.
+    */
+   public static final String SHARED_POOL = "jclouds.okhttp.shared-pool";
+
+   private OkHttpProperties() {
+      throw new AssertionError("intentionally unimplemented");
+   }
+}
@@ -31,10 +31,15 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 
+import org.jclouds.ContextBuilder;
 import org.jclouds.http.BaseHttpCommandExecutorServiceIntegrationTest;
+import org.jclouds.http.HttpCommandExecutorService;
 import org.jclouds.http.HttpResponseException;
+import org.jclouds.http.IntegrationTestClient;
 import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
+import org.jclouds.http.okhttp.OkHttpCommandExecutorService.PoolStats;
 import org.jclouds.http.okhttp.config.OkHttpCommandExecutorServiceModule;
+import org.jclouds.providers.AnonymousProviderMetadata;
 import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.PATCH;
 import org.jclouds.rest.binders.BindToStringPayload;
@@ -42,7 +47,9 @@ import org.testng.annotations.Test;
 
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.AbstractModule;
+import com.google.inject.Injector;
 import com.google.inject.Module;
 import com.squareup.okhttp.ConnectionSpec;
 import com.squareup.okhttp.OkHttpClient;
@@ -230,6 +237,32 @@ public class OkHttpCommandExecutorServiceTest extends BaseHttpCommandExecutorSer
       }
    }
 
+   @Test
+   public void testReportsPooledConnections() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setBody("test"), new MockResponse().setBody("test"));
+      Properties props = new Properties();
+      addOverrideProperties(props);
+      Injector injector = ContextBuilder
+            .newBuilder(AnonymousProviderMetadata.forApiOnEndpoint(IntegrationTestClient.class,
+                  server.getUrl("/").toString()))
+            .modules(ImmutableSet.of(createConnectionModule())).overrides(props).buildInjector();
+      OkHttpCommandExecutorService executor = (OkHttpCommandExecutorService) injector
+            .getInstance(HttpCommandExecutorService.class);
+      IntegrationTestClient client = injector.getInstance(IntegrationTestClient.class);
+      try {
+         assertEquals(client.download(""), "test");
+         assertEquals(client.download(""), "test");
+
+         PoolStats stats = executor.getPoolStats();
+         assertEquals(stats.getConnections(), 1);
+         assertEquals(stats.getHttpConnections(), 1);
+         assertEquals(stats.getMultiplexedConnections(), 0);
+      } finally {
+         closeQuietly(client);
+         server.shutdown();
+      }
+   }
+
    @ConfiguresHttpCommandExecutorService
    private static final class ConnectionSpecModule extends AbstractModule {
       private final List<ConnectionSpec> connectionSpecs;
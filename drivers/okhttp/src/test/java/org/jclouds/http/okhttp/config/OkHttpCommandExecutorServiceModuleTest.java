@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.okhttp.config;
+
+import static org.jclouds.http.okhttp.config.OkHttpCommandExecutorServiceModule.parseProtocols;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.squareup.okhttp.Protocol;
+
+@Test(groups = "unit", testName = "OkHttpCommandExecutorServiceModuleTest")
+public class OkHttpCommandExecutorServiceModuleTest {
+
+   public void testParseProtocols() {
+      assertEquals(parseProtocols("HTTP_2, http_1_1"), ImmutableList.of(Protocol.HTTP_2, Protocol.HTTP_1_1));
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testProtocolsMustIncludeHttp11() {
+      parseProtocols("HTTP_2");
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testUnknownProtocol() {
+      parseProtocols("HTTP_1_1,QUIC");
+   }
+}
@@ -22,6 +22,7 @@ import org.jclouds.Constants;
 import org.jclouds.domain.LoginCredentials;
 import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
 import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.SshClientPool;
 import org.jclouds.ssh.config.ConfiguresSshClient;
 import org.jclouds.sshj.SshjSshClient;
 
@@ -31,6 +32,7 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Scopes;
+import com.google.inject.name.Names;
 import com.jcraft.jsch.agentproxy.AgentProxyException;
 import com.jcraft.jsch.agentproxy.Connector;
 import com.jcraft.jsch.agentproxy.ConnectorFactory;
@@ -39,7 +41,9 @@ import com.jcraft.jsch.agentproxy.ConnectorFactory;
 public class SshjSshClientModule extends AbstractModule {
 
    protected void configure() {
-      bind(SshClient.Factory.class).to(Factory.class).in(Scopes.SINGLETON);
+      bind(SshClient.Factory.class).annotatedWith(Names.named(SshClientPool.UNPOOLED)).to(Factory.class)
+            .in(Scopes.SINGLETON);
+      bind(SshClient.Factory.class).to(SshClientPool.class);
    }
 
    private static class Factory implements SshClient.Factory {